@@ -0,0 +1,16 @@
+package com.upgrad.quora.api.reactive;
+
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.autoconfigure.SpringBootApplication;
+
+/**
+ * Launches the reactive read API: the question, answer and user profile read endpoints of quora-api served by WebFlux
+ * over R2DBC, without the blocking JPA stack of quora-service. Listens on its own port so that it can run next to
+ * quora-api against the same database.
+ */
+@SpringBootApplication
+public class QuoraReactiveApiApplication {
+    public static void main(String[] args) {
+        SpringApplication.run(QuoraReactiveApiApplication.class, args);
+    }
+}
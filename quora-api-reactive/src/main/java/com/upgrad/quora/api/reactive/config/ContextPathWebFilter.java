@@ -0,0 +1,33 @@
+package com.upgrad.quora.api.reactive.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+import reactor.core.publisher.Mono;
+
+/**
+ * Serves the endpoints under the same /api context path as quora-api, which WebFlux in Spring Boot 2.0 has no
+ * property for, so that a client can switch between the two by changing the port only.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class ContextPathWebFilter implements WebFilter {
+
+    @Value("${quora.reactive.context-path:/api}")
+    private String contextPath;
+
+    @Override
+    public Mono<Void> filter(final ServerWebExchange exchange, final WebFilterChain chain) {
+        String path = exchange.getRequest().getURI().getRawPath();
+        if (!path.startsWith(contextPath + "/")) {
+            exchange.getResponse().setStatusCode(HttpStatus.NOT_FOUND);
+            return exchange.getResponse().setComplete();
+        }
+        return chain.filter(exchange.mutate().request(exchange.getRequest().mutate().contextPath(contextPath).build()).build());
+    }
+}
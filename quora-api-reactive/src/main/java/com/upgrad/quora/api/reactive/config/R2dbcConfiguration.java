@@ -0,0 +1,42 @@
+package com.upgrad.quora.api.reactive.config;
+
+import io.r2dbc.pool.ConnectionPool;
+import io.r2dbc.pool.ConnectionPoolConfiguration;
+import io.r2dbc.postgresql.PostgresqlConnectionConfiguration;
+import io.r2dbc.postgresql.PostgresqlConnectionFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+/**
+ * Pool of non-blocking Postgres connections. A request waiting for a row holds neither a thread nor, between two
+ * statements, a connection; the pool size only bounds the statements running at once.
+ */
+@Configuration
+public class R2dbcConfiguration {
+
+    @Bean(destroyMethod = "dispose")
+    public ConnectionPool connectionFactory(@Value("${quora.r2dbc.host:localhost}") final String host,
+                                            @Value("${quora.r2dbc.port:5432}") final int port,
+                                            @Value("${quora.r2dbc.database:quora}") final String database,
+                                            @Value("${quora.r2dbc.username:postgres}") final String username,
+                                            @Value("${quora.r2dbc.password:password}") final String password,
+                                            @Value("${quora.r2dbc.pool.initial-size:2}") final int initialSize,
+                                            @Value("${quora.r2dbc.pool.max-size:10}") final int maxSize,
+                                            @Value("${quora.r2dbc.pool.max-acquire-time-ms:5000}") final long maxAcquireTimeMs) {
+        PostgresqlConnectionFactory connectionFactory = new PostgresqlConnectionFactory(PostgresqlConnectionConfiguration.builder()
+                .host(host)
+                .port(port)
+                .database(database)
+                .username(username)
+                .password(password)
+                .build());
+        return new ConnectionPool(ConnectionPoolConfiguration.builder(connectionFactory)
+                .initialSize(initialSize)
+                .maxSize(maxSize)
+                .maxAcquireTime(Duration.ofMillis(maxAcquireTimeMs))
+                .build());
+    }
+}
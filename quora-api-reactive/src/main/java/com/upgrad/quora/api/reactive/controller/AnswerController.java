@@ -0,0 +1,35 @@
+package com.upgrad.quora.api.reactive.controller;
+
+import com.upgrad.quora.api.model.AnswerDetailsResponse;
+import com.upgrad.quora.api.reactive.service.ReactiveReadService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestMethod;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Flux;
+
+@RestController
+public class AnswerController {
+
+    @Autowired
+    private ReactiveReadService readService;
+
+    /**
+     * Returns all answers to a question, as a JSON array or, to clients accepting application/stream+json, as one JSON
+     * document per answer written as the rows arrive, at the pace the client reads them.
+     * @param questionId uuid of the question
+     * @param accessToken access token of the signed in user
+     * @return Flux<AnswerDetailsResponse>, failed with AuthorizationFailedException or InvalidQuestionException
+     */
+    @RequestMapping(method = RequestMethod.GET, path = "/answer/all/{questionId}", produces = {MediaType.APPLICATION_JSON_UTF8_VALUE, MediaType.APPLICATION_STREAM_JSON_VALUE})
+    public Flux<AnswerDetailsResponse> getAllAnswersToQuestion(@PathVariable("questionId") final String questionId, @RequestHeader(value = "authorization", required = false) final String accessToken) {
+        return readService.getAllAnswersToQuestion(questionId, accessToken)
+                .map(answerRecord -> new AnswerDetailsResponse()
+                        .id(answerRecord.getUuid())
+                        .questionContent(answerRecord.getQuestionContent())
+                        .answerContent(answerRecord.getAnswer()));
+    }
+}
@@ -0,0 +1,44 @@
+package com.upgrad.quora.api.reactive.controller;
+
+import com.upgrad.quora.api.model.UserDetailsResponse;
+import com.upgrad.quora.api.reactive.service.ReactiveReadService;
+import com.upgrad.quora.service.record.UserRecord;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestMethod;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Mono;
+
+@RestController
+public class CommonController {
+
+    @Autowired
+    private ReactiveReadService readService;
+
+    /**
+     * This endpoint is used to get the details of any user.
+     * @param accessToken access token of the signed in user
+     * @param userId uuid of the user
+     * @return Mono<UserDetailsResponse>, failed with AuthorizationFailedException or UserNotFoundException
+     */
+    @RequestMapping(method = RequestMethod.GET, path = "/userprofile/{userId}", produces = MediaType.APPLICATION_JSON_UTF8_VALUE)
+    public Mono<UserDetailsResponse> getProfile(@RequestHeader(value = "authorization", required = false) final String accessToken, @PathVariable("userId") final String userId) {
+        return readService.getUserProfile(accessToken, userId).map(this::toUserDetailsResponse);
+    }
+
+    private UserDetailsResponse toUserDetailsResponse(final UserRecord userRecord) {
+        UserDetailsResponse userDetailsResponse = new UserDetailsResponse();
+        userDetailsResponse.setFirstName(userRecord.getFirstName());
+        userDetailsResponse.setLastName(userRecord.getLastName());
+        userDetailsResponse.setUserName(userRecord.getUserName());
+        userDetailsResponse.setEmailAddress(userRecord.getEmail());
+        userDetailsResponse.setDob(userRecord.getDob());
+        userDetailsResponse.setAboutMe(userRecord.getAboutMe());
+        userDetailsResponse.setContactNumber(userRecord.getContactNumber());
+        userDetailsResponse.setCountry(userRecord.getCountry());
+        return userDetailsResponse;
+    }
+}
@@ -0,0 +1,31 @@
+package com.upgrad.quora.api.reactive.controller;
+
+import com.upgrad.quora.api.model.QuestionDetailsResponse;
+import com.upgrad.quora.api.reactive.service.ReactiveReadService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestMethod;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Flux;
+
+@RestController
+@RequestMapping("/question")
+public class QuestionController {
+
+    @Autowired
+    private ReactiveReadService readService;
+
+    /**
+     * Returns all questions, as a JSON array or, to clients accepting application/stream+json, as one JSON document
+     * per question written as the rows arrive, at the pace the client reads them.
+     * @param authorization access token of the signed in user
+     * @return Flux<QuestionDetailsResponse>, failed with AuthorizationFailedException if the user is not signed in
+     */
+    @RequestMapping(method = RequestMethod.GET, path = "/all", produces = {MediaType.APPLICATION_JSON_UTF8_VALUE, MediaType.APPLICATION_STREAM_JSON_VALUE})
+    public Flux<QuestionDetailsResponse> getAll(@RequestHeader(value = "authorization", required = false) final String authorization) {
+        return readService.getAllQuestions(authorization)
+                .map(questionRecord -> new QuestionDetailsResponse().id(questionRecord.getUuid()).content(questionRecord.getContent()));
+    }
+}
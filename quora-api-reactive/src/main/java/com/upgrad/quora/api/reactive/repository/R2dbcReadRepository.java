@@ -0,0 +1,110 @@
+package com.upgrad.quora.api.reactive.repository;
+
+import com.upgrad.quora.service.record.AnswerRecord;
+import com.upgrad.quora.service.record.QuestionRecord;
+import com.upgrad.quora.service.record.UserAuthRecord;
+import com.upgrad.quora.service.record.UserRecord;
+import io.r2dbc.spi.Connection;
+import io.r2dbc.spi.ConnectionFactory;
+import io.r2dbc.spi.Row;
+import io.r2dbc.spi.Statement;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.function.Function;
+
+/**
+ * ReactiveReadRepository on R2DBC, with the same SQL as the JdbcReadRepository of quora-service. Each lookup borrows
+ * a connection for one statement and returns it when the rows are consumed, the subscriber cancels or the statement
+ * fails. Lists are fetched fetch-size rows at a time and the next batch is only requested from Postgres once the
+ * subscriber asked for it, so a slow client holds back the query instead of the rows piling up in memory.
+ */
+@Repository
+public class R2dbcReadRepository implements ReactiveReadRepository {
+
+    private static final String USER_AUTH_BY_TOKEN =
+            "select ua.access_token, ua.expires_at, ua.logout_at, u.id, u.uuid, u.role"
+                    + " from user_auth ua join users u on u.id = ua.user_id where ua.access_token = $1";
+
+    private static final String ALL_QUESTIONS =
+            "select id, uuid, content, date, version, user_id from question where deleted_at is null order by id";
+
+    private static final String QUESTION_BY_UUID =
+            "select id, uuid, content, date, version, user_id from question where uuid = $1 and deleted_at is null";
+
+    private static final String ANSWERS_BY_QUESTION =
+            "select a.id, a.uuid, a.ans, a.date, a.version, a.user_id, q.content"
+                    + " from answer a join question q on q.id = a.question_id"
+                    + " where q.uuid = $1 and q.deleted_at is null and a.deleted_at is null order by a.date, a.id";
+
+    private static final String USER_BY_UUID =
+            "select uuid, firstname, lastname, username, email, country, aboutme, dob, contactnumber from users where uuid = $1";
+
+    private static final Function<Row, UserAuthRecord> USER_AUTH_MAPPER = row -> new UserAuthRecord(
+            row.get(0, String.class), toZonedDateTime(row.get(1, LocalDateTime.class)), toZonedDateTime(row.get(2, LocalDateTime.class)),
+            row.get(3, Integer.class), row.get(4, String.class), row.get(5, String.class));
+
+    private static final Function<Row, QuestionRecord> QUESTION_MAPPER = row -> new QuestionRecord(
+            row.get(0, Integer.class), row.get(1, String.class), row.get(2, String.class), toZonedDateTime(row.get(3, LocalDateTime.class)),
+            row.get(4, Long.class), row.get(5, Integer.class));
+
+    private static final Function<Row, AnswerRecord> ANSWER_MAPPER = row -> new AnswerRecord(
+            row.get(0, Integer.class), row.get(1, String.class), row.get(2, String.class), toZonedDateTime(row.get(3, LocalDateTime.class)),
+            row.get(4, Long.class), row.get(5, Integer.class), row.get(6, String.class));
+
+    private static final Function<Row, UserRecord> USER_MAPPER = row -> new UserRecord(
+            row.get(0, String.class), row.get(1, String.class), row.get(2, String.class), row.get(3, String.class),
+            row.get(4, String.class), row.get(5, String.class), row.get(6, String.class), row.get(7, String.class),
+            row.get(8, String.class));
+
+    @Autowired
+    private ConnectionFactory connectionFactory;
+
+    @Value("${quora.r2dbc.fetch-size:100}")
+    private int fetchSize;
+
+    @Override
+    public Mono<UserAuthRecord> getUserAuthByToken(final String accessToken) {
+        return query(USER_AUTH_BY_TOKEN, USER_AUTH_MAPPER, accessToken).next();
+    }
+
+    @Override
+    public Flux<QuestionRecord> getAllQuestions() {
+        return query(ALL_QUESTIONS, QUESTION_MAPPER);
+    }
+
+    @Override
+    public Mono<QuestionRecord> getQuestionByUuid(final String questionUuid) {
+        return query(QUESTION_BY_UUID, QUESTION_MAPPER, questionUuid).next();
+    }
+
+    @Override
+    public Flux<AnswerRecord> getAnswersByQuestion(final String questionUuid) {
+        return query(ANSWERS_BY_QUESTION, ANSWER_MAPPER, questionUuid);
+    }
+
+    @Override
+    public Mono<UserRecord> getUserByUuid(final String userUuid) {
+        return query(USER_BY_UUID, USER_MAPPER, userUuid).next();
+    }
+
+    private <T> Flux<T> query(final String sql, final Function<Row, T> mapper, final Object... parameters) {
+        return Flux.usingWhen(connectionFactory.create(), connection -> {
+            Statement statement = connection.createStatement(sql).fetchSize(fetchSize);
+            for (int i = 0; i < parameters.length; i++) {
+                statement.bind(i, parameters[i]);
+            }
+            return Flux.from(statement.execute()).concatMap(result -> result.map((row, metadata) -> mapper.apply(row)));
+        }, Connection::close).limitRate(fetchSize);
+    }
+
+    private static ZonedDateTime toZonedDateTime(final LocalDateTime localDateTime) {
+        return localDateTime == null ? null : localDateTime.atZone(ZoneId.systemDefault());
+    }
+}
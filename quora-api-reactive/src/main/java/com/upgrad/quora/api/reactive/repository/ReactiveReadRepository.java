@@ -0,0 +1,44 @@
+package com.upgrad.quora.api.reactive.repository;
+
+import com.upgrad.quora.service.record.AnswerRecord;
+import com.upgrad.quora.service.record.QuestionRecord;
+import com.upgrad.quora.service.record.UserAuthRecord;
+import com.upgrad.quora.service.record.UserRecord;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Non-blocking counterpart of the ReadRepository of quora-service, for the read endpoints of the reactive API.
+ * Lists are streamed row by row as the subscriber requests them.
+ */
+public interface ReactiveReadRepository {
+
+    /**
+     * @param accessToken
+     * @return the access token with its user, or empty if the token does not exist
+     */
+    Mono<UserAuthRecord> getUserAuthByToken(String accessToken);
+
+    /**
+     * @return all questions which are not deleted, in creation order
+     */
+    Flux<QuestionRecord> getAllQuestions();
+
+    /**
+     * @param questionUuid
+     * @return the question, or empty if it does not exist or is deleted
+     */
+    Mono<QuestionRecord> getQuestionByUuid(String questionUuid);
+
+    /**
+     * @param questionUuid
+     * @return answers to the question which are not deleted, oldest first, each with the content of the question
+     */
+    Flux<AnswerRecord> getAnswersByQuestion(String questionUuid);
+
+    /**
+     * @param userUuid
+     * @return the user, or empty if the user does not exist
+     */
+    Mono<UserRecord> getUserByUuid(String userUuid);
+}
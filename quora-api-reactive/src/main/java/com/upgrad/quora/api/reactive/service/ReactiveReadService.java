@@ -0,0 +1,68 @@
+package com.upgrad.quora.api.reactive.service;
+
+import com.upgrad.quora.api.reactive.repository.ReactiveReadRepository;
+import com.upgrad.quora.service.exception.AuthorizationFailedException;
+import com.upgrad.quora.service.exception.InvalidQuestionException;
+import com.upgrad.quora.service.exception.UserNotFoundException;
+import com.upgrad.quora.service.record.AnswerRecord;
+import com.upgrad.quora.service.record.QuestionRecord;
+import com.upgrad.quora.service.record.UserAuthRecord;
+import com.upgrad.quora.service.record.UserRecord;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * The read use cases of QuestionBusinessService, AnswerService and UserCommonService as reactive pipelines, with the
+ * same checks and error codes. Errors are signalled through the returned publisher, before any row is emitted.
+ */
+@Service
+public class ReactiveReadService {
+
+    @Autowired
+    private ReactiveReadRepository readRepository;
+
+    /**
+     * @param accessToken access token of the signed in user
+     * @return all questions, failed with AuthorizationFailedException if the user is not signed in
+     */
+    public Flux<QuestionRecord> getAllQuestions(final String accessToken) {
+        return authorize(accessToken, "User is signed out.Sign in first to get all questions")
+                .thenMany(readRepository.getAllQuestions());
+    }
+
+    /**
+     * @param questionId uuid of the question
+     * @param accessToken access token of the signed in user
+     * @return answers to the question, failed with AuthorizationFailedException or InvalidQuestionException
+     */
+    public Flux<AnswerRecord> getAllAnswersToQuestion(final String questionId, final String accessToken) {
+        return authorize(accessToken, "User is signed out.Sign in first to get the answers")
+                .then(readRepository.getQuestionByUuid(questionId))
+                .switchIfEmpty(Mono.defer(() -> Mono.error(new InvalidQuestionException("QUES-001", "The question with entered uuid whose details are to be seen does not exist"))))
+                .thenMany(readRepository.getAnswersByQuestion(questionId));
+    }
+
+    /**
+     * @param accessToken access token of the signed in user
+     * @param userId uuid of the user
+     * @return the user, failed with AuthorizationFailedException or UserNotFoundException
+     */
+    public Mono<UserRecord> getUserProfile(final String accessToken, final String userId) {
+        return authorize(accessToken, "User is signed out.Sign in first to get user details")
+                .then(readRepository.getUserByUuid(userId))
+                .switchIfEmpty(Mono.defer(() -> Mono.error(new UserNotFoundException("USR-001", "User with entered uuid does not exist"))));
+    }
+
+    private Mono<UserAuthRecord> authorize(final String accessToken, final String signedOutMessage) {
+        if (accessToken == null) {
+            return Mono.error(new AuthorizationFailedException("ATHR-001", "User has not signed in"));
+        }
+        return readRepository.getUserAuthByToken(accessToken)
+                .switchIfEmpty(Mono.defer(() -> Mono.error(new AuthorizationFailedException("ATHR-001", "User has not signed in"))))
+                .flatMap(userAuthRecord -> userAuthRecord.getLogoutAt() != null
+                        ? Mono.error(new AuthorizationFailedException("ATHR-002", signedOutMessage))
+                        : Mono.just(userAuthRecord));
+    }
+}
@@ -0,0 +1,105 @@
+package com.upgrad.quora.api.reactive.controller;
+
+import com.upgrad.quora.api.model.QuestionDetailsResponse;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.reactive.AutoConfigureWebTestClient;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+@RunWith(SpringRunner.class)
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.MOCK)
+@AutoConfigureWebTestClient
+public class ReadControllerTest {
+
+    @Autowired
+    private WebTestClient client;
+
+    //This test case passes when you get all questions as a JSON array with the access token of a signed in user.
+    @Test
+    public void getAllQuestions() {
+        client.get().uri("/api/question/all").header("authorization", "database_accesstoken")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody().jsonPath("$[?(@.id == 'database_question_uuid')].content").isNotEmpty();
+    }
+
+    //This test case passes when you stream all questions, one JSON document per question.
+    @Test
+    public void streamAllQuestions() {
+        client.get().uri("/api/question/all").header("authorization", "database_accesstoken").accept(MediaType.APPLICATION_STREAM_JSON)
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().contentTypeCompatibleWith(MediaType.APPLICATION_STREAM_JSON)
+                .expectBodyList(QuestionDetailsResponse.class).consumeWith(result -> {
+                    if (result.getResponseBody().stream().noneMatch(question -> "database_question_uuid".equals(question.getId()))) {
+                        throw new AssertionError("database_question_uuid was not streamed");
+                    }
+                });
+    }
+
+    //This test case passes when you try to get all questions with the access token of a signed out user.
+    @Test
+    public void getAllQuestionsWithSignedOutUser() {
+        client.get().uri("/api/question/all").header("authorization", "database_accesstoken3")
+                .exchange()
+                .expectStatus().isForbidden()
+                .expectBody().jsonPath("code").isEqualTo("ATHR-002");
+    }
+
+    //This test case passes when you try to get all questions without an access token.
+    @Test
+    public void getAllQuestionsWithoutAccessToken() {
+        client.get().uri("/api/question/all")
+                .exchange()
+                .expectStatus().isForbidden()
+                .expectBody().jsonPath("code").isEqualTo("ATHR-001");
+    }
+
+    //This test case passes when you get the answers to an existing question.
+    @Test
+    public void getAllAnswersToQuestion() {
+        client.get().uri("/api/answer/all/database_question_uuid").header("authorization", "database_accesstoken")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody().jsonPath("$[?(@.id == 'database_answer_uuid')].answerContent").isNotEmpty();
+    }
+
+    //This test case passes when you try to get the answers to a question which does not exist in the database.
+    @Test
+    public void getAllAnswersToNonExistingQuestion() {
+        client.get().uri("/api/answer/all/non_existing_question_uuid").header("authorization", "database_accesstoken")
+                .exchange()
+                .expectStatus().isNotFound()
+                .expectBody().jsonPath("code").isEqualTo("QUES-001");
+    }
+
+    //This test case passes when you get the details of an existing user.
+    @Test
+    public void details() {
+        client.get().uri("/api/userprofile/database_uuid1").header("authorization", "database_accesstoken")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody().jsonPath("user_name").isNotEmpty();
+    }
+
+    //This test case passes when you try to get the details of the user which does not exist in the database.
+    @Test
+    public void detailsOfNonExistingUser() {
+        client.get().uri("/api/userprofile/non_existing_user").header("authorization", "database_accesstoken")
+                .exchange()
+                .expectStatus().isNotFound()
+                .expectBody().jsonPath("code").isEqualTo("USR-001");
+    }
+
+    //This test case passes when you request an endpoint outside of the /api context path.
+    @Test
+    public void outsideOfContextPath() {
+        client.get().uri("/question/all").header("authorization", "database_accesstoken")
+                .exchange()
+                .expectStatus().isNotFound();
+    }
+}
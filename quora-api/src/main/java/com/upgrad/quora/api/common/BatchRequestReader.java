@@ -0,0 +1,55 @@
+package com.upgrad.quora.api.common;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Reads the JSON array sent to a batch endpoint one element at a time, and stops after one element more than the
+ * batch may hold. The service still rejects the batch as too large, after checking the token, but an oversized body
+ * is neither parsed to its end nor held in memory. Malformed bodies are reported like those of a @RequestBody.
+ */
+@Component
+public class BatchRequestReader {
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    /**
+     * @param body     request body holding a JSON array
+     * @param itemType type of the array elements
+     * @param maxItems number of elements the batch may hold
+     * @return the elements, at most maxItems + 1
+     */
+    public <T> List<T> read(final InputStream body, final Class<T> itemType, final int maxItems) {
+        ObjectReader reader = objectMapper.readerFor(itemType);
+        try (JsonParser parser = objectMapper.getFactory().createParser(body)) {
+            if (parser.nextToken() != JsonToken.START_ARRAY) {
+                throw new HttpMessageNotReadableException("Required request body is not a JSON array");
+            }
+            List<T> items = new ArrayList<>();
+            JsonToken token;
+            while (items.size() <= maxItems && (token = parser.nextToken()) != JsonToken.END_ARRAY) {
+                if (token == null) {
+                    throw new HttpMessageNotReadableException("Unexpected end of the JSON array");
+                }
+                items.add(reader.readValue(parser));
+            }
+            return items;
+        } catch (JsonProcessingException e) {
+            throw new HttpMessageNotReadableException("JSON parse error: " + e.getOriginalMessage(), e);
+        } catch (IOException e) {
+            throw new HttpMessageNotReadableException("I/O error while reading input message", e);
+        }
+    }
+}
@@ -0,0 +1,141 @@
+package com.upgrad.quora.api.common;
+
+import com.upgrad.quora.api.config.CborConfiguration;
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Predicate;
+
+/**
+ * Converts between entity versions and the strong entity tags sent in the ETag / If-Match / If-None-Match headers.
+ * A strong entity tag identifies one representation (RFC 7232 section 2.1), so on endpoints served as JSON or CBOR
+ * the tag of the CBOR representation carries a suffix, e.g. "3" for JSON and "3-cbor" for CBOR.
+ */
+public final class EntityTags {
+
+    private static final String CBOR_SUFFIX = "-cbor";
+
+    private static final MediaType APPLICATION_CBOR = MediaType.valueOf(CborConfiguration.APPLICATION_CBOR_VALUE);
+
+    private EntityTags() {
+    }
+
+    /**
+     * @param version version of the entity
+     * @return quoted entity tag for the version, e.g. "3"
+     */
+    public static String of(final Long version) {
+        return "\"" + version + "\"";
+    }
+
+    /**
+     * @param version version of a collection
+     * @return quoted entity tag for the version
+     */
+    public static String of(final String version) {
+        return "\"" + version + "\"";
+    }
+
+    /**
+     * @param version version of a collection
+     * @param accept  value of the Accept header of an endpoint producing JSON and CBOR, may be null
+     * @return quoted entity tag for the version in the representation the client gets
+     */
+    public static String of(final String version, final String accept) {
+        return of(version + suffix(accept));
+    }
+
+    /**
+     * Parses the If-None-Match header of a conditional GET to an endpoint producing JSON and CBOR, only the tags of
+     * the representation the client gets match.
+     * @param ifNoneMatch value of the If-None-Match header, may be null
+     * @param accept      value of the Accept header, may be null
+     * @return tells whether a version is listed in the header
+     */
+    public static Predicate<String> listedIn(final String ifNoneMatch, final String accept) {
+        String suffix = suffix(accept);
+        Predicate<String> listed = listedIn(ifNoneMatch);
+        return version -> listed.test(version + suffix);
+    }
+
+    /**
+     * Mirrors the content negotiation of the endpoints producing JSON first and CBOR second: the most specific and
+     * preferred accepted type decides, and a wildcard also matching JSON gets JSON.
+     * @return the suffix of the entity tags of the negotiated representation
+     */
+    private static String suffix(final String accept) {
+        if (accept == null || accept.trim().isEmpty()) {
+            return "";
+        }
+        List<MediaType> mediaTypes;
+        try {
+            mediaTypes = MediaType.parseMediaTypes(accept);
+        } catch (InvalidMediaTypeException e) {
+            return "";
+        }
+        MediaType.sortBySpecificityAndQuality(mediaTypes);
+        for (MediaType mediaType : mediaTypes) {
+            if (mediaType.getQualityValue() == 0) {
+                continue;
+            }
+            if (mediaType.isCompatibleWith(MediaType.APPLICATION_JSON)) {
+                return "";
+            }
+            if (mediaType.isCompatibleWith(APPLICATION_CBOR)) {
+                return CBOR_SUFFIX;
+            }
+        }
+        return "";
+    }
+
+    /**
+     * Parses the If-None-Match header of a conditional GET.
+     * If-None-Match uses the weak comparison function, so W/ prefixes are ignored. "*" is not honoured, the client
+     * then simply gets the full response.
+     * @param ifNoneMatch value of the If-None-Match header, may be null
+     * @return tells whether a version is listed in the header
+     */
+    public static Predicate<String> listedIn(final String ifNoneMatch) {
+        if (ifNoneMatch == null || ifNoneMatch.trim().isEmpty()) {
+            return version -> false;
+        }
+        Set<String> versions = new HashSet<>();
+        for (String tag : ifNoneMatch.split(",")) {
+            tag = tag.trim();
+            if (tag.startsWith("W/")) {
+                tag = tag.substring(2);
+            }
+            if (tag.length() >= 2 && tag.startsWith("\"") && tag.endsWith("\"")) {
+                versions.add(tag.substring(1, tag.length() - 1));
+            }
+        }
+        return versions::contains;
+    }
+
+    /**
+     * Parses the If-Match header into the version the client expects to modify.
+     * @param ifMatch value of the If-Match header, may be null
+     * @return null if the header is absent or "*" (unconditional), -1 if it is weak or cannot be parsed so that it never matches
+     */
+    public static Long parseVersion(final String ifMatch) {
+        if (ifMatch == null || ifMatch.trim().isEmpty() || ifMatch.trim().equals("*")) {
+            return null;
+        }
+        String tag = ifMatch.trim();
+        // If-Match uses the strong comparison function, a weak tag never matches
+        if (tag.startsWith("W/")) {
+            return -1L;
+        }
+        if (tag.length() >= 2 && tag.startsWith("\"") && tag.endsWith("\"")) {
+            tag = tag.substring(1, tag.length() - 1);
+        }
+        try {
+            return Long.valueOf(tag);
+        } catch (NumberFormatException nfe) {
+            return -1L;
+        }
+    }
+}
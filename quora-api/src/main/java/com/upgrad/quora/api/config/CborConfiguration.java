@@ -0,0 +1,27 @@
+package com.upgrad.quora.api.config;
+
+import org.springframework.boot.autoconfigure.jackson.Jackson2ObjectMapperBuilderCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.util.List;
+
+/**
+ * Serves the generated api models as CBOR (RFC 7049) to clients sending "Accept: application/cbor", on the endpoints
+ * which list it in produces. The binary mapper gets the same customizers as the JSON one, so the property names and
+ * formats of the models are identical in both encodings.
+ */
+@Configuration
+public class CborConfiguration {
+
+    public static final String APPLICATION_CBOR_VALUE = "application/cbor";
+
+    @Bean
+    public MappingJackson2CborHttpMessageConverter cborHttpMessageConverter(final List<Jackson2ObjectMapperBuilderCustomizer> customizers) {
+        Jackson2ObjectMapperBuilder builder = Jackson2ObjectMapperBuilder.cbor();
+        customizers.forEach(customizer -> customizer.customize(builder));
+        return new MappingJackson2CborHttpMessageConverter(builder.build());
+    }
+}
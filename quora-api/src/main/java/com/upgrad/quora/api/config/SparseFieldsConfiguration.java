@@ -0,0 +1,70 @@
+package com.upgrad.quora.api.config;
+
+import com.fasterxml.jackson.annotation.JsonFilter;
+import com.fasterxml.jackson.databind.ser.impl.SimpleBeanPropertyFilter;
+import com.fasterxml.jackson.databind.ser.impl.SimpleFilterProvider;
+import com.upgrad.quora.api.model.AnswerDetailsResponse;
+import com.upgrad.quora.api.model.QuestionDetailsResponse;
+import com.upgrad.quora.api.model.UserDetailsResponse;
+import org.springframework.boot.autoconfigure.jackson.Jackson2ObjectMapperBuilderCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.json.MappingJacksonValue;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.http.server.ServletServerHttpRequest;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.servlet.mvc.method.annotation.AbstractMappingJacksonResponseBodyAdvice;
+
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Writes only the properties listed in the fields parameter of the read endpoints. The generated models which support
+ * sparse fieldsets get a property filter through a mix-in; it writes every property unless the request has a fields
+ * parameter. The controllers validate the parameter and pass it down, so the unlisted properties are not read from
+ * the database in the first place, this only keeps them out of the JSON and CBOR output instead of writing nulls.
+ */
+@Configuration
+public class SparseFieldsConfiguration {
+
+    public static final String FIELDS_PARAMETER = "fields";
+
+    private static final String FILTER_ID = "fields";
+
+    @JsonFilter(FILTER_ID)
+    private interface SparseFieldsMixIn {
+    }
+
+    @Bean
+    public Jackson2ObjectMapperBuilderCustomizer sparseFieldsCustomizer() {
+        return builder -> builder
+                .mixIn(QuestionDetailsResponse.class, SparseFieldsMixIn.class)
+                .mixIn(AnswerDetailsResponse.class, SparseFieldsMixIn.class)
+                .mixIn(UserDetailsResponse.class, SparseFieldsMixIn.class)
+                .filters(new SimpleFilterProvider().setDefaultFilter(SimpleBeanPropertyFilter.serializeAll()));
+    }
+
+    @ControllerAdvice
+    public static class SparseFieldsAdvice extends AbstractMappingJacksonResponseBodyAdvice {
+
+        @Override
+        protected void beforeBodyWriteInternal(final MappingJacksonValue bodyContainer, final MediaType contentType,
+                                               final MethodParameter returnType, final ServerHttpRequest request,
+                                               final ServerHttpResponse response) {
+            String fields = ((ServletServerHttpRequest) request).getServletRequest().getParameter(FIELDS_PARAMETER);
+            if (fields == null || fields.trim().isEmpty()) {
+                return;
+            }
+            Set<String> names = new HashSet<>();
+            for (String name : fields.split(",")) {
+                names.add(name.trim());
+            }
+            bodyContainer.setFilters(new SimpleFilterProvider()
+                    .setDefaultFilter(SimpleBeanPropertyFilter.serializeAll())
+                    .addFilter(FILTER_ID, SimpleBeanPropertyFilter.filterOutAllExcept(names)));
+        }
+    }
+}
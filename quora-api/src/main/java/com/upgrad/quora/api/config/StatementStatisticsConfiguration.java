@@ -0,0 +1,155 @@
+package com.upgrad.quora.api.config;
+
+import com.upgrad.quora.service.metrics.StatementStatistics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import javax.servlet.DispatcherType;
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.ServletOutputStream;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import javax.servlet.http.HttpServletResponseWrapper;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Counts the SQL statements of each request, including those its service calls run on the service executors, and
+ * reports them in a Server-Timing header, e.g. db;dur=2.41;desc="3 statements, 12 rows". The header is added just
+ * before the response is committed, which for an asynchronous endpoint happens in its async dispatch.
+ * A request running the same statement shape more than quora.statements.repeat-threshold times is logged as a
+ * warning, it most likely loads an association row by row. The statistics stay in the request attribute
+ * StatementStatistics.ATTRIBUTE, where tests can read them. Only enabled in the dev profile and the tests.
+ */
+@Configuration
+@ConditionalOnProperty(name = "quora.statements.enabled")
+public class StatementStatisticsConfiguration {
+
+    public static final String SERVER_TIMING = "Server-Timing";
+
+    /**
+     * Registered for the async dispatch as well, which writes the response of the asynchronous endpoints.
+     */
+    @Bean
+    public FilterRegistrationBean<StatementStatisticsFilter> statementStatisticsFilter(
+            @Value("${quora.statements.repeat-threshold:10}") final int repeatThreshold) {
+        FilterRegistrationBean<StatementStatisticsFilter> registration =
+                new FilterRegistrationBean<>(new StatementStatisticsFilter(repeatThreshold));
+        registration.setDispatcherTypes(DispatcherType.REQUEST, DispatcherType.ASYNC, DispatcherType.ERROR);
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE);
+        return registration;
+    }
+
+    public static class StatementStatisticsFilter extends OncePerRequestFilter {
+
+        private static final Logger LOG = LoggerFactory.getLogger(StatementStatisticsFilter.class);
+
+        private final int repeatThreshold;
+
+        public StatementStatisticsFilter(final int repeatThreshold) {
+            this.repeatThreshold = repeatThreshold;
+        }
+
+        @Override
+        protected boolean shouldNotFilterAsyncDispatch() {
+            return false;
+        }
+
+        @Override
+        protected void doFilterInternal(final HttpServletRequest request, final HttpServletResponse response,
+                                        final FilterChain filterChain) throws ServletException, IOException {
+            StatementStatistics statistics = (StatementStatistics) request.getAttribute(StatementStatistics.ATTRIBUTE);
+            if (statistics == null) {
+                statistics = new StatementStatistics();
+                request.setAttribute(StatementStatistics.ATTRIBUTE, statistics);
+            }
+            ServerTimingResponse timingResponse = new ServerTimingResponse(response, statistics);
+            try (StatementStatistics.Scope ignored = StatementStatistics.open(statistics)) {
+                filterChain.doFilter(request, timingResponse);
+            }
+            if (!isAsyncStarted(request)) {
+                timingResponse.addServerTiming();
+                warnAboutRepeatedStatements(request, statistics);
+            }
+        }
+
+        private void warnAboutRepeatedStatements(final HttpServletRequest request, final StatementStatistics statistics) {
+            for (Map.Entry<String, Integer> shape : statistics.getShapes().entrySet()) {
+                if (shape.getValue() > repeatThreshold) {
+                    LOG.warn("{} {} ran the same statement {} times, {} statements in total: {}", request.getMethod(),
+                            request.getRequestURI(), shape.getValue(), statistics.getStatements(), shape.getKey());
+                }
+            }
+        }
+    }
+
+    /**
+     * Adds the Server-Timing header once, before anything commits the response.
+     */
+    private static final class ServerTimingResponse extends HttpServletResponseWrapper {
+
+        private final StatementStatistics statistics;
+
+        private boolean added;
+
+        private ServerTimingResponse(final HttpServletResponse response, final StatementStatistics statistics) {
+            super(response);
+            this.statistics = statistics;
+        }
+
+        void addServerTiming() {
+            if (added || isCommitted()) {
+                return;
+            }
+            added = true;
+            setHeader(SERVER_TIMING, String.format(Locale.ROOT, "db;dur=%.2f;desc=\"%d statements, %d rows\"",
+                    statistics.getMillis(), statistics.getStatements(), statistics.getRows()));
+        }
+
+        @Override
+        public ServletOutputStream getOutputStream() throws IOException {
+            addServerTiming();
+            return super.getOutputStream();
+        }
+
+        @Override
+        public PrintWriter getWriter() throws IOException {
+            addServerTiming();
+            return super.getWriter();
+        }
+
+        @Override
+        public void flushBuffer() throws IOException {
+            addServerTiming();
+            super.flushBuffer();
+        }
+
+        @Override
+        public void sendError(final int sc) throws IOException {
+            addServerTiming();
+            super.sendError(sc);
+        }
+
+        @Override
+        public void sendError(final int sc, final String msg) throws IOException {
+            addServerTiming();
+            super.sendError(sc, msg);
+        }
+
+        @Override
+        public void sendRedirect(final String location) throws IOException {
+            addServerTiming();
+            super.sendRedirect(location);
+        }
+    }
+}
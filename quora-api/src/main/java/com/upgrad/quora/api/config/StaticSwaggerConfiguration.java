@@ -0,0 +1,87 @@
+package com.upgrad.quora.api.config;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.util.StreamUtils;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestMethod;
+import org.springframework.web.bind.annotation.ResponseBody;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Serves the Swagger documentation generated at build time, by the SwaggerDocumentationTest of the test phase, on the
+ * endpoints springfox serves, so that the swagger-ui page works unchanged without the scan of the controllers at
+ * startup. Enabled with quora.swagger.scan=false; a build which skipped the tests has no documentation to serve.
+ */
+@Configuration
+@ConditionalOnProperty(name = SwaggerConfiguration.SCAN_PROPERTY, havingValue = "false")
+public class StaticSwaggerConfiguration {
+
+    @Bean
+    public StaticSwaggerController staticSwaggerController() {
+        return new StaticSwaggerController();
+    }
+
+    /**
+     * Registered as a bean of this configuration only, the type annotations make it a handler without making it a
+     * component which the component scan would pick up whatever the property.
+     */
+    @RequestMapping(method = RequestMethod.GET)
+    @ResponseBody
+    public static class StaticSwaggerController {
+
+        private volatile byte[] apiDocs;
+
+        @RequestMapping(path = "/v2/api-docs", produces = MediaType.APPLICATION_JSON_UTF8_VALUE)
+        public ResponseEntity<byte[]> apiDocs() {
+            ClassPathResource resource = new ClassPathResource(SwaggerConfiguration.API_DOCS);
+            if (apiDocs == null) {
+                if (!resource.exists()) {
+                    return ResponseEntity.notFound().build();
+                }
+                try (InputStream inputStream = resource.getInputStream()) {
+                    apiDocs = StreamUtils.copyToByteArray(inputStream);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }
+            return ResponseEntity.ok(apiDocs);
+        }
+
+        @RequestMapping(path = "/swagger-resources", produces = MediaType.APPLICATION_JSON_UTF8_VALUE)
+        public List<Map<String, String>> swaggerResources() {
+            Map<String, String> resource = new LinkedHashMap<>();
+            resource.put("name", "default");
+            resource.put("location", "/v2/api-docs");
+            resource.put("swaggerVersion", "2.0");
+            return Collections.singletonList(resource);
+        }
+
+        @RequestMapping(path = "/swagger-resources/configuration/ui", produces = MediaType.APPLICATION_JSON_UTF8_VALUE)
+        public Map<String, Object> uiConfiguration() {
+            Map<String, Object> configuration = new LinkedHashMap<>();
+            configuration.put("docExpansion", "none");
+            configuration.put("apisSorter", "alpha");
+            configuration.put("defaultModelRendering", "schema");
+            configuration.put("jsonEditor", false);
+            configuration.put("showRequestHeaders", true);
+            return configuration;
+        }
+
+        @RequestMapping(path = "/swagger-resources/configuration/security", produces = MediaType.APPLICATION_JSON_UTF8_VALUE)
+        public Map<String, Object> securityConfiguration() {
+            return Collections.emptyMap();
+        }
+    }
+}
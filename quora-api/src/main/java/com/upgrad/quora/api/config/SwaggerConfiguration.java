@@ -1,6 +1,7 @@
 package com.upgrad.quora.api.config;
 
 
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.ComponentScan;
 import org.springframework.context.annotation.Configuration;
@@ -12,11 +13,21 @@ import springfox.documentation.swagger2.annotations.EnableSwagger2;
 
 /**
  * This Configuration integrates Swagger2 into the existing Spring Boot project.
+ * Springfox scans the controllers at startup; with quora.swagger.scan=false the documentation generated at build time
+ * is served instead (see StaticSwaggerConfiguration).
  */
 @Configuration
+@ConditionalOnProperty(name = SwaggerConfiguration.SCAN_PROPERTY, matchIfMissing = true)
 @EnableSwagger2
 public class SwaggerConfiguration {
 
+    public static final String SCAN_PROPERTY = "quora.swagger.scan";
+
+    /**
+     * Classpath location of the documentation generated at build time.
+     */
+    public static final String API_DOCS = "swagger/api-docs.json";
+
     @Bean
     public Docket swagger() {
         return new Docket(DocumentationType.SWAGGER_2).select().apis(RequestHandlerSelectors.basePackage("com.upgrad.quora.api.controller")).paths(PathSelectors.any()).build();
@@ -1,19 +1,38 @@
 package com.upgrad.quora.api.controller;
 
+import com.upgrad.quora.api.common.BatchRequestReader;
+import com.upgrad.quora.api.common.EntityTags;
+import com.upgrad.quora.api.config.CborConfiguration;
+import com.upgrad.quora.api.config.SparseFieldsConfiguration;
 import com.upgrad.quora.api.model.*;
 import com.upgrad.quora.service.business.AnswerService;
+import com.upgrad.quora.service.business.BatchItem;
+import com.upgrad.quora.service.business.Versioned;
 import com.upgrad.quora.service.entity.AnswerEntity;
+import com.upgrad.quora.service.entity.QuestionEntity;
+import com.upgrad.quora.service.record.AnswerField;
+import com.upgrad.quora.service.record.AnswerRecord;
+import com.upgrad.quora.service.record.Fields;
 import com.upgrad.quora.service.exception.AnswerNotFoundException;
 import com.upgrad.quora.service.exception.AuthorizationFailedException;
+import com.upgrad.quora.service.exception.BatchLimitExceededException;
+import com.upgrad.quora.service.exception.InvalidFieldException;
 import com.upgrad.quora.service.exception.InvalidQuestionException;
+import com.upgrad.quora.service.exception.VersionConflictException;
+import com.upgrad.quora.service.executor.ServiceExecutors;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.InputStream;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
 
 @RestController
 @RequestMapping("/")
@@ -22,6 +41,12 @@ public class AnswerController {
     @Autowired
     private AnswerService answerService;
 
+    @Autowired
+    private ServiceExecutors serviceExecutors;
+
+    @Autowired
+    private BatchRequestReader batchRequestReader;
+
     /**
      *This endpoint is used to create an answer to a particular question. Any user can access this endpoint.
      * @param accessToken
@@ -42,22 +67,61 @@ public class AnswerController {
         return new ResponseEntity<AnswerResponse>(answerResponse, HttpStatus.CREATED);
     }
 
+    /**
+     *This endpoint is used to create up to 100 answers, to one or more questions, in one call. Each answer is created or rejected on its own,
+     * the response lists the outcome of each answer in the order of the request.
+     * @param accessToken
+     * @param body JSON array of the answers to be created, each with the uuid of its question, read by the BatchRequestReader
+     * @return ResponseEntity<List<AnswerBatchItemResponse>>
+     * @throws AuthorizationFailedException
+     * @throws BatchLimitExceededException if more than 100 answers are sent
+     */
+    @RequestMapping(method = RequestMethod.POST, path = "/answer/create/batch", consumes = MediaType.APPLICATION_JSON_UTF8_VALUE, produces = MediaType.APPLICATION_JSON_UTF8_VALUE)
+    public ResponseEntity<List<AnswerBatchItemResponse>> createAnswers(@RequestHeader(value = "authorization", required = false) final String accessToken, final InputStream body) throws AuthorizationFailedException, BatchLimitExceededException {
+        List<AnswerBatchItemRequest> answerBatchItemRequests = batchRequestReader.read(body, AnswerBatchItemRequest.class, AnswerService.MAX_CREATE_BATCH_SIZE);
+        List<AnswerEntity> answerEntities = new ArrayList<>(answerBatchItemRequests.size());
+        for (AnswerBatchItemRequest answerBatchItemRequest : answerBatchItemRequests) {
+            QuestionEntity questionEntity = new QuestionEntity();
+            questionEntity.setUuid(answerBatchItemRequest.getQuestionId());
+            AnswerEntity answerEntity = new AnswerEntity();
+            answerEntity.setAnswer(answerBatchItemRequest.getAnswer());
+            answerEntity.setQuestionEntity(questionEntity);
+            answerEntities.add(answerEntity);
+        }
+        List<BatchItem<AnswerEntity>> items = answerService.createAnswers(answerEntities, accessToken);
+        List<AnswerBatchItemResponse> answerBatchItemResponses = new ArrayList<>(items.size());
+        for (BatchItem<AnswerEntity> item : items) {
+            AnswerBatchItemResponse answerBatchItemResponse = new AnswerBatchItemResponse();
+            if (item.isCreated()) {
+                answerBatchItemResponse.id(item.getValue().getUuid()).status("ANSWER CREATED");
+            } else {
+                answerBatchItemResponse.status("FAILED").code(item.getCode()).message(item.getErrorMessage());
+            }
+            answerBatchItemResponses.add(answerBatchItemResponse);
+        }
+        return new ResponseEntity<List<AnswerBatchItemResponse>>(answerBatchItemResponses, HttpStatus.OK);
+    }
+
     /**
      *This endpoint requests for all the attributes in "AnswerEditRequest", the path variable 'answerId' as a string for the corresponding answer which is to be edited in the database and access token of the signed in user as a string in authorization Request Header.
      * @param accessToken
      * @param answerId
      * @param answerEditRequest
+     * @param ifMatch optional entity tag of the answer version the client last read, the edit is rejected if the answer has changed since
      * @return ResponseEntity<AnswerDeleteResponse>
      * @throws AuthorizationFailedException
      * @throws AnswerNotFoundException
+     * @throws VersionConflictException
      */
     @RequestMapping(method = RequestMethod.PUT, path = "/answer/edit/{answerId}", produces = MediaType.APPLICATION_JSON_UTF8_VALUE)
-    public ResponseEntity<AnswerEditResponse> editAnswer(@RequestHeader("authorization") final String accessToken, @PathVariable("answerId") final String answerId, AnswerEditRequest answerEditRequest) throws AuthorizationFailedException, AnswerNotFoundException {
+    public ResponseEntity<AnswerEditResponse> editAnswer(@RequestHeader("authorization") final String accessToken, @PathVariable("answerId") final String answerId, AnswerEditRequest answerEditRequest, @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) final String ifMatch) throws AuthorizationFailedException, AnswerNotFoundException, VersionConflictException {
         AnswerEditResponse answerEditResponse = new AnswerEditResponse();
-        AnswerEntity answerEntity = answerService.editAnswer(accessToken, answerId, answerEditRequest.getContent());
+        AnswerEntity answerEntity = answerService.editAnswer(accessToken, answerId, answerEditRequest.getContent(), EntityTags.parseVersion(ifMatch));
         answerEditResponse.setId(answerEntity.getUuid());
         answerEditResponse.setStatus("ANSWER EDITED");
-        return new ResponseEntity<AnswerEditResponse>(answerEditResponse, HttpStatus.OK);
+        HttpHeaders headers = new HttpHeaders();
+        headers.setETag(EntityTags.of(answerEntity.getVersion()));
+        return new ResponseEntity<AnswerEditResponse>(answerEditResponse, headers, HttpStatus.OK);
     }
 
     /**
@@ -77,24 +141,37 @@ public class AnswerController {
 
     /**
      *This endpoint is used to get all answers to a particular question. Any user can access this endpoint.
+     * The ETag is the version of the answers to the question; a client sending it back in If-None-Match gets 304 Not Modified, without the answers being queried, until one of them or the question changes.
+     * Served as JSON, or as CBOR to clients accepting application/cbor. The answers are read on the db executor, the container thread is released in the meantime.
      * @param questionId
      * @param accessToken
-     * @return ResponseEntity<List<AnswerDetailsResponse>>
-     * @throws AuthorizationFailedException
-     * @throws InvalidQuestionException
+     * @param ifNoneMatch optional entity tags of the answer lists the client holds
+     * @param accept optional media types the client accepts, the JSON and CBOR lists have different entity tags
+     * @return future of ResponseEntity<List<AnswerDetailsResponse>>, failed with AuthorizationFailedException or InvalidQuestionException
      */
-    @RequestMapping(method = RequestMethod.GET, path = "/answer/all/{questionId}", produces = MediaType.APPLICATION_JSON_UTF8_VALUE)
-    public ResponseEntity<List<AnswerDetailsResponse>> getAllAnswersToQuestion(@PathVariable("questionId") String questionId, @RequestHeader("authorization") final String accessToken) throws AuthorizationFailedException, InvalidQuestionException {
-        List<AnswerEntity> answers = answerService.getAllAnswersToQuestion(questionId, accessToken);
-        List<AnswerDetailsResponse> answerDetailsResponses = new ArrayList<>();
-        for (AnswerEntity answerEntity : answers) {
+    @RequestMapping(method = RequestMethod.GET, path = "/answer/all/{questionId}", produces = {MediaType.APPLICATION_JSON_UTF8_VALUE, CborConfiguration.APPLICATION_CBOR_VALUE})
+    public CompletableFuture<ResponseEntity<List<AnswerDetailsResponse>>> getAllAnswersToQuestion(@PathVariable("questionId") String questionId, @RequestHeader("authorization") final String accessToken, @RequestParam(value = SparseFieldsConfiguration.FIELDS_PARAMETER, required = false) final String fields, @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) final String ifNoneMatch, @RequestHeader(value = HttpHeaders.ACCEPT, required = false) final String accept) throws InvalidFieldException {
+        Set<AnswerField> answerFields = Fields.parse(AnswerField.class, fields);
+        return serviceExecutors.onDb(() -> answerService.getAllAnswersToQuestion(questionId, accessToken, answerFields, EntityTags.listedIn(ifNoneMatch, accept)))
+                .thenApply(answers -> toAnswerDetailsResponses(answers, accept));
+    }
+
+    private ResponseEntity<List<AnswerDetailsResponse>> toAnswerDetailsResponses(final Versioned<List<AnswerRecord>> answers, final String accept) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setETag(EntityTags.of(answers.getVersion(), accept));
+        headers.setVary(Collections.singletonList(HttpHeaders.ACCEPT));
+        if (!answers.isModified()) {
+            return new ResponseEntity<List<AnswerDetailsResponse>>(headers, HttpStatus.NOT_MODIFIED);
+        }
+        List<AnswerDetailsResponse> answerDetailsResponses = new ArrayList<>(answers.getValue().size());
+        for (AnswerRecord answerRecord : answers.getValue()) {
             AnswerDetailsResponse answerDetailsResponse = new AnswerDetailsResponse();
-            answerDetailsResponse.setId(answerEntity.getUuid());
-            answerDetailsResponse.setQuestionContent(answerEntity.getQuestionEntity().getContent());
-            answerDetailsResponse.setAnswerContent(answerEntity.getAnswer());
+            answerDetailsResponse.setId(answerRecord.getUuid());
+            answerDetailsResponse.setQuestionContent(answerRecord.getQuestionContent());
+            answerDetailsResponse.setAnswerContent(answerRecord.getAnswer());
             answerDetailsResponses.add(answerDetailsResponse);
         }
-        return new ResponseEntity<List<AnswerDetailsResponse>>(answerDetailsResponses, HttpStatus.OK);
+        return new ResponseEntity<List<AnswerDetailsResponse>>(answerDetailsResponses, headers, HttpStatus.OK);
     }
 
 }
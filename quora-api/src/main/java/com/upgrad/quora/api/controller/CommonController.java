@@ -1,15 +1,28 @@
 package com.upgrad.quora.api.controller;
 
+import com.upgrad.quora.api.common.EntityTags;
+import com.upgrad.quora.api.config.SparseFieldsConfiguration;
 import com.upgrad.quora.api.model.UserDetailsResponse;
 import com.upgrad.quora.service.business.UserCommonService;
-import com.upgrad.quora.service.entity.UserEntity;
+import com.upgrad.quora.service.business.Versioned;
 import com.upgrad.quora.service.exception.*;
+import com.upgrad.quora.service.executor.ServiceExecutors;
+import com.upgrad.quora.service.record.Fields;
+import com.upgrad.quora.service.record.UserField;
+import com.upgrad.quora.service.record.UserRecord;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+
 //RestController annotation specifies that this class represents a REST API(equivalent of @Controller + @ResponseBody)
 @RestController
 @RequestMapping("/")
@@ -18,28 +31,67 @@ public class CommonController {
     @Autowired
     private UserCommonService commonUserService;
 
+    @Autowired
+    private ServiceExecutors serviceExecutors;
+
     /**
      * This endpoint is used to get the details of any user in the Quora Application. This endpoint can be accessed by
-     * any user in the application.
+     * any user in the application. The ETag is the version of the profile; a client sending it back in If-None-Match
+     * gets 304 Not Modified without the user being looked up. The user is read on the db executor, the container
+     * thread is released in the meantime. With fields, e.g. fields=first_name,last_name, only the listed properties are
+     * read and returned.
      * @param accessToken
      * @param userId
-     * @return ResponseEntity<UserDetailsResponse>
-     * @throws AuthorizationFailedException
-     * @throws UserNotFoundException
+     * @param fields optional comma separated properties of the profile to be returned, all of them by default
+     * @param ifNoneMatch optional entity tags of the profiles the client holds
+     * @return future of ResponseEntity<UserDetailsResponse>, failed with AuthorizationFailedException or UserNotFoundException
+     * @throws InvalidFieldException if fields lists an unknown property
      */
     @RequestMapping(method = RequestMethod.GET, path = "/userprofile/{userId}", produces = MediaType.APPLICATION_JSON_UTF8_VALUE)
-    public ResponseEntity<UserDetailsResponse> getProfile(@RequestHeader("authorization") final String accessToken, @PathVariable("userId") final String userId) throws AuthorizationFailedException, UserNotFoundException {
-        commonUserService.checkIfTokenIsValid(accessToken);
-        UserEntity userEntity = commonUserService.getUserById(userId);
+    public CompletableFuture<ResponseEntity<UserDetailsResponse>> getProfile(@RequestHeader("authorization") final String accessToken, @PathVariable("userId") final String userId, @RequestParam(value = SparseFieldsConfiguration.FIELDS_PARAMETER, required = false) final String fields, @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) final String ifNoneMatch) throws InvalidFieldException {
+        Set<UserField> userFields = Fields.parse(UserField.class, fields);
+        return serviceExecutors.onDb(() -> commonUserService.getUserProfile(accessToken, userId, userFields, EntityTags.listedIn(ifNoneMatch)))
+                .thenApply(this::toProfileResponse);
+    }
+
+    private ResponseEntity<UserDetailsResponse> toProfileResponse(final Versioned<UserRecord> userRecord) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setETag(EntityTags.of(userRecord.getVersion()));
+        if (!userRecord.isModified()) {
+            return new ResponseEntity<UserDetailsResponse>(headers, HttpStatus.NOT_MODIFIED);
+        }
+        return new ResponseEntity<UserDetailsResponse>(toUserDetailsResponse(userRecord.getValue()), headers, HttpStatus.OK);
+    }
+
+    /**
+     * This endpoint is used to get the details of several users at once, e.g. the authors of a list of answers.
+     * Duplicate uuids are ignored and uuids of users that do not exist are left out of the response.
+     * @param accessToken
+     * @param userIds comma separated user uuids, at most UserCommonService.MAX_PROFILE_BATCH_SIZE distinct ones
+     * @return ResponseEntity<Map<String, UserDetailsResponse>> keyed by user uuid
+     * @throws AuthorizationFailedException
+     * @throws BatchLimitExceededException
+     */
+    @RequestMapping(method = RequestMethod.GET, path = "/userprofiles", produces = MediaType.APPLICATION_JSON_UTF8_VALUE)
+    public ResponseEntity<Map<String, UserDetailsResponse>> getProfiles(@RequestHeader("authorization") final String accessToken, @RequestParam("userIds") final List<String> userIds) throws AuthorizationFailedException, BatchLimitExceededException {
+        Map<String, UserRecord> userRecords = commonUserService.getUserProfiles(accessToken, userIds);
+        Map<String, UserDetailsResponse> userDetailsResponses = new LinkedHashMap<>();
+        for (Map.Entry<String, UserRecord> entry : userRecords.entrySet()) {
+            userDetailsResponses.put(entry.getKey(), toUserDetailsResponse(entry.getValue()));
+        }
+        return new ResponseEntity<Map<String, UserDetailsResponse>>(userDetailsResponses, HttpStatus.OK);
+    }
+
+    private UserDetailsResponse toUserDetailsResponse(final UserRecord userRecord) {
         UserDetailsResponse userDetailsResponse = new UserDetailsResponse();
-        userDetailsResponse.setFirstName(userEntity.getFirstName());
-        userDetailsResponse.setLastName(userEntity.getLastName());
-        userDetailsResponse.setUserName(userEntity.getUserName());
-        userDetailsResponse.setEmailAddress(userEntity.getEmail());
-        userDetailsResponse.setDob(userEntity.getDob());
-        userDetailsResponse.setAboutMe(userEntity.getAboutMe());
-        userDetailsResponse.setContactNumber(userEntity.getContactNumber());
-        userDetailsResponse.setCountry(userEntity.getCountry());
-        return new ResponseEntity<UserDetailsResponse>(userDetailsResponse, HttpStatus.OK);
+        userDetailsResponse.setFirstName(userRecord.getFirstName());
+        userDetailsResponse.setLastName(userRecord.getLastName());
+        userDetailsResponse.setUserName(userRecord.getUserName());
+        userDetailsResponse.setEmailAddress(userRecord.getEmail());
+        userDetailsResponse.setDob(userRecord.getDob());
+        userDetailsResponse.setAboutMe(userRecord.getAboutMe());
+        userDetailsResponse.setContactNumber(userRecord.getContactNumber());
+        userDetailsResponse.setCountry(userRecord.getCountry());
+        return userDetailsResponse;
     }
 }
@@ -1,29 +1,57 @@
 package com.upgrad.quora.api.controller;
 
+import com.upgrad.quora.api.common.BatchRequestReader;
+import com.upgrad.quora.api.common.EntityTags;
+import com.upgrad.quora.api.config.CborConfiguration;
+import com.upgrad.quora.api.config.SparseFieldsConfiguration;
 import com.upgrad.quora.api.model.AnswerResponse;
+import com.upgrad.quora.api.model.AnswerSummary;
+import com.upgrad.quora.api.model.AuthorSummary;
+import com.upgrad.quora.api.model.QuestionBatchItemResponse;
 import com.upgrad.quora.api.model.QuestionDeleteResponse;
 import com.upgrad.quora.api.model.QuestionDetailsResponse;
 import com.upgrad.quora.api.model.QuestionEditRequest;
 import com.upgrad.quora.api.model.QuestionEditResponse;
+import com.upgrad.quora.api.model.QuestionFullResponse;
 import com.upgrad.quora.api.model.QuestionRequest;
 import com.upgrad.quora.api.model.QuestionResponse;
+import com.upgrad.quora.service.business.BatchItem;
 import com.upgrad.quora.service.business.QuestionBusinessService;
+import com.upgrad.quora.service.business.QuestionWithAnswers;
+import com.upgrad.quora.service.business.Versioned;
+import com.upgrad.quora.service.entity.AnswerEntity;
 import com.upgrad.quora.service.entity.QuestionEntity;
+import com.upgrad.quora.service.entity.UserEntity;
 import com.upgrad.quora.service.exception.AuthorizationFailedException;
+import com.upgrad.quora.service.exception.BatchLimitExceededException;
+import com.upgrad.quora.service.exception.InvalidFieldException;
 import com.upgrad.quora.service.exception.InvalidQuestionException;
 import com.upgrad.quora.service.exception.UserNotFoundException;
+import com.upgrad.quora.service.exception.VersionConflictException;
+import com.upgrad.quora.service.executor.ServiceExecutors;
+import com.upgrad.quora.service.id.IdGenerator;
+import com.upgrad.quora.service.record.Fields;
+import com.upgrad.quora.service.record.QuestionField;
+import com.upgrad.quora.service.record.QuestionRecord;
+import java.io.InputStream;
 import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
-import java.util.UUID;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
 import java.util.stream.Collectors;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestMethod;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
 @RestController
@@ -32,12 +60,21 @@ public class QuestionController {
   @Autowired
   private QuestionBusinessService questionBusinessService;
 
+  @Autowired
+  private ServiceExecutors serviceExecutors;
+
+  @Autowired
+  private IdGenerator idGenerator;
+
+  @Autowired
+  private BatchRequestReader batchRequestReader;
+
   @RequestMapping(method = RequestMethod.POST, path = "/create", consumes = MediaType.APPLICATION_JSON_UTF8_VALUE, produces = MediaType.APPLICATION_JSON_UTF8_VALUE)
   public ResponseEntity<QuestionResponse> create(final QuestionRequest questionRequest, @RequestHeader(value = "authorization", required = false) final String authorization) throws AuthorizationFailedException {
     QuestionEntity questionEntity = new QuestionEntity();
     questionEntity.setContent(questionRequest.getContent());
     questionEntity.setDate(ZonedDateTime.now());
-    questionEntity.setUuid(UUID.randomUUID().toString());
+    questionEntity.setUuid(idGenerator.generate());
 
     QuestionEntity createdQuestionEntity = questionBusinessService.createQuestion(authorization, questionEntity);
     QuestionResponse questionResponse = new QuestionResponse();
@@ -47,44 +84,147 @@ public class QuestionController {
     return new ResponseEntity<QuestionResponse>(questionResponse, HttpStatus.CREATED);
   }
 
-  @RequestMapping(method = RequestMethod.GET, path = "/all",  produces = MediaType.APPLICATION_JSON_UTF8_VALUE)
-  public ResponseEntity<List<QuestionDetailsResponse>> getAll(@RequestHeader(value = "authorization", required = false) final String authorization) throws AuthorizationFailedException {
+  /**
+   * Creates up to 100 questions in one call. Each question is created or rejected on its own; the response lists the
+   * outcome of each question in the order of the request.
+   * @param body JSON array of the questions to be created, read by the BatchRequestReader
+   * @param authorization access token of the signed in user
+   * @return ResponseEntity<List<QuestionBatchItemResponse>>
+   * @throws AuthorizationFailedException
+   * @throws BatchLimitExceededException if more than 100 questions are sent
+   */
+  @RequestMapping(method = RequestMethod.POST, path = "/create/batch", consumes = MediaType.APPLICATION_JSON_UTF8_VALUE, produces = MediaType.APPLICATION_JSON_UTF8_VALUE)
+  public ResponseEntity<List<QuestionBatchItemResponse>> createBatch(final InputStream body, @RequestHeader(value = "authorization", required = false) final String authorization) throws AuthorizationFailedException, BatchLimitExceededException {
+    List<QuestionRequest> questionRequests = batchRequestReader.read(body, QuestionRequest.class, QuestionBusinessService.MAX_CREATE_BATCH_SIZE);
+    ZonedDateTime now = ZonedDateTime.now();
+    List<QuestionEntity> questionEntities = new ArrayList<>(questionRequests.size());
+    for (QuestionRequest questionRequest : questionRequests) {
+      QuestionEntity questionEntity = new QuestionEntity();
+      questionEntity.setContent(questionRequest.getContent());
+      questionEntity.setDate(now);
+      questionEntity.setUuid(idGenerator.generate());
+      questionEntities.add(questionEntity);
+    }
+
+    List<BatchItem<QuestionEntity>> items = questionBusinessService.createQuestions(authorization, questionEntities);
+    List<QuestionBatchItemResponse> questionBatchItemResponses = new ArrayList<>(items.size());
+    for (BatchItem<QuestionEntity> item : items) {
+      QuestionBatchItemResponse questionBatchItemResponse = new QuestionBatchItemResponse();
+      if (item.isCreated()) {
+        questionBatchItemResponse.id(item.getValue().getUuid()).status("QUESTION CREATED");
+      } else {
+        questionBatchItemResponse.status("FAILED").code(item.getCode()).message(item.getErrorMessage());
+      }
+      questionBatchItemResponses.add(questionBatchItemResponse);
+    }
+    return new ResponseEntity<List<QuestionBatchItemResponse>>(questionBatchItemResponses, HttpStatus.OK);
+  }
+
+  /**
+   * Returns all questions. The ETag is the version of the question list; a client sending it back in If-None-Match
+   * gets 304 Not Modified, without the list being queried, as long as no question was created, edited or deleted.
+   * Served as JSON, or as CBOR to clients accepting application/cbor. The questions are read on the db executor, the
+   * container thread is released in the meantime. With fields, e.g. fields=id, only the listed properties are read
+   * and returned.
+   * @param authorization access token of the signed in user
+   * @param fields optional comma separated properties of the questions to be returned, all of them by default
+   * @param ifNoneMatch optional entity tags of the question lists the client holds
+   * @param accept optional media types the client accepts, the JSON and CBOR lists have different entity tags
+   * @return future of ResponseEntity<List<QuestionDetailsResponse>>, failed with AuthorizationFailedException if the user is not signed in
+   * @throws InvalidFieldException if fields lists an unknown property
+   */
+  @RequestMapping(method = RequestMethod.GET, path = "/all",  produces = {MediaType.APPLICATION_JSON_UTF8_VALUE, CborConfiguration.APPLICATION_CBOR_VALUE})
+  public CompletableFuture<ResponseEntity<List<QuestionDetailsResponse>>> getAll(@RequestHeader(value = "authorization", required = false) final String authorization,
+      @RequestParam(value = SparseFieldsConfiguration.FIELDS_PARAMETER, required = false) final String fields,
+      @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) final String ifNoneMatch,
+      @RequestHeader(value = HttpHeaders.ACCEPT, required = false) final String accept) throws InvalidFieldException {
+    Set<QuestionField> questionFields = Fields.parse(QuestionField.class, fields);
+    return serviceExecutors.onDb(() -> questionBusinessService.getAllQuestions(authorization, questionFields, EntityTags.listedIn(ifNoneMatch, accept)))
+        .thenApply(allQuestions -> toQuestionDetailsResponses(allQuestions, accept));
+  }
 
-    List<QuestionEntity> allQuestions = questionBusinessService.getAllQuestions(authorization);
-    List<QuestionDetailsResponse> questionDetailsResponseList = allQuestions.stream().map(questionEntity -> {
+  private ResponseEntity<List<QuestionDetailsResponse>> toQuestionDetailsResponses(final Versioned<List<QuestionRecord>> allQuestions, final String accept) {
+    HttpHeaders headers = new HttpHeaders();
+    headers.setETag(EntityTags.of(allQuestions.getVersion(), accept));
+    headers.setVary(Collections.singletonList(HttpHeaders.ACCEPT));
+    if (!allQuestions.isModified()) {
+      return new ResponseEntity<List<QuestionDetailsResponse>>(headers, HttpStatus.NOT_MODIFIED);
+    }
+    List<QuestionDetailsResponse> questionDetailsResponseList = allQuestions.getValue().stream().map(questionRecord -> {
       QuestionDetailsResponse questionDetailsResponse = new QuestionDetailsResponse();
-      questionDetailsResponse.setId(questionEntity.getUuid());
-      questionDetailsResponse.setContent(questionEntity.getContent());
+      questionDetailsResponse.setId(questionRecord.getUuid());
+      questionDetailsResponse.setContent(questionRecord.getContent());
       return questionDetailsResponse;
     }).collect(Collectors.toList());
 
-    return new ResponseEntity<List<QuestionDetailsResponse>>(questionDetailsResponseList, HttpStatus.OK);
+    return new ResponseEntity<List<QuestionDetailsResponse>>(questionDetailsResponseList, headers, HttpStatus.OK);
   }
 
   @RequestMapping(method = RequestMethod.GET, path = "/all/{userId}", produces = MediaType.APPLICATION_JSON_UTF8_VALUE)
-  public ResponseEntity<List<QuestionDetailsResponse>> getAllByUserId(@PathVariable("userId") final String userUuid, @RequestHeader(value = "authorization", required = false) final String authorization)
-      throws AuthorizationFailedException, UserNotFoundException {
+  public ResponseEntity<List<QuestionDetailsResponse>> getAllByUserId(@PathVariable("userId") final String userUuid, @RequestHeader(value = "authorization", required = false) final String authorization,
+      @RequestParam(value = SparseFieldsConfiguration.FIELDS_PARAMETER, required = false) final String fields)
+      throws AuthorizationFailedException, UserNotFoundException, InvalidFieldException {
 
-    List<QuestionEntity> allQuestions = questionBusinessService.getAllQuestionsByUserId(authorization, userUuid);
-    List<QuestionDetailsResponse> questionDetailsResponseList = allQuestions.stream().map(questionEntity -> {
+    List<QuestionRecord> allQuestions = questionBusinessService.getAllQuestionsByUserId(authorization, userUuid, Fields.parse(QuestionField.class, fields));
+    List<QuestionDetailsResponse> questionDetailsResponseList = allQuestions.stream().map(questionRecord -> {
       QuestionDetailsResponse questionDetailsResponse = new QuestionDetailsResponse();
-      questionDetailsResponse.setId(questionEntity.getUuid());
-      questionDetailsResponse.setContent(questionEntity.getContent());
+      questionDetailsResponse.setId(questionRecord.getUuid());
+      questionDetailsResponse.setContent(questionRecord.getContent());
       return questionDetailsResponse;
     }).collect(Collectors.toList());
 
     return new ResponseEntity<List<QuestionDetailsResponse>>(questionDetailsResponseList, HttpStatus.OK);
   }
 
+  /**
+   * Returns a question, its author and a page of its answers with their authors, so that a question page can be
+   * rendered with one request and one token check.
+   * @param questionId uuid of the question
+   * @param page zero based page index of the answers
+   * @param size number of answers per page
+   * @param authorization access token of the signed in user
+   * @return ResponseEntity<QuestionFullResponse>
+   * @throws AuthorizationFailedException
+   * @throws InvalidQuestionException
+   */
+  @RequestMapping(method = RequestMethod.GET, path = "/{questionId}/full", produces = MediaType.APPLICATION_JSON_UTF8_VALUE)
+  public ResponseEntity<QuestionFullResponse> getFull(@PathVariable("questionId") final String questionId,
+      @RequestParam(value = "page", required = false, defaultValue = "0") final int page,
+      @RequestParam(value = "size", required = false, defaultValue = "10") final int size,
+      @RequestHeader(value = "authorization", required = false) final String authorization)
+      throws AuthorizationFailedException, InvalidQuestionException {
+    QuestionWithAnswers questionWithAnswers = questionBusinessService.getQuestionWithAnswers(authorization, questionId, page, size);
+    QuestionEntity questionEntity = questionWithAnswers.getQuestion();
+
+    QuestionFullResponse questionFullResponse = new QuestionFullResponse()
+        .id(questionEntity.getUuid())
+        .content(questionEntity.getContent())
+        .date(questionEntity.getDate().toOffsetDateTime())
+        .author(toAuthorSummary(questionEntity.getUserEntity()))
+        .page(questionWithAnswers.getPage())
+        .size(questionWithAnswers.getSize());
+    for (AnswerEntity answerEntity : questionWithAnswers.getAnswers()) {
+      questionFullResponse.addAnswersItem(new AnswerSummary()
+          .id(answerEntity.getUuid())
+          .content(answerEntity.getAnswer())
+          .date(answerEntity.getDate().toOffsetDateTime())
+          .author(toAuthorSummary(answerEntity.getUserEntity())));
+    }
+    return new ResponseEntity<QuestionFullResponse>(questionFullResponse, HttpStatus.OK);
+  }
+
   @RequestMapping(method = RequestMethod.PUT, path = "edit/{questionId}", consumes = MediaType.APPLICATION_JSON_UTF8_VALUE, produces = MediaType.APPLICATION_JSON_UTF8_VALUE)
   public ResponseEntity<QuestionEditResponse> edit(@RequestHeader(value = "authorization", required = false) final String authorization,
-      @PathVariable("questionId") final String questionId, QuestionEditRequest questionEditRequest)
-      throws AuthorizationFailedException, InvalidQuestionException {
-    QuestionEntity updatedQuestionEntity = questionBusinessService.updateQuestionEntity(authorization, questionId, questionEditRequest.getContent());
+      @PathVariable("questionId") final String questionId, QuestionEditRequest questionEditRequest,
+      @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) final String ifMatch)
+      throws AuthorizationFailedException, InvalidQuestionException, VersionConflictException {
+    QuestionEntity updatedQuestionEntity = questionBusinessService.updateQuestionEntity(authorization, questionId, questionEditRequest.getContent(), EntityTags.parseVersion(ifMatch));
     QuestionEditResponse questionEditResponse = new QuestionEditResponse();
     questionEditResponse.setId(updatedQuestionEntity.getUuid());
     questionEditResponse.setStatus("QUESTION EDITED");
-    return new ResponseEntity<QuestionEditResponse>(questionEditResponse, HttpStatus.CREATED);
+    HttpHeaders headers = new HttpHeaders();
+    headers.setETag(EntityTags.of(updatedQuestionEntity.getVersion()));
+    return new ResponseEntity<QuestionEditResponse>(questionEditResponse, headers, HttpStatus.CREATED);
   }
 
   @RequestMapping(method = RequestMethod.DELETE, path = "delete/{questionId}",  produces = MediaType.APPLICATION_JSON_UTF8_VALUE)
@@ -96,4 +236,12 @@ public class QuestionController {
     questionDeleteResponse.setStatus("QUESTION DELETED");
     return new ResponseEntity<QuestionDeleteResponse>(questionDeleteResponse, HttpStatus.CREATED);
   }
+
+  private AuthorSummary toAuthorSummary(final UserEntity userEntity) {
+    return new AuthorSummary()
+        .id(userEntity.getUuid())
+        .userName(userEntity.getUserName())
+        .firstName(userEntity.getFirstName())
+        .lastName(userEntity.getLastName());
+  }
 }
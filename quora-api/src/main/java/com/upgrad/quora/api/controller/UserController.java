@@ -6,11 +6,10 @@ import com.upgrad.quora.api.model.SignupUserRequest;
 import com.upgrad.quora.api.model.SignupUserResponse;
 import com.upgrad.quora.service.business.SignupBusinessService;
 import com.upgrad.quora.service.business.UserAuthenticationService;
-import com.upgrad.quora.service.entity.UserAuthEntity;
 import com.upgrad.quora.service.entity.UserEntity;
-import com.upgrad.quora.service.exception.AuthenticationFailedException;
 import com.upgrad.quora.service.exception.SignOutRestrictedException;
-import com.upgrad.quora.service.exception.SignUpRestrictedException;
+import com.upgrad.quora.service.executor.ServiceExecutors;
+import com.upgrad.quora.service.id.IdGenerator;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
@@ -22,7 +21,7 @@ import org.springframework.web.bind.annotation.RequestMethod;
 import org.springframework.web.bind.annotation.RestController;
 
 import java.util.Base64;
-import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
 
 @RestController
 @RequestMapping("/user")
@@ -33,16 +32,21 @@ public class UserController {
   @Autowired
   private UserAuthenticationService userAuthService;
 
+  @Autowired
+  private ServiceExecutors serviceExecutors;
+
+  @Autowired
+  private IdGenerator idGenerator;
+
   /**
-   * Endpoint for signing up new user
+   * Endpoint for signing up new user. The password is hashed on the cpu executor, the container thread is released in the meantime.
    * @param signupUserRequest
-   * @return
-   * @throws SignUpRestrictedException
+   * @return future of the response, failed with SignUpRestrictedException if the user name or email is taken
    */
   @RequestMapping(method = RequestMethod.POST, path = "/signup", consumes = MediaType.APPLICATION_JSON_UTF8_VALUE, produces = MediaType.APPLICATION_JSON_UTF8_VALUE)
-  public ResponseEntity<SignupUserResponse> signup(final SignupUserRequest signupUserRequest) throws SignUpRestrictedException {
+  public CompletableFuture<ResponseEntity<SignupUserResponse>> signup(final SignupUserRequest signupUserRequest) {
     final UserEntity userEntity = new UserEntity();
-    userEntity.setUuid(UUID.randomUUID().toString());
+    userEntity.setUuid(idGenerator.generate());
     userEntity.setFirstName(signupUserRequest.getFirstName());
     userEntity.setLastName(signupUserRequest.getLastName());
     userEntity.setEmail(signupUserRequest.getEmailAddress());
@@ -54,38 +58,39 @@ public class UserController {
     userEntity.setRole();
     userEntity.setUserName(signupUserRequest.getUserName());
 
-    final UserEntity createdUserEntity = signupBusinessService.signup(userEntity);
-    SignupUserResponse signupUserResponse = new SignupUserResponse();
-    signupUserResponse.setId(createdUserEntity.getUuid());
-    signupUserResponse.setStatus("USER SUCCESSFULLY REGISTERED");
-    return new ResponseEntity<SignupUserResponse>(signupUserResponse, HttpStatus.CREATED);
+    return serviceExecutors.onCpu(() -> signupBusinessService.signup(userEntity)).thenApply(createdUserEntity -> {
+      SignupUserResponse signupUserResponse = new SignupUserResponse();
+      signupUserResponse.setId(createdUserEntity.getUuid());
+      signupUserResponse.setStatus("USER SUCCESSFULLY REGISTERED");
+      return new ResponseEntity<SignupUserResponse>(signupUserResponse, HttpStatus.CREATED);
+    });
   }
 
   /**
    *This endpoint is used for user authentication. The user authenticates in the application and after successful
-   * authentication, JWT token is given to a user.
+   * authentication, JWT token is given to a user. The password is verified on the cpu executor, the container thread
+   * is released in the meantime.
    * @param authorization
-   * @return ResponseEntity<SigninResponse>
-   * @throws AuthenticationFailedException
+   * @return future of ResponseEntity<SigninResponse>, failed with AuthenticationFailedException if the credentials are wrong
    */
   @RequestMapping(method = RequestMethod.POST, path = "/signin", produces = MediaType.APPLICATION_JSON_UTF8_VALUE)
-  public ResponseEntity<SigninResponse> signin(@RequestHeader("authorization") final String authorization) throws AuthenticationFailedException {
+  public CompletableFuture<ResponseEntity<SigninResponse>> signin(@RequestHeader("authorization") final String authorization) {
 
     byte[] decode = Base64.getDecoder().decode(authorization);
 
     String decodedText = new String(decode);
     decodedText=decodedText.split("Basic ")[1];
     String[] decodedArray = decodedText.split(":");
-    UserAuthEntity userAuthEntity = userAuthService.signin(decodedArray[0], decodedArray[1]);
-
-    HttpHeaders headers = new HttpHeaders();
-    headers.add("access-token", userAuthEntity.getAccessToken());
+    return serviceExecutors.onCpu(() -> userAuthService.signin(decodedArray[0], decodedArray[1])).thenApply(userAuthEntity -> {
+      HttpHeaders headers = new HttpHeaders();
+      headers.add("access-token", userAuthEntity.getAccessToken());
 
-    SigninResponse signinResponse = new SigninResponse();
-    signinResponse.setId(userAuthEntity.getUserEntity().getUuid());
-    signinResponse.setMessage("SIGNED IN SUCCESSFULLY");
+      SigninResponse signinResponse = new SigninResponse();
+      signinResponse.setId(userAuthEntity.getUserEntity().getUuid());
+      signinResponse.setMessage("SIGNED IN SUCCESSFULLY");
 
-    return new ResponseEntity<SigninResponse>(signinResponse, headers, HttpStatus.OK);
+      return new ResponseEntity<SigninResponse>(signinResponse, headers, HttpStatus.OK);
+    });
   }
 
   /**
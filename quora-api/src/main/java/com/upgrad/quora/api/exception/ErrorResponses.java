@@ -0,0 +1,89 @@
+package com.upgrad.quora.api.exception;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.upgrad.quora.api.model.ErrorResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.WebRequest;
+
+import java.io.UncheckedIOException;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Error responses of the RestExceptionHandler. The error bodies are immutable, so the JSON of each code and message is
+ * serialized once, on its first use, and the bytes are returned as the body of every later error with the same code
+ * and message, which during a storm of rejected tokens are nearly all of them; the byte array converter writes them as
+ * they are. Messages that embed a value of the
+ * request, such as an unknown field, could fill the cache, so it stops taking new bodies at MAXIMUM_BODIES.
+ * Clients preferring another media type, such as CBOR, get their error through the message converters as before.
+ */
+@Component
+public class ErrorResponses {
+
+    static final int MAXIMUM_BODIES = 1_000;
+
+    private final ConcurrentMap<String, byte[]> bodies = new ConcurrentHashMap<>();
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    /**
+     * @param code    error code
+     * @param message error message
+     * @param status  status of the response
+     * @param request request which failed
+     * @return the error response, with the serialized JSON as its body unless the client prefers another media type
+     */
+    public ResponseEntity<?> of(final String code, final String message, final HttpStatus status, final WebRequest request) {
+        if (!acceptsJson(request.getHeader(HttpHeaders.ACCEPT))) {
+            return new ResponseEntity<ErrorResponse>(new ErrorResponse().code(code).message(message), status);
+        }
+        return ResponseEntity.status(status).contentType(MediaType.APPLICATION_JSON_UTF8).body(body(code, message));
+    }
+
+    /**
+     * @param code    error code
+     * @param message error message
+     * @return JSON of the error body, serialized on the first use of the code and message
+     */
+    public byte[] body(final String code, final String message) {
+        String key = code + '\n' + message;
+        byte[] body = bodies.get(key);
+        if (body == null) {
+            body = serialize(new ErrorResponse().code(code).message(message));
+            if (bodies.size() < MAXIMUM_BODIES) {
+                bodies.putIfAbsent(key, body);
+            }
+        }
+        return body;
+    }
+
+    private byte[] serialize(final ErrorResponse errorResponse) {
+        try {
+            return objectMapper.writeValueAsBytes(errorResponse);
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static boolean acceptsJson(final String accept) {
+        if (accept == null || accept.isEmpty()) {
+            return true;
+        }
+        try {
+            List<MediaType> mediaTypes = MediaType.parseMediaTypes(accept);
+            MediaType.sortBySpecificityAndQuality(mediaTypes);
+            return mediaTypes.isEmpty() || mediaTypes.get(0).includes(MediaType.APPLICATION_JSON);
+        } catch (InvalidMediaTypeException e) {
+            return true;
+        }
+    }
+}
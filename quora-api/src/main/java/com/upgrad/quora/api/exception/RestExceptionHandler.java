@@ -1,69 +1,89 @@
 package com.upgrad.quora.api.exception;
 
-import com.upgrad.quora.api.model.ErrorResponse;
 import com.upgrad.quora.service.business.UserAuthenticationService;
 import com.upgrad.quora.service.exception.AnswerNotFoundException;
 import com.upgrad.quora.service.exception.AuthenticationFailedException;
 import com.upgrad.quora.service.exception.AuthorizationFailedException;
+import com.upgrad.quora.service.exception.BatchLimitExceededException;
+import com.upgrad.quora.service.exception.InvalidFieldException;
 import com.upgrad.quora.service.exception.InvalidQuestionException;
+import com.upgrad.quora.service.exception.ServiceUnavailableException;
 import com.upgrad.quora.service.exception.SignOutRestrictedException;
 import com.upgrad.quora.service.exception.SignUpRestrictedException;
 import com.upgrad.quora.service.exception.UserNotFoundException;
+import com.upgrad.quora.service.exception.VersionConflictException;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.ControllerAdvice;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.context.request.async.AsyncRequestTimeoutException;
 
 @ControllerAdvice
 public class RestExceptionHandler {
 
+  @Autowired
+  private ErrorResponses errorResponses;
+
   @ExceptionHandler(SignUpRestrictedException.class)
-  public ResponseEntity<ErrorResponse> signUpRestrictedException(SignUpRestrictedException exe, WebRequest request) {
-    return new ResponseEntity<ErrorResponse>(
-        new ErrorResponse().code(exe.getCode()).message(exe.getErrorMessage()), HttpStatus.CONFLICT
-    );
+  public ResponseEntity<?> signUpRestrictedException(SignUpRestrictedException exe, WebRequest request) {
+    return errorResponses.of(exe.getCode(), exe.getErrorMessage(), HttpStatus.CONFLICT, request);
   }
 
   @ExceptionHandler(SignOutRestrictedException.class)
-  public ResponseEntity<ErrorResponse> userAuthenticationService(SignOutRestrictedException exe, WebRequest request) {
-    return new ResponseEntity<ErrorResponse>(
-        new ErrorResponse().code(exe.getCode()).message(exe.getErrorMessage()), HttpStatus.UNAUTHORIZED
-    );
+  public ResponseEntity<?> userAuthenticationService(SignOutRestrictedException exe, WebRequest request) {
+    return errorResponses.of(exe.getCode(), exe.getErrorMessage(), HttpStatus.UNAUTHORIZED, request);
   }
 
   @ExceptionHandler(UserNotFoundException.class)
-  public ResponseEntity<ErrorResponse> userNotFoundException(UserNotFoundException exe, WebRequest request) {
-    return new ResponseEntity<ErrorResponse>(
-        new ErrorResponse().code(exe.getCode()).message(exe.getErrorMessage()), HttpStatus.NOT_FOUND
-    );
+  public ResponseEntity<?> userNotFoundException(UserNotFoundException exe, WebRequest request) {
+    return errorResponses.of(exe.getCode(), exe.getErrorMessage(), HttpStatus.NOT_FOUND, request);
   }
 
   @ExceptionHandler(InvalidQuestionException.class)
-  public ResponseEntity<ErrorResponse> invalidQuestionException(InvalidQuestionException exe, WebRequest request) {
-    return new ResponseEntity<ErrorResponse>(
-        new ErrorResponse().code(exe.getCode()).message(exe.getErrorMessage()), HttpStatus.NOT_FOUND
-    );
+  public ResponseEntity<?> invalidQuestionException(InvalidQuestionException exe, WebRequest request) {
+    return errorResponses.of(exe.getCode(), exe.getErrorMessage(), HttpStatus.NOT_FOUND, request);
   }
 
   @ExceptionHandler(AuthorizationFailedException.class)
-  public ResponseEntity<ErrorResponse> authorizationFailedException(AuthorizationFailedException exe, WebRequest request) {
-    return new ResponseEntity<ErrorResponse>(
-        new ErrorResponse().code(exe.getCode()).message(exe.getErrorMessage()), HttpStatus.FORBIDDEN
-    );
+  public ResponseEntity<?> authorizationFailedException(AuthorizationFailedException exe, WebRequest request) {
+    return errorResponses.of(exe.getCode(), exe.getErrorMessage(), HttpStatus.FORBIDDEN, request);
   }
 
   @ExceptionHandler(AuthenticationFailedException.class)
-  public ResponseEntity<ErrorResponse> authenticationFailedException(AuthenticationFailedException exe, WebRequest request) {
-    return new ResponseEntity<ErrorResponse>(
-        new ErrorResponse().code(exe.getCode()).message(exe.getErrorMessage()), HttpStatus.NOT_FOUND
-    );
+  public ResponseEntity<?> authenticationFailedException(AuthenticationFailedException exe, WebRequest request) {
+    return errorResponses.of(exe.getCode(), exe.getErrorMessage(), HttpStatus.NOT_FOUND, request);
   }
 
   @ExceptionHandler(AnswerNotFoundException.class)
-  public ResponseEntity<ErrorResponse> answerNotFoundException(AnswerNotFoundException exe, WebRequest request) {
-    return new ResponseEntity<ErrorResponse>(
-        new ErrorResponse().code(exe.getCode()).message(exe.getErrorMessage()), HttpStatus.NOT_FOUND
-    );
+  public ResponseEntity<?> answerNotFoundException(AnswerNotFoundException exe, WebRequest request) {
+    return errorResponses.of(exe.getCode(), exe.getErrorMessage(), HttpStatus.NOT_FOUND, request);
+  }
+
+  @ExceptionHandler(BatchLimitExceededException.class)
+  public ResponseEntity<?> batchLimitExceededException(BatchLimitExceededException exe, WebRequest request) {
+    return errorResponses.of(exe.getCode(), exe.getErrorMessage(), HttpStatus.UNPROCESSABLE_ENTITY, request);
+  }
+
+  @ExceptionHandler(InvalidFieldException.class)
+  public ResponseEntity<?> invalidFieldException(InvalidFieldException exe, WebRequest request) {
+    return errorResponses.of(exe.getCode(), exe.getErrorMessage(), HttpStatus.BAD_REQUEST, request);
+  }
+
+  @ExceptionHandler(VersionConflictException.class)
+  public ResponseEntity<?> versionConflictException(VersionConflictException exe, WebRequest request) {
+    return errorResponses.of(exe.getCode(), exe.getErrorMessage(), HttpStatus.PRECONDITION_FAILED, request);
+  }
+
+  @ExceptionHandler(ServiceUnavailableException.class)
+  public ResponseEntity<?> serviceUnavailableException(ServiceUnavailableException exe, WebRequest request) {
+    return errorResponses.of(exe.getCode(), exe.getErrorMessage(), HttpStatus.SERVICE_UNAVAILABLE, request);
+  }
+
+  // Raised when an asynchronous request did not complete within spring.mvc.async.request-timeout
+  @ExceptionHandler(AsyncRequestTimeoutException.class)
+  public ResponseEntity<?> asyncRequestTimeoutException(AsyncRequestTimeoutException exe, WebRequest request) {
+    return errorResponses.of("SRV-002", "The request timed out, try again later", HttpStatus.SERVICE_UNAVAILABLE, request);
   }
 }
@@ -0,0 +1,66 @@
+package com.upgrad.quora.api.startup;
+
+import org.springframework.beans.BeansException;
+import org.springframework.beans.factory.annotation.AnnotatedBeanDefinition;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.beans.factory.config.BeanFactoryPostProcessor;
+import org.springframework.beans.factory.config.ConfigurableListableBeanFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.core.env.Environment;
+import org.springframework.core.type.MethodMetadata;
+import org.springframework.util.StringUtils;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * With quora.startup.lazy-initialization set, singletons are created when they are first needed instead of at startup,
+ * as Spring Boot 2.2 does with spring.main.lazy-initialization, which this version lacks. Beans which have to exist
+ * from the start stay eager: infrastructure beans, beans annotated with @Lazy(false), such as the scheduled background
+ * jobs, and the beans listed in quora.startup.eager-beans, by default the data source and the entity manager factory so
+ * that the first request does not wait for Hibernate to boot.
+ */
+@Configuration
+public class LazyInitializationConfiguration {
+
+    /**
+     * Static so that it does not force the early creation of this configuration.
+     */
+    @Bean
+    public static BeanFactoryPostProcessor lazyInitializationPostProcessor(final Environment environment) {
+        boolean enabled = environment.getProperty("quora.startup.lazy-initialization", Boolean.class, false);
+        Set<String> eagerBeans = new HashSet<>(Arrays.asList(StringUtils.commaDelimitedListToStringArray(
+                StringUtils.trimAllWhitespace(environment.getProperty("quora.startup.eager-beans", "dataSource,entityManagerFactory")))));
+        return beanFactory -> {
+            if (enabled) {
+                markLazy(beanFactory, eagerBeans);
+            }
+        };
+    }
+
+    private static void markLazy(final ConfigurableListableBeanFactory beanFactory, final Set<String> eagerBeans) throws BeansException {
+        for (String name : beanFactory.getBeanDefinitionNames()) {
+            BeanDefinition definition = beanFactory.getBeanDefinition(name);
+            if (definition.getRole() == BeanDefinition.ROLE_INFRASTRUCTURE || !definition.isSingleton()
+                    || eagerBeans.contains(name) || isEager(definition)) {
+                continue;
+            }
+            definition.setLazyInit(true);
+        }
+    }
+
+    private static boolean isEager(final BeanDefinition definition) {
+        if (!(definition instanceof AnnotatedBeanDefinition)) {
+            return false;
+        }
+        MethodMetadata factoryMethod = ((AnnotatedBeanDefinition) definition).getFactoryMethodMetadata();
+        Map<String, Object> lazy = factoryMethod != null
+                ? factoryMethod.getAnnotationAttributes(Lazy.class.getName())
+                : ((AnnotatedBeanDefinition) definition).getMetadata().getAnnotationAttributes(Lazy.class.getName());
+        return lazy != null && Boolean.FALSE.equals(lazy.get("value"));
+    }
+}
@@ -0,0 +1,235 @@
+package com.upgrad.quora.api.startup;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.BeansException;
+import org.springframework.beans.factory.config.BeanFactoryPostProcessor;
+import org.springframework.beans.factory.config.InstantiationAwareBeanPostProcessorAdapter;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.SpringApplicationRunListener;
+import org.springframework.boot.web.context.WebServerInitializedEvent;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.context.event.ContextRefreshedEvent;
+import org.springframework.core.Ordered;
+import org.springframework.core.env.ConfigurableEnvironment;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Logs how long each phase of the startup took, from the start of the JVM to the application being ready to serve,
+ * and the beans which took the longest to create, not counting the beans they depend on. Phases:
+ * jvm (until main), environment, context (bean definitions of the sources), configuration (component scan, auto
+ * configuration and the other bean factory post processors), beans (the singletons, Hibernate included), lifecycle
+ * (lifecycle beans, such as the springfox documentation scan), web server and ready (runners). Enabled by
+ * quora.startup.timeline; with quora.startup.exit the application exits as soon as it is ready, for the training run
+ * of the class data sharing archive (see the startup profile of the pom).
+ * Registered in META-INF/spring.factories, a run listener is created before the application context.
+ */
+public class StartupTimeline implements SpringApplicationRunListener, Ordered {
+
+    private static final Logger LOG = LoggerFactory.getLogger(StartupTimeline.class);
+
+    private static final int SLOWEST_BEANS = 10;
+
+    private final SpringApplication application;
+
+    private final Map<String, Long> phases = new LinkedHashMap<>();
+
+    private final BeanTimer beanTimer = new BeanTimer();
+
+    private long last;
+
+    private boolean enabled = true;
+
+    public StartupTimeline(final SpringApplication application, final String[] args) {
+        this.application = application;
+    }
+
+    @Override
+    public int getOrder() {
+        return Ordered.HIGHEST_PRECEDENCE;
+    }
+
+    @Override
+    public void starting() {
+        long now = System.nanoTime();
+        phases.put("jvm", ManagementFactory.getRuntimeMXBean().getUptime() * 1_000_000);
+        last = now;
+    }
+
+    @Override
+    public void environmentPrepared(final ConfigurableEnvironment environment) {
+        enabled = environment.getProperty("quora.startup.timeline", Boolean.class, true);
+        mark("environment");
+    }
+
+    @Override
+    public void contextPrepared(final ConfigurableApplicationContext context) {
+        if (!enabled) {
+            return;
+        }
+        context.getBeanFactory().addBeanPostProcessor(beanTimer);
+        context.getBeanFactory().registerSingleton(StartupTimeline.class.getName() + ".configuration",
+                (BeanFactoryPostProcessor) beanFactory -> mark("configuration"));
+        context.getBeanFactory().registerSingleton(StartupTimeline.class.getName() + ".lifecycle", new LifecycleMark());
+        // One listener of all events: the event type of a lambda cannot be resolved, it would be handed every event
+        context.addApplicationListener(event -> {
+            if (event instanceof ContextRefreshedEvent) {
+                mark("lifecycle");
+            } else if (event instanceof WebServerInitializedEvent) {
+                mark("web server");
+            }
+        });
+    }
+
+    @Override
+    public void contextLoaded(final ConfigurableApplicationContext context) {
+        mark("context");
+    }
+
+    @Override
+    public void started(final ConfigurableApplicationContext context) {
+    }
+
+    @Override
+    public void running(final ConfigurableApplicationContext context) {
+        mark("ready");
+        if (enabled) {
+            log();
+        }
+        if (context.getEnvironment().getProperty("quora.startup.exit", Boolean.class, false)) {
+            System.exit(SpringApplication.exit(context));
+        }
+    }
+
+    @Override
+    public void failed(final ConfigurableApplicationContext context, final Throwable exception) {
+    }
+
+    private synchronized void mark(final String phase) {
+        long now = System.nanoTime();
+        phases.merge(phase, now - last, Long::sum);
+        last = now;
+    }
+
+    private void log() {
+        StringBuilder timeline = new StringBuilder("Startup timeline of ").append(application.getMainApplicationClass() == null
+                ? "the application" : application.getMainApplicationClass().getSimpleName()).append(':');
+        long total = 0;
+        for (Map.Entry<String, Long> phase : phases.entrySet()) {
+            total += phase.getValue();
+            timeline.append(String.format("%n  %-12s %8d ms", phase.getKey(), phase.getValue() / 1_000_000));
+        }
+        timeline.append(String.format("%n  %-12s %8d ms%n  %d beans created in %d ms, the slowest (self time):", "total",
+                total / 1_000_000, beanTimer.count(), beanTimer.total() / 1_000_000));
+        for (Map.Entry<String, Long> bean : beanTimer.slowest(SLOWEST_BEANS)) {
+            timeline.append(String.format("%n  %8d ms  %s", bean.getValue() / 1_000_000, bean.getKey()));
+        }
+        LOG.info(timeline.toString());
+    }
+
+    /**
+     * Marks the end of the creation of the singletons: started first among the lifecycle beans.
+     */
+    private final class LifecycleMark implements SmartLifecycle {
+
+        private volatile boolean running;
+
+        @Override
+        public void start() {
+            mark("beans");
+            running = true;
+        }
+
+        @Override
+        public void stop() {
+            running = false;
+        }
+
+        @Override
+        public boolean isRunning() {
+            return running;
+        }
+
+        @Override
+        public boolean isAutoStartup() {
+            return true;
+        }
+
+        @Override
+        public void stop(final Runnable callback) {
+            stop();
+            callback.run();
+        }
+
+        @Override
+        public int getPhase() {
+            return Integer.MIN_VALUE;
+        }
+    }
+
+    /**
+     * Times the creation of each bean, from before its instantiation to after its initialization, less the time
+     * spent creating the beans it depends on. Beans are created on the main thread during the refresh.
+     */
+    private static final class BeanTimer extends InstantiationAwareBeanPostProcessorAdapter {
+
+        private final Deque<long[]> creations = new ArrayDeque<>();
+
+        private final Deque<String> names = new ArrayDeque<>();
+
+        private final Map<String, Long> selfTimes = new LinkedHashMap<>();
+
+        @Override
+        public synchronized Object postProcessBeforeInstantiation(final Class<?> beanClass, final String beanName) throws BeansException {
+            creations.push(new long[]{System.nanoTime(), 0});
+            names.push(beanName);
+            return null;
+        }
+
+        @Override
+        public synchronized Object postProcessAfterInitialization(final Object bean, final String beanName) throws BeansException {
+            if (!names.contains(beanName)) {
+                return bean;
+            }
+            while (!names.isEmpty()) {
+                String name = names.pop();
+                long[] creation = creations.pop();
+                long elapsed = System.nanoTime() - creation[0];
+                if (!creations.isEmpty()) {
+                    creations.peek()[1] += elapsed;
+                }
+                if (name.equals(beanName)) {
+                    selfTimes.merge(name, elapsed - creation[1], Long::sum);
+                    break;
+                }
+            }
+            return bean;
+        }
+
+        synchronized int count() {
+            return selfTimes.size();
+        }
+
+        synchronized long total() {
+            long total = 0;
+            for (long selfTime : selfTimes.values()) {
+                total += selfTime;
+            }
+            return total;
+        }
+
+        synchronized List<Map.Entry<String, Long>> slowest(final int limit) {
+            List<Map.Entry<String, Long>> beans = new ArrayList<>(selfTimes.entrySet());
+            beans.sort(Map.Entry.<String, Long>comparingByValue().reversed());
+            return beans.subList(0, Math.min(limit, beans.size()));
+        }
+    }
+}
@@ -0,0 +1,54 @@
+package com.upgrad.quora.api.benchmark;
+
+import java.lang.management.ManagementFactory;
+
+/**
+ * Minimal single threaded micro benchmark: runs an operation for a number of warm up iterations and then measures the
+ * CPU time and heap allocation of the calling thread per operation. Good enough to compare two code paths side by
+ * side in the same JVM, not a replacement for a JMH run.
+ */
+final class Benchmark {
+
+    private static final com.sun.management.ThreadMXBean THREADS =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+    private Benchmark() {
+    }
+
+    static Result run(final String name, final int warmupIterations, final int iterations, final Runnable operation) {
+        for (int i = 0; i < warmupIterations; i++) {
+            operation.run();
+        }
+        long threadId = Thread.currentThread().getId();
+        long cpuBefore = THREADS.getCurrentThreadCpuTime();
+        long bytesBefore = THREADS.getThreadAllocatedBytes(threadId);
+        for (int i = 0; i < iterations; i++) {
+            operation.run();
+        }
+        long cpu = THREADS.getCurrentThreadCpuTime() - cpuBefore;
+        long bytes = THREADS.getThreadAllocatedBytes(threadId) - bytesBefore;
+        Result result = new Result(name, cpu / iterations, bytes / iterations);
+        System.out.println(result);
+        return result;
+    }
+
+    static final class Result {
+
+        final String name;
+
+        final long cpuNanosPerOp;
+
+        final long bytesPerOp;
+
+        Result(final String name, final long cpuNanosPerOp, final long bytesPerOp) {
+            this.name = name;
+            this.cpuNanosPerOp = cpuNanosPerOp;
+            this.bytesPerOp = bytesPerOp;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%-40s %10.1f us cpu/op %12d bytes/op", name, cpuNanosPerOp / 1000.0, bytesPerOp);
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package com.upgrad.quora.api.benchmark;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.upgrad.quora.api.model.AnswerDetailsResponse;
+import com.upgrad.quora.api.model.QuestionDetailsResponse;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.Assume.assumeTrue;
+
+/**
+ * Compares the payload size and the CPU time and allocation per encode of the JSON and CBOR encodings of the
+ * /question/all and /answer/all/{questionId} response bodies. Skipped unless run with -Dquora.benchmark=true,
+ * e.g. mvn test -Dtest=EncodingBenchmark -Dquora.benchmark=true
+ */
+public class EncodingBenchmark {
+
+    private static final int WARMUP_ITERATIONS = 2_000;
+    private static final int ITERATIONS = 5_000;
+
+    private static final int QUESTIONS = 200;
+    private static final int ANSWERS = 50;
+
+    private final ObjectMapper json = Jackson2ObjectMapperBuilder.json().build();
+
+    private final ObjectMapper cbor = Jackson2ObjectMapperBuilder.cbor().build();
+
+    @BeforeClass
+    public static void enabled() {
+        assumeTrue(Boolean.getBoolean("quora.benchmark"));
+    }
+
+    @Test
+    public void allQuestions() {
+        List<QuestionDetailsResponse> questions = new ArrayList<>(QUESTIONS);
+        for (int i = 0; i < QUESTIONS; i++) {
+            questions.add(new QuestionDetailsResponse().id(UUID.randomUUID().toString()).content("What is the best way to learn question number " + i + "?"));
+        }
+        compare("all questions", questions);
+    }
+
+    @Test
+    public void allAnswers() {
+        List<AnswerDetailsResponse> answers = new ArrayList<>(ANSWERS);
+        for (int i = 0; i < ANSWERS; i++) {
+            answers.add(new AnswerDetailsResponse().id(UUID.randomUUID().toString())
+                    .questionContent("What is the best way to learn Java?")
+                    .answerContent("Write a lot of small programs and read other people's code, answer number " + i));
+        }
+        compare("all answers", answers);
+    }
+
+    private void compare(final String body, final Object value) {
+        System.out.println(String.format("%-40s %10d bytes JSON %10d bytes CBOR", body, encode(json, value).length, encode(cbor, value).length));
+        Benchmark.run(body + " (JSON)", WARMUP_ITERATIONS, ITERATIONS, () -> encode(json, value));
+        Benchmark.run(body + " (CBOR)", WARMUP_ITERATIONS, ITERATIONS, () -> encode(cbor, value));
+    }
+
+    private static byte[] encode(final ObjectMapper objectMapper, final Object value) {
+        try {
+            return objectMapper.writeValueAsBytes(value);
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
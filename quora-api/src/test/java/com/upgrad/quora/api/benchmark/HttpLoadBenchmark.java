@@ -0,0 +1,129 @@
+package com.upgrad.quora.api.benchmark;
+
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assume.assumeTrue;
+
+/**
+ * Closed loop load test against a running server: a fixed number of clients send the same request back to back for a
+ * while, then throughput and latency percentiles are printed. Used to compare the platform and the virtual thread
+ * "db" executor (quora.executors.db.virtual-threads) by starting the server once in each mode. Skipped unless run with
+ * -Dquora.benchmark=true, e.g.
+ * mvn test -Dtest=HttpLoadBenchmark -Dquora.benchmark=true -Dquora.load.url=http://localhost:8080/api/question/all
+ * Other knobs: quora.load.token (authorization header), quora.load.clients, quora.load.warmup-seconds and
+ * quora.load.seconds.
+ */
+public class HttpLoadBenchmark {
+
+    private static final String URL = System.getProperty("quora.load.url", "http://localhost:8080/api/question/all");
+    private static final String TOKEN = System.getProperty("quora.load.token", "database_accesstoken");
+    private static final int CLIENTS = Integer.getInteger("quora.load.clients", 200);
+    private static final int WARMUP_SECONDS = Integer.getInteger("quora.load.warmup-seconds", 10);
+    private static final int SECONDS = Integer.getInteger("quora.load.seconds", 30);
+
+    @BeforeClass
+    public static void enabled() {
+        assumeTrue(Boolean.getBoolean("quora.benchmark"));
+    }
+
+    @Test
+    public void closedLoop() throws Exception {
+        load(WARMUP_SECONDS);
+        Run run = load(SECONDS);
+        long[] latencies = run.latencies();
+        Arrays.sort(latencies);
+        System.out.println(String.format("%s with %d clients for %ds: %d requests, %.0f req/s, %d errors, p50 %.1f ms, p99 %.1f ms, max %.1f ms",
+                URL, CLIENTS, SECONDS, latencies.length, latencies.length / (double) SECONDS, run.errors,
+                percentile(latencies, 0.50), percentile(latencies, 0.99), percentile(latencies, 1.0)));
+    }
+
+    private static Run load(final int seconds) throws Exception {
+        ExecutorService clients = Executors.newFixedThreadPool(CLIENTS);
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(seconds);
+        List<Future<Client>> futures = new ArrayList<>(CLIENTS);
+        for (int i = 0; i < CLIENTS; i++) {
+            futures.add(clients.submit(() -> new Client().runUntil(deadline)));
+        }
+        Run run = new Run();
+        for (Future<Client> future : futures) {
+            run.add(future.get());
+        }
+        clients.shutdown();
+        return run;
+    }
+
+    private static double percentile(final long[] sortedNanos, final double percentile) {
+        if (sortedNanos.length == 0) {
+            return 0;
+        }
+        int index = (int) Math.ceil(percentile * sortedNanos.length) - 1;
+        return sortedNanos[Math.max(0, index)] / 1_000_000.0;
+    }
+
+    private static final class Client {
+
+        private long[] latencies = new long[1024];
+
+        private int count;
+
+        private int errors;
+
+        private Client runUntil(final long deadline) {
+            byte[] buffer = new byte[8192];
+            while (System.nanoTime() < deadline) {
+                long start = System.nanoTime();
+                try {
+                    HttpURLConnection connection = (HttpURLConnection) new URL(URL).openConnection();
+                    connection.setRequestProperty("authorization", TOKEN);
+                    int status = connection.getResponseCode();
+                    try (InputStream body = status < 400 ? connection.getInputStream() : connection.getErrorStream()) {
+                        while (body != null && body.read(buffer) >= 0) {
+                            // drain the body so that the connection is kept alive
+                        }
+                    }
+                    if (status != 200) {
+                        errors++;
+                        continue;
+                    }
+                } catch (IOException e) {
+                    errors++;
+                    continue;
+                }
+                if (count == latencies.length) {
+                    latencies = Arrays.copyOf(latencies, count * 2);
+                }
+                latencies[count++] = System.nanoTime() - start;
+            }
+            return this;
+        }
+    }
+
+    private static final class Run {
+
+        private final List<long[]> latencies = new ArrayList<>();
+
+        private int errors;
+
+        private void add(final Client client) {
+            latencies.add(Arrays.copyOf(client.latencies, client.count));
+            errors += client.errors;
+        }
+
+        private long[] latencies() {
+            return latencies.stream().flatMapToLong(Arrays::stream).toArray();
+        }
+    }
+}
@@ -0,0 +1,89 @@
+package com.upgrad.quora.api.benchmark;
+
+import com.upgrad.quora.service.dao.AnswerDao;
+import com.upgrad.quora.service.dao.QuestionDao;
+import com.upgrad.quora.service.dao.ReadRepository;
+import com.upgrad.quora.service.dao.UserAuthDao;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.function.Supplier;
+
+import static org.junit.Assume.assumeTrue;
+
+/**
+ * Compares the CPU time and allocation per lookup of the JPA named queries with the JDBC ReadRepository, against the
+ * test database. Each lookup runs in its own read-only transaction on both paths. Skipped unless run with
+ * -Dquora.benchmark=true, e.g. mvn test -Dtest=ReadPathBenchmark -Dquora.benchmark=true
+ */
+@RunWith(SpringRunner.class)
+@SpringBootTest
+public class ReadPathBenchmark {
+
+    private static final int WARMUP_ITERATIONS = 2_000;
+    private static final int ITERATIONS = 5_000;
+
+    private static final String ACCESS_TOKEN = "database_accesstoken";
+    private static final String QUESTION_UUID = "database_question_uuid";
+
+    @Autowired
+    private UserAuthDao userAuthDao;
+
+    @Autowired
+    private QuestionDao questionDao;
+
+    @Autowired
+    private AnswerDao answerDao;
+
+    @Autowired
+    private ReadRepository readRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private TransactionTemplate readOnly;
+
+    @BeforeClass
+    public static void enabled() {
+        assumeTrue(Boolean.getBoolean("quora.benchmark"));
+    }
+
+    @Before
+    public void setUp() {
+        readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+    }
+
+    @Test
+    public void authLookup() {
+        compare("auth lookup",
+                () -> userAuthDao.getUserAuthByToken(ACCESS_TOKEN),
+                () -> readRepository.getUserAuthByToken(ACCESS_TOKEN));
+    }
+
+    @Test
+    public void questionByUuid() {
+        compare("question by uuid",
+                () -> questionDao.getQuestionById(QUESTION_UUID),
+                () -> readRepository.getQuestionByUuid(QUESTION_UUID));
+    }
+
+    @Test
+    public void answersByQuestion() {
+        compare("answers by question",
+                () -> answerDao.getAllAnswersToQuestion(QUESTION_UUID),
+                () -> readRepository.getAnswersByQuestion(QUESTION_UUID));
+    }
+
+    private void compare(final String query, final Supplier<?> jpa, final Supplier<?> jdbc) {
+        Benchmark.run(query + " (JPA)", WARMUP_ITERATIONS, ITERATIONS, () -> readOnly.execute(status -> jpa.get()));
+        Benchmark.run(query + " (JDBC)", WARMUP_ITERATIONS, ITERATIONS, () -> readOnly.execute(status -> jdbc.get()));
+    }
+}
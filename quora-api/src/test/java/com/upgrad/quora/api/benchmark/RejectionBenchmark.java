@@ -0,0 +1,113 @@
+package com.upgrad.quora.api.benchmark;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.upgrad.quora.api.exception.ErrorResponses;
+import com.upgrad.quora.api.model.ErrorResponse;
+import com.upgrad.quora.service.exception.AuthorizationFailedException;
+import com.upgrad.quora.service.exception.StackTraces;
+import org.junit.After;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+
+import java.io.UncheckedIOException;
+
+import static org.junit.Assume.assumeTrue;
+
+/**
+ * Measures the CPU time and allocation of rejecting a request, with and without the stack traces of the service
+ * exceptions: creating an AuthorizationFailedException deep in a stack, as it is under the servlet container and
+ * Spring, serializing its error body per request against the pre-serialized one, and a whole request rejected with
+ * ATHR-001. Skipped unless run with -Dquora.benchmark=true, e.g.
+ * mvn test -Dtest=RejectionBenchmark -Dquora.benchmark=true
+ */
+@RunWith(SpringRunner.class)
+@SpringBootTest
+@AutoConfigureMockMvc
+public class RejectionBenchmark {
+
+    private static final int WARMUP_ITERATIONS = 20_000;
+    private static final int ITERATIONS = 50_000;
+
+    private static final int REQUEST_WARMUP_ITERATIONS = 2_000;
+    private static final int REQUEST_ITERATIONS = 5_000;
+
+    private static final int STACK_DEPTH = 120;
+
+    @Autowired
+    private MockMvc mvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private ErrorResponses errorResponses;
+
+    @BeforeClass
+    public static void enabled() {
+        assumeTrue(Boolean.getBoolean("quora.benchmark"));
+    }
+
+    @After
+    public void tearDown() {
+        StackTraces.setCaptured(false);
+    }
+
+    @Test
+    public void exceptionCreation() {
+        StackTraces.setCaptured(true);
+        Benchmark.run("exception (stack trace)", WARMUP_ITERATIONS, ITERATIONS, () -> atDepth(STACK_DEPTH));
+        StackTraces.setCaptured(false);
+        Benchmark.run("exception (stackless)", WARMUP_ITERATIONS, ITERATIONS, () -> atDepth(STACK_DEPTH));
+    }
+
+    @Test
+    public void errorBody() {
+        Benchmark.run("error body (serialized per request)", WARMUP_ITERATIONS, ITERATIONS,
+                () -> serialize(new ErrorResponse().code("ATHR-001").message("User has not signed in")));
+        Benchmark.run("error body (pre-serialized)", WARMUP_ITERATIONS, ITERATIONS,
+                () -> errorResponses.body("ATHR-001", "User has not signed in"));
+    }
+
+    @Test
+    public void rejectedRequest() {
+        StackTraces.setCaptured(true);
+        Benchmark.run("rejected request (stack trace)", REQUEST_WARMUP_ITERATIONS, REQUEST_ITERATIONS, this::reject);
+        StackTraces.setCaptured(false);
+        Benchmark.run("rejected request (stackless)", REQUEST_WARMUP_ITERATIONS, REQUEST_ITERATIONS, this::reject);
+    }
+
+    private void reject() {
+        try {
+            mvc.perform(MockMvcRequestBuilders.get("/question/database_question_uuid/full").header("authorization", "non_existing_access_token"));
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static Exception atDepth(final int depth) {
+        if (depth > 0) {
+            return atDepth(depth - 1);
+        }
+        try {
+            throw new AuthorizationFailedException("ATHR-001", "User has not signed in");
+        } catch (AuthorizationFailedException e) {
+            return e;
+        }
+    }
+
+    private byte[] serialize(final ErrorResponse errorResponse) {
+        try {
+            return objectMapper.writeValueAsBytes(errorResponse);
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
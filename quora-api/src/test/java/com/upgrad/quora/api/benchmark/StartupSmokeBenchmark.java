@@ -0,0 +1,176 @@
+package com.upgrad.quora.api.benchmark;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assume.assumeTrue;
+
+/**
+ * Starts the API as a separate process, waits for its first served request, calls an endpoint of every controller
+ * against the local Postgres and reports the time to the first request and the resident memory (RSS) of the JVM
+ * process. The flow signs up, signs in and deletes its own user, so it can be repeated; the admin token must exist in the database (by default
+ * the one of quora_test.sql). Linux only, the memory is read from /proc. Skipped unless run with
+ * -Dquora.benchmark=true, e.g.
+ * mvn test -Dtest=StartupSmokeBenchmark -Dquora.benchmark=true
+ * Other knobs: quora.smoke.port and quora.smoke.admin-token.
+ */
+public class StartupSmokeBenchmark {
+
+    private static final int PORT = Integer.getInteger("quora.smoke.port", 8090);
+    private static final String ADMIN_TOKEN = System.getProperty("quora.smoke.admin-token", "database_accesstoken");
+    private static final long STARTUP_TIMEOUT_MS = TimeUnit.MINUTES.toMillis(3);
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @BeforeClass
+    public static void enabled() {
+        assumeTrue(Boolean.getBoolean("quora.benchmark"));
+    }
+
+    @Test
+    public void jvm() throws Exception {
+        List<String> command = new ArrayList<>(Arrays.asList(Paths.get(System.getProperty("java.home"), "bin", "java").toString(),
+                "-cp", System.getProperty("surefire.test.class.path", System.getProperty("java.class.path")), "com.upgrad.quora.api.QuoraApiApplication"));
+        smoke("jvm", command);
+    }
+
+    private void smoke(final String name, final List<String> command) throws Exception {
+        Path log = Paths.get("target", "smoke-" + name + ".log");
+        Path pidFile = Paths.get("target", "smoke-" + name + ".pid");
+        Files.deleteIfExists(pidFile);
+        command.add("--server.port=" + PORT);
+        // The shell writes its pid, which exec hands over to the application: Java 8 has no Process.pid()
+        List<String> shell = new ArrayList<>(Arrays.asList("sh", "-c", "echo $$ > \"$0\"; exec \"$@\"", pidFile.toString()));
+        shell.addAll(command);
+        long start = System.nanoTime();
+        Process process = new ProcessBuilder(shell).redirectErrorStream(true).redirectOutput(log.toFile()).start();
+        try {
+            long startupMs = awaitFirstRequest(process, start);
+            String pid = new String(Files.readAllBytes(pidFile), StandardCharsets.US_ASCII).trim();
+            long rssAfterStartup = memoryKb(pid, "VmRSS");
+            exerciseControllers();
+            System.out.println(String.format("%-8s first request after %6d ms, RSS %7d kB after startup, %7d kB after the smoke run (peak %7d kB)",
+                    name, startupMs, rssAfterStartup, memoryKb(pid, "VmRSS"), memoryKb(pid, "VmHWM")));
+        } finally {
+            process.destroy();
+            if (!process.waitFor(30, TimeUnit.SECONDS)) {
+                process.destroyForcibly();
+            }
+        }
+    }
+
+    private long awaitFirstRequest(final Process process, final long start) throws Exception {
+        long deadline = System.currentTimeMillis() + STARTUP_TIMEOUT_MS;
+        while (System.currentTimeMillis() < deadline) {
+            if (!process.isAlive()) {
+                throw new IllegalStateException("The application exited with " + process.exitValue() + ", see target/smoke-*.log");
+            }
+            try {
+                if (call("GET", "/actuator/health", null).status == 200) {
+                    return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+                }
+            } catch (IOException e) {
+                // not listening yet
+            }
+            Thread.sleep(20);
+        }
+        throw new IllegalStateException("The application did not serve a request within " + STARTUP_TIMEOUT_MS + " ms");
+    }
+
+    private void exerciseControllers() throws Exception {
+        String userName = "smoke_" + System.currentTimeMillis();
+        Response signup = expect(201, call("POST", "/user/signup?firstName=smoke&lastName=smoke&userName=" + userName + "&emailAddress="
+                + userName + "@smoke&password=smoke&country=smoke&aboutMe=smoke&dob=2000-01-01&contactNumber=0", null));
+        String userId = signup.json.path("id").asText();
+        String credentials = Base64.getEncoder().encodeToString(("Basic " + userName + ":smoke").getBytes(StandardCharsets.UTF_8));
+        String token = expect(200, call("POST", "/user/signin", credentials)).accessToken;
+
+        String questionId = expect(201, call("POST", "/question/create?content=smoke_question", token)).json.path("id").asText();
+        expect(200, call("GET", "/question/all", token));
+        expect(201, call("PUT", "/question/edit/" + questionId + "?content=smoke_question_edited", token));
+        String answerId = expect(201, call("POST", "/question/" + questionId + "/answer/create?answer=smoke_answer", token)).json.path("id").asText();
+        expect(200, call("GET", "/answer/all/" + questionId, token));
+        expect(200, call("PUT", "/answer/edit/" + answerId + "?content=smoke_answer_edited", token));
+        expect(200, call("GET", "/question/" + questionId + "/full", token));
+        expect(200, call("DELETE", "/answer/delete/" + answerId, token));
+        expect(201, call("DELETE", "/question/delete/" + questionId, token));
+        expect(200, call("GET", "/userprofile/" + userId, token));
+        expect(200, call("POST", "/user/signout", token));
+        expect(200, call("DELETE", "/admin/user/" + userId, ADMIN_TOKEN));
+        expect(200, call("GET", "/v2/api-docs", null));
+    }
+
+    private Response call(final String method, final String path, final String authorization) throws IOException {
+        HttpURLConnection connection = (HttpURLConnection) new URL("http://localhost:" + PORT + "/api" + path).openConnection();
+        connection.setRequestMethod(method);
+        connection.setConnectTimeout(1000);
+        connection.setRequestProperty("Content-Type", "application/json;charset=UTF-8");
+        if (authorization != null) {
+            connection.setRequestProperty("authorization", authorization);
+        }
+        int status = connection.getResponseCode();
+        ByteArrayOutputStream body = new ByteArrayOutputStream();
+        try (InputStream inputStream = status < 400 ? connection.getInputStream() : connection.getErrorStream()) {
+            byte[] buffer = new byte[8192];
+            int read;
+            while (inputStream != null && (read = inputStream.read(buffer)) >= 0) {
+                body.write(buffer, 0, read);
+            }
+        }
+        Response response = new Response(method + " " + path, status, connection.getHeaderField("access-token"));
+        if (body.size() > 0 && connection.getContentType() != null && connection.getContentType().contains("json")) {
+            response.json = objectMapper.readTree(body.toByteArray());
+        }
+        return response;
+    }
+
+    private static Response expect(final int status, final Response response) {
+        assertEquals(response.request + " answered " + response.json, status, response.status);
+        return response;
+    }
+
+    private static long memoryKb(final String pid, final String field) throws IOException {
+        for (String line : Files.readAllLines(Paths.get("/proc", pid, "status"))) {
+            if (line.startsWith(field + ":")) {
+                return Long.parseLong(line.replaceAll("[^0-9]", ""));
+            }
+        }
+        return -1;
+    }
+
+    private static final class Response {
+
+        private final String request;
+
+        private final int status;
+
+        private final String accessToken;
+
+        private JsonNode json;
+
+        private Response(final String request, final int status, final String accessToken) {
+            this.request = request;
+            this.status = status;
+            this.accessToken = accessToken;
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package com.upgrad.quora.api.benchmark;
+
+import com.upgrad.quora.service.id.IdGenerator;
+import com.upgrad.quora.service.id.RandomIdGenerator;
+import com.upgrad.quora.service.id.TimeOrderedIdGenerator;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.junit4.SpringRunner;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assume.assumeTrue;
+
+/**
+ * Compares the random (version 4) and time-ordered (version 7) uuid schemes: the CPU time and allocation of generating
+ * a uuid, and, against the test database, the throughput of inserting rows into a table with a unique index on a
+ * uuid column like the ones of users, user_auth, question and answer, the size of that index and the WAL written.
+ * Skipped unless run with -Dquora.benchmark=true, e.g.
+ * mvn test -Dtest=UuidIndexBenchmark -Dquora.benchmark=true -Dquora.benchmark.rows=1000000
+ */
+@RunWith(SpringRunner.class)
+@SpringBootTest
+public class UuidIndexBenchmark {
+
+    private static final int WARMUP_ITERATIONS = 100_000;
+    private static final int ITERATIONS = 1_000_000;
+
+    private static final int ROWS = Integer.getInteger("quora.benchmark.rows", 500_000);
+    private static final int BATCH_SIZE = 1_000;
+
+    private static final String TABLE = "uuid_index_benchmark";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeClass
+    public static void enabled() {
+        assumeTrue(Boolean.getBoolean("quora.benchmark"));
+    }
+
+    @Test
+    public void generate() {
+        IdGenerator random = new RandomIdGenerator();
+        IdGenerator timeOrdered = new TimeOrderedIdGenerator();
+        Benchmark.run("generate (random)", WARMUP_ITERATIONS, ITERATIONS, random::generate);
+        Benchmark.run("generate (time-ordered)", WARMUP_ITERATIONS, ITERATIONS, timeOrdered::generate);
+    }
+
+    @Test
+    public void insert() {
+        insert("random", new RandomIdGenerator());
+        insert("time-ordered", new TimeOrderedIdGenerator());
+    }
+
+    private void insert(final String scheme, final IdGenerator idGenerator) {
+        jdbcTemplate.execute("DROP TABLE IF EXISTS " + TABLE);
+        jdbcTemplate.execute("CREATE TABLE " + TABLE + "(id SERIAL, uuid VARCHAR(200) NOT NULL, PRIMARY KEY(id))");
+        jdbcTemplate.execute("CREATE UNIQUE INDEX IDX_" + TABLE + "_UUID ON " + TABLE + "(uuid)");
+        try {
+            String walBefore = jdbcTemplate.queryForObject("SELECT pg_current_wal_insert_lsn()::text", String.class);
+            long start = System.nanoTime();
+            List<Object[]> batch = new ArrayList<>(BATCH_SIZE);
+            for (int i = 0; i < ROWS; i++) {
+                batch.add(new Object[]{idGenerator.generate()});
+                if (batch.size() == BATCH_SIZE || i == ROWS - 1) {
+                    jdbcTemplate.batchUpdate("INSERT INTO " + TABLE + "(uuid) VALUES (?)", batch);
+                    batch.clear();
+                }
+            }
+            long nanos = System.nanoTime() - start;
+            long walBytes = jdbcTemplate.queryForObject("SELECT pg_wal_lsn_diff(pg_current_wal_insert_lsn(), ?::pg_lsn)::bigint", Long.class, walBefore);
+            long indexBytes = jdbcTemplate.queryForObject("SELECT pg_relation_size('idx_" + TABLE + "_uuid')", Long.class);
+            System.out.println(String.format("%-40s %10.0f rows/s %8.1f MB uuid index %8.1f MB WAL", "insert " + ROWS + " (" + scheme + ")",
+                    ROWS / (nanos / 1e9), indexBytes / 1e6, walBytes / 1e6));
+        } finally {
+            jdbcTemplate.execute("DROP TABLE " + TABLE);
+        }
+    }
+}
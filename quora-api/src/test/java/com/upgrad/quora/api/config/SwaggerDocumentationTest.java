@@ -0,0 +1,56 @@
+package com.upgrad.quora.api.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Generates the Swagger documentation served by StaticSwaggerConfiguration: the documentation springfox scans is
+ * written to target/classes, so that the jar packaged after the tests contains it.
+ */
+@RunWith(SpringRunner.class)
+@SpringBootTest
+@ActiveProfiles("dev")
+@AutoConfigureMockMvc
+public class SwaggerDocumentationTest {
+
+    @Autowired
+    private MockMvc mvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    //This test case passes when the documentation of the controllers is scanned and written to the classes of the build.
+    @Test
+    public void generateApiDocs() throws Exception {
+        MvcResult result = mvc.perform(MockMvcRequestBuilders.get("/api/v2/api-docs").contextPath("/api"))
+                .andExpect(status().isOk())
+                .andReturn();
+        ObjectNode apiDocs = (ObjectNode) objectMapper.readTree(result.getResponse().getContentAsByteArray());
+        assertEquals("/api", apiDocs.path("basePath").asText());
+        assertTrue(apiDocs.path("paths").has("/question/all"));
+        // The host of the mock request, the swagger-ui page falls back to the host it was loaded from
+        apiDocs.remove("host");
+
+        Path path = Paths.get("target", "classes").resolve(SwaggerConfiguration.API_DOCS);
+        Files.createDirectories(path.getParent());
+        Files.write(path, objectMapper.writeValueAsBytes(apiDocs));
+    }
+}
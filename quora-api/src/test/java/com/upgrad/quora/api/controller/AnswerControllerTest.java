@@ -1,21 +1,34 @@
 package com.upgrad.quora.api.controller;
 
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.context.junit4.SpringRunner;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
 import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @RunWith(SpringRunner.class)
 @SpringBootTest
+@ActiveProfiles("dev")
 @AutoConfigureMockMvc
 
 public class AnswerControllerTest {
@@ -48,6 +61,34 @@ public class AnswerControllerTest {
                 .andExpect(MockMvcResultMatchers.jsonPath("code").value("QUES-001"));
     }
 
+    //This test case passes when you try to create answers in a batch but the user corresponding to the JWT token entered is signed out of the application.
+    @Test
+    public void createAnswersWithSignedOutUser() throws Exception {
+        mvc.perform(MockMvcRequestBuilders.post("/answer/create/batch").contentType(MediaType.APPLICATION_JSON_UTF8_VALUE).content("[{\"questionId\":\"database_question_uuid\",\"answer\":\"my_answer\"}]").header("authorization", "database_accesstoken3"))
+                .andExpect(status().isForbidden())
+                .andExpect(MockMvcResultMatchers.jsonPath("code").value("ATHR-002"));
+    }
+
+    //This test case passes when you try to create answers in a batch without sending a JWT token.
+    @Test
+    public void createAnswersWithoutAccessToken() throws Exception {
+        mvc.perform(MockMvcRequestBuilders.post("/answer/create/batch").contentType(MediaType.APPLICATION_JSON_UTF8_VALUE).content("[{\"questionId\":\"database_question_uuid\",\"answer\":\"my_answer\"}]"))
+                .andExpect(status().isForbidden())
+                .andExpect(MockMvcResultMatchers.jsonPath("code").value("ATHR-001"));
+    }
+
+    //This test case passes when you try to create answers in a batch and each answer is reported as failed, either because its question does not exist or because the answer is missing.
+    @Test
+    public void createAnswersWithInvalidItems() throws Exception {
+        mvc.perform(MockMvcRequestBuilders.post("/answer/create/batch").contentType(MediaType.APPLICATION_JSON_UTF8_VALUE).content("[{\"questionId\":\"non_existing_question_uuid\",\"answer\":\"my_answer\"},{\"questionId\":\"database_question_uuid\"}]").header("authorization", "database_accesstoken"))
+                .andExpect(status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.length()").value(2))
+                .andExpect(MockMvcResultMatchers.jsonPath("$[0].status").value("FAILED"))
+                .andExpect(MockMvcResultMatchers.jsonPath("$[0].code").value("QUES-001"))
+                .andExpect(MockMvcResultMatchers.jsonPath("$[1].status").value("FAILED"))
+                .andExpect(MockMvcResultMatchers.jsonPath("$[1].code").value("ANS-002"));
+    }
+
     //This test case passes when you try to edit the answer but the JWT token entered does not exist in the database.
     @Test
     public void editAnswerWithNonExistingAccessToken() throws Exception {
@@ -80,6 +121,39 @@ public class AnswerControllerTest {
                 .andExpect(MockMvcResultMatchers.jsonPath("code").value("ATHR-003"));
     }
 
+    //This test case passes when the owner tries to edit the answer with an If-Match entity tag that does not match the stored version of the answer.
+    @Test
+    public void editAnswerWithStaleIfMatch() throws Exception {
+        mvc.perform(MockMvcRequestBuilders.put("/answer/edit/database_answer_uuid?content=edited_answer").contentType(MediaType.APPLICATION_JSON_UTF8_VALUE).header("authorization", "database_accesstoken1").header("If-Match", "\"999\""))
+                .andExpect(status().isPreconditionFailed())
+                .andExpect(MockMvcResultMatchers.jsonPath("code").value("VER-002"));
+    }
+
+    //This test case passes when the owner edits the answer with the If-Match entity tag of its current version, and gets the entity tag of the next version back.
+    @Test
+    public void editAnswerWithMatchingIfMatch() throws Exception {
+        String answerId = createAnswer();
+        mvc.perform(MockMvcRequestBuilders.put("/answer/edit/" + answerId + "?content=edited_answer").contentType(MediaType.APPLICATION_JSON_UTF8_VALUE).header("authorization", "database_accesstoken1").header("If-Match", "\"0\""))
+                .andExpect(status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("id").value(answerId))
+                .andExpect(MockMvcResultMatchers.header().string("ETag", "\"1\""));
+        mvc.perform(MockMvcRequestBuilders.put("/answer/edit/" + answerId + "?content=edited_again").contentType(MediaType.APPLICATION_JSON_UTF8_VALUE).header("authorization", "database_accesstoken1").header("If-Match", "\"1\""))
+                .andExpect(status().isOk())
+                .andExpect(MockMvcResultMatchers.header().string("ETag", "\"2\""));
+    }
+
+    //This test case passes when the owner edits the answer without an If-Match header, which edits whatever the current version is.
+    @Test
+    public void editAnswerWithoutIfMatch() throws Exception {
+        String answerId = createAnswer();
+        mvc.perform(MockMvcRequestBuilders.put("/answer/edit/" + answerId + "?content=edited_answer").contentType(MediaType.APPLICATION_JSON_UTF8_VALUE).header("authorization", "database_accesstoken1"))
+                .andExpect(status().isOk())
+                .andExpect(MockMvcResultMatchers.header().string("ETag", "\"1\""));
+        mvc.perform(MockMvcRequestBuilders.put("/answer/edit/" + answerId + "?content=edited_again").contentType(MediaType.APPLICATION_JSON_UTF8_VALUE).header("authorization", "database_accesstoken1"))
+                .andExpect(status().isOk())
+                .andExpect(MockMvcResultMatchers.header().string("ETag", "\"2\""));
+    }
+
     //This test case passes when you try to delete the answer but the JWT token entered does not exist in the database.
     @Test
     public void deleteAnswerWithNonExistingAccessToken() throws Exception {
@@ -115,7 +189,7 @@ public class AnswerControllerTest {
     //This test case passes when you try to get all the answers posted for a specific question but the JWT token entered does not exist in the database.
     @Test
     public void getAllAnswersToQuestionWithNonExistingAccessToken() throws Exception {
-        mvc.perform(MockMvcRequestBuilders.get("/answer/all/database_question_uuid").header("authorization", "non_existing_access_token"))
+        AsyncRequests.perform(mvc, MockMvcRequestBuilders.get("/answer/all/database_question_uuid").header("authorization", "non_existing_access_token"))
                 .andExpect(status().isForbidden())
                 .andExpect(MockMvcResultMatchers.jsonPath("code").value("ATHR-001"));
     }
@@ -123,7 +197,7 @@ public class AnswerControllerTest {
     //This test case passes when you try to get all the answers posted for a specific question and the JWT token entered exists in the database but the user corresponding to that JWT token is signed out.
     @Test
     public void getAllAnswersToQuestionWithSignedOutUser() throws Exception {
-        mvc.perform(MockMvcRequestBuilders.get("/answer/all/database_question_uuid").header("authorization", "database_accesstoken3"))
+        AsyncRequests.perform(mvc, MockMvcRequestBuilders.get("/answer/all/database_question_uuid").header("authorization", "database_accesstoken3"))
                 .andExpect(status().isForbidden())
                 .andExpect(MockMvcResultMatchers.jsonPath("code").value("ATHR-002"));
     }
@@ -131,10 +205,81 @@ public class AnswerControllerTest {
     //This test case passes when you try to get all the answers posted for a specific question which does not exist in the database.
     @Test
     public void getAllAnswersToNonExistingQuestion() throws Exception {
-        mvc.perform(MockMvcRequestBuilders.get("/answer/all/non_existing_question_uuid").header("authorization", "database_accesstoken"))
+        AsyncRequests.perform(mvc, MockMvcRequestBuilders.get("/answer/all/non_existing_question_uuid").header("authorization", "database_accesstoken"))
                 .andExpect(status().isNotFound())
                 .andExpect(MockMvcResultMatchers.jsonPath("code").value("QUES-001"));
     }
 
+    //This test case passes when you get only the listed fields of the answers to a question, without the content of the question.
+    @Test
+    public void getAllAnswersToQuestionWithFields() throws Exception {
+        AsyncRequests.perform(mvc, MockMvcRequestBuilders.get("/answer/all/database_question_uuid?fields=id,answerContent").header("authorization", "database_accesstoken"))
+                .andExpect(status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$[0].id").value("database_answer_uuid"))
+                .andExpect(MockMvcResultMatchers.jsonPath("$[0].answerContent").exists())
+                .andExpect(MockMvcResultMatchers.jsonPath("$[0].questionContent").doesNotExist())
+                .andExpect(Statements.count(4));
+    }
 
+    //This test case passes when concurrent requests for the answers to the same question all get them, except the ones whose user is signed out.
+    @Test
+    public void getAllAnswersToQuestionConcurrently() throws Exception {
+        ExecutorService clients = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<MvcResult>> results = new ArrayList<>();
+            for (int i = 0; i < 32; i++) {
+                String accessToken = i % 4 == 0 ? "database_accesstoken3" : "database_accesstoken";
+                results.add(clients.submit(() -> AsyncRequests.perform(mvc, MockMvcRequestBuilders.get("/answer/all/database_question_uuid").header("authorization", accessToken)).andReturn()));
+            }
+            for (int i = 0; i < results.size(); i++) {
+                MvcResult result = results.get(i).get();
+                if (i % 4 == 0) {
+                    assertEquals(403, result.getResponse().getStatus());
+                    assertTrue(result.getResponse().getContentAsString().contains("ATHR-002"));
+                } else {
+                    assertEquals(200, result.getResponse().getStatus());
+                    assertTrue(result.getResponse().getContentAsString().contains("database_answer_uuid"));
+                }
+            }
+        } finally {
+            clients.shutdown();
+        }
+    }
+
+    //This test case passes when the answers to a question are requested again with a stale entity tag in If-None-Match, and then with the current one.
+    @Test
+    public void getAllAnswersToQuestionNotModified() throws Exception {
+        AsyncRequests.perform(mvc, MockMvcRequestBuilders.get("/answer/all/database_question_uuid").header("authorization", "database_accesstoken").header("If-None-Match", "\"stale\""))
+                .andExpect(status().isOk());
+        String eTag = AsyncRequests.perform(mvc, MockMvcRequestBuilders.get("/answer/all/database_question_uuid").header("authorization", "database_accesstoken"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader("ETag");
+        AsyncRequests.perform(mvc, MockMvcRequestBuilders.get("/answer/all/database_question_uuid").header("authorization", "database_accesstoken").header("If-None-Match", "\"stale\", W/" + eTag))
+                .andExpect(status().isNotModified());
+    }
+
+    //This test case passes when the answers to a question are requested as CBOR with the entity tag of the JSON answers, which belongs to another representation.
+    @Test
+    public void getAllAnswersToQuestionNotModifiedAsCbor() throws Exception {
+        String jsonETag = AsyncRequests.perform(mvc, MockMvcRequestBuilders.get("/answer/all/database_question_uuid").header("authorization", "database_accesstoken"))
+                .andReturn().getResponse().getHeader("ETag");
+        String cborETag = AsyncRequests.perform(mvc, MockMvcRequestBuilders.get("/answer/all/database_question_uuid").header("authorization", "database_accesstoken").accept("application/cbor").header("If-None-Match", jsonETag))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader("ETag");
+        assertNotEquals(jsonETag, cborETag);
+        AsyncRequests.perform(mvc, MockMvcRequestBuilders.get("/answer/all/database_question_uuid").header("authorization", "database_accesstoken").accept("application/cbor").header("If-None-Match", cborETag))
+                .andExpect(status().isNotModified());
+    }
+
+    // Creates a question and an answer to it of the user of database_accesstoken1, so that edits do not change the shared test data
+    private String createAnswer() throws Exception {
+        String question = AsyncRequests.perform(mvc, MockMvcRequestBuilders.post("/question/create?content=question_to_answer").contentType(MediaType.APPLICATION_JSON_UTF8_VALUE).header("authorization", "database_accesstoken1"))
+                .andExpect(status().isCreated())
+                .andReturn().getResponse().getContentAsString();
+        String questionId = new ObjectMapper().readTree(question).get("id").asText();
+        String answer = AsyncRequests.perform(mvc, MockMvcRequestBuilders.post("/question/" + questionId + "/answer/create?answer=answer_to_edit").contentType(MediaType.APPLICATION_JSON_UTF8_VALUE).header("authorization", "database_accesstoken1"))
+                .andExpect(status().isCreated())
+                .andReturn().getResponse().getContentAsString();
+        return new ObjectMapper().readTree(answer).get("id").asText();
+    }
 }
@@ -6,15 +6,18 @@ import org.junit.runner.RunWith;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.context.junit4.SpringRunner;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
 import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
 
+import static org.hamcrest.Matchers.containsString;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @RunWith(SpringRunner.class)
 @SpringBootTest
+@ActiveProfiles("dev")
 @AutoConfigureMockMvc
 public class CommonControllerTest {
 
@@ -24,14 +27,33 @@ public class CommonControllerTest {
     //This test case passes when you try to get the details of the existing user and the JWT token entered exists in the database and the user corresponding to that JWT token is signed in.
     @Test
     public void details() throws Exception {
-        mvc.perform(MockMvcRequestBuilders.get("/userprofile/database_uuid1").header("authorization", "database_accesstoken"))
+        AsyncRequests.perform(mvc, MockMvcRequestBuilders.get("/userprofile/database_uuid1").header("authorization", "database_accesstoken"))
                 .andExpect(status().isOk());
     }
 
+    //This test case passes when you get only the listed fields of the details of the existing user.
+    @Test
+    public void detailsWithFields() throws Exception {
+        AsyncRequests.perform(mvc, MockMvcRequestBuilders.get("/userprofile/database_uuid1?fields=first_name,country").header("authorization", "database_accesstoken"))
+                .andExpect(status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("first_name").value("database_firstname1"))
+                .andExpect(MockMvcResultMatchers.jsonPath("country").value("database_country1"))
+                .andExpect(MockMvcResultMatchers.jsonPath("last_name").doesNotExist())
+                .andExpect(MockMvcResultMatchers.jsonPath("email_address").doesNotExist());
+    }
+
+    //This test case passes when you try to get the details of the existing user with a field the profile does not have.
+    @Test
+    public void detailsWithUnknownField() throws Exception {
+        mvc.perform(MockMvcRequestBuilders.get("/userprofile/database_uuid1?fields=first_name,password").header("authorization", "database_accesstoken"))
+                .andExpect(status().isBadRequest())
+                .andExpect(MockMvcResultMatchers.jsonPath("code").value("FLD-001"));
+    }
+
     //This test case passes when you try to get the details of the existing user but the JWT token entered does not exist in the database.
     @Test
     public void detailsUsingNonExistingAccessToken() throws Exception {
-        mvc.perform(MockMvcRequestBuilders.get("/userprofile/database_uuid1").header("authorization", "non_existing_access_token"))
+        AsyncRequests.perform(mvc, MockMvcRequestBuilders.get("/userprofile/database_uuid1").header("authorization", "non_existing_access_token"))
                 .andExpect(status().isForbidden())
                 .andExpect(MockMvcResultMatchers.jsonPath("code").value("ATHR-001"));
     }
@@ -39,8 +61,49 @@ public class CommonControllerTest {
     //This test case passes when you try to get the details of the user which does not exist in the database.
     @Test
     public void detailsOfNonExistingUser() throws Exception {
-        mvc.perform(MockMvcRequestBuilders.get("/userprofile/non_existing_user").header("authorization", "database_accesstoken"))
+        AsyncRequests.perform(mvc, MockMvcRequestBuilders.get("/userprofile/non_existing_user").header("authorization", "database_accesstoken"))
                 .andExpect(status().isNotFound())
                 .andExpect(MockMvcResultMatchers.jsonPath("code").value("USR-001"));
     }
+
+    //This test case passes when you get the details of the user again with the ETag of the previous response in If-None-Match.
+    @Test
+    public void detailsNotModified() throws Exception {
+        String eTag = AsyncRequests.perform(mvc, MockMvcRequestBuilders.get("/userprofile/database_uuid1").header("authorization", "database_accesstoken"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader("ETag");
+        AsyncRequests.perform(mvc, MockMvcRequestBuilders.get("/userprofile/database_uuid1").header("authorization", "database_accesstoken").header("If-None-Match", eTag))
+                .andExpect(status().isNotModified());
+    }
+
+    //This test case passes when you get the details of several users at once; duplicates are ignored and users that do not exist are left out.
+    @Test
+    public void detailsOfSeveralUsers() throws Exception {
+        mvc.perform(MockMvcRequestBuilders.get("/userprofiles?userIds=database_uuid1,database_uuid2,database_uuid1,non_existing_user").header("authorization", "database_accesstoken"))
+                .andExpect(status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.database_uuid1.user_name").value("database_username1"))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.database_uuid2.user_name").value("database_username2"))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.non_existing_user").doesNotExist());
+    }
+
+    //This test case passes when you try to get the details of several users but the JWT token entered does not exist in the database.
+    @Test
+    public void detailsOfSeveralUsersUsingNonExistingAccessToken() throws Exception {
+        mvc.perform(MockMvcRequestBuilders.get("/userprofiles?userIds=database_uuid1").header("authorization", "non_existing_access_token"))
+                .andExpect(status().isForbidden())
+                .andExpect(MockMvcResultMatchers.jsonPath("code").value("ATHR-001"));
+    }
+
+    //This test case passes when the metrics of the endpoint, the repository and the connection pool used to get the details of a user are exported for Prometheus.
+    @Test
+    public void detailsMetrics() throws Exception {
+        AsyncRequests.perform(mvc, MockMvcRequestBuilders.get("/userprofile/database_uuid1").header("authorization", "database_accesstoken"))
+                .andExpect(status().isOk());
+        mvc.perform(MockMvcRequestBuilders.get("/actuator/prometheus"))
+                .andExpect(status().isOk())
+                .andExpect(MockMvcResultMatchers.content().string(containsString("http_server_requests_seconds_bucket{exception=\"None\",method=\"GET\",status=\"200\",uri=\"/userprofile/{userId}\"")))
+                .andExpect(MockMvcResultMatchers.content().string(containsString("quora_dao_calls_seconds_count{dao=\"JdbcReadRepository\",exception=\"None\",method=\"getUserByUuid\",}")))
+                .andExpect(MockMvcResultMatchers.content().string(containsString("quora_named_queries_seconds_count{entity=\"UserEntity\",query=\"userByUuid\",}")))
+                .andExpect(MockMvcResultMatchers.content().string(containsString("hikaricp_connections{pool=")));
+    }
 }
@@ -1,21 +1,30 @@
 package com.upgrad.quora.api.controller;
 
 
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
 import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.context.junit4.SpringRunner;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
 import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
 
+import static org.hamcrest.Matchers.startsWith;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @RunWith(SpringRunner.class)
 @SpringBootTest
+@ActiveProfiles("dev")
 @AutoConfigureMockMvc
 
 public class QuestionControllerTest {
@@ -40,25 +49,87 @@ public class QuestionControllerTest {
                 .andExpect(MockMvcResultMatchers.jsonPath("code").value("ATHR-002"));
     }
 
+    //This test case passes when you try to create questions in a batch but the user corresponding to the JWT token entered is signed out of the application.
+    @Test
+    public void createQuestionsWithSignedOutUser() throws Exception {
+        mvc.perform(MockMvcRequestBuilders.post("/question/create/batch").contentType(MediaType.APPLICATION_JSON_UTF8_VALUE).content("[{\"content\":\"my_question\"}]").header("authorization", "database_accesstoken3"))
+                .andExpect(status().isForbidden())
+                .andExpect(MockMvcResultMatchers.jsonPath("code").value("ATHR-002"));
+    }
+
+    //This test case passes when you try to create more questions in a batch than the limit allows.
+    @Test
+    public void createQuestionsOverBatchLimit() throws Exception {
+        StringBuilder content = new StringBuilder("[");
+        for (int i = 0; i <= 100; i++) {
+            content.append(i == 0 ? "" : ",").append("{\"content\":\"my_question\"}");
+        }
+        mvc.perform(MockMvcRequestBuilders.post("/question/create/batch").contentType(MediaType.APPLICATION_JSON_UTF8_VALUE).content(content.append("]").toString()).header("authorization", "database_accesstoken"))
+                .andExpect(status().isUnprocessableEntity())
+                .andExpect(MockMvcResultMatchers.jsonPath("code").value("BAT-001"));
+    }
+
+    //This test case passes when the questions past the batch limit are not parsed at all, so a body which is broken after them is still rejected for its size.
+    @Test
+    public void createQuestionsOverBatchLimitStopsParsing() throws Exception {
+        StringBuilder content = new StringBuilder("[");
+        for (int i = 0; i <= 100; i++) {
+            content.append(i == 0 ? "" : ",").append("{\"content\":\"my_question\"}");
+        }
+        mvc.perform(MockMvcRequestBuilders.post("/question/create/batch").contentType(MediaType.APPLICATION_JSON_UTF8_VALUE).content(content.append(",{\"content\":").toString()).header("authorization", "database_accesstoken"))
+                .andExpect(status().isUnprocessableEntity())
+                .andExpect(MockMvcResultMatchers.jsonPath("code").value("BAT-001"));
+    }
+
+    //This test case passes when you try to create questions in a batch but the body is not a complete JSON array.
+    @Test
+    public void createQuestionsWithMalformedBody() throws Exception {
+        mvc.perform(MockMvcRequestBuilders.post("/question/create/batch").contentType(MediaType.APPLICATION_JSON_UTF8_VALUE).content("{\"content\":\"my_question\"}").header("authorization", "database_accesstoken"))
+                .andExpect(status().isBadRequest());
+        mvc.perform(MockMvcRequestBuilders.post("/question/create/batch").contentType(MediaType.APPLICATION_JSON_UTF8_VALUE).content("[{\"content\":\"my_question\"}").header("authorization", "database_accesstoken"))
+                .andExpect(status().isBadRequest());
+        mvc.perform(MockMvcRequestBuilders.post("/question/create/batch").contentType(MediaType.APPLICATION_JSON_UTF8_VALUE).header("authorization", "database_accesstoken"))
+                .andExpect(status().isBadRequest());
+    }
+
+    //This test case passes when you try to create questions in a batch and every question is reported as failed because its content is missing or too long.
+    @Test
+    public void createQuestionsWithInvalidContent() throws Exception {
+        StringBuilder longContent = new StringBuilder();
+        for (int i = 0; i < 501; i++) {
+            longContent.append('q');
+        }
+        mvc.perform(MockMvcRequestBuilders.post("/question/create/batch").contentType(MediaType.APPLICATION_JSON_UTF8_VALUE).content("[{},{\"content\":\"" + longContent + "\"}]").header("authorization", "database_accesstoken"))
+                .andExpect(status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.length()").value(2))
+                .andExpect(MockMvcResultMatchers.jsonPath("$[0].status").value("FAILED"))
+                .andExpect(MockMvcResultMatchers.jsonPath("$[0].code").value("QUES-002"))
+                .andExpect(MockMvcResultMatchers.jsonPath("$[1].status").value("FAILED"))
+                .andExpect(MockMvcResultMatchers.jsonPath("$[1].code").value("QUES-002"));
+    }
+
     //This test case passes when you try to get the detail of all the questions and the JWT token entered exists in the database and the user corresponding to that JWT token is signed in.
     @Test
     public void getAllQuestions() throws Exception {
-        mvc.perform(MockMvcRequestBuilders.get("/question/all").header("authorization", "database_accesstoken1"))
-                .andExpect(status().isOk());
+        AsyncRequests.perform(mvc, MockMvcRequestBuilders.get("/question/all").header("authorization", "database_accesstoken1"))
+                .andExpect(status().isOk())
+                .andExpect(Statements.count(3))
+                .andExpect(MockMvcResultMatchers.header().string("Server-Timing", startsWith("db;dur=")));
     }
 
     //This test case passes when you try to get the detail of all the questions but the JWT token entered does not exist in the database.
     @Test
     public void getAllQuestionsWithNonExistingAccessToken() throws Exception {
-        mvc.perform(MockMvcRequestBuilders.get("/question/all").header("authorization", "non_existing_access_token"))
+        AsyncRequests.perform(mvc, MockMvcRequestBuilders.get("/question/all").header("authorization", "non_existing_access_token"))
                 .andExpect(status().isForbidden())
+                .andExpect(Statements.count(1))
                 .andExpect(MockMvcResultMatchers.jsonPath("code").value("ATHR-001"));
     }
 
     //This test case passes when you try to get the detail of all the questions and the JWT token entered exists in the database but the user corresponding to that JWT token is signed out.
     @Test
     public void getAllQuestionsWithSignedOutUser() throws Exception {
-        mvc.perform(MockMvcRequestBuilders.get("/question/all").header("authorization", "database_accesstoken3"))
+        AsyncRequests.perform(mvc, MockMvcRequestBuilders.get("/question/all").header("authorization", "database_accesstoken3"))
                 .andExpect(status().isForbidden())
                 .andExpect(MockMvcResultMatchers.jsonPath("code").value("ATHR-002"));
     }
@@ -95,6 +166,39 @@ public class QuestionControllerTest {
                 .andExpect(MockMvcResultMatchers.jsonPath("code").value("QUES-001"));
     }
 
+    //This test case passes when the owner tries to edit the question with an If-Match entity tag that does not match the stored version of the question.
+    @Test
+    public void editQuestionWithStaleIfMatch() throws Exception {
+        mvc.perform(MockMvcRequestBuilders.put("/question/edit/database_question_uuid?content=edited_question").contentType(MediaType.APPLICATION_JSON_UTF8_VALUE).header("authorization", "database_accesstoken1").header("If-Match", "\"999\""))
+                .andExpect(status().isPreconditionFailed())
+                .andExpect(MockMvcResultMatchers.jsonPath("code").value("VER-002"));
+    }
+
+    //This test case passes when the owner edits the question with the If-Match entity tag of its current version, and gets the entity tag of the next version back.
+    @Test
+    public void editQuestionWithMatchingIfMatch() throws Exception {
+        String questionId = createQuestion();
+        mvc.perform(MockMvcRequestBuilders.put("/question/edit/" + questionId + "?content=edited_question").contentType(MediaType.APPLICATION_JSON_UTF8_VALUE).header("authorization", "database_accesstoken1").header("If-Match", "\"0\""))
+                .andExpect(status().isCreated())
+                .andExpect(MockMvcResultMatchers.jsonPath("id").value(questionId))
+                .andExpect(MockMvcResultMatchers.header().string("ETag", "\"1\""));
+        mvc.perform(MockMvcRequestBuilders.put("/question/edit/" + questionId + "?content=edited_again").contentType(MediaType.APPLICATION_JSON_UTF8_VALUE).header("authorization", "database_accesstoken1").header("If-Match", "\"1\""))
+                .andExpect(status().isCreated())
+                .andExpect(MockMvcResultMatchers.header().string("ETag", "\"2\""));
+    }
+
+    //This test case passes when the owner edits the question without an If-Match header, which edits whatever the current version is.
+    @Test
+    public void editQuestionWithoutIfMatch() throws Exception {
+        String questionId = createQuestion();
+        mvc.perform(MockMvcRequestBuilders.put("/question/edit/" + questionId + "?content=edited_question").contentType(MediaType.APPLICATION_JSON_UTF8_VALUE).header("authorization", "database_accesstoken1"))
+                .andExpect(status().isCreated())
+                .andExpect(MockMvcResultMatchers.header().string("ETag", "\"1\""));
+        mvc.perform(MockMvcRequestBuilders.put("/question/edit/" + questionId + "?content=edited_again").contentType(MediaType.APPLICATION_JSON_UTF8_VALUE).header("authorization", "database_accesstoken1"))
+                .andExpect(status().isCreated())
+                .andExpect(MockMvcResultMatchers.header().string("ETag", "\"2\""));
+    }
+
     //This test case passes when you try to delete the question but the JWT token entered does not exist in the database.
     @Test
     public void deleteQuestionWithNonExistingAccessToken() throws Exception {
@@ -152,5 +256,138 @@ public class QuestionControllerTest {
                 .andExpect(MockMvcResultMatchers.jsonPath("code").value("USR-001"));
     }
 
+    //This test case passes when you try to get a question with its answers but the JWT token entered does not exist in the database.
+    @Test
+    public void getQuestionFullWithNonExistingAccessToken() throws Exception {
+        mvc.perform(MockMvcRequestBuilders.get("/question/database_question_uuid/full").header("authorization", "non_existing_access_token"))
+                .andExpect(status().isForbidden())
+                .andExpect(MockMvcResultMatchers.jsonPath("code").value("ATHR-001"));
+    }
+
+    //This test case passes when you try to get a question with its answers and the JWT token entered exists in the database but the user corresponding to that JWT token is signed out.
+    @Test
+    public void getQuestionFullWithSignedOutUser() throws Exception {
+        mvc.perform(MockMvcRequestBuilders.get("/question/database_question_uuid/full").header("authorization", "database_accesstoken3"))
+                .andExpect(status().isForbidden())
+                .andExpect(MockMvcResultMatchers.jsonPath("code").value("ATHR-002"));
+    }
+
+    //This test case passes when you try to get a question with its answers but the question does not exist in the database.
+    @Test
+    public void getQuestionFullForNonExistingQuestion() throws Exception {
+        mvc.perform(MockMvcRequestBuilders.get("/question/non_existing_question_uuid/full").header("authorization", "database_accesstoken1"))
+                .andExpect(status().isNotFound())
+                .andExpect(MockMvcResultMatchers.jsonPath("code").value("QUES-001"));
+    }
+
+    //This test case passes when you get a question with its author and its answers with their authors in one request.
+    @Test
+    public void getQuestionFull() throws Exception {
+        mvc.perform(MockMvcRequestBuilders.get("/question/database_question_uuid/full?page=0&size=5").header("authorization", "database_accesstoken1"))
+                .andExpect(status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("id").value("database_question_uuid"))
+                .andExpect(MockMvcResultMatchers.jsonPath("author.id").value("database_uuid1"))
+                .andExpect(MockMvcResultMatchers.jsonPath("answers[0].id").value("database_answer_uuid"))
+                .andExpect(MockMvcResultMatchers.jsonPath("answers[0].author.userName").value("database_username1"))
+                .andExpect(MockMvcResultMatchers.jsonPath("size").value(5))
+                .andExpect(Statements.count(3));
+    }
+
+    //This test case passes when you try to get all the questions but the fields parameter names no field at all.
+    @Test
+    public void getAllQuestionsWithEmptyFields() throws Exception {
+        mvc.perform(MockMvcRequestBuilders.get("/question/all?fields=,").header("authorization", "database_accesstoken1"))
+                .andExpect(status().isBadRequest())
+                .andExpect(MockMvcResultMatchers.jsonPath("code").value("FLD-001"));
+        mvc.perform(MockMvcRequestBuilders.get("/question/all?fields=, ,").header("authorization", "database_accesstoken1"))
+                .andExpect(status().isBadRequest())
+                .andExpect(MockMvcResultMatchers.jsonPath("code").value("FLD-001"));
+    }
+
+    //This test case passes when you get only the ids of all the questions.
+    @Test
+    public void getAllQuestionsWithFields() throws Exception {
+        AsyncRequests.perform(mvc, MockMvcRequestBuilders.get("/question/all?fields=id").header("authorization", "database_accesstoken1"))
+                .andExpect(status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$[0].id").exists())
+                .andExpect(MockMvcResultMatchers.jsonPath("$[0].content").doesNotExist());
+    }
 
-}
\ No newline at end of file
+    //This test case passes when you get all the questions again with the ETag of the previous response in If-None-Match and no question changed in between.
+    @Test
+    public void getAllQuestionsNotModified() throws Exception {
+        String eTag = AsyncRequests.perform(mvc, MockMvcRequestBuilders.get("/question/all").header("authorization", "database_accesstoken1"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader("ETag");
+        AsyncRequests.perform(mvc, MockMvcRequestBuilders.get("/question/all").header("authorization", "database_accesstoken1").header("If-None-Match", eTag))
+                .andExpect(status().isNotModified())
+                .andExpect(MockMvcResultMatchers.header().string("ETag", eTag))
+                .andExpect(Statements.count(2));
+    }
+
+    //This test case passes when you send a matching If-None-Match but the user corresponding to the JWT token entered is signed out, the token is checked before the version.
+    @Test
+    public void getAllQuestionsNotModifiedWithSignedOutUser() throws Exception {
+        String eTag = AsyncRequests.perform(mvc, MockMvcRequestBuilders.get("/question/all").header("authorization", "database_accesstoken1"))
+                .andReturn().getResponse().getHeader("ETag");
+        AsyncRequests.perform(mvc, MockMvcRequestBuilders.get("/question/all").header("authorization", "database_accesstoken3").header("If-None-Match", eTag))
+                .andExpect(status().isForbidden())
+                .andExpect(MockMvcResultMatchers.jsonPath("code").value("ATHR-002"));
+    }
+
+    //This test case passes when you get all the questions as CBOR by accepting application/cbor, with the same property names as the JSON response.
+    @Test
+    public void getAllQuestionsAsCbor() throws Exception {
+        byte[] body = AsyncRequests.perform(mvc, MockMvcRequestBuilders.get("/question/all").header("authorization", "database_accesstoken1").accept("application/cbor"))
+                .andExpect(status().isOk())
+                .andExpect(MockMvcResultMatchers.content().contentTypeCompatibleWith("application/cbor"))
+                .andReturn().getResponse().getContentAsByteArray();
+        JsonNode questions = new ObjectMapper(new CBORFactory()).readTree(body);
+        assertTrue(questions.isArray());
+        assertTrue(questions.size() > 0);
+        assertTrue(questions.get(0).has("id"));
+        assertEquals(2, questions.get(0).size());
+    }
+
+    //This test case passes when the CBOR list of all the questions has another entity tag than the JSON list, and only its own tag gets 304 Not Modified.
+    @Test
+    public void getAllQuestionsNotModifiedAsCbor() throws Exception {
+        String jsonETag = AsyncRequests.perform(mvc, MockMvcRequestBuilders.get("/question/all").header("authorization", "database_accesstoken1"))
+                .andReturn().getResponse().getHeader("ETag");
+        String cborETag = AsyncRequests.perform(mvc, MockMvcRequestBuilders.get("/question/all").header("authorization", "database_accesstoken1").accept("application/cbor"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader("ETag");
+        assertNotEquals(jsonETag, cborETag);
+        AsyncRequests.perform(mvc, MockMvcRequestBuilders.get("/question/all").header("authorization", "database_accesstoken1").accept("application/cbor").header("If-None-Match", jsonETag))
+                .andExpect(status().isOk())
+                .andExpect(MockMvcResultMatchers.header().string("ETag", cborETag));
+        AsyncRequests.perform(mvc, MockMvcRequestBuilders.get("/question/all").header("authorization", "database_accesstoken1").accept("application/cbor").header("If-None-Match", cborETag))
+                .andExpect(status().isNotModified())
+                .andExpect(MockMvcResultMatchers.header().string("ETag", cborETag));
+        AsyncRequests.perform(mvc, MockMvcRequestBuilders.get("/question/all").header("authorization", "database_accesstoken1").header("If-None-Match", cborETag))
+                .andExpect(status().isOk())
+                .andExpect(MockMvcResultMatchers.header().string("ETag", jsonETag));
+    }
+
+    //This test case passes when the error of a client accepting only application/cbor is written as CBOR, while JSON clients get the pre-serialized error body.
+    @Test
+    public void getAllQuestionsWithNonExistingAccessTokenAsCbor() throws Exception {
+        byte[] body = AsyncRequests.perform(mvc, MockMvcRequestBuilders.get("/question/all").header("authorization", "non_existing_access_token").accept("application/cbor"))
+                .andExpect(status().isForbidden())
+                .andExpect(MockMvcResultMatchers.content().contentTypeCompatibleWith("application/cbor"))
+                .andReturn().getResponse().getContentAsByteArray();
+        assertEquals("ATHR-001", new ObjectMapper(new CBORFactory()).readTree(body).get("code").asText());
+        AsyncRequests.perform(mvc, MockMvcRequestBuilders.get("/question/all").header("authorization", "non_existing_access_token").accept("application/json"))
+                .andExpect(status().isForbidden())
+                .andExpect(MockMvcResultMatchers.content().contentTypeCompatibleWith("application/json"))
+                .andExpect(MockMvcResultMatchers.jsonPath("code").value("ATHR-001"));
+    }
+
+    // Creates a question of the user of database_accesstoken1, so that edits do not change the shared test data
+    private String createQuestion() throws Exception {
+        String body = AsyncRequests.perform(mvc, MockMvcRequestBuilders.post("/question/create?content=question_to_edit").contentType(MediaType.APPLICATION_JSON_UTF8_VALUE).header("authorization", "database_accesstoken1"))
+                .andExpect(status().isCreated())
+                .andReturn().getResponse().getContentAsString();
+        return new ObjectMapper().readTree(body).get("id").asText();
+    }
+}
@@ -0,0 +1,44 @@
+package com.upgrad.quora.api.controller;
+
+import com.upgrad.quora.service.metrics.StatementStatistics;
+import org.springframework.test.web.servlet.ResultMatcher;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Matchers pinning the number of SQL statements a request ran, from the statistics the StatementStatisticsFilter
+ * keeps in the request, so that a change adding queries to an endpoint fails its test. Use with AsyncRequests for
+ * asynchronous endpoints, the statements of the service call are only complete after the async dispatch.
+ */
+final class Statements {
+
+    private Statements() {
+    }
+
+    /**
+     * @param expected number of statements the request must have run
+     */
+    static ResultMatcher count(final long expected) {
+        return result -> {
+            StatementStatistics statistics = statistics(result.getRequest().getAttribute(StatementStatistics.ATTRIBUTE));
+            assertEquals("SQL statements run by the request " + statistics.getShapes(), expected, statistics.getStatements());
+        };
+    }
+
+    /**
+     * @param maximum number of statements the request may have run, for requests whose statements depend on caches
+     */
+    static ResultMatcher atMost(final long maximum) {
+        return result -> {
+            StatementStatistics statistics = statistics(result.getRequest().getAttribute(StatementStatistics.ATTRIBUTE));
+            assertTrue("SQL statements run by the request " + statistics.getShapes(), statistics.getStatements() <= maximum);
+        };
+    }
+
+    private static StatementStatistics statistics(final Object attribute) {
+        assertNotNull("No statement statistics, is quora.statements.enabled set?", attribute);
+        return (StatementStatistics) attribute;
+    }
+}
@@ -0,0 +1,102 @@
+package com.upgrad.quora.db.dataset;
+
+import org.postgresql.copy.CopyIn;
+import org.postgresql.copy.CopyManager;
+
+import java.nio.charset.StandardCharsets;
+import java.sql.SQLException;
+
+/**
+ * Streams rows into one COPY ... FROM STDIN in the text format: columns separated by tabs, rows by newlines, null as
+ * \N. Rows are buffered and handed to the server in chunks, so a table of millions of rows loads in constant memory
+ * and one round trip per chunk.
+ */
+final class CopyWriter implements AutoCloseable {
+
+    private static final int CHUNK_SIZE = 1 << 20;
+
+    private final CopyIn copyIn;
+
+    private final StringBuilder chunk = new StringBuilder(CHUNK_SIZE + 4096);
+
+    private boolean firstColumn = true;
+
+    private long rows;
+
+    CopyWriter(final CopyManager copyManager, final String table, final String columns) throws SQLException {
+        this.copyIn = copyManager.copyIn("COPY " + table + " (" + columns + ") FROM STDIN");
+    }
+
+    CopyWriter column(final Object value) {
+        if (!firstColumn) {
+            chunk.append('\t');
+        }
+        firstColumn = false;
+        if (value == null) {
+            chunk.append("\\N");
+        } else if (value instanceof Number) {
+            chunk.append(value);
+        } else {
+            escape(value.toString());
+        }
+        return this;
+    }
+
+    void endRow() throws SQLException {
+        chunk.append('\n');
+        firstColumn = true;
+        rows++;
+        if (chunk.length() >= CHUNK_SIZE) {
+            flush();
+        }
+    }
+
+    /**
+     * @return number of rows written
+     */
+    long rows() {
+        return rows;
+    }
+
+    @Override
+    public void close() throws SQLException {
+        try {
+            flush();
+            copyIn.endCopy();
+        } finally {
+            if (copyIn.isActive()) {
+                copyIn.cancelCopy();
+            }
+        }
+    }
+
+    private void flush() throws SQLException {
+        if (chunk.length() > 0) {
+            byte[] bytes = chunk.toString().getBytes(StandardCharsets.UTF_8);
+            copyIn.writeToCopy(bytes, 0, bytes.length);
+            chunk.setLength(0);
+        }
+    }
+
+    private void escape(final String value) {
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '\\':
+                    chunk.append("\\\\");
+                    break;
+                case '\t':
+                    chunk.append("\\t");
+                    break;
+                case '\n':
+                    chunk.append("\\n");
+                    break;
+                case '\r':
+                    chunk.append("\\r");
+                    break;
+                default:
+                    chunk.append(c);
+            }
+        }
+    }
+}
@@ -0,0 +1,406 @@
+package com.upgrad.quora.db.dataset;
+
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyManager;
+import org.postgresql.ds.PGSimpleDataSource;
+
+import javax.crypto.SecretKeyFactory;
+import javax.crypto.spec.PBEKeySpec;
+import java.io.IOException;
+import java.io.InputStream;
+import java.security.GeneralSecurityException;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.Base64;
+import java.util.Properties;
+import java.util.SplittableRandom;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Fills USERS, USER_AUTH, QUESTION and ANSWER with a synthetic dataset of a realistic shape, for measuring query plans
+ * and endpoint latency at scale. Authors are drawn from a Zipf distribution over the users (dataset.user-skew), so a
+ * few users write a large share of the questions and answers and sign in most often, and answers are spread over the
+ * questions by another (dataset.answer-skew), which gives a power law of answers per question. Rows are bulk loaded
+ * with COPY, one statement per table.
+ * <p>
+ * The same seed and cardinalities give the same rows, ids, uuids and tokens included, so benchmark runs can be
+ * repeated and compared. Each table draws from its own random stream, changing the number of answers does not change
+ * the users. The generated rows take the ids from dataset.first-id on; with dataset.replace (the default) the rows of
+ * an earlier run are deleted first, that is the users named dataset_user* from dataset.first-id on together with their
+ * sessions, questions and answers and the answers to their questions. Rows of other users are never deleted: if any of
+ * them holds an id the dataset is about to take, the generator stops before changing anything. Every user signs in with the password dataset.password; the signed in sessions
+ * have the access tokens dataset_accesstoken0, dataset_accesstoken1 and so on, the others are signed out.
+ * <p>
+ * The connection is read from config/localhost.properties, like the setup profile; every setting can be overridden
+ * with a system property, e.g. mvn -pl quora-db -Pdataset process-classes -Ddataset.users=1000000
+ */
+public final class DatasetGenerator {
+
+    private static final LocalDateTime BASE_DATE = LocalDateTime.of(2024, 1, 1, 0, 0);
+
+    private static final String[] FIRST_NAMES = {"Aarav", "Ananya", "Arjun", "Diya", "Ishaan", "Kavya", "Rohan", "Saanvi",
+            "Vihaan", "Anika", "Emma", "Liam", "Olivia", "Noah", "Mia", "Lucas", "Sofia", "Mateo", "Yuki", "Chen"};
+
+    private static final String[] LAST_NAMES = {"Sharma", "Verma", "Iyer", "Reddy", "Gupta", "Nair", "Mehta", "Khan",
+            "Das", "Joshi", "Smith", "Garcia", "Müller", "Rossi", "Silva", "Kim", "Wang", "Tanaka", "Dubois", "Novak"};
+
+    // Ordered by how often they are drawn
+    private static final String[] COUNTRIES = {"India", "United States", "United Kingdom", "Canada", "Germany",
+            "Australia", "Singapore", "Brazil", "France", "Japan", "Nigeria", "Indonesia", "Spain", "Italy", "Mexico"};
+
+    private static final String[] WORDS = {"how", "what", "why", "when", "which", "is", "are", "does", "can", "should",
+            "the", "a", "to", "of", "in", "for", "with", "on", "best", "way", "learn", "java", "spring", "database",
+            "index", "query", "career", "interview", "salary", "startup", "product", "design", "data", "science",
+            "python", "cloud", "cost", "team", "remote", "work", "book", "city", "travel", "health", "money", "invest",
+            "market", "exam", "college", "course", "project", "system", "scale", "latency", "cache", "users", "good",
+            "bad", "really", "better", "first", "time", "year", "people"};
+
+    private final Settings settings;
+
+    private DatasetGenerator(final Settings settings) {
+        this.settings = settings;
+    }
+
+    public static void main(final String[] args) throws Exception {
+        new DatasetGenerator(Settings.load()).generate();
+    }
+
+    private void generate() throws Exception {
+        System.out.println(settings);
+        // Not through DriverManager, which does not see the driver when run in the Maven JVM by exec:java
+        PGSimpleDataSource dataSource = new PGSimpleDataSource();
+        dataSource.setUrl(settings.url);
+        try (Connection connection = dataSource.getConnection(settings.user, settings.password)) {
+            CopyManager copyManager = connection.unwrap(PGConnection.class).getCopyAPI();
+            checkIdsAreFree(connection);
+            if (settings.replace) {
+                timed("delete previous run", () -> {
+                    long deleted = 0;
+                    String datasetUsers = datasetUsers();
+                    try (Statement statement = connection.createStatement()) {
+                        deleted += statement.executeUpdate("DELETE FROM answer WHERE user_id IN (" + datasetUsers + ")"
+                                + " OR question_id IN (SELECT id FROM question WHERE user_id IN (" + datasetUsers + "))");
+                        deleted += statement.executeUpdate("DELETE FROM question WHERE user_id IN (" + datasetUsers + ")");
+                        deleted += statement.executeUpdate("DELETE FROM user_auth WHERE user_id IN (" + datasetUsers + ")");
+                        for (String table : new String[]{"answer", "question", "user_auth"}) {
+                            // user_id is not indexed: the cascades of the users deleted next scan these tables once
+                            // per user, vacuuming cuts them back to the rows which are not part of the dataset
+                            statement.execute("VACUUM " + table);
+                        }
+                        deleted += statement.executeUpdate("DELETE FROM users WHERE id >= " + settings.firstId + " AND username LIKE 'dataset\\_user%'");
+                    }
+                    return deleted;
+                });
+            }
+            connection.setAutoCommit(false);
+            timed("users", () -> users(copyManager));
+            timed("user_auth", () -> userAuths(copyManager));
+            timed("question", () -> questions(copyManager));
+            timed("answer", () -> answers(copyManager));
+            try (Statement statement = connection.createStatement()) {
+                // The rows were replaced behind the application's back, the ETags it handed out must no longer match
+                statement.executeUpdate("UPDATE collection_version SET version = version + 1 WHERE slot = -1");
+            }
+            connection.commit();
+
+            connection.setAutoCommit(true);
+            timed("sequences and statistics", () -> {
+                try (Statement statement = connection.createStatement()) {
+                    for (String table : new String[]{"users", "user_auth", "question", "answer"}) {
+                        // The application inserts through the id sequences, they must continue after the dataset
+                        statement.execute("SELECT setval(pg_get_serial_sequence('" + table + "', 'id'), (SELECT max(id) FROM " + table + "))");
+                        statement.execute("ANALYZE " + table);
+                    }
+                }
+                return 0;
+            });
+        }
+    }
+
+    /**
+     * @return query of the ids of the users of earlier runs
+     */
+    private String datasetUsers() {
+        return "SELECT id FROM users WHERE id >= " + settings.firstId + " AND username LIKE 'dataset\\_user%'";
+    }
+
+    /**
+     * Stops the generator when rows which are not part of an earlier run hold ids the dataset takes: the application
+     * inserts after the dataset, and a larger run would collide with its rows.
+     */
+    private void checkIdsAreFree(final Connection connection) throws SQLException {
+        String datasetUsers = datasetUsers();
+        try (Statement statement = connection.createStatement()) {
+            checkIdsAreFree(statement, "users", settings.users, "username NOT LIKE 'dataset\\_user%'");
+            checkIdsAreFree(statement, "user_auth", settings.userAuths, "user_id NOT IN (" + datasetUsers + ")");
+            checkIdsAreFree(statement, "question", settings.questions, "user_id NOT IN (" + datasetUsers + ")");
+            checkIdsAreFree(statement, "answer", settings.answers, "user_id NOT IN (" + datasetUsers + ")"
+                    + " AND question_id NOT IN (SELECT id FROM question WHERE user_id IN (" + datasetUsers + "))");
+        }
+    }
+
+    /**
+     * @param rows    number of rows the dataset generates into the table
+     * @param foreign condition of the rows which are not part of the dataset
+     */
+    private void checkIdsAreFree(final Statement statement, final String table, final int rows, final String foreign) throws SQLException {
+        long lastId = (long) settings.firstId + rows - 1;
+        try (ResultSet resultSet = statement.executeQuery("SELECT count(*) FROM " + table
+                + " WHERE id BETWEEN " + settings.firstId + " AND " + lastId + " AND " + foreign)) {
+            resultSet.next();
+            if (resultSet.getLong(1) > 0) {
+                throw new IllegalStateException(resultSet.getLong(1) + " rows of " + table + " which are not part of the dataset have ids from "
+                        + settings.firstId + " to " + lastId + ", run with a higher dataset.first-id");
+            }
+        }
+    }
+
+    private long users(final CopyManager copyManager) throws SQLException, GeneralSecurityException {
+        SplittableRandom random = new SplittableRandom(settings.seed);
+        ZipfDistribution countries = new ZipfDistribution(COUNTRIES.length, 1.0);
+        byte[] salt = new byte[32];
+        SplittableRandom saltRandom = new SplittableRandom(settings.seed + 4);
+        for (int i = 0; i < salt.length; i++) {
+            salt[i] = (byte) saltRandom.nextInt(256);
+        }
+        String encodedSalt = Base64.getEncoder().encodeToString(salt);
+        String hashedPassword = hashPassword(settings.userPassword, salt);
+        try (CopyWriter copy = new CopyWriter(copyManager, "users",
+                "id, uuid, firstname, lastname, username, email, password, salt, country, aboutme, dob, role, contactnumber")) {
+            for (int i = 0; i < settings.users; i++) {
+                String userName = "dataset_user" + i;
+                copy.column(settings.firstId + i)
+                        .column(uuid(random))
+                        .column(FIRST_NAMES[random.nextInt(FIRST_NAMES.length)])
+                        .column(LAST_NAMES[random.nextInt(LAST_NAMES.length)])
+                        .column(userName)
+                        .column(userName + "@example.com")
+                        .column(hashedPassword)
+                        .column(encodedSalt)
+                        .column(COUNTRIES[countries.sample(random) - 1])
+                        .column(words(random, 2 + random.nextInt(5), 50))
+                        .column(String.format("%02d-%02d-%d", 1 + random.nextInt(28), 1 + random.nextInt(12), 1960 + random.nextInt(45)))
+                        .column(i == 0 ? "admin" : "nonadmin")
+                        .column(String.valueOf(6_000_000_000L + random.nextLong(4_000_000_000L)))
+                        .endRow();
+            }
+            return copy.rows();
+        }
+    }
+
+    private long userAuths(final CopyManager copyManager) throws SQLException {
+        SplittableRandom random = new SplittableRandom(settings.seed + 1);
+        SkewedIndexes authors = new SkewedIndexes(settings.users, settings.userSkew);
+        long signedIn = Math.round(settings.userAuths * (1 - settings.signedOutRatio));
+        try (CopyWriter copy = new CopyWriter(copyManager, "user_auth", "id, uuid, user_id, access_token, expires_at, login_at, logout_at")) {
+            for (int i = 0; i < settings.userAuths; i++) {
+                long loginMillis = (long) (random.nextDouble() * settings.spanMillis());
+                copy.column(settings.firstId + i)
+                        .column(uuid(random))
+                        .column(settings.firstId + authors.next(random))
+                        .column(i < signedIn ? "dataset_accesstoken" + i : "dataset_signedout_accesstoken" + i)
+                        .column(date(loginMillis + TimeUnit.HOURS.toMillis(8)))
+                        .column(date(loginMillis))
+                        .column(i < signedIn ? null : date(loginMillis + (long) (random.nextDouble() * TimeUnit.HOURS.toMillis(8))))
+                        .endRow();
+            }
+            return copy.rows();
+        }
+    }
+
+    private long questions(final CopyManager copyManager) throws SQLException {
+        SplittableRandom random = new SplittableRandom(settings.seed + 2);
+        SkewedIndexes authors = new SkewedIndexes(settings.users, settings.userSkew);
+        try (CopyWriter copy = new CopyWriter(copyManager, "question", "id, uuid, content, date, user_id")) {
+            for (int i = 0; i < settings.questions; i++) {
+                copy.column(settings.firstId + i)
+                        .column(uuid(random))
+                        .column(capitalize(words(random, 4 + (int) (-Math.log(1 - random.nextDouble()) * 8), 499)) + "?")
+                        .column(date(questionMillis(i)))
+                        .column(settings.firstId + authors.next(random))
+                        .endRow();
+            }
+            return copy.rows();
+        }
+    }
+
+    private long answers(final CopyManager copyManager) throws SQLException {
+        SplittableRandom random = new SplittableRandom(settings.seed + 3);
+        SkewedIndexes authors = new SkewedIndexes(settings.users, settings.userSkew);
+        SkewedIndexes questions = new SkewedIndexes(settings.questions, settings.answerSkew);
+        long spanMillis = settings.spanMillis();
+        try (CopyWriter copy = new CopyWriter(copyManager, "answer", "id, uuid, ans, date, user_id, question_id")) {
+            for (int i = 0; i < settings.answers; i++) {
+                int question = questions.next(random);
+                // Answers follow their question after an exponentially distributed delay, a day on average
+                long delayMillis = (long) (-Math.log(1 - random.nextDouble()) * TimeUnit.DAYS.toMillis(1));
+                copy.column(settings.firstId + i)
+                        .column(uuid(random))
+                        .column(capitalize(words(random, 3 + (int) (-Math.log(1 - random.nextDouble()) * 15), 255)))
+                        .column(date(Math.min(questionMillis(question) + delayMillis, spanMillis)))
+                        .column(settings.firstId + authors.next(random))
+                        .column(settings.firstId + question)
+                        .endRow();
+            }
+            return copy.rows();
+        }
+    }
+
+    /**
+     * Questions are posted at a steady rate over the span, in id order.
+     */
+    private long questionMillis(final int question) {
+        return settings.spanMillis() * question / settings.questions;
+    }
+
+    private static String date(final long millis) {
+        return BASE_DATE.plus(millis, ChronoUnit.MILLIS).toString();
+    }
+
+    private static String uuid(final SplittableRandom random) {
+        long mostSignificantBits = (random.nextLong() & ~0xF000L) | 0x4000L;
+        long leastSignificantBits = (random.nextLong() & ~(0xC000L << 48)) | (0x8000L << 48);
+        return new UUID(mostSignificantBits, leastSignificantBits).toString();
+    }
+
+    private static String words(final SplittableRandom random, final int count, final int maxLength) {
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < count; i++) {
+            String word = WORDS[random.nextInt(WORDS.length)];
+            if (text.length() + word.length() + 1 > maxLength) {
+                break;
+            }
+            if (text.length() > 0) {
+                text.append(' ');
+            }
+            text.append(word);
+        }
+        return text.toString();
+    }
+
+    private static String capitalize(final String text) {
+        return text.isEmpty() ? text : Character.toUpperCase(text.charAt(0)) + text.substring(1);
+    }
+
+    /**
+     * Same algorithm and parameters as the PasswordCryptographyProvider of quora-service, so the generated users can
+     * sign in. Hashed once, all users share the password and the salt.
+     */
+    private static String hashPassword(final String password, final byte[] salt) throws GeneralSecurityException {
+        byte[] hash = SecretKeyFactory.getInstance("PBKDF2WithHmacSHA512")
+                .generateSecret(new PBEKeySpec(password.toCharArray(), salt, 1000, 64)).getEncoded();
+        StringBuilder hex = new StringBuilder();
+        for (byte b : hash) {
+            hex.append(String.format("%02X", b));
+        }
+        return hex.toString();
+    }
+
+    private static void timed(final String step, final Step work) throws Exception {
+        long start = System.nanoTime();
+        long rows = work.run();
+        System.out.println(String.format("%-24s %10d rows in %7d ms", step, rows, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start)));
+    }
+
+    private interface Step {
+        long run() throws Exception;
+    }
+
+    /**
+     * Draws indexes of 0 to n - 1 with Zipf frequencies. The ranks are scattered over the indexes by a fixed
+     * permutation, so the most frequent rows are not simply the first ones.
+     */
+    private static final class SkewedIndexes {
+
+        private final ZipfDistribution distribution;
+
+        private final int n;
+
+        private final long stride;
+
+        private SkewedIndexes(final int n, final double exponent) {
+            this.distribution = new ZipfDistribution(n, exponent);
+            this.n = n;
+            long stride = (long) (n * 0.6180339887) | 1;
+            while (gcd(stride, n) != 1) {
+                stride += 2;
+            }
+            this.stride = stride;
+        }
+
+        private int next(final SplittableRandom random) {
+            return (int) ((distribution.sample(random) - 1) * stride % n);
+        }
+
+        private static long gcd(final long a, final long b) {
+            return b == 0 ? a : gcd(b, a % b);
+        }
+    }
+
+    private static final class Settings {
+
+        private String url;
+        private String user;
+        private String password;
+        private long seed;
+        private int users;
+        private int userAuths;
+        private int questions;
+        private int answers;
+        private double userSkew;
+        private double answerSkew;
+        private double signedOutRatio;
+        private int days;
+        private int firstId;
+        private boolean replace;
+        private String userPassword;
+
+        private static Settings load() throws IOException {
+            Properties properties = new Properties();
+            try (InputStream inputStream = DatasetGenerator.class.getClassLoader().getResourceAsStream("config/localhost.properties")) {
+                if (inputStream != null) {
+                    properties.load(inputStream);
+                }
+            }
+            properties.putAll(System.getProperties());
+
+            Settings settings = new Settings();
+            settings.url = properties.getProperty("dataset.url", "jdbc:postgresql://" + properties.getProperty("server.host", "localhost") + ":"
+                    + properties.getProperty("server.port", "5432") + "/" + properties.getProperty("database.name", "quora"));
+            settings.user = properties.getProperty("database.user", "postgres");
+            settings.password = properties.getProperty("database.password", "");
+            settings.seed = Long.parseLong(properties.getProperty("dataset.seed", "42"));
+            settings.users = Integer.parseInt(properties.getProperty("dataset.users", "100000"));
+            settings.userAuths = Integer.parseInt(properties.getProperty("dataset.user-auths", String.valueOf(settings.users)));
+            settings.questions = Integer.parseInt(properties.getProperty("dataset.questions", "1000000"));
+            settings.answers = Integer.parseInt(properties.getProperty("dataset.answers", "5000000"));
+            settings.userSkew = Double.parseDouble(properties.getProperty("dataset.user-skew", "1.0"));
+            settings.answerSkew = Double.parseDouble(properties.getProperty("dataset.answer-skew", "0.8"));
+            settings.signedOutRatio = Double.parseDouble(properties.getProperty("dataset.signed-out-ratio", "0.3"));
+            settings.days = Integer.parseInt(properties.getProperty("dataset.days", "730"));
+            settings.firstId = Integer.parseInt(properties.getProperty("dataset.first-id", "1000000"));
+            settings.replace = Boolean.parseBoolean(properties.getProperty("dataset.replace", "true"));
+            settings.userPassword = properties.getProperty("dataset.password", "dataset");
+            if (settings.users < 1 || settings.questions < 1) {
+                throw new IllegalArgumentException("dataset.users and dataset.questions must be at least 1");
+            }
+            return settings;
+        }
+
+        private long spanMillis() {
+            return TimeUnit.DAYS.toMillis(days);
+        }
+
+        @Override
+        public String toString() {
+            return String.format("Generating into %s with seed %d: %d users (skew %.2f), %d sessions (%.0f%% signed out), %d questions,"
+                            + " %d answers (skew %.2f) over %d days, ids from %d",
+                    url, seed, users, userSkew, userAuths, signedOutRatio * 100, questions, answers, answerSkew, days, firstId);
+        }
+    }
+}
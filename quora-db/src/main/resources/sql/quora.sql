@@ -2,6 +2,8 @@
 --USERS table is created to store the details of all the users
 DROP TABLE IF EXISTS USERS CASCADE;
 CREATE TABLE IF NOT EXISTS USERS(id SERIAL, uuid VARCHAR(200) NOT NULL ,firstName VARCHAR(30) NOT NULL , lastName VARCHAR(30) NOT NULL ,userName VARCHAR(30) UNIQUE NOT NULL,  email VARCHAR(50) UNIQUE NOT NULL ,password VARCHAR(255) NOT NULL, salt VARCHAR(200) NOT NULL ,country VARCHAR(30) ,aboutMe VARCHAR(50),dob VARCHAR(30), role VARCHAR(30),contactNumber VARCHAR(30), PRIMARY KEY (id));
+--Serves user lookups by uuid
+CREATE UNIQUE INDEX IDX_USERS_UUID ON USERS(uuid);
 INSERT INTO users(
 	id, uuid, firstname, lastname, username, email, password, salt, country, aboutme, dob, role, contactnumber)
 	VALUES (1024,'rdtrdtdyt','Abhi','Mahajan','abhi','a@gmail.com','507FF5FED1CAC746','8Xt6jxoCI3MWsVaKY/1ySAp2qzlb2Z7P89+vDrb1o6U=', 'India' ,'I am @ UpGrad' ,'22-10-1995' , 'admin' , '1222333333' );
@@ -22,9 +24,28 @@ ALTER TABLE USER_AUTH ADD CONSTRAINT FK_USER_AUTH_USER_ID FOREIGN KEY(USER_ID) R
 
 --QUESTION table is created to store the questions related information posted by any user in the Application
 DROP TABLE IF EXISTS QUESTION CASCADE;
-CREATE TABLE IF NOT EXISTS QUESTION(id SERIAL,uuid VARCHAR(200) NOT NULL, content VARCHAR(500) NOT NULL, date TIMESTAMP NOT NULL , user_id INTEGER NOT NULL, PRIMARY KEY(id), FOREIGN KEY (user_id) REFERENCES USERS(id) ON DELETE CASCADE);
+CREATE TABLE IF NOT EXISTS QUESTION(id SERIAL,uuid VARCHAR(200) NOT NULL, content VARCHAR(500) NOT NULL, date TIMESTAMP NOT NULL , user_id INTEGER NOT NULL, version BIGINT NOT NULL DEFAULT 0, deleted_at TIMESTAMP NULL, PRIMARY KEY(id), FOREIGN KEY (user_id) REFERENCES USERS(id) ON DELETE CASCADE);
+--Serves question lookups by uuid
+CREATE UNIQUE INDEX IDX_QUESTION_UUID ON QUESTION(uuid);
+--Deleted questions are only tombstoned (deleted_at), this lets the background compactor find them without scanning live rows
+CREATE INDEX IDX_QUESTION_DELETED_AT ON QUESTION(deleted_at) WHERE deleted_at IS NOT NULL;
 
 
 --ANSWER table is created to store the answers related information in reply to any question posted in the Application
 DROP TABLE IF EXISTS ANSWER CASCADE;
-CREATE TABLE IF NOT EXISTS ANSWER(id SERIAL,uuid VARCHAR(200) NOT NULL, ans VARCHAR(255) NOT NULL,date TIMESTAMP NOT NULL , user_id INTEGER NOT NULL, question_id INTEGER NOT NULL , PRIMARY KEY(id), FOREIGN KEY (user_id) REFERENCES USERS(id) ON DELETE CASCADE, FOREIGN KEY (question_id) REFERENCES QUESTION(id) ON DELETE CASCADE);
+CREATE TABLE IF NOT EXISTS ANSWER(id SERIAL,uuid VARCHAR(200) NOT NULL, ans VARCHAR(255) NOT NULL,date TIMESTAMP NOT NULL , user_id INTEGER NOT NULL, question_id INTEGER NOT NULL , version BIGINT NOT NULL DEFAULT 0, deleted_at TIMESTAMP NULL, PRIMARY KEY(id), FOREIGN KEY (user_id) REFERENCES USERS(id) ON DELETE CASCADE, FOREIGN KEY (question_id) REFERENCES QUESTION(id) ON DELETE CASCADE);
+--Serves the answers of a question page in posting order
+CREATE INDEX IDX_ANSWER_QUESTION_ID_DATE ON ANSWER(question_id, date, id);
+CREATE INDEX IDX_ANSWER_DELETED_AT ON ANSWER(deleted_at) WHERE deleted_at IS NOT NULL;
+
+
+--OUTBOX_EVENT table stores the events written in the same transaction as a question/answer change; they are relayed to the in-process event consumers after commit and removed once every consumer has processed them
+--A failed delivery is counted and retried after next_delivery_at; events which failed quora.outbox.relay.max-deliveries times stay in the table as dead letters
+DROP TABLE IF EXISTS OUTBOX_EVENT CASCADE;
+CREATE TABLE IF NOT EXISTS OUTBOX_EVENT(id BIGSERIAL, event_type VARCHAR(50) NOT NULL, aggregate_uuid VARCHAR(200) NOT NULL, parent_uuid VARCHAR(200) NULL, user_uuid VARCHAR(200) NULL, created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP, failed_deliveries INTEGER NOT NULL DEFAULT 0, next_delivery_at TIMESTAMP NULL, PRIMARY KEY(id));
+
+--COLLECTION_VERSION table holds the change counters behind the ETags of the question list, the answer lists and the user profiles, shared by every instance of the application; a change bumps its counter in its own transaction
+--Slot -1 is the epoch, it starts at the creation time of the table so that ETags handed out before the table was recreated never match again
+DROP TABLE IF EXISTS COLLECTION_VERSION CASCADE;
+CREATE TABLE IF NOT EXISTS COLLECTION_VERSION(slot INTEGER, version BIGINT NOT NULL DEFAULT 0, PRIMARY KEY(slot));
+INSERT INTO COLLECTION_VERSION(slot, version) VALUES (-1, (extract(epoch from clock_timestamp()) * 1000)::BIGINT);
@@ -0,0 +1,50 @@
+package com.upgrad.quora.loadtest;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+/**
+ * Runs a load test of quora-api: sessions arrive at the configured rate for the warm up, whose measurements are then
+ * discarded, and for the measured duration; the report is printed and written, and compared with the baseline if one
+ * is given. Exits with status 1 when an endpoint regressed against the baseline, so a build can fail on it.
+ *
+ * <pre>
+ * mvn -pl quora-loadtest exec:java -Dquora.loadtest.url=http://localhost:8080/api -Dquora.loadtest.rate=20 \
+ *     -Dquora.loadtest.baseline=target/loadtest/baseline.json
+ * </pre>
+ */
+public final class LoadTest {
+
+    private LoadTest() {
+    }
+
+    public static void main(final String[] args) throws Exception {
+        Settings settings = new Settings();
+        System.out.println(settings);
+        Statistics statistics = new Statistics();
+        OpenModelDriver driver = new OpenModelDriver(settings, new QuoraClient(settings.url, statistics), statistics);
+
+        System.out.println("Warming up for " + settings.warmupSeconds + " s");
+        driver.run(settings.warmupSeconds);
+        statistics.reset();
+        System.out.println("Measuring for " + settings.durationSeconds + " s");
+        driver.run(settings.durationSeconds);
+        Statistics.Interval interval = statistics.interval();
+        driver.shutdown();
+
+        Report report = Report.of(settings, statistics, interval);
+        report.print();
+        Path path = Paths.get(settings.report);
+        report.write(path);
+        System.out.println("Report written to " + path.toAbsolutePath());
+
+        if (!settings.baseline.isEmpty()) {
+            Path baseline = Paths.get(settings.baseline);
+            System.out.println("Compared with " + baseline.toAbsolutePath());
+            if (report.compareWith(Report.read(baseline), settings.regressionThreshold)) {
+                System.out.println("Regression beyond " + Math.round(settings.regressionThreshold * 100) + "% of the baseline");
+                System.exit(1);
+            }
+        }
+    }
+}
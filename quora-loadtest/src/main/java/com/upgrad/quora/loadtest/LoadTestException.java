@@ -0,0 +1,11 @@
+package com.upgrad.quora.loadtest;
+
+/**
+ * A step of a session failed; the session is abandoned, the failure has been counted against the endpoint.
+ */
+final class LoadTestException extends RuntimeException {
+
+    LoadTestException(final String message) {
+        super(message, null, false, false);
+    }
+}
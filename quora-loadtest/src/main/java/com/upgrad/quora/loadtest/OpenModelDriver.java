@@ -0,0 +1,74 @@
+package com.upgrad.quora.loadtest;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Starts sessions as a Poisson process of the configured rate, whether or not earlier sessions have finished: the
+ * load does not back off when the server slows down, as real users would not. Each session runs on its own thread, an
+ * arrival finding all max-sessions threads busy is dropped and counted, rather than queued, which would hide the
+ * overload. An arrival started late by the driver is timed from when it was due.
+ */
+final class OpenModelDriver {
+
+    private final Settings settings;
+
+    private final QuoraClient client;
+
+    private final Statistics statistics;
+
+    private final SplittableRandom random;
+
+    private final String runId = Long.toString(System.currentTimeMillis(), 36);
+
+    private final ThreadPoolExecutor sessions;
+
+    private long sessionNumber;
+
+    OpenModelDriver(final Settings settings, final QuoraClient client, final Statistics statistics) {
+        this.settings = settings;
+        this.client = client;
+        this.statistics = statistics;
+        this.random = new SplittableRandom(settings.seed);
+        this.sessions = new ThreadPoolExecutor(settings.maxSessions, settings.maxSessions, 60, TimeUnit.SECONDS, new SynchronousQueue<>(),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "session-" + sessionNumber);
+                    thread.setDaemon(true);
+                    return thread;
+                }, (runnable, executor) -> statistics.sessionsDropped.increment());
+        this.sessions.allowCoreThreadTimeOut(true);
+    }
+
+    /**
+     * Starts sessions for the given time; sessions still running at the end keep running into the next call.
+     */
+    void run(final int seconds) {
+        long meanIntervalNanos = (long) (TimeUnit.SECONDS.toNanos(1) / settings.rate);
+        long end = System.nanoTime() + TimeUnit.SECONDS.toNanos(seconds);
+        long arrival = System.nanoTime();
+        while (true) {
+            arrival += (long) (-Math.log(1 - random.nextDouble()) * meanIntervalNanos);
+            if (arrival >= end) {
+                break;
+            }
+            long wait;
+            while ((wait = arrival - System.nanoTime()) > 0) {
+                LockSupport.parkNanos(wait);
+            }
+            sessions.execute(new Session(settings, client, statistics, random.split(), arrival, runId, sessionNumber++));
+        }
+    }
+
+    /**
+     * Waits for the running sessions to finish.
+     */
+    void shutdown() throws InterruptedException {
+        sessions.shutdown();
+        if (!sessions.awaitTermination(2, TimeUnit.MINUTES)) {
+            sessions.shutdownNow();
+        }
+    }
+}
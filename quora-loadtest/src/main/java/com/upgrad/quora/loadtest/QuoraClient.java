@@ -0,0 +1,141 @@
+package com.upgrad.quora.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UnsupportedEncodingException;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * The endpoints of quora-api a session calls, over plain HttpURLConnection with keep-alive. Each call is timed and
+ * recorded in the statistics under the name of its endpoint, failed calls, either an unexpected status or an I/O
+ * error, are counted as errors of the endpoint and end the session with a LoadTestException.
+ */
+final class QuoraClient {
+
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+
+    private final String baseUrl;
+
+    private final Statistics statistics;
+
+    QuoraClient(final String baseUrl, final Statistics statistics) {
+        this.baseUrl = baseUrl;
+        this.statistics = statistics;
+    }
+
+    /**
+     * @return uuid of the new user
+     */
+    String signup(final long intendedStart, final String userName, final String password) {
+        return call(intendedStart, "signup", "POST", "/user/signup?firstName=Load&lastName=Test&userName=" + encode(userName)
+                + "&emailAddress=" + encode(userName + "@example.com") + "&password=" + encode(password)
+                + "&country=India&aboutMe=load+test&dob=01-01-2000&contactNumber=9999999999", null, 201).json.path("id").asText();
+    }
+
+    /**
+     * @return access token of the session
+     */
+    String signin(final long intendedStart, final String userName, final String password) {
+        String credentials = Base64.getEncoder().encodeToString(("Basic " + userName + ":" + password).getBytes(StandardCharsets.UTF_8));
+        return call(intendedStart, "signin", "POST", "/user/signin", credentials, 200).accessToken;
+    }
+
+    JsonNode getAllQuestions(final long intendedStart, final String accessToken) {
+        return call(intendedStart, "question/all", "GET", "/question/all", accessToken, 200).json;
+    }
+
+    JsonNode getQuestionFull(final long intendedStart, final String accessToken, final String questionId) {
+        return call(intendedStart, "question/full", "GET", "/question/" + encode(questionId) + "/full", accessToken, 200).json;
+    }
+
+    String createQuestion(final long intendedStart, final String accessToken, final String content) {
+        return call(intendedStart, "question/create", "POST", "/question/create?content=" + encode(content), accessToken, 201).json.path("id").asText();
+    }
+
+    String createAnswer(final long intendedStart, final String accessToken, final String questionId, final String answer) {
+        return call(intendedStart, "answer/create", "POST", "/question/" + encode(questionId) + "/answer/create?answer=" + encode(answer),
+                accessToken, 201).json.path("id").asText();
+    }
+
+    void signout(final long intendedStart, final String accessToken) {
+        call(intendedStart, "signout", "POST", "/user/signout", accessToken, 200);
+    }
+
+    /**
+     * @param intendedStart System.nanoTime() the call should have started at: the latency is measured from it, so the
+     *                      time a call waited behind a slow predecessor is not omitted
+     */
+    private Response call(final long intendedStart, final String endpoint, final String method, final String path,
+                          final String authorization, final int expectedStatus) {
+        Response response;
+        try {
+            HttpURLConnection connection = (HttpURLConnection) new URL(baseUrl + path).openConnection();
+            connection.setRequestMethod(method);
+            connection.setConnectTimeout(5000);
+            connection.setReadTimeout(60000);
+            connection.setRequestProperty("Content-Type", "application/json;charset=UTF-8");
+            if (authorization != null) {
+                connection.setRequestProperty("authorization", authorization);
+            }
+            int status = connection.getResponseCode();
+            byte[] body = read(status < 400 ? connection.getInputStream() : connection.getErrorStream());
+            response = new Response(status, connection.getHeaderField("access-token"),
+                    body.length > 0 && status == expectedStatus ? OBJECT_MAPPER.readTree(body) : null);
+        } catch (IOException e) {
+            statistics.recordError(endpoint);
+            throw new LoadTestException(endpoint + " failed: " + e);
+        }
+        if (response.status != expectedStatus) {
+            statistics.recordError(endpoint);
+            throw new LoadTestException(endpoint + " answered " + response.status);
+        }
+        statistics.recordLatency(endpoint, System.nanoTime() - intendedStart);
+        return response;
+    }
+
+    private static byte[] read(final InputStream inputStream) throws IOException {
+        ByteArrayOutputStream body = new ByteArrayOutputStream();
+        if (inputStream == null) {
+            return body.toByteArray();
+        }
+        try (InputStream in = inputStream) {
+            byte[] buffer = new byte[8192];
+            int read;
+            while ((read = in.read(buffer)) >= 0) {
+                body.write(buffer, 0, read);
+            }
+        }
+        return body.toByteArray();
+    }
+
+    private static String encode(final String value) {
+        try {
+            return URLEncoder.encode(value, "UTF-8");
+        } catch (UnsupportedEncodingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static final class Response {
+
+        private final int status;
+
+        private final String accessToken;
+
+        private final JsonNode json;
+
+        private Response(final int status, final String accessToken, final JsonNode json) {
+            this.status = status;
+            this.accessToken = accessToken;
+            this.json = json == null ? OBJECT_MAPPER.createObjectNode() : json;
+        }
+    }
+}
@@ -0,0 +1,135 @@
+package com.upgrad.quora.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.HdrHistogram.Histogram;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Report of a load test: for each endpoint the number of calls, errors, throughput over the measured interval and
+ * latency percentiles in milliseconds, with the full HdrHistogram (compressed, base64) so that any other percentile can
+ * be recomputed later, and the session counters and the settings shaping the load. Written as JSON and printed as a table; compared with a
+ * baseline report, an endpoint regresses when its p50 or p99 grew by more than the threshold, and by at least a
+ * millisecond so that noise on sub-millisecond calls does not count, or its error ratio by more than a point.
+ */
+final class Report {
+
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT);
+
+    private static final List<String> PERCENTILES = Arrays.asList("p50", "p90", "p99", "p99.9");
+
+    private static final double[] PERCENTILE_VALUES = {50, 90, 99, 99.9};
+
+    private final ObjectNode json;
+
+    private Report(final ObjectNode json) {
+        this.json = json;
+    }
+
+    static Report of(final Settings settings, final Statistics statistics, final Statistics.Interval interval) {
+        ObjectNode json = OBJECT_MAPPER.createObjectNode();
+        json.put("date", Instant.now().toString());
+        json.put("url", settings.url);
+        json.set("load", OBJECT_MAPPER.valueToTree(settings.load()));
+        json.put("seconds", interval.seconds);
+        ObjectNode sessions = json.putObject("sessions");
+        sessions.put("started", statistics.sessionsStarted.sum());
+        sessions.put("completed", statistics.sessionsCompleted.sum());
+        sessions.put("failed", statistics.sessionsFailed.sum());
+        sessions.put("dropped", statistics.sessionsDropped.sum());
+        ObjectNode endpoints = json.putObject("endpoints");
+        for (Map.Entry<String, Statistics.EndpointResult> result : interval.endpoints.entrySet()) {
+            Histogram histogram = result.getValue().histogram;
+            ObjectNode endpoint = endpoints.putObject(result.getKey());
+            endpoint.put("count", histogram.getTotalCount());
+            endpoint.put("errors", result.getValue().errors);
+            endpoint.put("throughput", histogram.getTotalCount() / interval.seconds);
+            for (int i = 0; i < PERCENTILES.size(); i++) {
+                endpoint.put(PERCENTILES.get(i), histogram.getValueAtPercentile(PERCENTILE_VALUES[i]) / 1000.0);
+            }
+            endpoint.put("max", histogram.getMaxValue() / 1000.0);
+            ByteBuffer buffer = ByteBuffer.allocate(histogram.getNeededByteBufferCapacity());
+            int length = histogram.encodeIntoCompressedByteBuffer(buffer);
+            endpoint.put("histogram", Base64.getEncoder().encodeToString(Arrays.copyOf(buffer.array(), length)));
+        }
+        return new Report(json);
+    }
+
+    static Report read(final Path path) throws IOException {
+        return new Report((ObjectNode) OBJECT_MAPPER.readTree(path.toFile()));
+    }
+
+    void write(final Path path) throws IOException {
+        Path parent = path.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        OBJECT_MAPPER.writeValue(path.toFile(), json);
+    }
+
+    void print() {
+        JsonNode sessions = json.path("sessions");
+        System.out.println(String.format("Sessions: %d started, %d completed, %d failed, %d dropped", sessions.path("started").asLong(),
+                sessions.path("completed").asLong(), sessions.path("failed").asLong(), sessions.path("dropped").asLong()));
+        System.out.println(String.format("%-16s %8s %7s %8s %9s %9s %9s %9s %9s", "endpoint", "count", "errors", "req/s",
+                "p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "max ms"));
+        for (Iterator<Map.Entry<String, JsonNode>> it = json.path("endpoints").fields(); it.hasNext(); ) {
+            Map.Entry<String, JsonNode> endpoint = it.next();
+            JsonNode e = endpoint.getValue();
+            System.out.println(String.format("%-16s %8d %7d %8.1f %9.1f %9.1f %9.1f %9.1f %9.1f", endpoint.getKey(), e.path("count").asLong(),
+                    e.path("errors").asLong(), e.path("throughput").asDouble(), e.path("p50").asDouble(), e.path("p90").asDouble(),
+                    e.path("p99").asDouble(), e.path("p99.9").asDouble(), e.path("max").asDouble()));
+        }
+    }
+
+    /**
+     * Prints the change of each endpoint against the baseline.
+     *
+     * @return whether an endpoint regressed
+     */
+    boolean compareWith(final Report baseline, final double threshold) {
+        if (!json.path("load").toString().equals(baseline.json.path("load").toString())) {
+            System.out.println("Warning: the load differs from the baseline " + baseline.json.path("load") + ", the reports are not comparable");
+        }
+        System.out.println(String.format("%-16s %21s %21s %15s", "endpoint", "p50 ms", "p99 ms", "error ratio"));
+        boolean regressed = false;
+        for (Iterator<Map.Entry<String, JsonNode>> it = json.path("endpoints").fields(); it.hasNext(); ) {
+            Map.Entry<String, JsonNode> endpoint = it.next();
+            JsonNode current = endpoint.getValue();
+            JsonNode previous = baseline.json.path("endpoints").path(endpoint.getKey());
+            if (previous.isMissingNode()) {
+                System.out.println(String.format("%-16s not in the baseline", endpoint.getKey()));
+                continue;
+            }
+            boolean slower = regressed(previous.path("p50").asDouble(), current.path("p50").asDouble(), threshold)
+                    || regressed(previous.path("p99").asDouble(), current.path("p99").asDouble(), threshold);
+            boolean failing = errorRatio(current) > errorRatio(previous) + 0.01;
+            System.out.println(String.format("%-16s %9.1f -> %9.1f %9.1f -> %9.1f %6.3f -> %6.3f%s", endpoint.getKey(),
+                    previous.path("p50").asDouble(), current.path("p50").asDouble(), previous.path("p99").asDouble(),
+                    current.path("p99").asDouble(), errorRatio(previous), errorRatio(current), slower || failing ? "  REGRESSION" : ""));
+            regressed |= slower || failing;
+        }
+        return regressed;
+    }
+
+    private static boolean regressed(final double previous, final double current, final double threshold) {
+        return current > previous * (1 + threshold) && current - previous >= 1;
+    }
+
+    private static double errorRatio(final JsonNode endpoint) {
+        long calls = endpoint.path("count").asLong() + endpoint.path("errors").asLong();
+        return calls == 0 ? 0 : endpoint.path("errors").asLong() / (double) calls;
+    }
+}
@@ -0,0 +1,97 @@
+package com.upgrad.quora.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * One user visit: sign up (or pick a user of the dataset), sign in, list the questions, read a few of them with
+ * their answers, answer one and sometimes ask one, sign out; with a think time before every step but the first.
+ * Each step is timed from when it was meant to start, the arrival of the session for the first step and the end of
+ * the think time for the others.
+ */
+final class Session implements Runnable {
+
+    private final Settings settings;
+
+    private final QuoraClient client;
+
+    private final Statistics statistics;
+
+    private final SplittableRandom random;
+
+    private final long arrival;
+
+    private final String runId;
+
+    private final long number;
+
+    private boolean started;
+
+    Session(final Settings settings, final QuoraClient client, final Statistics statistics, final SplittableRandom random,
+            final long arrival, final String runId, final long number) {
+        this.settings = settings;
+        this.client = client;
+        this.statistics = statistics;
+        this.random = random;
+        this.arrival = arrival;
+        this.runId = runId;
+        this.number = number;
+    }
+
+    @Override
+    public void run() {
+        statistics.sessionsStarted.increment();
+        try {
+            String userName;
+            String password;
+            if (settings.signup) {
+                userName = "load_" + runId + "_" + number;
+                password = "load";
+                client.signup(step(), userName, password);
+            } else {
+                userName = "dataset_user" + random.nextInt(settings.datasetUsers);
+                password = settings.datasetPassword;
+            }
+            String accessToken = client.signin(step(), userName, password);
+
+            JsonNode questions = client.getAllQuestions(step(), accessToken);
+            String questionId = null;
+            for (int i = 0; i < settings.questionsRead && questions.size() > 0; i++) {
+                questionId = questions.get(random.nextInt(questions.size())).path("id").asText();
+                client.getQuestionFull(step(), accessToken, questionId);
+            }
+            if (questionId != null && random.nextDouble() < settings.answerRatio) {
+                client.createAnswer(step(), accessToken, questionId, "Load test answer " + number);
+            }
+            if (random.nextDouble() < settings.questionRatio) {
+                client.createQuestion(step(), accessToken, "Load test question " + number + "?");
+            }
+            client.signout(step(), accessToken);
+            statistics.sessionsCompleted.increment();
+        } catch (LoadTestException e) {
+            statistics.sessionsFailed.increment();
+        }
+    }
+
+    /**
+     * @return System.nanoTime() the step is meant to start at, after the think time unless it is the first step
+     */
+    private long step() {
+        if (!started) {
+            started = true;
+            return arrival;
+        }
+        long intendedStart = System.nanoTime();
+        if (settings.thinkTimeMs > 0) {
+            intendedStart += (long) (-Math.log(1 - random.nextDouble()) * TimeUnit.MILLISECONDS.toNanos(settings.thinkTimeMs));
+            long remaining;
+            while ((remaining = intendedStart - System.nanoTime()) > 0) {
+                LockSupport.parkNanos(remaining);
+            }
+        }
+        return intendedStart;
+    }
+}
@@ -0,0 +1,89 @@
+package com.upgrad.quora.loadtest;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Settings of a load test, read from the system properties quora.loadtest.*. The ones shaping the load are written
+ * to the report, a comparison with a baseline warns when they differ.
+ */
+final class Settings {
+
+    private static final String PREFIX = "quora.loadtest.";
+
+    final String url = property("url", "http://localhost:8080/api");
+
+    /**
+     * Sessions started per second, on average: arrivals are a Poisson process, independent of the response times.
+     */
+    final double rate = Double.parseDouble(property("rate", "10"));
+
+    final int warmupSeconds = Integer.parseInt(property("warmup-seconds", "10"));
+
+    final int durationSeconds = Integer.parseInt(property("duration-seconds", "60"));
+
+    /**
+     * Sessions running at the same time at most, one thread each.
+     */
+    final int maxSessions = Integer.parseInt(property("max-sessions", "500"));
+
+    final long seed = Long.parseLong(property("seed", "42"));
+
+    /**
+     * Pause of a user between two steps, exponentially distributed with this mean.
+     */
+    final long thinkTimeMs = Long.parseLong(property("think-time-ms", "500"));
+
+    /**
+     * Sessions sign up a new user; if false, they sign in as one of the dataset-users users of the quora-db dataset.
+     */
+    final boolean signup = Boolean.parseBoolean(property("signup", "true"));
+
+    final int datasetUsers = Integer.parseInt(property("dataset-users", "100000"));
+
+    final String datasetPassword = property("dataset-password", "dataset");
+
+    /**
+     * Questions opened with their answers in each session, after the list of all questions.
+     */
+    final int questionsRead = Integer.parseInt(property("questions-read", "3"));
+
+    final double answerRatio = Double.parseDouble(property("answer-ratio", "0.5"));
+
+    final double questionRatio = Double.parseDouble(property("question-ratio", "0.1"));
+
+    final String report = property("report", "target/loadtest/report-" + System.currentTimeMillis() + ".json");
+
+    final String baseline = property("baseline", "");
+
+    /**
+     * Relative increase of a percentile over the baseline which is reported as a regression.
+     */
+    final double regressionThreshold = Double.parseDouble(property("regression-threshold", "0.10"));
+
+    /**
+     * @return the settings which shape the load, the ones two reports must share to be comparable
+     */
+    Map<String, Object> load() {
+        Map<String, Object> load = new LinkedHashMap<>();
+        load.put("rate", rate);
+        load.put("durationSeconds", durationSeconds);
+        load.put("maxSessions", maxSessions);
+        load.put("seed", seed);
+        load.put("thinkTimeMs", thinkTimeMs);
+        load.put("signup", signup);
+        load.put("questionsRead", questionsRead);
+        load.put("answerRatio", answerRatio);
+        load.put("questionRatio", questionRatio);
+        return load;
+    }
+
+    private static String property(final String name, final String defaultValue) {
+        return System.getProperty(PREFIX + name, defaultValue);
+    }
+
+    @Override
+    public String toString() {
+        return "Load test of " + url + " " + load();
+    }
+}
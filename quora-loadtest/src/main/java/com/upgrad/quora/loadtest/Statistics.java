@@ -0,0 +1,108 @@
+package com.upgrad.quora.loadtest;
+
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Latencies and errors per endpoint, and the session counters, recorded concurrently by the sessions. Latencies are
+ * kept in HdrHistogram recorders in microseconds, up to an hour with three significant digits; reset() starts a new
+ * interval, which is how the warm up is left out of the report, and interval() ends it, before the sessions still
+ * running are waited for, so that the throughput is computed over the time the calls were actually recorded in.
+ * Sessions of the warm up still running at the reset count as completed or failed in the new interval, not as started.
+ */
+final class Statistics {
+
+    private static final long HIGHEST_TRACKABLE_MICROS = TimeUnit.HOURS.toMicros(1);
+
+    private final ConcurrentMap<String, Endpoint> endpoints = new ConcurrentHashMap<>();
+
+    final LongAdder sessionsStarted = new LongAdder();
+
+    final LongAdder sessionsCompleted = new LongAdder();
+
+    final LongAdder sessionsFailed = new LongAdder();
+
+    /**
+     * Arrivals which found every session slot taken: in an open model they are not queued, they are lost load.
+     */
+    final LongAdder sessionsDropped = new LongAdder();
+
+    private volatile long intervalStartNanos = System.nanoTime();
+
+    void recordLatency(final String endpoint, final long nanos) {
+        endpoint(endpoint).recorder.recordValue(Math.min(TimeUnit.NANOSECONDS.toMicros(nanos), HIGHEST_TRACKABLE_MICROS));
+    }
+
+    void recordError(final String endpoint) {
+        endpoint(endpoint).errors.increment();
+    }
+
+    void reset() {
+        for (Endpoint endpoint : endpoints.values()) {
+            endpoint.recorder.reset();
+            endpoint.errors.reset();
+        }
+        sessionsStarted.reset();
+        sessionsCompleted.reset();
+        sessionsFailed.reset();
+        sessionsDropped.reset();
+        intervalStartNanos = System.nanoTime();
+    }
+
+    /**
+     * Ends the interval started by the last reset: calls recorded later are not part of it.
+     *
+     * @return latency histogram in microseconds and error count of each endpoint since the last reset, by name, and
+     * the length of the interval
+     */
+    Interval interval() {
+        Map<String, EndpointResult> results = new TreeMap<>();
+        for (Map.Entry<String, Endpoint> endpoint : endpoints.entrySet()) {
+            results.put(endpoint.getKey(), new EndpointResult(endpoint.getValue().recorder.getIntervalHistogram(),
+                    endpoint.getValue().errors.sum()));
+        }
+        return new Interval(results, (System.nanoTime() - intervalStartNanos) / 1e9);
+    }
+
+    private Endpoint endpoint(final String name) {
+        return endpoints.computeIfAbsent(name, key -> new Endpoint());
+    }
+
+    private static final class Endpoint {
+
+        private final Recorder recorder = new Recorder(HIGHEST_TRACKABLE_MICROS, 3);
+
+        private final LongAdder errors = new LongAdder();
+    }
+
+    static final class Interval {
+
+        final Map<String, EndpointResult> endpoints;
+
+        final double seconds;
+
+        Interval(final Map<String, EndpointResult> endpoints, final double seconds) {
+            this.endpoints = endpoints;
+            this.seconds = seconds;
+        }
+    }
+
+    static final class EndpointResult {
+
+        final Histogram histogram;
+
+        final long errors;
+
+        EndpointResult(final Histogram histogram, final long errors) {
+            this.histogram = histogram;
+            this.errors = errors;
+        }
+    }
+}
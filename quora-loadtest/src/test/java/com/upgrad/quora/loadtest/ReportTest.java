@@ -0,0 +1,100 @@
+package com.upgrad.quora.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.HdrHistogram.Histogram;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class ReportTest {
+
+    private static final double THRESHOLD = 0.1;
+
+    @Rule
+    public final TemporaryFolder folder = new TemporaryFolder();
+
+    private final Settings settings = new Settings();
+
+    //This test case passes when the throughput is the number of calls divided by the length of the measured interval, not the configured duration.
+    @Test
+    public void throughputOverMeasuredInterval() throws Exception {
+        JsonNode json = json(report(2.5, 10_000, 10, 0));
+
+        assertEquals(2.5, json.path("seconds").asDouble(), 0);
+        assertEquals(4, json.path("endpoints").path("signin").path("throughput").asDouble(), 1e-9);
+        assertEquals(10, json.path("endpoints").path("signin").path("count").asLong());
+        assertEquals(10, json.path("endpoints").path("signin").path("p99").asDouble(), 0.01);
+    }
+
+    //This test case passes when a report is read back unchanged, so it can be the baseline of a later run.
+    @Test
+    public void writeAndRead() throws Exception {
+        Report report = report(1, 10_000, 10, 0);
+        Path path = folder.getRoot().toPath().resolve("report.json");
+        report.write(path);
+
+        assertEquals(json(report), json(Report.read(path)));
+    }
+
+    //This test case passes when a report within the threshold of the baseline does not regress.
+    @Test
+    public void sameLatencyDoesNotRegress() {
+        assertFalse(report(1, 10_000, 100, 0).compareWith(report(1, 10_500, 100, 0), THRESHOLD));
+    }
+
+    //This test case passes when a latency grown by more than the threshold, and more than a millisecond, regresses.
+    @Test
+    public void slowerLatencyRegresses() {
+        assertTrue(report(1, 12_000, 100, 0).compareWith(report(1, 10_000, 100, 0), THRESHOLD));
+    }
+
+    //This test case passes when a latency grown by more than the threshold but less than a millisecond does not regress.
+    @Test
+    public void subMillisecondGrowthDoesNotRegress() {
+        assertFalse(report(1, 600, 100, 0).compareWith(report(1, 200, 100, 0), THRESHOLD));
+    }
+
+    //This test case passes when the error ratio grown by more than a point regresses, and one grown by less does not.
+    @Test
+    public void errorRatioRegresses() {
+        assertTrue(report(1, 10_000, 100, 3).compareWith(report(1, 10_000, 100, 0), THRESHOLD));
+        assertFalse(report(1, 10_000, 1000, 5).compareWith(report(1, 10_000, 1000, 0), THRESHOLD));
+    }
+
+    //This test case passes when an endpoint missing from the baseline is reported but does not count as a regression.
+    @Test
+    public void endpointNotInBaselineDoesNotRegress() {
+        Statistics.Interval empty = new Statistics.Interval(Collections.emptyMap(), 1);
+        Report baseline = Report.of(settings, new Statistics(), empty);
+
+        assertFalse(report(1, 10_000, 100, 50).compareWith(baseline, THRESHOLD));
+    }
+
+    /**
+     * @return report of a signin endpoint whose calls all took the given latency
+     */
+    private Report report(final double seconds, final long latencyMicros, final int calls, final long errors) {
+        Histogram histogram = new Histogram(TimeUnit.HOURS.toMicros(1), 3);
+        histogram.recordValueWithCount(latencyMicros, calls);
+        TreeMap<String, Statistics.EndpointResult> endpoints = new TreeMap<>();
+        endpoints.put("signin", new Statistics.EndpointResult(histogram, errors));
+        return Report.of(settings, new Statistics(), new Statistics.Interval(endpoints, seconds));
+    }
+
+    private JsonNode json(final Report report) throws IOException {
+        Path path = folder.newFile().toPath();
+        report.write(path);
+        return new ObjectMapper().readTree(path.toFile());
+    }
+}
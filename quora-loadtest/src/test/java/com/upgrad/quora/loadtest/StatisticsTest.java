@@ -0,0 +1,74 @@
+package com.upgrad.quora.loadtest;
+
+import org.junit.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class StatisticsTest {
+
+    private final Statistics statistics = new Statistics();
+
+    //This test case passes when latencies are recorded in microseconds and errors are counted, each per endpoint.
+    @Test
+    public void recordPerEndpoint() {
+        statistics.recordLatency("signin", TimeUnit.MILLISECONDS.toNanos(2));
+        statistics.recordLatency("signin", TimeUnit.MILLISECONDS.toNanos(4));
+        statistics.recordError("signin");
+        statistics.recordLatency("signout", TimeUnit.MILLISECONDS.toNanos(1));
+
+        Statistics.Interval interval = statistics.interval();
+
+        assertEquals(2, interval.endpoints.get("signin").histogram.getTotalCount());
+        assertEquals(4000, interval.endpoints.get("signin").histogram.getMaxValue(), 4);
+        assertEquals(1, interval.endpoints.get("signin").errors);
+        assertEquals(1, interval.endpoints.get("signout").histogram.getTotalCount());
+        assertEquals(0, interval.endpoints.get("signout").errors);
+    }
+
+    //This test case passes when a latency longer than the histogram can track is recorded as its highest value instead of failing.
+    @Test
+    public void recordLatencyBeyondAnHour() {
+        statistics.recordLatency("signin", TimeUnit.HOURS.toNanos(2));
+
+        assertEquals(TimeUnit.HOURS.toMicros(1), statistics.interval().endpoints.get("signin").histogram.getMaxValue(),
+                TimeUnit.HOURS.toMicros(1) / 500);
+    }
+
+    //This test case passes when the calls, errors and sessions recorded before a reset are left out of the interval.
+    @Test
+    public void resetStartsNewInterval() {
+        statistics.recordLatency("signin", TimeUnit.MILLISECONDS.toNanos(100));
+        statistics.recordError("signin");
+        statistics.sessionsStarted.increment();
+        statistics.sessionsDropped.increment();
+
+        statistics.reset();
+        statistics.recordLatency("signin", TimeUnit.MILLISECONDS.toNanos(1));
+
+        Statistics.Interval interval = statistics.interval();
+        assertEquals(1, interval.endpoints.get("signin").histogram.getTotalCount());
+        assertTrue(interval.endpoints.get("signin").histogram.getMaxValue() < 2000);
+        assertEquals(0, interval.endpoints.get("signin").errors);
+        assertEquals(0, statistics.sessionsStarted.sum());
+        assertEquals(0, statistics.sessionsDropped.sum());
+    }
+
+    //This test case passes when the interval lasts from the reset to the call of interval(), and calls recorded afterwards are not part of it.
+    @Test
+    public void intervalEndsWhenTaken() throws Exception {
+        statistics.reset();
+        statistics.recordLatency("signin", TimeUnit.MILLISECONDS.toNanos(1));
+        Thread.sleep(50);
+
+        Statistics.Interval interval = statistics.interval();
+        statistics.recordLatency("signin", TimeUnit.MILLISECONDS.toNanos(1));
+
+        assertEquals(1, interval.endpoints.get("signin").histogram.getTotalCount());
+        assertTrue(interval.seconds >= 0.05);
+        assertFalse(interval.seconds > 5);
+    }
+}
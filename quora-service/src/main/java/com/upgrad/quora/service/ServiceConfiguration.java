@@ -1,15 +1,56 @@
 package com.upgrad.quora.service;
 
 
+import com.upgrad.quora.service.dao.jpa.ReadOnlySessionJpaDialect;
+import com.upgrad.quora.service.exception.StackTraces;
+import org.springframework.beans.BeansException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
 import org.springframework.boot.autoconfigure.domain.EntityScan;
+import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.ComponentScan;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.orm.jpa.LocalContainerEntityManagerFactoryBean;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+import javax.annotation.PostConstruct;
 
 /**
  * Enabling the component scan and entity scan of classes in the below mentioned "com.upgrad.quora.service" and "com.upgrad.quora.service.entity" packages respectively.
+ * Scheduling is enabled for the background jobs of the service layer (e.g. purging deleted questions and answers).
+ * The entity manager factory configured by Spring Boot gets a dialect which makes the sessions of read-only transactions read-only.
+ * The exceptions of the service capture stack traces only if quora.exceptions.stack-traces is set (see StackTraces).
  */
 @Configuration
+@Lazy(false)
 @ComponentScan("com.upgrad.quora.service")
 @EntityScan("com.upgrad.quora.service.entity")
+@EnableScheduling
 public class ServiceConfiguration {
+
+    @Value("${" + StackTraces.PROPERTY + ":false}")
+    private boolean stackTraces;
+
+    @PostConstruct
+    public void init() {
+        StackTraces.setCaptured(stackTraces);
+    }
+
+    /**
+     * Replaces the dialect of the entity manager factory before it is initialized, so that the JpaTransactionManager
+     * picks it up as well. Static so that it does not force the early creation of this configuration.
+     */
+    @Bean
+    public static BeanPostProcessor readOnlySessionJpaDialectPostProcessor() {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessBeforeInitialization(final Object bean, final String beanName) throws BeansException {
+                if (bean instanceof LocalContainerEntityManagerFactoryBean) {
+                    ((LocalContainerEntityManagerFactoryBean) bean).setJpaDialect(new ReadOnlySessionJpaDialect());
+                }
+                return bean;
+            }
+        };
+    }
 }
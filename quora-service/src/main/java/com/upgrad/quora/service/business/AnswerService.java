@@ -2,25 +2,53 @@ package com.upgrad.quora.service.business;
 
 import com.upgrad.quora.service.dao.AnswerDao;
 import com.upgrad.quora.service.dao.QuestionDao;
+import com.upgrad.quora.service.dao.ReadRepository;
 import com.upgrad.quora.service.dao.UserAuthDao;
 import com.upgrad.quora.service.entity.AnswerEntity;
+import com.upgrad.quora.service.entity.OutboxEventEntity;
 import com.upgrad.quora.service.entity.QuestionEntity;
 import com.upgrad.quora.service.entity.UserAuthEntity;
+import com.upgrad.quora.service.entity.UserEntity;
+import com.upgrad.quora.service.event.EventOutbox;
+import com.upgrad.quora.service.event.EventType;
 import com.upgrad.quora.service.exception.AnswerNotFoundException;
 import com.upgrad.quora.service.exception.AuthorizationFailedException;
+import com.upgrad.quora.service.exception.BatchLimitExceededException;
 import com.upgrad.quora.service.exception.InvalidQuestionException;
+import com.upgrad.quora.service.exception.VersionConflictException;
+import com.upgrad.quora.service.executor.SingleFlight;
+import com.upgrad.quora.service.id.IdGenerator;
+import com.upgrad.quora.service.record.AnswerField;
+import com.upgrad.quora.service.record.AnswerRecord;
+import com.upgrad.quora.service.record.UserAuthRecord;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import javax.annotation.PostConstruct;
+import javax.validation.ConstraintViolation;
+import javax.validation.Validator;
 import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashSet;
 import java.util.List;
-import java.util.UUID;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Predicate;
 
 @Service
 public class AnswerService {
 
+    public static final int MAX_CREATE_BATCH_SIZE = 100;
+
     @Autowired
     private UserAuthDao userAuthDao;
 
@@ -30,6 +58,51 @@ public class AnswerService {
     @Autowired
     private QuestionDao questionDao;
 
+    @Autowired
+    private EventOutbox eventOutbox;
+
+    @Autowired
+    private ReadRepository readRepository;
+
+    @Autowired
+    private CollectionVersions collectionVersions;
+
+    @Autowired
+    private IdGenerator idGenerator;
+
+    @Autowired
+    private Validator validator;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private ObjectProvider<MeterRegistry> meterRegistry;
+
+    @Value("${quora.coalescing.answers.enabled:true}")
+    private boolean coalesceAnswers;
+
+    @Value("${quora.coalescing.answers.ttl-ms:0}")
+    private long answersTtlMs;
+
+    @Value("${quora.coalescing.answers.max-wait-ms:2000}")
+    private long answersMaxWaitMs;
+
+    private TransactionTemplate readTransaction;
+
+    private SingleFlight<AnswersKey, List<AnswerRecord>> answerReads;
+
+    @PostConstruct
+    public void init() {
+        readTransaction = new TransactionTemplate(transactionManager);
+        readTransaction.setReadOnly(true);
+        answerReads = new SingleFlight<>("answers", answersTtlMs, answersMaxWaitMs);
+        MeterRegistry registry = meterRegistry.getIfAvailable();
+        if (registry != null) {
+            answerReads.bindTo(registry);
+        }
+    }
+
     /**
      * This method is used to create an answer to a particular question.
      * @param answerEntity
@@ -51,11 +124,78 @@ public class AnswerService {
         if (questionEntity == null) {
             throw new InvalidQuestionException("QUES-001", "The question entered is invalid");
         }
-        answerEntity.setUuid(UUID.randomUUID().toString());
+        answerEntity.setUuid(idGenerator.generate());
         answerEntity.setDate(ZonedDateTime.now());
         answerEntity.setQuestionEntity(questionEntity);
         answerEntity.setUserEntity(userAuthEntity.getUserEntity());
-        return answerDao.createAnswer(answerEntity);
+        answerDao.createAnswer(answerEntity);
+        eventOutbox.record(EventType.ANSWER_CREATED, answerEntity.getUuid(), questionEntity.getUuid(), userAuthEntity.getUserEntity().getUuid());
+        collectionVersions.answersChanged(questionEntity.getUuid());
+        return answerEntity;
+    }
+
+    /**
+     * This method is used to create several answers, to one or more questions, in one transaction. The access token is checked once,
+     * all the questions are looked up with a single query, and the valid answers are inserted, together with their events, with batched statements.
+     * @param answerEntities answers with their content and a question entity holding only the uuid of the question
+     * @param accessToken
+     * @return one item per answer, in the same order, with the created answer or the reason it was skipped
+     * @throws AuthorizationFailedException
+     * @throws BatchLimitExceededException
+     */
+    @Transactional
+    public List<BatchItem<AnswerEntity>> createAnswers(final List<AnswerEntity> answerEntities, final String accessToken) throws AuthorizationFailedException, BatchLimitExceededException {
+        UserAuthEntity userAuthEntity = userAuthDao.getUserAuthByToken(accessToken);
+        if (userAuthEntity == null) {
+            throw new AuthorizationFailedException("ATHR-001", "User has not signed in");
+        } else if (userAuthEntity.getLogoutAt() != null) {
+            throw new AuthorizationFailedException("ATHR-002", "User is signed out.Sign in first to post an answer");
+        }
+        if (answerEntities.size() > MAX_CREATE_BATCH_SIZE) {
+            throw new BatchLimitExceededException("BAT-001", "At most " + MAX_CREATE_BATCH_SIZE + " answers can be created at once");
+        }
+        Set<String> questionIds = new LinkedHashSet<>();
+        for (AnswerEntity answerEntity : answerEntities) {
+            if (answerEntity.getQuestionEntity().getUuid() != null) {
+                questionIds.add(answerEntity.getQuestionEntity().getUuid());
+            }
+        }
+        Map<String, QuestionEntity> questionEntities = questionDao.getQuestionsByIds(questionIds);
+
+        UserEntity userEntity = userAuthEntity.getUserEntity();
+        ZonedDateTime now = ZonedDateTime.now();
+        List<BatchItem<AnswerEntity>> items = new ArrayList<>(answerEntities.size());
+        List<AnswerEntity> validAnswers = new ArrayList<>(answerEntities.size());
+        List<OutboxEventEntity> events = new ArrayList<>(answerEntities.size());
+        Set<String> answeredQuestionIds = new LinkedHashSet<>();
+        for (AnswerEntity answerEntity : answerEntities) {
+            QuestionEntity questionEntity = questionEntities.get(answerEntity.getQuestionEntity().getUuid());
+            if (questionEntity == null) {
+                items.add(BatchItem.failed("QUES-001", "The question entered is invalid"));
+                continue;
+            }
+            answerEntity.setUuid(idGenerator.generate());
+            answerEntity.setDate(now);
+            answerEntity.setQuestionEntity(questionEntity);
+            answerEntity.setUserEntity(userEntity);
+            Set<ConstraintViolation<AnswerEntity>> violations = validator.validate(answerEntity);
+            if (!violations.isEmpty()) {
+                items.add(BatchItem.invalid("ANS-002", violations));
+                continue;
+            }
+            validAnswers.add(answerEntity);
+            events.add(eventOutbox.newEvent(EventType.ANSWER_CREATED, answerEntity.getUuid(), questionEntity.getUuid(), userEntity.getUuid()));
+            answeredQuestionIds.add(questionEntity.getUuid());
+            items.add(BatchItem.created(answerEntity));
+        }
+        if (!validAnswers.isEmpty()) {
+            answerDao.createAnswers(validAnswers);
+            eventOutbox.recordAll(events);
+            for (String questionId : answeredQuestionIds) {
+                collectionVersions.answersChanged(questionId);
+            }
+        }
+        return items;
     }
 
     /**
@@ -63,18 +203,27 @@ public class AnswerService {
      * @param accessToken
      * @param answerId
      * @param newAnswer
+     * @param expectedVersion version the client last read (from If-Match), or null for an unconditional edit
      * @return answerEntity
      * @throws AnswerNotFoundException
      * @throws AuthorizationFailedException
+     * @throws VersionConflictException
      */
     @Transactional
-    public AnswerEntity editAnswer(final String accessToken, final String answerId, final String newAnswer) throws AnswerNotFoundException, AuthorizationFailedException {
+    public AnswerEntity editAnswer(final String accessToken, final String answerId, final String newAnswer, final Long expectedVersion) throws AnswerNotFoundException, AuthorizationFailedException, VersionConflictException {
         UserAuthEntity userAuthEntity = userAuthDao.getUserAuthByToken(accessToken);
         if (userAuthEntity == null) {
             throw new AuthorizationFailedException("ATHR-001", "User has not signed in");
         } else if (userAuthEntity.getLogoutAt() != null) {
             throw new AuthorizationFailedException("ATHR-002", "User is signed out.Sign in first to edit an answer");
         }
+        AnswerEntity editedAnswer = answerDao.editAnswerIfOwner(answerId, userAuthEntity.getUserEntity(), newAnswer, expectedVersion);
+        if (editedAnswer != null) {
+            eventOutbox.record(EventType.ANSWER_EDITED, answerId, editedAnswer.getQuestionEntity().getUuid(), userAuthEntity.getUserEntity().getUuid());
+            collectionVersions.answersChanged(editedAnswer.getQuestionEntity().getUuid());
+            return editedAnswer;
+        }
+        // Nothing was updated, look the answer up only to report why
         AnswerEntity answerEntity = answerDao.getAnswerById(answerId);
         if (answerEntity == null) {
             throw new AnswerNotFoundException("ANS-001", "Entered answer uuid does not exist");
@@ -82,9 +231,7 @@ public class AnswerService {
         if (!answerEntity.getUserEntity().getUuid().equals(userAuthEntity.getUserEntity().getUuid())) {
             throw new AuthorizationFailedException("ATHR-003", "Only the answer owner can edit the answer");
         }
-        answerEntity.setAnswer(newAnswer);
-        answerDao.updateAnswer(answerEntity);
-        return answerEntity;
+        throw new VersionConflictException("VER-002", "The answer has been modified since it was last read");
     }
 
     /**
@@ -106,36 +253,98 @@ public class AnswerService {
             throw new AuthorizationFailedException("ATHR-002", "User is signed out.Sign in first to delete an answer");
         }
 
-        AnswerEntity answerEntity = answerDao.getAnswerById(answerId);
-        if (answerEntity == null) {
-            throw new AnswerNotFoundException("ANS-001", "Entered answer uuid does not exist");
+        AnswerEntity deletedAnswer = answerDao.deleteAnswerIfOwnerOrAdmin(answerId, userAuthEntity.getUserEntity());
+        if (deletedAnswer != null) {
+            eventOutbox.record(EventType.ANSWER_DELETED, answerId, deletedAnswer.getQuestionEntity().getUuid(), userAuthEntity.getUserEntity().getUuid());
+            collectionVersions.answersChanged(deletedAnswer.getQuestionEntity().getUuid());
+            return deletedAnswer;
         }
-        if (userAuthEntity.getUserEntity().getRole().equals("admin") || answerEntity.getUserEntity().getUuid().equals(userAuthEntity.getUserEntity().getUuid())) {
-            return answerDao.deleteAnswer(answerId);
-        } else {
-            throw new AuthorizationFailedException("ATHR-003", "Only the answer owner or admin can delete the answer");
+        // Nothing was deleted, look the answer up only to report why
+        if (answerDao.getAnswerById(answerId) == null) {
+            throw new AnswerNotFoundException("ANS-001", "Entered answer uuid does not exist");
         }
+        throw new AuthorizationFailedException("ATHR-003", "Only the answer owner or admin can delete the answer");
     }
 
     /**
-     * This method return "content" of all the answers posted for that particular question.
+     * This method return "content" of all the answers posted for that particular question, unless the caller already holds the current version of them.
+     * The access token is checked for every caller, the question and its answers are then read once for all the callers asking for the same
+     * question, fields and version at the same time, on a single connection. The token check does not hold a connection while the read is shared.
      * @param questionId
      * @param accessToken
-     * @return getAllAnswersToQuestion(questionId)
+     * @param fields properties of the answers the caller renders, the question is only joined for its content
+     * @param isKnownVersion tells whether the caller already holds a version, checked before the question and its answers are queried
+     * @return the answers with the content of their question, read without loading any entity, or only their version if the caller holds it
      * @throws AuthorizationFailedException
      * @throws InvalidQuestionException
      */
-    public List<AnswerEntity> getAllAnswersToQuestion(final String questionId, final String accessToken) throws AuthorizationFailedException, InvalidQuestionException {
-        UserAuthEntity userAuthEntity = userAuthDao.getUserAuthByToken(accessToken);
-        if (userAuthEntity == null) {
+    public Versioned<List<AnswerRecord>> getAllAnswersToQuestion(final String questionId, final String accessToken, final Set<AnswerField> fields, final Predicate<String> isKnownVersion) throws AuthorizationFailedException, InvalidQuestionException {
+        UserAuthRecord userAuthRecord = readRepository.getUserAuthByToken(accessToken);
+        if (userAuthRecord == null) {
             throw new AuthorizationFailedException("ATHR-001", "User has not signed in");
-        } else if (userAuthEntity.getLogoutAt() != null) {
+        } else if (userAuthRecord.getLogoutAt() != null) {
             throw new AuthorizationFailedException("ATHR-002", "User is signed out.Sign in first to get the answers");
         }
-        QuestionEntity questionEntity = questionDao.getQuestionById(questionId);
-        if (questionEntity == null) {
+        String version = collectionVersions.answersVersion(questionId);
+        if (isKnownVersion.test(version)) {
+            return Versioned.notModified(version);
+        }
+        List<AnswerRecord> answers = coalesceAnswers
+                ? answerReads.execute(new AnswersKey(questionId, fields, version), () -> readAnswers(questionId, fields))
+                : readAnswers(questionId, fields);
+        if (answers == null) {
             throw new InvalidQuestionException("QUES-001", "The question with entered uuid whose details are to be seen does not exist");
         }
-        return answerDao.getAllAnswersToQuestion(questionId);
+        return Versioned.of(version, answers);
+    }
+
+    /**
+     * @return the answers to the question, unmodifiable since they may be shared, or null if the question does not exist
+     */
+    private List<AnswerRecord> readAnswers(final String questionId, final Set<AnswerField> fields) {
+        return readTransaction.execute(status -> readRepository.getQuestionByUuid(questionId) == null
+                ? null
+                : Collections.unmodifiableList(readRepository.getAnswersByQuestion(questionId, fields)));
+    }
+
+    /**
+     * Identifies a read of the answers to a question. Callers only share a read made for the version they read, so a
+     * caller never gets answers older than the version it is handed with them.
+     */
+    private static final class AnswersKey {
+
+        private final String questionId;
+
+        private final Set<AnswerField> fields;
+
+        private final String version;
+
+        AnswersKey(final String questionId, final Set<AnswerField> fields, final String version) {
+            this.questionId = questionId;
+            this.fields = fields;
+            this.version = version;
+        }
+
+        @Override
+        public boolean equals(final Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof AnswersKey)) {
+                return false;
+            }
+            AnswersKey that = (AnswersKey) o;
+            return questionId.equals(that.questionId) && fields.equals(that.fields) && version.equals(that.version);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(questionId, fields, version);
+        }
+
+        @Override
+        public String toString() {
+            return questionId + " " + fields + " at " + version;
+        }
     }
 }
@@ -0,0 +1,65 @@
+package com.upgrad.quora.service.business;
+
+import javax.validation.ConstraintViolation;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Outcome of one item of a batch: the value created for it, or the code and message of the reason it was skipped.
+ * The other items of the batch are not affected by a skipped item.
+ * @param <T> type of the value
+ */
+public final class BatchItem<T> {
+
+    private final T value;
+
+    private final String code;
+
+    private final String errorMessage;
+
+    private BatchItem(final T value, final String code, final String errorMessage) {
+        this.value = value;
+        this.code = code;
+        this.errorMessage = errorMessage;
+    }
+
+    public static <T> BatchItem<T> created(final T value) {
+        return new BatchItem<>(value, null, null);
+    }
+
+    public static <T> BatchItem<T> failed(final String code, final String errorMessage) {
+        return new BatchItem<>(null, code, errorMessage);
+    }
+
+    /**
+     * @param code error code of the item
+     * @param violations bean validation failures of the item
+     * @return skipped item, with the failures in its message
+     */
+    public static <T> BatchItem<T> invalid(final String code, final Set<? extends ConstraintViolation<?>> violations) {
+        Set<String> failures = new TreeSet<>();
+        for (ConstraintViolation<?> violation : violations) {
+            failures.add(violation.getPropertyPath() + " " + violation.getMessage());
+        }
+        return failed(code, String.join(", ", failures));
+    }
+
+    /**
+     * @return the created value, null if the item was skipped
+     */
+    public T getValue() {
+        return value;
+    }
+
+    public String getCode() {
+        return code;
+    }
+
+    public String getErrorMessage() {
+        return errorMessage;
+    }
+
+    public boolean isCreated() {
+        return value != null;
+    }
+}
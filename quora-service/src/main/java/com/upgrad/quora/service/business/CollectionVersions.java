@@ -0,0 +1,199 @@
+package com.upgrad.quora.service.business;
+
+import com.upgrad.quora.service.dao.CollectionVersionDao;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.SortedSet;
+import java.util.TreeSet;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Change counters of the collections served to polling clients (the question list, the answers of a question and
+ * user profiles), used as entity tags so that an unchanged collection can be answered with 304 without querying it.
+ * The counters are kept by the CollectionVersionDao, in the database, so that a change made through one instance
+ * invalidates the tags handed out by every other. Keys are hashed onto a fixed number of counters, so their number
+ * stays bounded; two keys sharing a counter only cause extra refetches, never a stale 304, because counters never go
+ * back. Every tag carries the epoch, and the collection tags the generation which deleting a user bumps, since it
+ * removes that user's questions and answers everywhere.
+ * Counters are bumped just before the surrounding transaction commits, in slot order so that two transactions never
+ * wait on each other's counters, and read before the collection is queried, so a version never labels data older than
+ * itself.
+ * A bumped counter stays locked until its transaction commits, so writes to the same collection serialize on its row.
+ * Every question write changes the question list, which is why its version is the sum of QUESTIONS_SHARDS counters
+ * of which each write bumps one at random; the answers of one question and a profile keep a single counter. Reading a
+ * version costs a query of its own on every conditional GET, including those answered with 304, and is the price of
+ * sharing the counters between instances.
+ */
+@Component
+public class CollectionVersions {
+
+    private static final int SLOTS = 4096;
+
+    private static final String QUESTIONS_KEY = "questions";
+
+    private static final int QUESTIONS_SHARDS = 16;
+
+    /**
+     * Slots of the counters of the question list. They include the slot the whole list had before it was sharded, so
+     * that its versions never go back.
+     */
+    private static final int[] QUESTIONS_SLOTS = questionsSlots();
+
+    @Autowired
+    private CollectionVersionDao collectionVersionDao;
+
+    /**
+     * @return current version of the list of all questions
+     */
+    public String questionsVersion() {
+        List<Integer> slots = new ArrayList<>(QUESTIONS_SLOTS.length + 2);
+        slots.add(CollectionVersionDao.EPOCH_SLOT);
+        slots.add(CollectionVersionDao.GENERATION_SLOT);
+        for (int slot : QUESTIONS_SLOTS) {
+            slots.add(slot);
+        }
+        Map<Integer, Long> versions = collectionVersionDao.getVersions(slots);
+        long questions = 0;
+        for (int slot : QUESTIONS_SLOTS) {
+            questions += versions.getOrDefault(slot, 0L);
+        }
+        return Long.toString(versions.getOrDefault(CollectionVersionDao.EPOCH_SLOT, 0L), Character.MAX_RADIX)
+                + "-" + versions.getOrDefault(CollectionVersionDao.GENERATION_SLOT, 0L)
+                + "-" + questions;
+    }
+
+    /**
+     * @param questionUuid uuid of the question
+     * @return current version of the answers to the question
+     */
+    public String answersVersion(final String questionUuid) {
+        return versionOf(answersKey(questionUuid));
+    }
+
+    /**
+     * Profiles cannot be edited, a profile only goes away when its user is deleted, so it does not depend on the
+     * generation but only on the counter of its user.
+     * @param userUuid uuid of the user
+     * @return current version of the profile of the user
+     */
+    public String userVersion(final String userUuid) {
+        int slot = slotOf(userKey(userUuid));
+        Map<Integer, Long> versions = collectionVersionDao.getVersions(Arrays.asList(CollectionVersionDao.EPOCH_SLOT, slot));
+        return Long.toString(versions.getOrDefault(CollectionVersionDao.EPOCH_SLOT, 0L), Character.MAX_RADIX)
+                + "-" + versions.getOrDefault(slot, 0L);
+    }
+
+    /**
+     * A question was created, edited or deleted.
+     */
+    public void questionsChanged() {
+        bump(QUESTIONS_SLOTS[ThreadLocalRandom.current().nextInt(QUESTIONS_SLOTS.length)]);
+    }
+
+    /**
+     * An answer to the question was created, edited or deleted, or the question itself changed (answers carry its content).
+     * @param questionUuid uuid of the question
+     */
+    public void answersChanged(final String questionUuid) {
+        bump(slotOf(answersKey(questionUuid)));
+    }
+
+    /**
+     * A user was deleted together with all of their questions and answers.
+     * @param userUuid uuid of the user
+     */
+    public void userDeleted(final String userUuid) {
+        bump(slotOf(userKey(userUuid)));
+        bump(CollectionVersionDao.GENERATION_SLOT);
+    }
+
+    private String versionOf(final String key) {
+        int slot = slotOf(key);
+        Map<Integer, Long> versions = collectionVersionDao.getVersions(
+                Arrays.asList(CollectionVersionDao.EPOCH_SLOT, CollectionVersionDao.GENERATION_SLOT, slot));
+        return Long.toString(versions.getOrDefault(CollectionVersionDao.EPOCH_SLOT, 0L), Character.MAX_RADIX)
+                + "-" + versions.getOrDefault(CollectionVersionDao.GENERATION_SLOT, 0L)
+                + "-" + versions.getOrDefault(slot, 0L);
+    }
+
+    private static String answersKey(final String questionUuid) {
+        return "answers:" + questionUuid;
+    }
+
+    private static String userKey(final String userUuid) {
+        return "user:" + userUuid;
+    }
+
+    /**
+     * @return distinct slots of the question list shards
+     */
+    private static int[] questionsSlots() {
+        SortedSet<Integer> slots = new TreeSet<>();
+        slots.add(slotOf(QUESTIONS_KEY));
+        for (int shard = 1; shard < QUESTIONS_SHARDS; shard++) {
+            slots.add(slotOf(QUESTIONS_KEY + ":" + shard));
+        }
+        return slots.stream().mapToInt(Integer::intValue).toArray();
+    }
+
+    private static int slotOf(final String key) {
+        int hash = key.hashCode();
+        return (hash ^ (hash >>> 16)) & (SLOTS - 1);
+    }
+
+    /**
+     * Collects the slots bumped in the current transaction and increments them before it commits, so the counters are
+     * locked only while the transaction commits and are rolled back with it.
+     */
+    private void bump(final int slot) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            collectionVersionDao.increment(Collections.singletonList(slot));
+            return;
+        }
+        @SuppressWarnings("unchecked")
+        SortedSet<Integer> slots = (SortedSet<Integer>) TransactionSynchronizationManager.getResource(this);
+        if (slots == null) {
+            slots = new TreeSet<>();
+            TransactionSynchronizationManager.bindResource(this, slots);
+            TransactionSynchronizationManager.registerSynchronization(new PendingBumps(slots));
+        }
+        slots.add(slot);
+    }
+
+    private final class PendingBumps extends TransactionSynchronizationAdapter {
+
+        private final SortedSet<Integer> slots;
+
+        PendingBumps(final SortedSet<Integer> slots) {
+            this.slots = slots;
+        }
+
+        @Override
+        public void suspend() {
+            TransactionSynchronizationManager.unbindResource(CollectionVersions.this);
+        }
+
+        @Override
+        public void resume() {
+            TransactionSynchronizationManager.bindResource(CollectionVersions.this, slots);
+        }
+
+        @Override
+        public void beforeCommit(final boolean readOnly) {
+            collectionVersionDao.increment(slots);
+        }
+
+        @Override
+        public void afterCompletion(final int status) {
+            TransactionSynchronizationManager.unbindResourceIfPossible(CollectionVersions.this);
+        }
+    }
+}
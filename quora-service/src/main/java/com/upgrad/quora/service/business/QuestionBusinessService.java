@@ -1,14 +1,31 @@
 package com.upgrad.quora.service.business;
 
+import com.upgrad.quora.service.dao.AnswerDao;
 import com.upgrad.quora.service.dao.QuestionDao;
+import com.upgrad.quora.service.dao.ReadRepository;
 import com.upgrad.quora.service.dao.UserAuthDao;
+import com.upgrad.quora.service.entity.AnswerEntity;
+import com.upgrad.quora.service.entity.OutboxEventEntity;
 import com.upgrad.quora.service.entity.QuestionEntity;
 import com.upgrad.quora.service.entity.UserAuthEntity;
+import com.upgrad.quora.service.entity.UserEntity;
+import com.upgrad.quora.service.event.EventOutbox;
+import com.upgrad.quora.service.event.EventType;
 import com.upgrad.quora.service.exception.AuthorizationFailedException;
+import com.upgrad.quora.service.exception.BatchLimitExceededException;
 import com.upgrad.quora.service.exception.InvalidQuestionException;
 import com.upgrad.quora.service.exception.UserNotFoundException;
+import com.upgrad.quora.service.exception.VersionConflictException;
+import com.upgrad.quora.service.record.QuestionField;
+import com.upgrad.quora.service.record.QuestionRecord;
+import com.upgrad.quora.service.record.UserAuthRecord;
 import java.time.ZonedDateTime;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Set;
+import java.util.function.Predicate;
+import javax.validation.ConstraintViolation;
+import javax.validation.Validator;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Propagation;
@@ -16,12 +33,31 @@ import org.springframework.transaction.annotation.Transactional;
 
 @Service
 public class QuestionBusinessService {
+  private static final int DEFAULT_PAGE_SIZE = 10;
+  private static final int MAX_PAGE_SIZE = 100;
+  public static final int MAX_CREATE_BATCH_SIZE = 100;
+
   @Autowired
   private QuestionDao questionDao;
 
+  @Autowired
+  private AnswerDao answerDao;
+
   @Autowired
   private UserAuthDao userAuthDao;
 
+  @Autowired
+  private EventOutbox eventOutbox;
+
+  @Autowired
+  private ReadRepository readRepository;
+
+  @Autowired
+  private CollectionVersions collectionVersions;
+
+  @Autowired
+  private Validator validator;
+
   /**
    * Create the Question
    * @param accessToken for authorization
@@ -43,17 +79,24 @@ public class QuestionBusinessService {
         throw new AuthorizationFailedException("ATHR-002", "User is signed out.Sign in first to post a question");
       }
       questionEntity.setUserEntity(userAuthTokenEntity.getUserEntity());
-      return questionDao.createQuestion(questionEntity);
+      questionDao.createQuestion(questionEntity);
+      eventOutbox.record(EventType.QUESTION_CREATED, questionEntity.getUuid(), null, userAuthTokenEntity.getUserEntity().getUuid());
+      collectionVersions.questionsChanged();
+      return questionEntity;
   }
 
   /**
-   * Get List of all questions
+   * Create several questions in one transaction: the access token is checked once, each question is validated on its
+   * own and the valid ones are inserted, together with their events, with batched statements
    * @param accessToken for authorization
-   * @return List of Questions
+   * @param questionEntities to be created, with their uuid, content and date set
+   * @return one item per question, in the same order, with the created question or the reason it was skipped
    * @throws AuthorizationFailedException
+   * @throws BatchLimitExceededException
    */
-  public List<QuestionEntity> getAllQuestions(final String accessToken)
-      throws AuthorizationFailedException {
+  @Transactional(propagation = Propagation.REQUIRED)
+  public List<BatchItem<QuestionEntity>> createQuestions(final String accessToken, final List<QuestionEntity> questionEntities)
+      throws AuthorizationFailedException, BatchLimitExceededException {
     if(accessToken == null) {
       throw new AuthorizationFailedException("ATHR-001", "User has not signed in");
     }
@@ -62,38 +105,126 @@ public class QuestionBusinessService {
       throw new AuthorizationFailedException("ATHR-001", "User has not signed in");
     }
     if(userAuthTokenEntity.getLogoutAt() != null) {
+      throw new AuthorizationFailedException("ATHR-002", "User is signed out.Sign in first to post a question");
+    }
+    if(questionEntities.size() > MAX_CREATE_BATCH_SIZE) {
+      throw new BatchLimitExceededException("BAT-001", "At most " + MAX_CREATE_BATCH_SIZE + " questions can be created at once");
+    }
+    UserEntity userEntity = userAuthTokenEntity.getUserEntity();
+    List<BatchItem<QuestionEntity>> items = new ArrayList<>(questionEntities.size());
+    List<QuestionEntity> validQuestions = new ArrayList<>(questionEntities.size());
+    List<OutboxEventEntity> events = new ArrayList<>(questionEntities.size());
+    for (QuestionEntity questionEntity : questionEntities) {
+      questionEntity.setUserEntity(userEntity);
+      Set<ConstraintViolation<QuestionEntity>> violations = validator.validate(questionEntity);
+      if(!violations.isEmpty()) {
+        items.add(BatchItem.invalid("QUES-002", violations));
+        continue;
+      }
+      validQuestions.add(questionEntity);
+      events.add(eventOutbox.newEvent(EventType.QUESTION_CREATED, questionEntity.getUuid(), null, userEntity.getUuid()));
+      items.add(BatchItem.created(questionEntity));
+    }
+    if(!validQuestions.isEmpty()) {
+      questionDao.createQuestions(validQuestions);
+      eventOutbox.recordAll(events);
+      collectionVersions.questionsChanged();
+    }
+    return items;
+  }
+
+  /**
+   * Get List of all questions, unless the caller already holds the current version of the list
+   * @param accessToken for authorization
+   * @param fields properties of the questions the caller renders, only their columns are read
+   * @param isKnownVersion tells whether the caller already holds a version, checked before the questions are queried
+   * @return List of Questions with its version, or only the version if the caller holds it
+   * @throws AuthorizationFailedException
+   */
+  @Transactional(readOnly = true)
+  public Versioned<List<QuestionRecord>> getAllQuestions(final String accessToken, final Set<QuestionField> fields, final Predicate<String> isKnownVersion)
+      throws AuthorizationFailedException {
+    if(accessToken == null) {
+      throw new AuthorizationFailedException("ATHR-001", "User has not signed in");
+    }
+    UserAuthRecord userAuthRecord = readRepository.getUserAuthByToken(accessToken);
+    if(userAuthRecord ==null) {
+      throw new AuthorizationFailedException("ATHR-001", "User has not signed in");
+    }
+    if(userAuthRecord.getLogoutAt() != null) {
       throw new AuthorizationFailedException("ATHR-002", "User is signed out.Sign in first to get all questions");
     }
-    return questionDao.getAllQuestions();
+    String version = collectionVersions.questionsVersion();
+    if(isKnownVersion.test(version)) {
+      return Versioned.notModified(version);
+    }
+    return Versioned.of(version, readRepository.getAllQuestions(fields));
   }
 
   /**
    * Get all questions by User Id
    * @param accessToken  for authorization
    * @param user_uuid of user by whom all questions were created
+   * @param fields properties of the questions the caller renders, only their columns are read
    * @return List of all questions
    * @throws AuthorizationFailedException
    * @throws UserNotFoundException
    */
-  public List<QuestionEntity> getAllQuestionsByUserId(final String accessToken, final String user_uuid)
+  @Transactional(readOnly = true)
+  public List<QuestionRecord> getAllQuestionsByUserId(final String accessToken, final String user_uuid, final Set<QuestionField> fields)
       throws AuthorizationFailedException, UserNotFoundException {
     if(accessToken == null) {
       throw new AuthorizationFailedException("ATHR-001", "User has not signed in");
     }
-    UserAuthEntity userAuthTokenEntity = userAuthDao.getUserAuthByToken(accessToken);
-    if(userAuthTokenEntity ==null) {
+    UserAuthRecord userAuthRecord = readRepository.getUserAuthByToken(accessToken);
+    if(userAuthRecord ==null) {
       throw new AuthorizationFailedException("ATHR-001", "User has not signed in");
     }
-    if(userAuthTokenEntity.getLogoutAt() != null) {
+    if(userAuthRecord.getLogoutAt() != null) {
       throw new AuthorizationFailedException("ATHR-002", "User is signed out.Sign in first to get all questions posted by a specific user");
     }
-    List<QuestionEntity> questionsByUuid = questionDao.getQuestionsByUserId(user_uuid);
+    List<QuestionRecord> questionsByUuid = readRepository.getQuestionsByUser(user_uuid, fields);
     if(questionsByUuid == null || questionsByUuid.size() == 0) {
       throw new UserNotFoundException("USR-001", "User with entered uuid whose question details are to be seen does not exist");
     }
     return questionsByUuid;
   }
 
+  /**
+   * Get a question with its author and one page of its answers with their authors, using a single token check
+   * @param accessToken for authorization
+   * @param questionUuid UUID of the question to be fetched
+   * @param page zero based page index of the answers, negative values are treated as 0
+   * @param size number of answers per page, capped at MAX_PAGE_SIZE
+   * @return question with a page of its answers
+   * @throws AuthorizationFailedException
+   * @throws InvalidQuestionException
+   */
+  @Transactional(readOnly = true)
+  public QuestionWithAnswers getQuestionWithAnswers(final String accessToken, final String questionUuid, final int page, final int size)
+      throws AuthorizationFailedException, InvalidQuestionException {
+    if(accessToken == null) {
+      throw new AuthorizationFailedException("ATHR-001", "User has not signed in");
+    }
+    UserAuthEntity userAuthTokenEntity = userAuthDao.getUserAuthByToken(accessToken);
+    if(userAuthTokenEntity ==null) {
+      throw new AuthorizationFailedException("ATHR-001", "User has not signed in");
+    }
+    if(userAuthTokenEntity.getLogoutAt() != null) {
+      throw new AuthorizationFailedException("ATHR-002", "User is signed out.Sign in first to get the question");
+    }
+
+    QuestionEntity questionEntity = questionDao.getQuestionWithAuthorById(questionUuid);
+    if(questionEntity == null) {
+      throw new InvalidQuestionException("QUES-001", "The question with entered uuid whose details are to be seen does not exist");
+    }
+
+    int pageIndex = Math.max(page, 0);
+    int pageSize = size < 1 ? DEFAULT_PAGE_SIZE : Math.min(size, MAX_PAGE_SIZE);
+    List<AnswerEntity> answers = answerDao.getAnswersWithAuthors(questionEntity, pageIndex, pageSize);
+    return new QuestionWithAnswers(questionEntity, answers, pageIndex, pageSize);
+  }
+
   /**
    * Delete the question
    * @param accessToken  for authorization
@@ -116,17 +247,19 @@ public class QuestionBusinessService {
       throw new AuthorizationFailedException("ATHR-002", "User is signed out.Sign in first to delete a question");
     }
 
-    QuestionEntity questionEntity = questionDao.getQuestionById(questionUuid);
-
-    if(questionEntity == null) {
-      throw new InvalidQuestionException("QUES-001", "Entered question uuid does not exist");
+    QuestionEntity deletedQuestion = questionDao.deleteQuestionIfOwnerOrAdmin(questionUuid, userAuthTokenEntity.getUserEntity());
+    if(deletedQuestion != null) {
+      eventOutbox.record(EventType.QUESTION_DELETED, questionUuid, null, userAuthTokenEntity.getUserEntity().getUuid());
+      collectionVersions.questionsChanged();
+      collectionVersions.answersChanged(questionUuid);
+      return deletedQuestion;
     }
 
-    if(userAuthTokenEntity.getUserEntity().getId() != questionEntity.getUserEntity().getId()) {
-      throw new AuthorizationFailedException("ATHR-003", "Only the question owner or admin can delete the question");
+    // Nothing was deleted, look the question up only to report why
+    if(questionDao.getQuestionById(questionUuid) == null) {
+      throw new InvalidQuestionException("QUES-001", "Entered question uuid does not exist");
     }
-    questionDao.deleteQuestion(questionUuid);
-    return questionEntity;
+    throw new AuthorizationFailedException("ATHR-003", "Only the question owner or admin can delete the question");
   }
 
   /**
@@ -134,13 +267,15 @@ public class QuestionBusinessService {
    * @param accessToken   for authorization
    * @param questionUuid UUID of type question to be modified
    * @param newContent Content to be updated in the question
+   * @param expectedVersion version the client last read (from If-Match), or null for an unconditional edit
    * @return
    * @throws AuthorizationFailedException
    * @throws InvalidQuestionException
+   * @throws VersionConflictException
    */
   @Transactional(propagation = Propagation.REQUIRED)
-  public QuestionEntity updateQuestionEntity(final String accessToken, final String questionUuid, final String newContent)
-      throws AuthorizationFailedException, InvalidQuestionException {
+  public QuestionEntity updateQuestionEntity(final String accessToken, final String questionUuid, final String newContent, final Long expectedVersion)
+      throws AuthorizationFailedException, InvalidQuestionException, VersionConflictException {
     if(accessToken == null) {
       throw new AuthorizationFailedException("ATHR-001", "User has not signed in");
     }
@@ -152,17 +287,24 @@ public class QuestionBusinessService {
       throw new AuthorizationFailedException("ATHR-002", "User is signed out.Sign in first to edit the question");
     }
 
+    QuestionEntity editedQuestion = questionDao.editQuestionIfOwner(questionUuid, userAuthTokenEntity.getUserEntity(), newContent, expectedVersion);
+    if(editedQuestion != null) {
+      eventOutbox.record(EventType.QUESTION_EDITED, questionUuid, null, userAuthTokenEntity.getUserEntity().getUuid());
+      collectionVersions.questionsChanged();
+      collectionVersions.answersChanged(questionUuid);
+      return editedQuestion;
+    }
+
+    // Nothing was updated, look the question up only to report why
     QuestionEntity questionEntity = questionDao.getQuestionById(questionUuid);
 
     if(questionEntity == null) {
       throw new InvalidQuestionException("QUES-001", "Entered question uuid does not exist");
     }
 
-    if(userAuthTokenEntity.getUserEntity().getId() != questionEntity.getUserEntity().getId()) {
+    if(!userAuthTokenEntity.getUserEntity().getId().equals(questionEntity.getUserEntity().getId())) {
       throw new AuthorizationFailedException("ATHR-003", "Only the question owner can edit the question");
     }
-    questionEntity.setContent(newContent);
-    questionDao.updateQuestion(questionEntity);
-    return questionEntity;
+    throw new VersionConflictException("VER-002", "The question has been modified since it was last read");
   }
 }
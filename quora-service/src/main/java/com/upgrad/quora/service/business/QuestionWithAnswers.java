@@ -0,0 +1,44 @@
+package com.upgrad.quora.service.business;
+
+import com.upgrad.quora.service.entity.AnswerEntity;
+import com.upgrad.quora.service.entity.QuestionEntity;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * A question together with its author and one page of its answers (each with its author), as needed to render a question page.
+ */
+public class QuestionWithAnswers {
+
+    private final QuestionEntity question;
+
+    private final List<AnswerEntity> answers;
+
+    private final int page;
+
+    private final int size;
+
+    public QuestionWithAnswers(final QuestionEntity question, final List<AnswerEntity> answers, final int page, final int size) {
+        this.question = question;
+        this.answers = Collections.unmodifiableList(answers);
+        this.page = page;
+        this.size = size;
+    }
+
+    public QuestionEntity getQuestion() {
+        return question;
+    }
+
+    public List<AnswerEntity> getAnswers() {
+        return answers;
+    }
+
+    public int getPage() {
+        return page;
+    }
+
+    public int getSize() {
+        return size;
+    }
+}
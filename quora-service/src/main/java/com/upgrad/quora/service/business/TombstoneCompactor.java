@@ -0,0 +1,81 @@
+package com.upgrad.quora.service.business;
+
+import com.upgrad.quora.service.dao.AnswerDao;
+import com.upgrad.quora.service.dao.QuestionDao;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.annotation.PostConstruct;
+import java.util.function.IntSupplier;
+
+/**
+ * Background job which hard deletes tombstoned questions and answers, off the request path.
+ * Rows are purged in small batches, each in its own short transaction, so that deleting a popular question never
+ * locks all of its answers at once: first the answers of deleted questions, then deleted answers and finally the
+ * deleted questions which have no answers left.
+ */
+@Component
+@Lazy(false)
+@ConditionalOnProperty(prefix = "quora.compaction", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class TombstoneCompactor {
+
+    private static final Logger LOG = LoggerFactory.getLogger(TombstoneCompactor.class);
+
+    @Autowired
+    private QuestionDao questionDao;
+
+    @Autowired
+    private AnswerDao answerDao;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${quora.compaction.batch-size:500}")
+    private int batchSize;
+
+    @Value("${quora.compaction.retention-minutes:60}")
+    private int retentionMinutes;
+
+    private TransactionTemplate transactionTemplate;
+
+    @PostConstruct
+    public void init() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * Purges all tombstones older than the retention period, batch by batch.
+     */
+    @Scheduled(initialDelayString = "${quora.compaction.initial-delay-ms:60000}", fixedDelayString = "${quora.compaction.fixed-delay-ms:60000}")
+    public void compact() {
+        int answersOfDeletedQuestions = drain(() -> answerDao.purgeAnswersOfDeletedQuestions(retentionMinutes, batchSize));
+        int deletedAnswers = drain(() -> answerDao.purgeDeletedAnswers(retentionMinutes, batchSize));
+        int deletedQuestions = drain(() -> questionDao.purgeDeletedQuestions(retentionMinutes, batchSize));
+        if (answersOfDeletedQuestions + deletedAnswers + deletedQuestions > 0) {
+            LOG.info("Purged {} questions, {} answers and {} answers of deleted questions", deletedQuestions, deletedAnswers, answersOfDeletedQuestions);
+        }
+    }
+
+    /**
+     * Runs the purge in separate transactions until a batch comes back smaller than the batch size.
+     * @param purge purges one batch and returns the number of rows deleted
+     * @return total number of rows deleted
+     */
+    private int drain(final IntSupplier purge) {
+        int total = 0;
+        int purged;
+        do {
+            purged = transactionTemplate.execute(status -> purge.getAsInt());
+            total += purged;
+        } while (purged >= batchSize);
+        return total;
+    }
+}
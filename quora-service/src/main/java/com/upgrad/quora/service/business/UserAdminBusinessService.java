@@ -4,6 +4,8 @@ import com.upgrad.quora.service.dao.UserAuthDao;
 import com.upgrad.quora.service.dao.UserDao;
 import com.upgrad.quora.service.entity.UserAuthEntity;
 import com.upgrad.quora.service.entity.UserEntity;
+import com.upgrad.quora.service.event.EventOutbox;
+import com.upgrad.quora.service.event.EventType;
 import com.upgrad.quora.service.exception.AuthorizationFailedException;
 import com.upgrad.quora.service.exception.UserNotFoundException;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -20,6 +22,12 @@ public class UserAdminBusinessService {
     @Autowired
     private UserAuthDao userAuthDao;
 
+    @Autowired
+    private EventOutbox eventOutbox;
+
+    @Autowired
+    private CollectionVersions collectionVersions;
+
     /**
      * Deletes the user entity after authorization check
      * @param userUuid for fetching and deleting the entity
@@ -63,6 +71,8 @@ public class UserAdminBusinessService {
             throw new UserNotFoundException("USR-001", "User with entered uuid to be deleted does not exist");
         }else{
             userDao.deleteUserEntity(userEntity);
+            eventOutbox.record(EventType.USER_DELETED, userUuid, null, userAuthTokenEntity.getUserEntity().getUuid());
+            collectionVersions.userDeleted(userUuid);
             return userEntity;
         }
     }
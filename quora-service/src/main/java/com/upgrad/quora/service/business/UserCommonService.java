@@ -1,35 +1,53 @@
 package com.upgrad.quora.service.business;
 
-import com.upgrad.quora.service.dao.UserAuthDao;
+import com.upgrad.quora.service.dao.ReadRepository;
 import com.upgrad.quora.service.dao.UserDao;
-import com.upgrad.quora.service.entity.UserAuthEntity;
 //import com.upgrad.quora.service.entity.UserAuthTokenEntity;
 import com.upgrad.quora.service.entity.UserEntity;
 import com.upgrad.quora.service.exception.AuthorizationFailedException;
+import com.upgrad.quora.service.exception.BatchLimitExceededException;
 import com.upgrad.quora.service.exception.UserNotFoundException;
+import com.upgrad.quora.service.record.UserAuthRecord;
+import com.upgrad.quora.service.record.UserField;
+import com.upgrad.quora.service.record.UserRecord;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Predicate;
 
 @Service
 public class UserCommonService {
 
-        @Autowired
-        private UserAuthDao userAuthDao;
+        public static final int MAX_PROFILE_BATCH_SIZE = 100;
 
         @Autowired
         private UserDao userDao;
 
+        @Autowired
+        private UserProfileCache userProfileCache;
+
+        @Autowired
+        private ReadRepository readRepository;
+
+        @Autowired
+        private CollectionVersions collectionVersions;
+
     /**
      * //This method will validate the access token
      * @param accessToken
      * @throws AuthorizationFailedException
      */
     public void checkIfTokenIsValid(String accessToken) throws AuthorizationFailedException {
-            UserAuthEntity userAuthEntity = userAuthDao.getUserAuthByToken(accessToken);
-            if (userAuthEntity == null) {
+            UserAuthRecord userAuthRecord = readRepository.getUserAuthByToken(accessToken);
+            if (userAuthRecord == null) {
                 throw new AuthorizationFailedException("ATHR-001", "User has not signed in");
             }
-            if (userAuthEntity.getLogoutAt() != null) {
+            if (userAuthRecord.getLogoutAt() != null) {
                 throw new AuthorizationFailedException("ATHR-002", "User is signed out.Sign in first to get user details");
             }
         }
@@ -48,6 +66,56 @@ public class UserCommonService {
             return userEntity;
         }
 
+    /**
+     * This method will get the details of several users, looking up the ones that are not cached with a single query
+     * @param userIds uuids of the users, duplicates are ignored
+     * @return map of uuid to userRecord, uuids of users that do not exist are left out
+     * @throws BatchLimitExceededException
+     */
+        public Map<String, UserRecord> getUsersByIds(final Collection<String> userIds) throws BatchLimitExceededException {
+            Set<String> uniqueUserIds = new LinkedHashSet<>(userIds);
+            if (uniqueUserIds.size() > MAX_PROFILE_BATCH_SIZE) {
+                throw new BatchLimitExceededException("BAT-001", "At most " + MAX_PROFILE_BATCH_SIZE + " user uuids can be requested at once");
+            }
+            return userProfileCache.getAll(uniqueUserIds);
+        }
 
-    }
+    /**
+     * This method will validate the access token and get the details of the user, on a single connection, unless the caller already holds the current version of them
+     * @param accessToken
+     * @param userId
+     * @param fields properties of the profile the caller renders, only their columns are read
+     * @param isKnownVersion tells whether the caller already holds a version, checked before the user is looked up
+     * @return userRecord with its version, or only the version if the caller holds it
+     * @throws AuthorizationFailedException
+     * @throws UserNotFoundException
+     */
+        @Transactional(readOnly = true)
+        public Versioned<UserRecord> getUserProfile(final String accessToken, final String userId, final Set<UserField> fields, final Predicate<String> isKnownVersion) throws AuthorizationFailedException, UserNotFoundException {
+            checkIfTokenIsValid(accessToken);
+            String version = collectionVersions.userVersion(userId);
+            if (isKnownVersion.test(version)) {
+                return Versioned.notModified(version);
+            }
+            UserRecord userRecord = readRepository.getUserByUuid(userId, fields);
+            if (userRecord == null) {
+                throw new UserNotFoundException("USR-001", "User with entered uuid does not exist");
+            }
+            return Versioned.of(version, userRecord);
+        }
 
+    /**
+     * This method will validate the access token and get the details of several users, on a single connection
+     * @param accessToken
+     * @param userIds uuids of the users, duplicates are ignored
+     * @return map of uuid to userRecord, uuids of users that do not exist are left out
+     * @throws AuthorizationFailedException
+     * @throws BatchLimitExceededException
+     */
+        @Transactional(readOnly = true)
+        public Map<String, UserRecord> getUserProfiles(final String accessToken, final Collection<String> userIds) throws AuthorizationFailedException, BatchLimitExceededException {
+            checkIfTokenIsValid(accessToken);
+            return getUsersByIds(userIds);
+        }
+
+    }
@@ -0,0 +1,99 @@
+package com.upgrad.quora.service.business;
+
+import com.github.benmanes.caffeine.cache.CacheLoader;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+import com.upgrad.quora.service.dao.UserDao;
+import com.upgrad.quora.service.entity.UserEntity;
+import com.upgrad.quora.service.event.DomainEvent;
+import com.upgrad.quora.service.event.EventConsumer;
+import com.upgrad.quora.service.event.EventType;
+import com.upgrad.quora.service.record.UserRecord;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Short lived, bounded cache of the public profiles of users keyed by user uuid. Only immutable UserRecord copies are
+ * kept, never the entities with their credentials, so the cached values can be shared between requests.
+ * Users missing from the cache are loaded together with a single IN-list query.
+ * A deleted user is removed when its USER_DELETED event reaches this consumer, that is only after the deletion
+ * committed, so a concurrent read cannot put the user back into the cache. The events are only consumed on the
+ * instance running the OutboxRelay; the other instances keep serving a deleted user until its entry expires, after
+ * at most ttl-seconds.
+ */
+@Component
+public class UserProfileCache implements EventConsumer {
+
+    private static final long MAXIMUM_SIZE = 10_000;
+
+    @Autowired
+    private UserDao userDao;
+
+    @Value("${quora.users.profile-cache.ttl-seconds:30}")
+    private long ttlSeconds;
+
+    private LoadingCache<String, UserRecord> cache;
+
+    @PostConstruct
+    public void init() {
+        cache = Caffeine.newBuilder()
+                .maximumSize(MAXIMUM_SIZE)
+                .expireAfterWrite(ttlSeconds, TimeUnit.SECONDS)
+                .build(new CacheLoader<String, UserRecord>() {
+                    @Override
+                    public UserRecord load(final String userUuid) {
+                        UserEntity userEntity = userDao.getUserById(userUuid);
+                        return userEntity == null ? null : toUserRecord(userEntity);
+                    }
+
+                    @Override
+                    public Map<String, UserRecord> loadAll(final Iterable<? extends String> userUuids) {
+                        List<String> missing = new ArrayList<>();
+                        userUuids.forEach(missing::add);
+                        Map<String, UserRecord> loaded = new HashMap<>();
+                        for (UserEntity userEntity : userDao.getUsersByIds(missing)) {
+                            loaded.put(userEntity.getUuid(), toUserRecord(userEntity));
+                        }
+                        return loaded;
+                    }
+                });
+    }
+
+    private static UserRecord toUserRecord(final UserEntity userEntity) {
+        return new UserRecord(userEntity.getUuid(), userEntity.getFirstName(), userEntity.getLastName(), userEntity.getUserName(),
+                userEntity.getEmail(), userEntity.getCountry(), userEntity.getAboutMe(), userEntity.getDob(), userEntity.getContactNumber());
+    }
+
+    /**
+     * @param userUuids uuids of the users, duplicates are ignored
+     * @return map of uuid to profile, uuids of users that do not exist are left out
+     */
+    public Map<String, UserRecord> getAll(final Collection<String> userUuids) {
+        return cache.getAll(userUuids);
+    }
+
+    @Override
+    public String getName() {
+        return "user-profile-cache";
+    }
+
+    /**
+     * Removes the user from the cache when it was deleted, which is idempotent.
+     * @param event event to process
+     */
+    @Override
+    public void accept(final DomainEvent event) {
+        if (event.getType() == EventType.USER_DELETED) {
+            cache.invalidate(event.getAggregateUuid());
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package com.upgrad.quora.service.business;
+
+/**
+ * A value read together with the version of the collection it came from, or only the version when the caller
+ * already holds that version and the value was not read at all.
+ * @param <T> type of the value
+ */
+public final class Versioned<T> {
+
+    private final String version;
+
+    private final T value;
+
+    private Versioned(final String version, final T value) {
+        this.version = version;
+        this.value = value;
+    }
+
+    public static <T> Versioned<T> of(final String version, final T value) {
+        return new Versioned<>(version, value);
+    }
+
+    public static <T> Versioned<T> notModified(final String version) {
+        return new Versioned<>(version, null);
+    }
+
+    public String getVersion() {
+        return version;
+    }
+
+    /**
+     * @return the value, null if it was not modified
+     */
+    public T getValue() {
+        return value;
+    }
+
+    public boolean isModified() {
+        return value != null;
+    }
+}
@@ -1,71 +1,84 @@
 package com.upgrad.quora.service.dao;
 
 import com.upgrad.quora.service.entity.AnswerEntity;
-import org.springframework.stereotype.Repository;
+import com.upgrad.quora.service.entity.QuestionEntity;
+import com.upgrad.quora.service.entity.UserEntity;
 
-import javax.persistence.EntityManager;
-import javax.persistence.NoResultException;
-import javax.persistence.PersistenceContext;
 import java.util.List;
 
-@Repository
-public class AnswerDao {
-
-    @PersistenceContext
-    private EntityManager entityManager;
+/**
+ * Access to the answers. Deleted answers, and answers of deleted questions, are not returned by any of the lookups.
+ */
+public interface AnswerDao {
 
     /**
-     * This method is used to create answers
      * @param answerEntity
      * @return answerEntity
      */
-    public AnswerEntity createAnswer(AnswerEntity answerEntity) {
-        entityManager.persist(answerEntity);
-        return answerEntity;
-    }
+    AnswerEntity createAnswer(AnswerEntity answerEntity);
+
+    /**
+     * Inserts several answers with batched statements. The ids of the entities are not populated.
+     * @param answerEntities answers with their question and user entities
+     */
+    void createAnswers(List<AnswerEntity> answerEntities);
 
     /**
-     * This method is used to get an answer
      * @param answerId
-     * @return getSingleResult()
+     * @return the answer, null if it does not exist
      */
-    public AnswerEntity getAnswerById(final String answerId) {
-        try {
-            return entityManager.createNamedQuery("getAnswerById", AnswerEntity.class).setParameter("uuid", answerId).getSingleResult();
-        } catch (NoResultException nre) {
-            return null;
-        }
-    }
+    AnswerEntity getAnswerById(String answerId);
 
     /**
-     * This method is to update an answer
      * @param answerEntity
      */
-    public void updateAnswer(AnswerEntity answerEntity) {
-        entityManager.merge(answerEntity);
-    }
+    void updateAnswer(AnswerEntity answerEntity);
 
     /**
-     * This method is to delete an answer
+     * Tombstones the answer, only if the given user owns it or is an admin
      * @param answerId
-     * @return deleteAnswer
+     * @param userEntity user requesting the delete
+     * @return the deleted answer with at least the uuid of its question, or null if no answer matched the uuid and ownership check
      */
-    public AnswerEntity deleteAnswer(final String answerId) {
-        AnswerEntity deleteAnswer = getAnswerById(answerId);
-        if (deleteAnswer != null) {
-            entityManager.remove(deleteAnswer);
-        }
-        return deleteAnswer;
-    }
-
+    AnswerEntity deleteAnswerIfOwnerOrAdmin(String answerId, UserEntity userEntity);
 
+    /**
+     * Updates the content of an answer, only if the given user owns it
+     * @param answerId
+     * @param userEntity user requesting the edit
+     * @param newAnswer
+     * @param expectedVersion version the answer must still have, or null to skip the version check
+     * @return the edited answer with its new version and at least the uuid of its question, or null if no answer matched
+     */
+    AnswerEntity editAnswerIfOwner(String answerId, UserEntity userEntity, String newAnswer, Long expectedVersion);
 
     /**
-     * fetch all the answers to the question using questionId
      * @param questionId
-     * @return getResultList()
+     * @return all the answers to the question
+     */
+    List<AnswerEntity> getAllAnswersToQuestion(String questionId);
+
+    /**
+     * @param questionEntity question whose answers are to be fetched
+     * @param page zero based page index
+     * @param size number of answers per page
+     * @return one page of the answers together with their authors, oldest first
+     */
+    List<AnswerEntity> getAnswersWithAuthors(QuestionEntity questionEntity, int page, int size);
+
+    /**
+     * Hard deletes up to batchSize answers tombstoned more than retentionMinutes ago
+     * @param retentionMinutes minimum age of the tombstone
+     * @param batchSize maximum number of answers to delete
+     * @return number of answers deleted
+     */
+    int purgeDeletedAnswers(int retentionMinutes, int batchSize);
+
+    /**
+     * Hard deletes up to batchSize answers of questions tombstoned more than retentionMinutes ago
+     * @param retentionMinutes minimum age of the question tombstone
+     * @param batchSize maximum number of answers to delete
+     * @return number of answers deleted
      */
-    public List<AnswerEntity> getAllAnswersToQuestion(final String questionId) {
-        return entityManager.createNamedQuery("getAllAnswersToQuestion", AnswerEntity.class).setParameter("uuid", questionId).getResultList();
-    }
+    int purgeAnswersOfDeletedQuestions(int retentionMinutes, int batchSize);
 }
@@ -0,0 +1,34 @@
+package com.upgrad.quora.service.dao;
+
+import java.util.Collection;
+import java.util.Map;
+
+/**
+ * Change counters of the collections served with entity tags, kept where every instance of the application sees them.
+ * Counters are addressed by slot; the negative slots are reserved for the counters shared by all collections.
+ */
+public interface CollectionVersionDao {
+
+    /**
+     * Starts at the time the counters were created and is bumped whenever the data is replaced without going through
+     * the application, so that entity tags handed out before never match again.
+     */
+    int EPOCH_SLOT = -1;
+
+    /**
+     * Bumped when a change reaches into every collection, like deleting a user with all of their questions and answers.
+     */
+    int GENERATION_SLOT = -2;
+
+    /**
+     * @param slots slots of the counters
+     * @return value of each counter, counters which were never bumped are left out
+     */
+    Map<Integer, Long> getVersions(Collection<Integer> slots);
+
+    /**
+     * Increments the counters in the given order, in the transaction of the change they describe
+     * @param slots slots of the counters, sorted so that concurrent transactions lock them in the same order
+     */
+    void increment(Collection<Integer> slots);
+}
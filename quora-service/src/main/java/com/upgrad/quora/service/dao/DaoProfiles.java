@@ -0,0 +1,16 @@
+package com.upgrad.quora.service.dao;
+
+/**
+ * Spring profiles choosing between the DAO implementations, shared by the jpa, jdbc and memory packages so that
+ * none of them depends on another to know when it is active.
+ */
+public final class DaoProfiles {
+
+    /**
+     * Replaces the Postgres backed DAOs with the ones of the memory package.
+     */
+    public static final String IN_MEMORY = "in-memory";
+
+    private DaoProfiles() {
+    }
+}
@@ -0,0 +1,60 @@
+package com.upgrad.quora.service.dao;
+
+import com.upgrad.quora.service.entity.OutboxEventEntity;
+
+import java.time.ZonedDateTime;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Access to the events waiting in the outbox.
+ */
+public interface OutboxDao {
+
+    /**
+     * Appends an event to the outbox, must be called in the transaction of the change it describes
+     * @param outboxEventEntity
+     * @return outboxEventEntity
+     */
+    OutboxEventEntity createEvent(OutboxEventEntity outboxEventEntity);
+
+    /**
+     * Appends several events to the outbox with batched statements, must be called in the transaction of the changes
+     * they describe
+     * @param outboxEventEntities
+     */
+    void createEvents(List<OutboxEventEntity> outboxEventEntities);
+
+    /**
+     * @param limit         maximum number of events
+     * @param maxDeliveries failed deliveries after which an event is a dead letter and no longer returned
+     * @param now           events whose next delivery is after this time are not returned
+     * @return the oldest events due for delivery in insertion order
+     */
+    List<OutboxEventEntity> getPendingEvents(int limit, int maxDeliveries, ZonedDateTime now);
+
+    /**
+     * @param ids ids of the events
+     * @return number of events removed
+     */
+    int deleteEvents(Collection<Long> ids);
+
+    /**
+     * Counts a failed delivery of the event and postpones the next one
+     * @param id             id of the event
+     * @param nextDeliveryAt time before which the event is not delivered again
+     */
+    void recordFailedDelivery(long id, ZonedDateTime nextDeliveryAt);
+
+    /**
+     * @param maxDeliveries failed deliveries after which an event is a dead letter
+     * @return number of events in the outbox which are not dead letters
+     */
+    long countEvents(int maxDeliveries);
+
+    /**
+     * @param maxDeliveries failed deliveries after which an event is a dead letter
+     * @return number of dead letters in the outbox
+     */
+    long countDeadLetters(int maxDeliveries);
+}
@@ -1,80 +1,85 @@
 package com.upgrad.quora.service.dao;
 
 import com.upgrad.quora.service.entity.QuestionEntity;
+import com.upgrad.quora.service.entity.UserEntity;
+import java.util.Collection;
 import java.util.List;
-import javax.persistence.EntityManager;
-import javax.persistence.NoResultException;
-import javax.persistence.PersistenceContext;
-import org.springframework.data.jpa.repository.Modifying;
-import org.springframework.stereotype.Repository;
-import org.springframework.transaction.annotation.Propagation;
-import org.springframework.transaction.annotation.Transactional;
+import java.util.Map;
 
-@Repository
-public class QuestionDao {
-
-  @PersistenceContext
-  private EntityManager entityManager;
+/**
+ * Access to the questions. Deleted questions are tombstoned and not returned by any of the lookups.
+ */
+public interface QuestionDao {
 
   /**
-   *
    * @param questionEntity Object which is to be persisted
    * @return same question entity as passed in params
    */
-  public QuestionEntity createQuestion(QuestionEntity questionEntity) {
-    entityManager.persist(questionEntity);
-    return questionEntity;
-  }
+  QuestionEntity createQuestion(QuestionEntity questionEntity);
+
+  /**
+   * Inserts several questions with batched statements. The ids of the entities are not populated.
+   * @param questionEntities questions to be persisted
+   */
+  void createQuestions(List<QuestionEntity> questionEntities);
 
   /**
-   * Get list of questions created by user
    * @param userUuid for User question created by whom are to be returned
    * @return List of question entities
    */
-  public List<QuestionEntity> getQuestionsByUserId(String userUuid) {
-    try {
-      return entityManager.createNamedQuery("questionsByUserId", QuestionEntity.class).setParameter("userUuid", userUuid).getResultList();
-    } catch (NoResultException nre) {
-      return null;
-    }
-  }
+  List<QuestionEntity> getQuestionsByUserId(String userUuid);
 
   /**
-   * Get all the questions in DB
-   * @return List of question entities
+   * @return List of all question entities
+   */
+  List<QuestionEntity> getAllQuestions();
+
+  /**
+   * @param questionUuid for question to be fetched
+   * @return Question Entity, null if it does not exist
    */
-  public List<QuestionEntity> getAllQuestions() {
-    try {
-      return entityManager.createNamedQuery("questions", QuestionEntity.class).getResultList();
-    } catch (NoResultException nre) {
-      return null;
-    }
-  }
+  QuestionEntity getQuestionById(String questionUuid);
+
+  /**
+   * @param questionUuids for questions to be fetched
+   * @return map of uuid to Question Entity, with a single query, uuids of questions that do not exist are left out
+   */
+  Map<String, QuestionEntity> getQuestionsByIds(Collection<String> questionUuids);
 
   /**
-   * Get Question by its ID
    * @param questionUuid for question to be fetched
-   * @return Question Entity
+   * @return Question Entity with the user entity loaded, null if the question does not exist
    */
-  public QuestionEntity getQuestionById(String questionUuid) {
-    try {
-      return entityManager.createNamedQuery("questionById", QuestionEntity.class).setParameter("uuid", questionUuid).getSingleResult();
-    } catch (NoResultException nre) {
-      return null;
-    }
-  }
+  QuestionEntity getQuestionWithAuthorById(String questionUuid);
 
   /**
-   * Delete Question by its id
+   * Tombstones the question, only if the given user owns it or is an admin
    * @param questionUuid for question to be deleted
+   * @param userEntity user requesting the delete
+   * @return the deleted question, or null if no question matched the uuid and ownership check
+   */
+  QuestionEntity deleteQuestionIfOwnerOrAdmin(String questionUuid, UserEntity userEntity);
+
+  /**
+   * Updates the content of a question, only if the given user owns it
+   * @param questionUuid for question to be updated
+   * @param userEntity user requesting the edit
+   * @param newContent Content to be updated in the question
+   * @param expectedVersion version the question must still have, or null to skip the version check
+   * @return the edited question with its new version, or null if no question matched
+   */
+  QuestionEntity editQuestionIfOwner(String questionUuid, UserEntity userEntity, String newContent, Long expectedVersion);
+
+  /**
+   * Hard deletes up to batchSize questions tombstoned more than retentionMinutes ago whose answers have already been purged
+   * @param retentionMinutes minimum age of the tombstone
+   * @param batchSize maximum number of questions to delete
+   * @return number of questions deleted
    */
-  public void deleteQuestion(String questionUuid) {
-      entityManager.createNamedQuery("deleteQuestionById").setParameter("uuid", questionUuid).executeUpdate();
-  }
+  int purgeDeletedQuestions(int retentionMinutes, int batchSize);
 
   /**
-   * Updates the Question
    * @param questionEntity to be updated
    */
-  public void updateQuestion(QuestionEntity questionEntity) {entityManager.merge(questionEntity);}
+  void updateQuestion(QuestionEntity questionEntity);
 }
@@ -0,0 +1,66 @@
+package com.upgrad.quora.service.dao;
+
+import com.upgrad.quora.service.record.AnswerField;
+import com.upgrad.quora.service.record.AnswerRecord;
+import com.upgrad.quora.service.record.QuestionField;
+import com.upgrad.quora.service.record.QuestionRecord;
+import com.upgrad.quora.service.record.UserAuthRecord;
+import com.upgrad.quora.service.record.UserField;
+import com.upgrad.quora.service.record.UserRecord;
+
+import java.util.List;
+import java.util.Set;
+
+/**
+ * The hottest lookups of the read-only request paths, returning immutable records instead of managed entities so that
+ * they skip the persistence context entirely. The write paths keep using the entity DAOs.
+ * The lookups taking a set of fields may leave the properties backing the other fields null; the JDBC implementation
+ * selects only the columns, and only makes the joins, which the requested fields need.
+ */
+public interface ReadRepository {
+
+    /**
+     * @param accessToken
+     * @return the token with its user, null if it does not exist
+     */
+    UserAuthRecord getUserAuthByToken(String accessToken);
+
+    /**
+     * @param questionUuid
+     * @return the question, null if it does not exist or has been deleted
+     */
+    QuestionRecord getQuestionByUuid(String questionUuid);
+
+    /**
+     * @param questionUuid
+     * @return the answers to the question which have not been deleted, oldest first
+     */
+    List<AnswerRecord> getAnswersByQuestion(String questionUuid);
+
+    /**
+     * @param questionUuid
+     * @param fields properties of the answers the caller renders
+     * @return the answers to the question which have not been deleted, oldest first
+     */
+    List<AnswerRecord> getAnswersByQuestion(String questionUuid, Set<AnswerField> fields);
+
+    /**
+     * @param fields properties of the questions the caller renders
+     * @return the questions which have not been deleted, in creation order
+     */
+    List<QuestionRecord> getAllQuestions(Set<QuestionField> fields);
+
+    /**
+     * @param userUuid
+     * @param fields properties of the questions the caller renders
+     * @return the questions of the user which have not been deleted, in creation order
+     */
+    List<QuestionRecord> getQuestionsByUser(String userUuid, Set<QuestionField> fields);
+
+    /**
+     * @param userUuid
+     * @param fields properties of the profile the caller renders
+     * @return the profile of the user, null if the user does not exist
+     */
+    UserRecord getUserByUuid(String userUuid, Set<UserField> fields);
+}
@@ -1,49 +1,26 @@
 package com.upgrad.quora.service.dao;
 
 import com.upgrad.quora.service.entity.UserAuthEntity;
-import org.springframework.stereotype.Repository;
 
-import javax.persistence.EntityManager;
-import javax.persistence.NoResultException;
-import javax.persistence.PersistenceContext;
-import org.springframework.transaction.annotation.Propagation;
-import org.springframework.transaction.annotation.Transactional;
-
-@Repository
-public class UserAuthDao {
-
-    @PersistenceContext
-    private EntityManager entityManager;
+/**
+ * Access to the access tokens of the users.
+ */
+public interface UserAuthDao {
 
     /**
-     *This method checks the UserAuthEntity
      * @param accessToken
-     * @return
+     * @return the token with its user, null if it does not exist
      */
-    public UserAuthEntity getUserAuthByToken(final String accessToken) {
-        try {
-            return entityManager.createNamedQuery("userAccessByToken", UserAuthEntity.class).setParameter("accessToken", accessToken).getSingleResult();
-        } catch (NoResultException nre) {
-            return null;
-        }
-    }
+    UserAuthEntity getUserAuthByToken(String accessToken);
 
     /**
-     * This method creates AuthToken
      * @param userAuthEntity
      * @return userAuthEntity
      */
-    @Transactional(propagation = Propagation.REQUIRED)
-    public UserAuthEntity createAuthToken(final UserAuthEntity userAuthEntity) {
-        entityManager.persist(userAuthEntity);
-        return userAuthEntity;
-    }
+    UserAuthEntity createAuthToken(UserAuthEntity userAuthEntity);
 
     /**
-     *This method will update the userAuthEntity
      * @param updatedUserAuthEntity
      */
-    public void updateUserAuth(final UserAuthEntity updatedUserAuthEntity) {
-        entityManager.merge(updatedUserAuthEntity);
-    }
+    void updateUserAuth(UserAuthEntity updatedUserAuthEntity);
 }
@@ -1,96 +1,63 @@
 package com.upgrad.quora.service.dao;
 
-import com.upgrad.quora.service.exception.SignUpRestrictedException;
-import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.stereotype.Repository;
 import com.upgrad.quora.service.entity.UserEntity;
 
-import javax.persistence.EntityManager;
-import javax.persistence.NoResultException;
-import javax.persistence.PersistenceContext;
+import java.util.Collection;
+import java.util.List;
 
-@Repository
-public class UserDao {
-  @PersistenceContext
-  private EntityManager entityManager;
+/**
+ * Access to the users. Implemented with JPA and, for load tests without a database, in memory.
+ */
+public interface UserDao {
 
   /**
    * Persists user entity
    * @param userEntity object to be persisted
    * @return passed down user entity
    */
-  public UserEntity createUser(UserEntity userEntity){
-    entityManager.persist(userEntity);
-    return userEntity;
-  }
+  UserEntity createUser(UserEntity userEntity);
 
   /**
    * Get user entity from id
    * @param userUuid id of the user
    * @return nullable entity of user type
    */
-  public UserEntity getUser(final String userUuid) {
-    try {
-      return entityManager.createNamedQuery("userByUuid", UserEntity.class).setParameter("uuid", userUuid).getSingleResult();
-    } catch (NoResultException nre) {
-      return null;
-    }
-  }
+  UserEntity getUser(String userUuid);
 
   /**
-   * This methods gets the user details based on the username passed.
-   *
    * @param userName username of the user whose information is to be fetched.
-   * @return null if the user with given username doesn't exist in DB.
+   * @return null if the user with given username doesn't exist.
    */
-  public UserEntity getUserByUserName(final String userName) {
-    try {
-      return entityManager.createNamedQuery("userByUserName", UserEntity.class).setParameter("userName", userName).getSingleResult();
-    } catch (NoResultException nre) {
-      return null;
-    }
-  }
+  UserEntity getUserByUserName(String userName);
 
   /**
    * Get user by email Id
    * @param email for the userEntity to be fetched
-   * @return UserEntity
+   * @return UserEntity, null if it does not exist
    */
-  public UserEntity getUserByEmailId(final String email) {
-    try {
-      return entityManager.createNamedQuery("userByEmail", UserEntity.class).setParameter("email", email).getSingleResult();
-    } catch (NoResultException nre) {
-      return null;
-    }
-  }
+  UserEntity getUserByEmailId(String email);
 
   /**
-   * Fetch a single user by given id from the DB.
-   *
    * @param userId Id of the user whose information is to be fetched.
-   * @return User details if exist in the DB else null.
+   * @return User details if exist else null.
    */
-  public UserEntity getUserById(final String userId) {
-    try {
-      return entityManager.createNamedQuery("userByUserId", UserEntity.class).setParameter("userId", userId).getSingleResult();
-    } catch (NoResultException nre) {
-      return null;
-    }
-  }
+  UserEntity getUserById(String userId);
+
+  /**
+   * @param userIds Ids of the users whose information is to be fetched, should not contain duplicates.
+   * @return Users that exist, in no particular order.
+   */
+  List<UserEntity> getUsersByIds(Collection<String> userIds);
 
   /**
    * Updates the user entity
    * @param updatedUserEntity
    */
-  public void updateUserEntity(final UserEntity updatedUserEntity) {
-    entityManager.merge(updatedUserEntity);
-  }
+  void updateUserEntity(UserEntity updatedUserEntity);
 
   /**
-   * Deletes the given user entity
+   * Deletes the given user entity together with its tokens, questions and answers
    * @param userEntity to be deleted
    */
-  public void deleteUserEntity(final UserEntity userEntity) {
-    entityManager.remove(userEntity);
-  }
+  void deleteUserEntity(UserEntity userEntity);
 }
@@ -0,0 +1,58 @@
+package com.upgrad.quora.service.dao.jdbc;
+
+import com.upgrad.quora.service.dao.CollectionVersionDao;
+import com.upgrad.quora.service.dao.DaoProfiles;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.StringJoiner;
+
+/**
+ * CollectionVersionDao on the collection_version table, one row per slot. A bump inserts the row on first use, so
+ * only the epoch row has to exist beforehand. The rows are read by primary key and locked by a bump until its
+ * transaction commits.
+ */
+@Repository
+@Profile("!" + DaoProfiles.IN_MEMORY)
+public class JdbcCollectionVersionDao implements CollectionVersionDao {
+
+    private static final String INCREMENT =
+            "insert into collection_version (slot, version) values (?, 1)"
+                    + " on conflict (slot) do update set version = collection_version.version + 1";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Override
+    public Map<Integer, Long> getVersions(final Collection<Integer> slots) {
+        StringJoiner placeholders = new StringJoiner(", ", "select slot, version from collection_version where slot in (", ")");
+        for (int i = 0; i < slots.size(); i++) {
+            placeholders.add("?");
+        }
+        Map<Integer, Long> versions = new HashMap<>();
+        jdbcTemplate.query(placeholders.toString(), rs -> {
+            versions.put(rs.getInt(1), rs.getLong(2));
+        }, slots.toArray());
+        return versions;
+    }
+
+    @Override
+    public void increment(final Collection<Integer> slots) {
+        if (slots.size() == 1) {
+            jdbcTemplate.update(INCREMENT, slots.iterator().next());
+            return;
+        }
+        List<Object[]> batch = new ArrayList<>(slots.size());
+        for (Integer slot : slots) {
+            batch.add(new Object[]{slot});
+        }
+        jdbcTemplate.batchUpdate(INCREMENT, batch);
+    }
+}
@@ -0,0 +1,177 @@
+package com.upgrad.quora.service.dao.jdbc;
+
+import com.upgrad.quora.service.dao.DaoProfiles;
+import com.upgrad.quora.service.dao.ReadRepository;
+import com.upgrad.quora.service.record.AnswerField;
+import com.upgrad.quora.service.record.AnswerRecord;
+import com.upgrad.quora.service.record.Field;
+import com.upgrad.quora.service.record.QuestionField;
+import com.upgrad.quora.service.record.QuestionRecord;
+import com.upgrad.quora.service.record.UserAuthRecord;
+import com.upgrad.quora.service.record.UserField;
+import com.upgrad.quora.service.record.UserRecord;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.StringJoiner;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * ReadRepository on plain JDBC: fixed SQL and hand written row mappers, so a lookup costs one prepared statement and
+ * one small immutable object per row. Inside a transaction the JdbcTemplate uses the transaction's connection.
+ * The lookups taking a set of fields select only the columns backing them, and join the question of an answer only
+ * when its content is requested; their SQL is built once per combination of fields.
+ */
+@Repository
+@Profile("!" + DaoProfiles.IN_MEMORY)
+public class JdbcReadRepository implements ReadRepository {
+
+    private static final String USER_AUTH_BY_TOKEN =
+            "select ua.access_token, ua.expires_at, ua.logout_at, u.id, u.uuid, u.role"
+                    + " from user_auth ua join users u on u.id = ua.user_id where ua.access_token = ?";
+
+    private static final String QUESTION_BY_UUID =
+            "select id, uuid, content, date, version, user_id from question where uuid = ? and deleted_at is null";
+
+    private static final String ANSWERS_BY_QUESTION =
+            "select a.id, a.uuid, a.ans, a.date, a.version, a.user_id, q.content"
+                    + " from answer a join question q on q.id = a.question_id"
+                    + " where q.uuid = ? and q.deleted_at is null and a.deleted_at is null order by a.date, a.id";
+
+    private static final Map<AnswerField, String> ANSWER_COLUMNS = new EnumMap<>(AnswerField.class);
+
+    private static final Map<QuestionField, String> QUESTION_COLUMNS = new EnumMap<>(QuestionField.class);
+
+    private static final Map<UserField, String> USER_COLUMNS = new EnumMap<>(UserField.class);
+
+    static {
+        ANSWER_COLUMNS.put(AnswerField.ID, "a.uuid");
+        ANSWER_COLUMNS.put(AnswerField.QUESTION_CONTENT, "q.content");
+        ANSWER_COLUMNS.put(AnswerField.ANSWER_CONTENT, "a.ans");
+        QUESTION_COLUMNS.put(QuestionField.ID, "q.uuid");
+        QUESTION_COLUMNS.put(QuestionField.CONTENT, "q.content");
+        USER_COLUMNS.put(UserField.FIRST_NAME, "firstname");
+        USER_COLUMNS.put(UserField.LAST_NAME, "lastname");
+        USER_COLUMNS.put(UserField.USER_NAME, "username");
+        USER_COLUMNS.put(UserField.EMAIL_ADDRESS, "email");
+        USER_COLUMNS.put(UserField.COUNTRY, "country");
+        USER_COLUMNS.put(UserField.ABOUT_ME, "aboutme");
+        USER_COLUMNS.put(UserField.DOB, "dob");
+        USER_COLUMNS.put(UserField.CONTACT_NUMBER, "contactnumber");
+    }
+
+    private static final RowMapper<UserAuthRecord> USER_AUTH_MAPPER = (rs, rowNum) -> new UserAuthRecord(
+            rs.getString(1), toZonedDateTime(rs.getTimestamp(2)), toZonedDateTime(rs.getTimestamp(3)),
+            rs.getInt(4), rs.getString(5), rs.getString(6));
+
+    private static final RowMapper<QuestionRecord> QUESTION_MAPPER = (rs, rowNum) -> new QuestionRecord(
+            rs.getInt(1), rs.getString(2), rs.getString(3), toZonedDateTime(rs.getTimestamp(4)),
+            rs.getLong(5), rs.getInt(6));
+
+    private static final RowMapper<AnswerRecord> ANSWER_MAPPER = (rs, rowNum) -> new AnswerRecord(
+            rs.getInt(1), rs.getString(2), rs.getString(3), toZonedDateTime(rs.getTimestamp(4)),
+            rs.getLong(5), rs.getInt(6), rs.getString(7));
+
+    private final Map<Set<AnswerField>, String> answersByQuestion = new ConcurrentHashMap<>();
+
+    private final Map<Set<QuestionField>, String> allQuestions = new ConcurrentHashMap<>();
+
+    private final Map<Set<QuestionField>, String> questionsByUser = new ConcurrentHashMap<>();
+
+    private final Map<Set<UserField>, String> userByUuid = new ConcurrentHashMap<>();
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Override
+    public UserAuthRecord getUserAuthByToken(final String accessToken) {
+        return single(jdbcTemplate.query(USER_AUTH_BY_TOKEN, USER_AUTH_MAPPER, accessToken));
+    }
+
+    @Override
+    public QuestionRecord getQuestionByUuid(final String questionUuid) {
+        return single(jdbcTemplate.query(QUESTION_BY_UUID, QUESTION_MAPPER, questionUuid));
+    }
+
+    @Override
+    public List<AnswerRecord> getAnswersByQuestion(final String questionUuid) {
+        return jdbcTemplate.query(ANSWERS_BY_QUESTION, ANSWER_MAPPER, questionUuid);
+    }
+
+    @Override
+    public List<AnswerRecord> getAnswersByQuestion(final String questionUuid, final Set<AnswerField> fields) {
+        String sql = answersByQuestion.computeIfAbsent(EnumSet.copyOf(fields), selected -> "select " + columns(selected, ANSWER_COLUMNS)
+                + (selected.contains(AnswerField.QUESTION_CONTENT)
+                ? " from answer a join question q on q.id = a.question_id where q.uuid = ? and q.deleted_at is null"
+                : " from answer a where a.question_id = (select q.id from question q where q.uuid = ? and q.deleted_at is null)")
+                + " and a.deleted_at is null order by a.date, a.id");
+        return jdbcTemplate.query(sql, (rs, rowNum) -> new AnswerRecord(null,
+                fields.contains(AnswerField.ID) ? rs.getString("uuid") : null,
+                fields.contains(AnswerField.ANSWER_CONTENT) ? rs.getString("ans") : null,
+                null, null, null,
+                fields.contains(AnswerField.QUESTION_CONTENT) ? rs.getString("content") : null), questionUuid);
+    }
+
+    @Override
+    public List<QuestionRecord> getAllQuestions(final Set<QuestionField> fields) {
+        String sql = allQuestions.computeIfAbsent(EnumSet.copyOf(fields), selected -> "select " + columns(selected, QUESTION_COLUMNS)
+                + " from question q where q.deleted_at is null order by q.id");
+        return jdbcTemplate.query(sql, questionMapper(fields));
+    }
+
+    @Override
+    public List<QuestionRecord> getQuestionsByUser(final String userUuid, final Set<QuestionField> fields) {
+        String sql = questionsByUser.computeIfAbsent(EnumSet.copyOf(fields), selected -> "select " + columns(selected, QUESTION_COLUMNS)
+                + " from question q join users u on u.id = q.user_id where u.uuid = ? and q.deleted_at is null order by q.id");
+        return jdbcTemplate.query(sql, questionMapper(fields), userUuid);
+    }
+
+    @Override
+    public UserRecord getUserByUuid(final String userUuid, final Set<UserField> fields) {
+        String sql = userByUuid.computeIfAbsent(EnumSet.copyOf(fields), selected -> "select " + columns(selected, USER_COLUMNS)
+                + " from users where uuid = ?");
+        return single(jdbcTemplate.query(sql, (rs, rowNum) -> new UserRecord(userUuid,
+                fields.contains(UserField.FIRST_NAME) ? rs.getString("firstname") : null,
+                fields.contains(UserField.LAST_NAME) ? rs.getString("lastname") : null,
+                fields.contains(UserField.USER_NAME) ? rs.getString("username") : null,
+                fields.contains(UserField.EMAIL_ADDRESS) ? rs.getString("email") : null,
+                fields.contains(UserField.COUNTRY) ? rs.getString("country") : null,
+                fields.contains(UserField.ABOUT_ME) ? rs.getString("aboutme") : null,
+                fields.contains(UserField.DOB) ? rs.getString("dob") : null,
+                fields.contains(UserField.CONTACT_NUMBER) ? rs.getString("contactnumber") : null), userUuid));
+    }
+
+    private static RowMapper<QuestionRecord> questionMapper(final Set<QuestionField> fields) {
+        return (rs, rowNum) -> new QuestionRecord(null,
+                fields.contains(QuestionField.ID) ? rs.getString("uuid") : null,
+                fields.contains(QuestionField.CONTENT) ? rs.getString("content") : null,
+                null, null, null);
+    }
+
+    private static <F extends Enum<F> & Field> String columns(final Set<F> fields, final Map<F, String> columns) {
+        StringJoiner selected = new StringJoiner(", ");
+        for (F field : fields) {
+            selected.add(columns.get(field));
+        }
+        return selected.toString();
+    }
+
+    private static <T> T single(final List<T> rows) {
+        return rows.isEmpty() ? null : rows.get(0);
+    }
+
+    private static ZonedDateTime toZonedDateTime(final Timestamp timestamp) {
+        return timestamp == null ? null : timestamp.toLocalDateTime().atZone(ZoneId.systemDefault());
+    }
+}
@@ -0,0 +1,194 @@
+package com.upgrad.quora.service.dao.jpa;
+
+import com.upgrad.quora.service.dao.AnswerDao;
+import com.upgrad.quora.service.dao.DaoProfiles;
+import com.upgrad.quora.service.entity.AnswerEntity;
+import com.upgrad.quora.service.entity.QuestionEntity;
+import com.upgrad.quora.service.entity.UserEntity;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import javax.persistence.EntityManager;
+import javax.persistence.NoResultException;
+import javax.persistence.PersistenceContext;
+import javax.persistence.Query;
+import java.sql.Timestamp;
+import java.time.ZoneId;
+import java.util.List;
+
+@Repository
+@Profile("!" + DaoProfiles.IN_MEMORY)
+public class JpaAnswerDao implements AnswerDao {
+
+    private static final String INSERT_ANSWER = "insert into answer (uuid, ans, date, user_id, question_id) values (?, ?, ?, ?, ?)";
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    /**
+     * This method is used to create answers
+     * @param answerEntity
+     * @return answerEntity
+     */
+    @Override
+    public AnswerEntity createAnswer(AnswerEntity answerEntity) {
+        entityManager.persist(answerEntity);
+        return answerEntity;
+    }
+
+    /**
+     * Inserts the answers with a JDBC batch on the connection of the current transaction. The identity ids rule out
+     * Hibernate's own insert batching, so the statements bypass the persistence context.
+     * @param answerEntities answers with their question and user entities
+     */
+    @Override
+    public void createAnswers(final List<AnswerEntity> answerEntities) {
+        jdbcTemplate.batchUpdate(INSERT_ANSWER, answerEntities, answerEntities.size(), (ps, answerEntity) -> {
+            ps.setString(1, answerEntity.getUuid());
+            ps.setString(2, answerEntity.getAnswer());
+            ps.setTimestamp(3, Timestamp.from(answerEntity.getDate().toInstant()));
+            ps.setInt(4, answerEntity.getUserEntity().getId());
+            ps.setInt(5, answerEntity.getQuestionEntity().getId());
+        });
+    }
+
+    /**
+     * This method is used to get an answer
+     * @param answerId
+     * @return getSingleResult()
+     */
+    @Override
+    public AnswerEntity getAnswerById(final String answerId) {
+        try {
+            return entityManager.createNamedQuery("getAnswerById", AnswerEntity.class).setParameter("uuid", answerId).getSingleResult();
+        } catch (NoResultException nre) {
+            return null;
+        }
+    }
+
+    /**
+     * This method is to update an answer
+     * @param answerEntity
+     */
+    @Override
+    public void updateAnswer(AnswerEntity answerEntity) {
+        entityManager.merge(answerEntity);
+    }
+
+    /**
+     * This method deletes an answer only if the given user owns it or is an admin, in a single statement.
+     * The answer is only tombstoned here, it is purged later by purgeDeletedAnswers.
+     * @param answerId
+     * @param userEntity user requesting the delete
+     * @return the deleted answer (only the uuid of its question populated), or null if no answer matched the uuid and ownership check
+     */
+    @Override
+    public AnswerEntity deleteAnswerIfOwnerOrAdmin(final String answerId, final UserEntity userEntity) {
+        List<Object[]> rows = entityManager.createNamedQuery("deleteAnswerByOwnerOrAdmin")
+                .setParameter("uuid", answerId)
+                .setParameter("userId", userEntity.getId())
+                .setParameter("isAdmin", "admin".equals(userEntity.getRole()))
+                .getResultList();
+        return rows.isEmpty() ? null : toAnswerEntity(rows.get(0));
+    }
+
+    /**
+     * This method updates the content of an answer only if the given user owns it, in a single statement
+     * @param answerId
+     * @param userEntity user requesting the edit
+     * @param newAnswer
+     * @param expectedVersion version the answer must still have, or null to skip the version check
+     * @return the edited answer with its new version (only the uuid of its question populated), or null if no answer matched
+     */
+    @Override
+    public AnswerEntity editAnswerIfOwner(final String answerId, final UserEntity userEntity, final String newAnswer, final Long expectedVersion) {
+        Query query = entityManager.createNamedQuery(expectedVersion == null ? "editAnswerByOwner" : "editAnswerByOwnerAndVersion")
+                .setParameter("uuid", answerId)
+                .setParameter("userId", userEntity.getId())
+                .setParameter("answer", newAnswer);
+        if (expectedVersion != null) {
+            query.setParameter("version", expectedVersion);
+        }
+        List<Object[]> rows = query.getResultList();
+        return rows.isEmpty() ? null : toAnswerEntity(rows.get(0));
+    }
+
+
+
+    /**
+     * fetch all the answers to the question using questionId
+     * @param questionId
+     * @return getResultList()
+     */
+    @Override
+    public List<AnswerEntity> getAllAnswersToQuestion(final String questionId) {
+        return entityManager.createNamedQuery("getAllAnswersToQuestion", AnswerEntity.class).setParameter("uuid", questionId).getResultList();
+    }
+
+    /**
+     * fetch one page of the answers to the question together with their authors, oldest first, in a single query
+     * @param questionEntity question whose answers are to be fetched
+     * @param page zero based page index
+     * @param size number of answers per page
+     * @return getResultList()
+     */
+    @Override
+    public List<AnswerEntity> getAnswersWithAuthors(final QuestionEntity questionEntity, final int page, final int size) {
+        return entityManager.createNamedQuery("answersWithAuthorsByQuestion", AnswerEntity.class)
+                .setParameter("question", questionEntity)
+                .setFirstResult(page * size)
+                .setMaxResults(size)
+                .getResultList();
+    }
+
+    /**
+     * Hard deletes up to batchSize answers tombstoned more than retentionMinutes ago
+     * @param retentionMinutes minimum age of the tombstone
+     * @param batchSize maximum number of rows to delete
+     * @return number of answers deleted
+     */
+    @Override
+    public int purgeDeletedAnswers(final int retentionMinutes, final int batchSize) {
+        return entityManager.createNamedQuery("purgeDeletedAnswers")
+                .setParameter("retentionMinutes", retentionMinutes)
+                .setParameter("batchSize", batchSize)
+                .executeUpdate();
+    }
+
+    /**
+     * Hard deletes up to batchSize answers of questions tombstoned more than retentionMinutes ago
+     * @param retentionMinutes minimum age of the question tombstone
+     * @param batchSize maximum number of rows to delete
+     * @return number of answers deleted
+     */
+    @Override
+    public int purgeAnswersOfDeletedQuestions(final int retentionMinutes, final int batchSize) {
+        return entityManager.createNamedQuery("purgeAnswersOfDeletedQuestions")
+                .setParameter("retentionMinutes", retentionMinutes)
+                .setParameter("batchSize", batchSize)
+                .executeUpdate();
+    }
+
+    /**
+     * Maps a row returned by the conditional mutations (id, uuid, ans, date, version) to a detached answer
+     * @param row
+     * @return answerEntity
+     */
+    private AnswerEntity toAnswerEntity(final Object[] row) {
+        AnswerEntity answerEntity = new AnswerEntity();
+        answerEntity.setId(((Number) row[0]).intValue());
+        answerEntity.setUuid((String) row[1]);
+        answerEntity.setAnswer((String) row[2]);
+        answerEntity.setDate(((Timestamp) row[3]).toLocalDateTime().atZone(ZoneId.systemDefault()));
+        answerEntity.setVersion(((Number) row[4]).longValue());
+        QuestionEntity questionEntity = new QuestionEntity();
+        questionEntity.setUuid((String) row[5]);
+        answerEntity.setQuestionEntity(questionEntity);
+        return answerEntity;
+    }
+}
@@ -0,0 +1,106 @@
+package com.upgrad.quora.service.dao.jpa;
+
+import com.upgrad.quora.service.dao.DaoProfiles;
+import com.upgrad.quora.service.dao.OutboxDao;
+import com.upgrad.quora.service.entity.OutboxEventEntity;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import java.sql.Timestamp;
+import java.time.ZonedDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+@Profile("!" + DaoProfiles.IN_MEMORY)
+public class JpaOutboxDao implements OutboxDao {
+
+    private static final String INSERT_EVENT = "insert into outbox_event (event_type, aggregate_uuid, parent_uuid, user_uuid, created_at) values (?, ?, ?, ?, ?)";
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    /**
+     * Appends an event to the outbox, must be called in the transaction of the change it describes
+     * @param outboxEventEntity
+     * @return outboxEventEntity
+     */
+    @Override
+    public OutboxEventEntity createEvent(final OutboxEventEntity outboxEventEntity) {
+        entityManager.persist(outboxEventEntity);
+        return outboxEventEntity;
+    }
+
+    /**
+     * Appends several events with a JDBC batch on the connection of the current transaction
+     * @param outboxEventEntities
+     */
+    @Override
+    public void createEvents(final List<OutboxEventEntity> outboxEventEntities) {
+        jdbcTemplate.batchUpdate(INSERT_EVENT, outboxEventEntities, outboxEventEntities.size(), (ps, outboxEventEntity) -> {
+            ps.setString(1, outboxEventEntity.getEventType());
+            ps.setString(2, outboxEventEntity.getAggregateUuid());
+            ps.setString(3, outboxEventEntity.getParentUuid());
+            ps.setString(4, outboxEventEntity.getUserUuid());
+            ps.setTimestamp(5, Timestamp.from(outboxEventEntity.getCreatedAt().toInstant()));
+        });
+    }
+
+    /**
+     * Fetch the oldest events still in the outbox which are due for delivery
+     * @param limit         maximum number of events
+     * @param maxDeliveries failed deliveries after which an event is a dead letter
+     * @param now           current time
+     * @return events in insertion order
+     */
+    @Override
+    public List<OutboxEventEntity> getPendingEvents(final int limit, final int maxDeliveries, final ZonedDateTime now) {
+        return entityManager.createNamedQuery("pendingOutboxEvents", OutboxEventEntity.class)
+                .setParameter("maxDeliveries", maxDeliveries).setParameter("now", now).setMaxResults(limit).getResultList();
+    }
+
+    /**
+     * Removes the events which have been processed by every consumer
+     * @param ids ids of the events
+     * @return number of events removed
+     */
+    @Override
+    public int deleteEvents(final Collection<Long> ids) {
+        return entityManager.createNamedQuery("deleteOutboxEventsByIds").setParameter("ids", ids).executeUpdate();
+    }
+
+    /**
+     * Counts a failed delivery of the event and postpones the next one
+     * @param id             id of the event
+     * @param nextDeliveryAt time before which the event is not delivered again
+     */
+    @Override
+    public void recordFailedDelivery(final long id, final ZonedDateTime nextDeliveryAt) {
+        entityManager.createNamedQuery("failedOutboxEventDelivery").setParameter("id", id).setParameter("nextDeliveryAt", nextDeliveryAt).executeUpdate();
+    }
+
+    /**
+     * @param maxDeliveries failed deliveries after which an event is a dead letter
+     * @return number of events in the outbox which are not dead letters
+     */
+    @Override
+    public long countEvents(final int maxDeliveries) {
+        return entityManager.createNamedQuery("countOutboxEvents", Long.class).setParameter("maxDeliveries", maxDeliveries).getSingleResult();
+    }
+
+    /**
+     * @param maxDeliveries failed deliveries after which an event is a dead letter
+     * @return number of dead letters in the outbox
+     */
+    @Override
+    public long countDeadLetters(final int maxDeliveries) {
+        return entityManager.createNamedQuery("countDeadOutboxEvents", Long.class).setParameter("maxDeliveries", maxDeliveries).getSingleResult();
+    }
+}
@@ -0,0 +1,206 @@
+package com.upgrad.quora.service.dao.jpa;
+
+import com.upgrad.quora.service.dao.DaoProfiles;
+import com.upgrad.quora.service.dao.QuestionDao;
+import com.upgrad.quora.service.entity.QuestionEntity;
+import com.upgrad.quora.service.entity.UserEntity;
+import java.sql.Timestamp;
+import java.time.ZoneId;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import javax.persistence.EntityManager;
+import javax.persistence.NoResultException;
+import javax.persistence.PersistenceContext;
+import javax.persistence.Query;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+@Repository
+@Profile("!" + DaoProfiles.IN_MEMORY)
+public class JpaQuestionDao implements QuestionDao {
+
+  private static final String INSERT_QUESTION = "insert into question (uuid, content, date, user_id) values (?, ?, ?, ?)";
+
+  @PersistenceContext
+  private EntityManager entityManager;
+
+  @Autowired
+  private JdbcTemplate jdbcTemplate;
+
+  /**
+   *
+   * @param questionEntity Object which is to be persisted
+   * @return same question entity as passed in params
+   */
+  @Override
+  public QuestionEntity createQuestion(QuestionEntity questionEntity) {
+    entityManager.persist(questionEntity);
+    return questionEntity;
+  }
+
+  /**
+   * Inserts the questions with a JDBC batch on the connection of the current transaction. The identity ids rule out
+   * Hibernate's own insert batching, so the statements bypass the persistence context.
+   * @param questionEntities questions to be persisted
+   */
+  @Override
+  public void createQuestions(final List<QuestionEntity> questionEntities) {
+    jdbcTemplate.batchUpdate(INSERT_QUESTION, questionEntities, questionEntities.size(), (ps, questionEntity) -> {
+      ps.setString(1, questionEntity.getUuid());
+      ps.setString(2, questionEntity.getContent());
+      ps.setTimestamp(3, Timestamp.from(questionEntity.getDate().toInstant()));
+      ps.setInt(4, questionEntity.getUserEntity().getId());
+    });
+  }
+
+  /**
+   * Get list of questions created by user
+   * @param userUuid for User question created by whom are to be returned
+   * @return List of question entities
+   */
+  @Override
+  public List<QuestionEntity> getQuestionsByUserId(String userUuid) {
+    try {
+      return entityManager.createNamedQuery("questionsByUserId", QuestionEntity.class).setParameter("userUuid", userUuid).getResultList();
+    } catch (NoResultException nre) {
+      return null;
+    }
+  }
+
+  /**
+   * Get all the questions in DB
+   * @return List of question entities
+   */
+  @Override
+  public List<QuestionEntity> getAllQuestions() {
+    try {
+      return entityManager.createNamedQuery("questions", QuestionEntity.class).getResultList();
+    } catch (NoResultException nre) {
+      return null;
+    }
+  }
+
+  /**
+   * Get Question by its ID
+   * @param questionUuid for question to be fetched
+   * @return Question Entity
+   */
+  @Override
+  public QuestionEntity getQuestionById(String questionUuid) {
+    try {
+      return entityManager.createNamedQuery("questionById", QuestionEntity.class).setParameter("uuid", questionUuid).getSingleResult();
+    } catch (NoResultException nre) {
+      return null;
+    }
+  }
+
+  /**
+   * Get several questions by their IDs with a single IN query
+   * @param questionUuids for questions to be fetched
+   * @return map of uuid to Question Entity, uuids of questions that do not exist are left out
+   */
+  @Override
+  public Map<String, QuestionEntity> getQuestionsByIds(final Collection<String> questionUuids) {
+    Map<String, QuestionEntity> questionEntities = new HashMap<>();
+    if (questionUuids.isEmpty()) {
+      return questionEntities;
+    }
+    for (QuestionEntity questionEntity : entityManager.createNamedQuery("questionsByIds", QuestionEntity.class).setParameter("uuids", questionUuids).getResultList()) {
+      questionEntities.put(questionEntity.getUuid(), questionEntity);
+    }
+    return questionEntities;
+  }
+
+  /**
+   * Get Question by its ID together with its author, in a single query
+   * @param questionUuid for question to be fetched
+   * @return Question Entity with the user entity loaded, null if the question does not exist
+   */
+  @Override
+  public QuestionEntity getQuestionWithAuthorById(String questionUuid) {
+    try {
+      return entityManager.createNamedQuery("questionWithAuthorById", QuestionEntity.class).setParameter("uuid", questionUuid).getSingleResult();
+    } catch (NoResultException nre) {
+      return null;
+    }
+  }
+
+  /**
+   * Delete Question by its id, only if the given user owns it or is an admin, in a single statement.
+   * The question is only tombstoned here; it and its answers are purged later by purgeDeletedQuestions and AnswerDao.
+   * @param questionUuid for question to be deleted
+   * @param userEntity user requesting the delete
+   * @return the deleted question (associations not populated), or null if no question matched the uuid and ownership check
+   */
+  @Override
+  public QuestionEntity deleteQuestionIfOwnerOrAdmin(final String questionUuid, final UserEntity userEntity) {
+    List<Object[]> rows = entityManager.createNamedQuery("deleteQuestionByOwnerOrAdmin")
+        .setParameter("uuid", questionUuid)
+        .setParameter("userId", userEntity.getId())
+        .setParameter("isAdmin", "admin".equals(userEntity.getRole()))
+        .getResultList();
+    return rows.isEmpty() ? null : toQuestionEntity(rows.get(0));
+  }
+
+  /**
+   * Updates the content of a question, only if the given user owns it, in a single statement
+   * @param questionUuid for question to be updated
+   * @param userEntity user requesting the edit
+   * @param newContent Content to be updated in the question
+   * @param expectedVersion version the question must still have, or null to skip the version check
+   * @return the edited question with its new version (associations not populated), or null if no question matched
+   */
+  @Override
+  public QuestionEntity editQuestionIfOwner(final String questionUuid, final UserEntity userEntity, final String newContent, final Long expectedVersion) {
+    Query query = entityManager.createNamedQuery(expectedVersion == null ? "editQuestionByOwner" : "editQuestionByOwnerAndVersion")
+        .setParameter("uuid", questionUuid)
+        .setParameter("userId", userEntity.getId())
+        .setParameter("content", newContent);
+    if (expectedVersion != null) {
+      query.setParameter("version", expectedVersion);
+    }
+    List<Object[]> rows = query.getResultList();
+    return rows.isEmpty() ? null : toQuestionEntity(rows.get(0));
+  }
+
+  /**
+   * Hard deletes up to batchSize questions tombstoned more than retentionMinutes ago whose answers have already been purged
+   * @param retentionMinutes minimum age of the tombstone
+   * @param batchSize maximum number of rows to delete
+   * @return number of questions deleted
+   */
+  @Override
+  public int purgeDeletedQuestions(final int retentionMinutes, final int batchSize) {
+    return entityManager.createNamedQuery("purgeDeletedQuestions")
+        .setParameter("retentionMinutes", retentionMinutes)
+        .setParameter("batchSize", batchSize)
+        .executeUpdate();
+  }
+
+  /**
+   * Updates the Question
+   * @param questionEntity to be updated
+   */
+  @Override
+  public void updateQuestion(QuestionEntity questionEntity) {entityManager.merge(questionEntity);}
+
+  /**
+   * Maps a row returned by the conditional mutations (id, uuid, content, date, version) to a detached question
+   */
+  private QuestionEntity toQuestionEntity(final Object[] row) {
+    QuestionEntity questionEntity = new QuestionEntity();
+    questionEntity.setId(((Number) row[0]).intValue());
+    questionEntity.setUuid((String) row[1]);
+    questionEntity.setContent((String) row[2]);
+    questionEntity.setDate(((Timestamp) row[3]).toLocalDateTime().atZone(ZoneId.systemDefault()));
+    questionEntity.setVersion(((Number) row[4]).longValue());
+    return questionEntity;
+  }
+}
@@ -0,0 +1,56 @@
+package com.upgrad.quora.service.dao.jpa;
+
+import com.upgrad.quora.service.dao.DaoProfiles;
+import com.upgrad.quora.service.dao.UserAuthDao;
+import com.upgrad.quora.service.entity.UserAuthEntity;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Repository;
+
+import javax.persistence.EntityManager;
+import javax.persistence.NoResultException;
+import javax.persistence.PersistenceContext;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+@Repository
+@Profile("!" + DaoProfiles.IN_MEMORY)
+public class JpaUserAuthDao implements UserAuthDao {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    /**
+     *This method checks the UserAuthEntity
+     * @param accessToken
+     * @return
+     */
+    @Override
+    public UserAuthEntity getUserAuthByToken(final String accessToken) {
+        try {
+            return entityManager.createNamedQuery("userAccessByToken", UserAuthEntity.class).setParameter("accessToken", accessToken).getSingleResult();
+        } catch (NoResultException nre) {
+            return null;
+        }
+    }
+
+    /**
+     * This method creates AuthToken
+     * @param userAuthEntity
+     * @return userAuthEntity
+     */
+    @Transactional(propagation = Propagation.REQUIRED)
+    @Override
+    public UserAuthEntity createAuthToken(final UserAuthEntity userAuthEntity) {
+        entityManager.persist(userAuthEntity);
+        return userAuthEntity;
+    }
+
+    /**
+     *This method will update the userAuthEntity
+     * @param updatedUserAuthEntity
+     */
+    @Override
+    public void updateUserAuth(final UserAuthEntity updatedUserAuthEntity) {
+        entityManager.merge(updatedUserAuthEntity);
+    }
+}
@@ -0,0 +1,124 @@
+package com.upgrad.quora.service.dao.jpa;
+
+import com.upgrad.quora.service.dao.DaoProfiles;
+import com.upgrad.quora.service.dao.UserDao;
+import com.upgrad.quora.service.exception.SignUpRestrictedException;
+import org.springframework.context.annotation.Profile;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Repository;
+import com.upgrad.quora.service.entity.UserEntity;
+
+import javax.persistence.EntityManager;
+import javax.persistence.NoResultException;
+import javax.persistence.PersistenceContext;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+
+@Repository
+@Profile("!" + DaoProfiles.IN_MEMORY)
+public class JpaUserDao implements UserDao {
+  @PersistenceContext
+  private EntityManager entityManager;
+
+  /**
+   * Persists user entity
+   * @param userEntity object to be persisted
+   * @return passed down user entity
+   */
+  @Override
+  public UserEntity createUser(UserEntity userEntity){
+    entityManager.persist(userEntity);
+    return userEntity;
+  }
+
+  /**
+   * Get user entity from id
+   * @param userUuid id of the user
+   * @return nullable entity of user type
+   */
+  @Override
+  public UserEntity getUser(final String userUuid) {
+    try {
+      return entityManager.createNamedQuery("userByUuid", UserEntity.class).setParameter("uuid", userUuid).getSingleResult();
+    } catch (NoResultException nre) {
+      return null;
+    }
+  }
+
+  /**
+   * This methods gets the user details based on the username passed.
+   *
+   * @param userName username of the user whose information is to be fetched.
+   * @return null if the user with given username doesn't exist in DB.
+   */
+  @Override
+  public UserEntity getUserByUserName(final String userName) {
+    try {
+      return entityManager.createNamedQuery("userByUserName", UserEntity.class).setParameter("userName", userName).getSingleResult();
+    } catch (NoResultException nre) {
+      return null;
+    }
+  }
+
+  /**
+   * Get user by email Id
+   * @param email for the userEntity to be fetched
+   * @return UserEntity
+   */
+  @Override
+  public UserEntity getUserByEmailId(final String email) {
+    try {
+      return entityManager.createNamedQuery("userByEmail", UserEntity.class).setParameter("email", email).getSingleResult();
+    } catch (NoResultException nre) {
+      return null;
+    }
+  }
+
+  /**
+   * Fetch a single user by given id from the DB.
+   *
+   * @param userId Id of the user whose information is to be fetched.
+   * @return User details if exist in the DB else null.
+   */
+  @Override
+  public UserEntity getUserById(final String userId) {
+    try {
+      return entityManager.createNamedQuery("userByUserId", UserEntity.class).setParameter("userId", userId).getSingleResult();
+    } catch (NoResultException nre) {
+      return null;
+    }
+  }
+
+  /**
+   * Fetch several users by their ids with a single IN-list query.
+   *
+   * @param userIds Ids of the users whose information is to be fetched, should not contain duplicates.
+   * @return Users that exist in the DB, in no particular order.
+   */
+  @Override
+  public List<UserEntity> getUsersByIds(final Collection<String> userIds) {
+    if (userIds.isEmpty()) {
+      return Collections.emptyList();
+    }
+    return entityManager.createNamedQuery("usersByUuids", UserEntity.class).setParameter("uuids", userIds).getResultList();
+  }
+
+  /**
+   * Updates the user entity
+   * @param updatedUserEntity
+   */
+  @Override
+  public void updateUserEntity(final UserEntity updatedUserEntity) {
+    entityManager.merge(updatedUserEntity);
+  }
+
+  /**
+   * Deletes the given user entity
+   * @param userEntity to be deleted
+   */
+  @Override
+  public void deleteUserEntity(final UserEntity userEntity) {
+    entityManager.remove(userEntity);
+  }
+}
@@ -0,0 +1,56 @@
+package com.upgrad.quora.service.dao.jpa;
+
+import org.hibernate.Session;
+import org.springframework.orm.jpa.vendor.HibernateJpaDialect;
+import org.springframework.transaction.TransactionDefinition;
+
+import javax.persistence.EntityManager;
+import java.sql.SQLException;
+
+/**
+ * HibernateJpaDialect which also marks the session of a read-only transaction as read-only by default.
+ * Spring already switches such a session to manual flush and the connection to read-only; with this, the entities
+ * loaded in the transaction are read-only too, so Hibernate keeps no snapshot of them for dirty checking.
+ * The previous setting is restored when the transaction ends, in case the session outlives it (open-in-view).
+ */
+public class ReadOnlySessionJpaDialect extends HibernateJpaDialect {
+
+    @Override
+    public Object beginTransaction(final EntityManager entityManager, final TransactionDefinition definition)
+            throws SQLException {
+        Object transactionData = super.beginTransaction(entityManager, definition);
+        if (!definition.isReadOnly()) {
+            return transactionData;
+        }
+        Session session = getSession(entityManager);
+        boolean previousDefaultReadOnly = session.isDefaultReadOnly();
+        session.setDefaultReadOnly(true);
+        return new ReadOnlyTransactionData(transactionData, session, previousDefaultReadOnly);
+    }
+
+    @Override
+    public void cleanupTransaction(final Object transactionData) {
+        if (transactionData instanceof ReadOnlyTransactionData) {
+            ReadOnlyTransactionData readOnlyTransactionData = (ReadOnlyTransactionData) transactionData;
+            readOnlyTransactionData.session.setDefaultReadOnly(readOnlyTransactionData.previousDefaultReadOnly);
+            super.cleanupTransaction(readOnlyTransactionData.transactionData);
+        } else {
+            super.cleanupTransaction(transactionData);
+        }
+    }
+
+    private static final class ReadOnlyTransactionData {
+
+        private final Object transactionData;
+
+        private final Session session;
+
+        private final boolean previousDefaultReadOnly;
+
+        private ReadOnlyTransactionData(final Object transactionData, final Session session, final boolean previousDefaultReadOnly) {
+            this.transactionData = transactionData;
+            this.session = session;
+            this.previousDefaultReadOnly = previousDefaultReadOnly;
+        }
+    }
+}
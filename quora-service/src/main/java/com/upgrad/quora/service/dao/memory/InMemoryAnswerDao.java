@@ -0,0 +1,169 @@
+package com.upgrad.quora.service.dao.memory;
+
+import com.upgrad.quora.service.dao.AnswerDao;
+import com.upgrad.quora.service.dao.DaoProfiles;
+import com.upgrad.quora.service.entity.AnswerEntity;
+import com.upgrad.quora.service.entity.QuestionEntity;
+import com.upgrad.quora.service.entity.UserEntity;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Repository;
+
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.locks.Lock;
+
+@Repository
+@Profile(DaoProfiles.IN_MEMORY)
+public class InMemoryAnswerDao implements AnswerDao {
+
+    @Autowired
+    private InMemoryStore store;
+
+    @Override
+    public AnswerEntity createAnswer(final AnswerEntity answerEntity) {
+        answerEntity.setId(store.answerSequence.incrementAndGet());
+        if (answerEntity.getVersion() == null) {
+            answerEntity.setVersion(0L);
+        }
+        store.answers.put(answerEntity.getId(), answerEntity);
+        store.answersByUuid.put(answerEntity.getUuid(), answerEntity);
+        store.answersOf(answerEntity.getQuestionEntity().getId()).put(answerEntity, answerEntity);
+        InMemoryStore.index(store.answersByUser, answerEntity.getUserEntity().getId()).add(answerEntity.getId());
+        return answerEntity;
+    }
+
+    @Override
+    public void createAnswers(final List<AnswerEntity> answerEntities) {
+        for (AnswerEntity answerEntity : answerEntities) {
+            createAnswer(answerEntity);
+        }
+    }
+
+    @Override
+    public AnswerEntity getAnswerById(final String answerId) {
+        AnswerEntity answerEntity = InMemoryStore.get(store.answersByUuid, answerId);
+        return answerEntity == null || store.isDeleted(answerEntity) ? null : answerEntity;
+    }
+
+    @Override
+    public void updateAnswer(final AnswerEntity answerEntity) {
+        Lock lock = store.lockFor(answerEntity.getUuid());
+        lock.lock();
+        try {
+            if (store.answers.containsKey(answerEntity.getId())) {
+                store.replaceAnswer(InMemoryStore.copyOf(answerEntity));
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public AnswerEntity deleteAnswerIfOwnerOrAdmin(final String answerId, final UserEntity userEntity) {
+        Lock lock = store.lockFor(answerId);
+        lock.lock();
+        try {
+            AnswerEntity answerEntity = getAnswerById(answerId);
+            if (answerEntity == null
+                    || !(answerEntity.getUserEntity().getId().equals(userEntity.getId()) || "admin".equals(userEntity.getRole()))) {
+                return null;
+            }
+            AnswerEntity deletedAnswer = InMemoryStore.copyOf(answerEntity);
+            deletedAnswer.setDeletedAt(ZonedDateTime.now());
+            deletedAnswer.setVersion(answerEntity.getVersion() + 1);
+            store.replaceAnswer(deletedAnswer);
+            return deletedAnswer;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public AnswerEntity editAnswerIfOwner(final String answerId, final UserEntity userEntity, final String newAnswer, final Long expectedVersion) {
+        Lock lock = store.lockFor(answerId);
+        lock.lock();
+        try {
+            AnswerEntity answerEntity = getAnswerById(answerId);
+            if (answerEntity == null
+                    || !answerEntity.getUserEntity().getId().equals(userEntity.getId())
+                    || (expectedVersion != null && !expectedVersion.equals(answerEntity.getVersion()))) {
+                return null;
+            }
+            AnswerEntity editedAnswer = InMemoryStore.copyOf(answerEntity);
+            editedAnswer.setAnswer(newAnswer);
+            editedAnswer.setVersion(answerEntity.getVersion() + 1);
+            store.replaceAnswer(editedAnswer);
+            return editedAnswer;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public List<AnswerEntity> getAllAnswersToQuestion(final String questionId) {
+        QuestionEntity questionEntity = InMemoryStore.get(store.questionsByUuid, questionId);
+        if (questionEntity == null || InMemoryStore.isDeleted(questionEntity)) {
+            return Collections.emptyList();
+        }
+        List<AnswerEntity> answerEntities = new ArrayList<>();
+        for (AnswerEntity answerEntity : store.answersOf(questionEntity.getId()).values()) {
+            if (answerEntity.getDeletedAt() == null) {
+                answerEntities.add(answerEntity);
+            }
+        }
+        return answerEntities;
+    }
+
+    @Override
+    public List<AnswerEntity> getAnswersWithAuthors(final QuestionEntity questionEntity, final int page, final int size) {
+        List<AnswerEntity> answerEntities = new ArrayList<>(size);
+        int skip = page * size;
+        for (AnswerEntity answerEntity : store.answersOf(questionEntity.getId()).values()) {
+            if (answerEntities.size() == size) {
+                break;
+            }
+            if (answerEntity.getDeletedAt() != null) {
+                continue;
+            }
+            if (skip > 0) {
+                skip--;
+            } else {
+                answerEntities.add(answerEntity);
+            }
+        }
+        return answerEntities;
+    }
+
+    @Override
+    public int purgeDeletedAnswers(final int retentionMinutes, final int batchSize) {
+        ZonedDateTime cutoff = ZonedDateTime.now().minusMinutes(retentionMinutes);
+        int purged = 0;
+        for (AnswerEntity answerEntity : store.answers.values()) {
+            if (purged == batchSize) {
+                break;
+            }
+            if (store.removeAnswer(answerEntity.getUuid(), a -> InMemoryStore.isTombstonedBefore(a.getDeletedAt(), cutoff))) {
+                purged++;
+            }
+        }
+        return purged;
+    }
+
+    @Override
+    public int purgeAnswersOfDeletedQuestions(final int retentionMinutes, final int batchSize) {
+        ZonedDateTime cutoff = ZonedDateTime.now().minusMinutes(retentionMinutes);
+        int purged = 0;
+        for (AnswerEntity answerEntity : store.answers.values()) {
+            if (purged == batchSize) {
+                break;
+            }
+            if (store.removeAnswer(answerEntity.getUuid(), a -> store.isQuestionDeletedBefore(a, cutoff))) {
+                purged++;
+            }
+        }
+        return purged;
+    }
+}
@@ -0,0 +1,39 @@
+package com.upgrad.quora.service.dao.memory;
+
+import com.upgrad.quora.service.dao.CollectionVersionDao;
+import com.upgrad.quora.service.dao.DaoProfiles;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+@Repository
+@Profile(DaoProfiles.IN_MEMORY)
+public class InMemoryCollectionVersionDao implements CollectionVersionDao {
+
+    @Autowired
+    private InMemoryStore store;
+
+    @Override
+    public Map<Integer, Long> getVersions(final Collection<Integer> slots) {
+        Map<Integer, Long> versions = new HashMap<>();
+        for (Integer slot : slots) {
+            AtomicLong version = store.collectionVersions.get(slot);
+            if (version != null) {
+                versions.put(slot, version.get());
+            }
+        }
+        return versions;
+    }
+
+    @Override
+    public void increment(final Collection<Integer> slots) {
+        for (Integer slot : slots) {
+            store.collectionVersions.computeIfAbsent(slot, k -> new AtomicLong()).incrementAndGet();
+        }
+    }
+}
@@ -0,0 +1,54 @@
+package com.upgrad.quora.service.dao.memory;
+
+import com.upgrad.quora.service.dao.DaoProfiles;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.AbstractPlatformTransactionManager;
+import org.springframework.transaction.support.DefaultTransactionStatus;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Replaces the JPA transaction manager when the in-memory DAOs are used. The application must then also be started
+ * without the DataSource and JPA auto-configuration (see application-in-memory.yaml of quora-api).
+ */
+@Configuration
+@Profile(DaoProfiles.IN_MEMORY)
+public class InMemoryConfiguration {
+
+    @Bean
+    public PlatformTransactionManager transactionManager() {
+        return new InMemoryTransactionManager();
+    }
+
+    /**
+     * Keeps the transaction boundaries and synchronization of the service layer, so that propagation rules such as
+     * MANDATORY still hold, but has nothing to commit or roll back: changes to the in-memory store apply immediately.
+     */
+    static class InMemoryTransactionManager extends AbstractPlatformTransactionManager {
+
+        @Override
+        protected Object doGetTransaction() {
+            return TransactionSynchronizationManager.isActualTransactionActive();
+        }
+
+        @Override
+        protected boolean isExistingTransaction(final Object transaction) {
+            return (Boolean) transaction;
+        }
+
+        @Override
+        protected void doBegin(final Object transaction, final TransactionDefinition definition) {
+        }
+
+        @Override
+        protected void doCommit(final DefaultTransactionStatus status) {
+        }
+
+        @Override
+        protected void doRollback(final DefaultTransactionStatus status) {
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package com.upgrad.quora.service.dao.memory;
+
+import com.upgrad.quora.service.dao.DaoProfiles;
+import com.upgrad.quora.service.dao.OutboxDao;
+import com.upgrad.quora.service.entity.OutboxEventEntity;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Repository;
+
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+@Profile(DaoProfiles.IN_MEMORY)
+public class InMemoryOutboxDao implements OutboxDao {
+
+    @Autowired
+    private InMemoryStore store;
+
+    @Override
+    public OutboxEventEntity createEvent(final OutboxEventEntity outboxEventEntity) {
+        outboxEventEntity.setId(store.outboxSequence.incrementAndGet());
+        store.outbox.put(outboxEventEntity.getId(), outboxEventEntity);
+        return outboxEventEntity;
+    }
+
+    @Override
+    public void createEvents(final List<OutboxEventEntity> outboxEventEntities) {
+        for (OutboxEventEntity outboxEventEntity : outboxEventEntities) {
+            createEvent(outboxEventEntity);
+        }
+    }
+
+    @Override
+    public List<OutboxEventEntity> getPendingEvents(final int limit, final int maxDeliveries, final ZonedDateTime now) {
+        List<OutboxEventEntity> pending = new ArrayList<>(Math.min(limit, store.outbox.size()));
+        for (OutboxEventEntity outboxEventEntity : store.outbox.values()) {
+            if (pending.size() == limit) {
+                break;
+            }
+            if (outboxEventEntity.getFailedDeliveries() < maxDeliveries
+                    && (outboxEventEntity.getNextDeliveryAt() == null || !outboxEventEntity.getNextDeliveryAt().isAfter(now))) {
+                pending.add(outboxEventEntity);
+            }
+        }
+        return pending;
+    }
+
+    @Override
+    public int deleteEvents(final Collection<Long> ids) {
+        int deleted = 0;
+        for (Long id : ids) {
+            if (store.outbox.remove(id) != null) {
+                deleted++;
+            }
+        }
+        return deleted;
+    }
+
+    /**
+     * Only the relay updates events after they are created, so the copy replacing the event needs no lock.
+     */
+    @Override
+    public void recordFailedDelivery(final long id, final ZonedDateTime nextDeliveryAt) {
+        store.outbox.computeIfPresent(id, (key, outboxEventEntity) -> {
+            OutboxEventEntity failedEvent = InMemoryStore.copyOf(outboxEventEntity);
+            failedEvent.setFailedDeliveries(outboxEventEntity.getFailedDeliveries() + 1);
+            failedEvent.setNextDeliveryAt(nextDeliveryAt);
+            return failedEvent;
+        });
+    }
+
+    @Override
+    public long countEvents(final int maxDeliveries) {
+        return store.outbox.values().stream().filter(event -> event.getFailedDeliveries() < maxDeliveries).count();
+    }
+
+    @Override
+    public long countDeadLetters(final int maxDeliveries) {
+        return store.outbox.values().stream().filter(event -> event.getFailedDeliveries() >= maxDeliveries).count();
+    }
+}
@@ -0,0 +1,170 @@
+package com.upgrad.quora.service.dao.memory;
+
+import com.upgrad.quora.service.dao.DaoProfiles;
+import com.upgrad.quora.service.dao.QuestionDao;
+import com.upgrad.quora.service.entity.QuestionEntity;
+import com.upgrad.quora.service.entity.UserEntity;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.Lock;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Repository;
+
+@Repository
+@Profile(DaoProfiles.IN_MEMORY)
+public class InMemoryQuestionDao implements QuestionDao {
+
+  @Autowired
+  private InMemoryStore store;
+
+  @Override
+  public QuestionEntity createQuestion(final QuestionEntity questionEntity) {
+    questionEntity.setId(store.questionSequence.incrementAndGet());
+    if (questionEntity.getVersion() == null) {
+      questionEntity.setVersion(0L);
+    }
+    store.questions.put(questionEntity.getId(), questionEntity);
+    store.questionsByUuid.put(questionEntity.getUuid(), questionEntity);
+    InMemoryStore.index(store.questionsByUser, questionEntity.getUserEntity().getId()).add(questionEntity.getId());
+    return questionEntity;
+  }
+
+  @Override
+  public void createQuestions(final List<QuestionEntity> questionEntities) {
+    for (QuestionEntity questionEntity : questionEntities) {
+      createQuestion(questionEntity);
+    }
+  }
+
+  @Override
+  public List<QuestionEntity> getQuestionsByUserId(final String userUuid) {
+    UserEntity userEntity = InMemoryStore.get(store.usersByUuid, userUuid);
+    Set<Integer> questionIds = userEntity == null ? null : store.questionsByUser.get(userEntity.getId());
+    if (questionIds == null) {
+      return Collections.emptyList();
+    }
+    List<QuestionEntity> questionEntities = new ArrayList<>(questionIds.size());
+    for (Integer questionId : questionIds) {
+      QuestionEntity questionEntity = store.questions.get(questionId);
+      if (questionEntity != null && !InMemoryStore.isDeleted(questionEntity)) {
+        questionEntities.add(questionEntity);
+      }
+    }
+    return questionEntities;
+  }
+
+  @Override
+  public List<QuestionEntity> getAllQuestions() {
+    List<QuestionEntity> questionEntities = new ArrayList<>();
+    for (QuestionEntity questionEntity : store.questions.values()) {
+      if (!InMemoryStore.isDeleted(questionEntity)) {
+        questionEntities.add(questionEntity);
+      }
+    }
+    return questionEntities;
+  }
+
+  @Override
+  public QuestionEntity getQuestionById(final String questionUuid) {
+    QuestionEntity questionEntity = InMemoryStore.get(store.questionsByUuid, questionUuid);
+    return questionEntity == null || InMemoryStore.isDeleted(questionEntity) ? null : questionEntity;
+  }
+
+  @Override
+  public Map<String, QuestionEntity> getQuestionsByIds(final Collection<String> questionUuids) {
+    Map<String, QuestionEntity> questionEntities = new HashMap<>();
+    for (String questionUuid : questionUuids) {
+      QuestionEntity questionEntity = getQuestionById(questionUuid);
+      if (questionEntity != null) {
+        questionEntities.put(questionUuid, questionEntity);
+      }
+    }
+    return questionEntities;
+  }
+
+  @Override
+  public QuestionEntity getQuestionWithAuthorById(final String questionUuid) {
+    return getQuestionById(questionUuid);
+  }
+
+  @Override
+  public QuestionEntity deleteQuestionIfOwnerOrAdmin(final String questionUuid, final UserEntity userEntity) {
+    Lock lock = store.lockFor(questionUuid);
+    lock.lock();
+    try {
+      QuestionEntity questionEntity = getQuestionById(questionUuid);
+      if (questionEntity == null
+          || !(questionEntity.getUserEntity().getId().equals(userEntity.getId()) || "admin".equals(userEntity.getRole()))) {
+        return null;
+      }
+      QuestionEntity deletedQuestion = InMemoryStore.copyOf(questionEntity);
+      deletedQuestion.setDeletedAt(ZonedDateTime.now());
+      deletedQuestion.setVersion(questionEntity.getVersion() + 1);
+      store.replaceQuestion(deletedQuestion);
+      return deletedQuestion;
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  @Override
+  public QuestionEntity editQuestionIfOwner(final String questionUuid, final UserEntity userEntity, final String newContent, final Long expectedVersion) {
+    Lock lock = store.lockFor(questionUuid);
+    lock.lock();
+    try {
+      QuestionEntity questionEntity = getQuestionById(questionUuid);
+      if (questionEntity == null
+          || !questionEntity.getUserEntity().getId().equals(userEntity.getId())
+          || (expectedVersion != null && !expectedVersion.equals(questionEntity.getVersion()))) {
+        return null;
+      }
+      QuestionEntity editedQuestion = InMemoryStore.copyOf(questionEntity);
+      editedQuestion.setContent(newContent);
+      editedQuestion.setVersion(questionEntity.getVersion() + 1);
+      store.replaceQuestion(editedQuestion);
+      return editedQuestion;
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  @Override
+  public int purgeDeletedQuestions(final int retentionMinutes, final int batchSize) {
+    ZonedDateTime cutoff = ZonedDateTime.now().minusMinutes(retentionMinutes);
+    int purged = 0;
+    for (QuestionEntity questionEntity : store.questions.values()) {
+      if (purged == batchSize) {
+        break;
+      }
+      if (store.removeQuestion(questionEntity.getUuid(), q -> InMemoryStore.isTombstonedBefore(q.getDeletedAt(), cutoff) && !hasAnswers(q))) {
+        purged++;
+      }
+    }
+    return purged;
+  }
+
+  @Override
+  public void updateQuestion(final QuestionEntity questionEntity) {
+    Lock lock = store.lockFor(questionEntity.getUuid());
+    lock.lock();
+    try {
+      if (store.questions.containsKey(questionEntity.getId())) {
+        store.replaceQuestion(InMemoryStore.copyOf(questionEntity));
+      }
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  private boolean hasAnswers(final QuestionEntity questionEntity) {
+    Map<?, ?> answers = store.answersByQuestion.get(questionEntity.getId());
+    return answers != null && !answers.isEmpty();
+  }
+}
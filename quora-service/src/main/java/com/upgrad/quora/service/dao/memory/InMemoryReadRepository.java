@@ -0,0 +1,114 @@
+package com.upgrad.quora.service.dao.memory;
+
+import com.upgrad.quora.service.dao.DaoProfiles;
+import com.upgrad.quora.service.dao.QuestionDao;
+import com.upgrad.quora.service.dao.ReadRepository;
+import com.upgrad.quora.service.dao.UserDao;
+import com.upgrad.quora.service.entity.AnswerEntity;
+import com.upgrad.quora.service.entity.QuestionEntity;
+import com.upgrad.quora.service.entity.UserAuthEntity;
+import com.upgrad.quora.service.entity.UserEntity;
+import com.upgrad.quora.service.record.AnswerField;
+import com.upgrad.quora.service.record.AnswerRecord;
+import com.upgrad.quora.service.record.QuestionField;
+import com.upgrad.quora.service.record.QuestionRecord;
+import com.upgrad.quora.service.record.UserAuthRecord;
+import com.upgrad.quora.service.record.UserField;
+import com.upgrad.quora.service.record.UserRecord;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Repository;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * ReadRepository on the in-memory store. The rows are in memory already, so the lookups taking a set of fields return
+ * complete records and leave it to the caller to render only the requested properties.
+ */
+@Repository
+@Profile(DaoProfiles.IN_MEMORY)
+public class InMemoryReadRepository implements ReadRepository {
+
+    @Autowired
+    private InMemoryStore store;
+
+    @Autowired
+    private QuestionDao questionDao;
+
+    @Autowired
+    private UserDao userDao;
+
+    @Override
+    public UserAuthRecord getUserAuthByToken(final String accessToken) {
+        UserAuthEntity userAuthEntity = InMemoryStore.get(store.userAuthsByToken, accessToken);
+        if (userAuthEntity == null) {
+            return null;
+        }
+        return new UserAuthRecord(userAuthEntity.getAccessToken(), userAuthEntity.getExpiresAt(), userAuthEntity.getLogoutAt(),
+                userAuthEntity.getUserEntity().getId(), userAuthEntity.getUserEntity().getUuid(), userAuthEntity.getUserEntity().getRole());
+    }
+
+    @Override
+    public QuestionRecord getQuestionByUuid(final String questionUuid) {
+        QuestionEntity questionEntity = InMemoryStore.get(store.questionsByUuid, questionUuid);
+        if (questionEntity == null || InMemoryStore.isDeleted(questionEntity)) {
+            return null;
+        }
+        return new QuestionRecord(questionEntity.getId(), questionEntity.getUuid(), questionEntity.getContent(),
+                questionEntity.getDate(), questionEntity.getVersion(), questionEntity.getUserEntity().getId());
+    }
+
+    @Override
+    public List<AnswerRecord> getAnswersByQuestion(final String questionUuid) {
+        QuestionEntity questionEntity = InMemoryStore.get(store.questionsByUuid, questionUuid);
+        if (questionEntity == null || InMemoryStore.isDeleted(questionEntity)) {
+            return Collections.emptyList();
+        }
+        List<AnswerRecord> answerRecords = new ArrayList<>();
+        for (AnswerEntity answerEntity : store.answersOf(questionEntity.getId()).values()) {
+            if (answerEntity.getDeletedAt() == null) {
+                answerRecords.add(new AnswerRecord(answerEntity.getId(), answerEntity.getUuid(), answerEntity.getAnswer(),
+                        answerEntity.getDate(), answerEntity.getVersion(), answerEntity.getUserEntity().getId(),
+                        questionEntity.getContent()));
+            }
+        }
+        return answerRecords;
+    }
+
+    @Override
+    public List<AnswerRecord> getAnswersByQuestion(final String questionUuid, final Set<AnswerField> fields) {
+        return getAnswersByQuestion(questionUuid);
+    }
+
+    @Override
+    public List<QuestionRecord> getAllQuestions(final Set<QuestionField> fields) {
+        return toQuestionRecords(questionDao.getAllQuestions());
+    }
+
+    @Override
+    public List<QuestionRecord> getQuestionsByUser(final String userUuid, final Set<QuestionField> fields) {
+        return toQuestionRecords(questionDao.getQuestionsByUserId(userUuid));
+    }
+
+    @Override
+    public UserRecord getUserByUuid(final String userUuid, final Set<UserField> fields) {
+        UserEntity userEntity = userDao.getUserById(userUuid);
+        if (userEntity == null) {
+            return null;
+        }
+        return new UserRecord(userEntity.getUuid(), userEntity.getFirstName(), userEntity.getLastName(), userEntity.getUserName(),
+                userEntity.getEmail(), userEntity.getCountry(), userEntity.getAboutMe(), userEntity.getDob(), userEntity.getContactNumber());
+    }
+
+    private static List<QuestionRecord> toQuestionRecords(final List<QuestionEntity> questionEntities) {
+        List<QuestionRecord> questionRecords = new ArrayList<>(questionEntities.size());
+        for (QuestionEntity questionEntity : questionEntities) {
+            questionRecords.add(new QuestionRecord(questionEntity.getId(), questionEntity.getUuid(), questionEntity.getContent(),
+                    questionEntity.getDate(), questionEntity.getVersion(), questionEntity.getUserEntity().getId()));
+        }
+        return questionRecords;
+    }
+}
@@ -0,0 +1,292 @@
+package com.upgrad.quora.service.dao.memory;
+
+import com.upgrad.quora.service.dao.CollectionVersionDao;
+import com.upgrad.quora.service.dao.DaoProfiles;
+import com.upgrad.quora.service.entity.AnswerEntity;
+import com.upgrad.quora.service.entity.OutboxEventEntity;
+import com.upgrad.quora.service.entity.QuestionEntity;
+import com.upgrad.quora.service.entity.UserAuthEntity;
+import com.upgrad.quora.service.entity.UserEntity;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+
+import java.time.ZonedDateTime;
+import java.util.Comparator;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Predicate;
+
+/**
+ * Tables behind the in-memory DAOs, which replace the JPA ones when the "in-memory" profile is active so that the
+ * controller and service stack can be load tested without the cost of Postgres. Nothing survives a restart.
+ * Every table is a concurrent map keyed by id with secondary indexes on uuid, user and question. Reads take no lock;
+ * every change of a row (conditional edit and delete, update, purge) holds one of a fixed set of locks striped by
+ * uuid, so it is atomic per row without serializing unrelated rows. A stored row is never changed in place: the
+ * change is made on a copy which then replaces the row in every table, so a reader always sees a whole row.
+ * No two row locks are held at once, a removal cascading to other rows locks them one after the other.
+ * The entities' equals and hashCode cannot be used in hashed collections, so indexes hold ids or sort by a comparator.
+ */
+@Component
+@Profile(DaoProfiles.IN_MEMORY)
+public class InMemoryStore {
+
+    private static final int LOCK_STRIPES = 64;
+
+    private static final Comparator<AnswerEntity> ANSWER_ORDER =
+            Comparator.comparing(AnswerEntity::getDate).thenComparing(AnswerEntity::getId);
+
+    private final Lock[] locks = new Lock[LOCK_STRIPES];
+
+    final AtomicInteger userSequence = new AtomicInteger();
+    final AtomicInteger userAuthSequence = new AtomicInteger();
+    final AtomicInteger questionSequence = new AtomicInteger();
+    final AtomicInteger answerSequence = new AtomicInteger();
+    final AtomicLong outboxSequence = new AtomicLong();
+
+    final ConcurrentMap<Integer, UserEntity> users = new ConcurrentHashMap<>();
+    final ConcurrentMap<String, UserEntity> usersByUuid = new ConcurrentHashMap<>();
+    final ConcurrentMap<String, UserEntity> usersByUserName = new ConcurrentHashMap<>();
+    final ConcurrentMap<String, UserEntity> usersByEmail = new ConcurrentHashMap<>();
+
+    final ConcurrentMap<String, UserAuthEntity> userAuthsByToken = new ConcurrentHashMap<>();
+    final ConcurrentMap<Integer, Set<String>> tokensByUser = new ConcurrentHashMap<>();
+
+    final ConcurrentSkipListMap<Integer, QuestionEntity> questions = new ConcurrentSkipListMap<>();
+    final ConcurrentMap<String, QuestionEntity> questionsByUuid = new ConcurrentHashMap<>();
+    final ConcurrentMap<Integer, Set<Integer>> questionsByUser = new ConcurrentHashMap<>();
+
+    final ConcurrentMap<Integer, AnswerEntity> answers = new ConcurrentHashMap<>();
+    final ConcurrentMap<String, AnswerEntity> answersByUuid = new ConcurrentHashMap<>();
+    final ConcurrentMap<Integer, ConcurrentSkipListMap<AnswerEntity, AnswerEntity>> answersByQuestion = new ConcurrentHashMap<>();
+    final ConcurrentMap<Integer, Set<Integer>> answersByUser = new ConcurrentHashMap<>();
+
+    final ConcurrentSkipListMap<Long, OutboxEventEntity> outbox = new ConcurrentSkipListMap<>();
+
+    final ConcurrentMap<Integer, AtomicLong> collectionVersions = new ConcurrentHashMap<>();
+
+    public InMemoryStore() {
+        for (int i = 0; i < LOCK_STRIPES; i++) {
+            locks[i] = new ReentrantLock();
+        }
+        // Nothing survives a restart, so the epoch is the start of this store
+        collectionVersions.put(CollectionVersionDao.EPOCH_SLOT, new AtomicLong(System.currentTimeMillis()));
+    }
+
+    /**
+     * @param uuid uuid of the row to be updated
+     * @return the lock guarding conditional updates of that row
+     */
+    Lock lockFor(final String uuid) {
+        return locks[(Objects.hashCode(uuid) & Integer.MAX_VALUE) % LOCK_STRIPES];
+    }
+
+    /**
+     * Lookup by a caller supplied key, which like a query parameter may be null.
+     */
+    static <K, V> V get(final ConcurrentMap<K, V> table, final K key) {
+        return key == null ? null : table.get(key);
+    }
+
+    static <K, V> Set<V> index(final ConcurrentMap<K, Set<V>> index, final K key) {
+        return index.computeIfAbsent(key, k -> ConcurrentHashMap.newKeySet());
+    }
+
+    static <K, V> void unindex(final ConcurrentMap<K, ? extends Set<V>> index, final K key, final V value) {
+        Set<V> values = index.get(key);
+        if (values != null) {
+            values.remove(value);
+        }
+    }
+
+    /**
+     * @return the answers of the question in posting order, mapped from a row with the same date and id to the
+     * current row
+     */
+    ConcurrentSkipListMap<AnswerEntity, AnswerEntity> answersOf(final Integer questionId) {
+        return answersByQuestion.computeIfAbsent(questionId, k -> new ConcurrentSkipListMap<>(ANSWER_ORDER));
+    }
+
+    static boolean isDeleted(final QuestionEntity questionEntity) {
+        return questionEntity.getDeletedAt() != null;
+    }
+
+    /**
+     * An answer is deleted with its question, whose current row has to be looked up as the answer references the
+     * question row as it was when the answer was created.
+     */
+    boolean isDeleted(final AnswerEntity answerEntity) {
+        return answerEntity.getDeletedAt() != null || isQuestionDeletedBefore(answerEntity, null);
+    }
+
+    /**
+     * @param cutoff instant the question has to be deleted before, or null for any deleted question
+     */
+    boolean isQuestionDeletedBefore(final AnswerEntity answerEntity, final ZonedDateTime cutoff) {
+        QuestionEntity questionEntity = questions.get(answerEntity.getQuestionEntity().getId());
+        if (questionEntity == null) {
+            return true;
+        }
+        return cutoff == null ? isDeleted(questionEntity) : isTombstonedBefore(questionEntity.getDeletedAt(), cutoff);
+    }
+
+    static boolean isTombstonedBefore(final ZonedDateTime deletedAt, final ZonedDateTime cutoff) {
+        return deletedAt != null && deletedAt.isBefore(cutoff);
+    }
+
+    static QuestionEntity copyOf(final QuestionEntity questionEntity) {
+        QuestionEntity copy = new QuestionEntity();
+        copy.setId(questionEntity.getId());
+        copy.setUuid(questionEntity.getUuid());
+        copy.setDate(questionEntity.getDate());
+        copy.setContent(questionEntity.getContent());
+        copy.setUserEntity(questionEntity.getUserEntity());
+        copy.setDeletedAt(questionEntity.getDeletedAt());
+        copy.setVersion(questionEntity.getVersion());
+        return copy;
+    }
+
+    static AnswerEntity copyOf(final AnswerEntity answerEntity) {
+        AnswerEntity copy = new AnswerEntity();
+        copy.setId(answerEntity.getId());
+        copy.setUuid(answerEntity.getUuid());
+        copy.setAnswer(answerEntity.getAnswer());
+        copy.setDate(answerEntity.getDate());
+        copy.setUserEntity(answerEntity.getUserEntity());
+        copy.setQuestionEntity(answerEntity.getQuestionEntity());
+        copy.setDeletedAt(answerEntity.getDeletedAt());
+        copy.setVersion(answerEntity.getVersion());
+        return copy;
+    }
+
+    static UserAuthEntity copyOf(final UserAuthEntity userAuthEntity) {
+        UserAuthEntity copy = new UserAuthEntity();
+        copy.setId(userAuthEntity.getId());
+        copy.setUuid(userAuthEntity.getUuid());
+        copy.setUserEntity(userAuthEntity.getUserEntity());
+        copy.setAccessToken(userAuthEntity.getAccessToken());
+        copy.setExpiresAt(userAuthEntity.getExpiresAt());
+        copy.setLoginAt(userAuthEntity.getLoginAt());
+        copy.setLogoutAt(userAuthEntity.getLogoutAt());
+        return copy;
+    }
+
+    static OutboxEventEntity copyOf(final OutboxEventEntity outboxEventEntity) {
+        OutboxEventEntity copy = new OutboxEventEntity();
+        copy.setId(outboxEventEntity.getId());
+        copy.setEventType(outboxEventEntity.getEventType());
+        copy.setAggregateUuid(outboxEventEntity.getAggregateUuid());
+        copy.setParentUuid(outboxEventEntity.getParentUuid());
+        copy.setUserUuid(outboxEventEntity.getUserUuid());
+        copy.setCreatedAt(outboxEventEntity.getCreatedAt());
+        copy.setFailedDeliveries(outboxEventEntity.getFailedDeliveries());
+        copy.setNextDeliveryAt(outboxEventEntity.getNextDeliveryAt());
+        return copy;
+    }
+
+    /**
+     * Replaces a stored question by a changed copy, holding the lock of the question.
+     */
+    void replaceQuestion(final QuestionEntity questionEntity) {
+        questions.put(questionEntity.getId(), questionEntity);
+        questionsByUuid.put(questionEntity.getUuid(), questionEntity);
+    }
+
+    /**
+     * Replaces a stored answer by a changed copy, holding the lock of the answer.
+     */
+    void replaceAnswer(final AnswerEntity answerEntity) {
+        answers.put(answerEntity.getId(), answerEntity);
+        answersByUuid.put(answerEntity.getUuid(), answerEntity);
+        answersOf(answerEntity.getQuestionEntity().getId()).replace(answerEntity, answerEntity);
+    }
+
+    /**
+     * @param condition tested on the current row while holding its lock
+     * @return whether the answer was removed
+     */
+    boolean removeAnswer(final String answerUuid, final Predicate<AnswerEntity> condition) {
+        Lock lock = lockFor(answerUuid);
+        lock.lock();
+        try {
+            AnswerEntity answerEntity = answersByUuid.get(answerUuid);
+            if (answerEntity == null || !condition.test(answerEntity)) {
+                return false;
+            }
+            answers.remove(answerEntity.getId());
+            answersByUuid.remove(answerUuid);
+            ConcurrentSkipListMap<AnswerEntity, AnswerEntity> answersOfQuestion = answersByQuestion.get(answerEntity.getQuestionEntity().getId());
+            if (answersOfQuestion != null) {
+                answersOfQuestion.remove(answerEntity);
+            }
+            unindex(answersByUser, answerEntity.getUserEntity().getId(), answerEntity.getId());
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Removes the question with its answers, like the ON DELETE CASCADE foreign key of the schema.
+     *
+     * @param condition tested on the current row while holding its lock
+     * @return whether the question was removed
+     */
+    boolean removeQuestion(final String questionUuid, final Predicate<QuestionEntity> condition) {
+        QuestionEntity questionEntity;
+        Lock lock = lockFor(questionUuid);
+        lock.lock();
+        try {
+            questionEntity = questionsByUuid.get(questionUuid);
+            if (questionEntity == null || !condition.test(questionEntity)) {
+                return false;
+            }
+            questions.remove(questionEntity.getId());
+            questionsByUuid.remove(questionUuid);
+            unindex(questionsByUser, questionEntity.getUserEntity().getId(), questionEntity.getId());
+        } finally {
+            lock.unlock();
+        }
+        ConcurrentSkipListMap<AnswerEntity, AnswerEntity> remaining = answersByQuestion.remove(questionEntity.getId());
+        if (remaining != null) {
+            remaining.values().forEach(answerEntity -> removeAnswer(answerEntity.getUuid(), a -> true));
+        }
+        return true;
+    }
+
+    /**
+     * Removes the user with everything that references it, like the ON DELETE CASCADE foreign keys of the schema.
+     */
+    void removeUser(final UserEntity userEntity) {
+        Lock lock = lockFor(userEntity.getUuid());
+        lock.lock();
+        try {
+            if (users.remove(userEntity.getId()) == null) {
+                return;
+            }
+            usersByUuid.remove(userEntity.getUuid());
+            usersByUserName.remove(userEntity.getUserName());
+            usersByEmail.remove(userEntity.getEmail());
+        } finally {
+            lock.unlock();
+        }
+        Set<String> tokens = tokensByUser.remove(userEntity.getId());
+        if (tokens != null) {
+            tokens.forEach(userAuthsByToken::remove);
+        }
+        Set<Integer> answerIds = answersByUser.remove(userEntity.getId());
+        if (answerIds != null) {
+            answerIds.stream().map(answers::get).filter(a -> a != null).forEach(a -> removeAnswer(a.getUuid(), answerEntity -> true));
+        }
+        Set<Integer> questionIds = questionsByUser.remove(userEntity.getId());
+        if (questionIds != null) {
+            questionIds.stream().map(questions::get).filter(q -> q != null).forEach(q -> removeQuestion(q.getUuid(), questionEntity -> true));
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package com.upgrad.quora.service.dao.memory;
+
+import com.upgrad.quora.service.dao.DaoProfiles;
+import com.upgrad.quora.service.dao.UserAuthDao;
+import com.upgrad.quora.service.entity.UserAuthEntity;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Repository;
+
+import java.util.concurrent.locks.Lock;
+
+@Repository
+@Profile(DaoProfiles.IN_MEMORY)
+public class InMemoryUserAuthDao implements UserAuthDao {
+
+    @Autowired
+    private InMemoryStore store;
+
+    @Override
+    public UserAuthEntity getUserAuthByToken(final String accessToken) {
+        UserAuthEntity userAuthEntity = InMemoryStore.get(store.userAuthsByToken, accessToken);
+        return userAuthEntity == null ? null : InMemoryStore.copyOf(userAuthEntity);
+    }
+
+    @Override
+    public UserAuthEntity createAuthToken(final UserAuthEntity userAuthEntity) {
+        userAuthEntity.setId(store.userAuthSequence.incrementAndGet());
+        store.userAuthsByToken.put(userAuthEntity.getAccessToken(), InMemoryStore.copyOf(userAuthEntity));
+        InMemoryStore.index(store.tokensByUser, userAuthEntity.getUserEntity().getId()).add(userAuthEntity.getAccessToken());
+        return userAuthEntity;
+    }
+
+    @Override
+    public void updateUserAuth(final UserAuthEntity updatedUserAuthEntity) {
+        Lock lock = store.lockFor(updatedUserAuthEntity.getAccessToken());
+        lock.lock();
+        try {
+            store.userAuthsByToken.replace(updatedUserAuthEntity.getAccessToken(), InMemoryStore.copyOf(updatedUserAuthEntity));
+        } finally {
+            lock.unlock();
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package com.upgrad.quora.service.dao.memory;
+
+import com.upgrad.quora.service.dao.DaoProfiles;
+import com.upgrad.quora.service.dao.UserDao;
+import com.upgrad.quora.service.entity.UserEntity;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Repository;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.locks.Lock;
+
+@Repository
+@Profile(DaoProfiles.IN_MEMORY)
+public class InMemoryUserDao implements UserDao {
+
+  @Autowired
+  private InMemoryStore store;
+
+  @Override
+  public UserEntity createUser(final UserEntity userEntity) {
+    userEntity.setId(store.userSequence.incrementAndGet());
+    store.users.put(userEntity.getId(), userEntity);
+    store.usersByUuid.put(userEntity.getUuid(), userEntity);
+    store.usersByUserName.put(userEntity.getUserName(), userEntity);
+    store.usersByEmail.put(userEntity.getEmail(), userEntity);
+    return userEntity;
+  }
+
+  @Override
+  public UserEntity getUser(final String userUuid) {
+    return InMemoryStore.get(store.usersByUuid, userUuid);
+  }
+
+  @Override
+  public UserEntity getUserByUserName(final String userName) {
+    return InMemoryStore.get(store.usersByUserName, userName);
+  }
+
+  @Override
+  public UserEntity getUserByEmailId(final String email) {
+    return InMemoryStore.get(store.usersByEmail, email);
+  }
+
+  @Override
+  public UserEntity getUserById(final String userId) {
+    return InMemoryStore.get(store.usersByUuid, userId);
+  }
+
+  @Override
+  public List<UserEntity> getUsersByIds(final Collection<String> userIds) {
+    List<UserEntity> userEntities = new ArrayList<>(userIds.size());
+    for (String userId : userIds) {
+      UserEntity userEntity = InMemoryStore.get(store.usersByUuid, userId);
+      if (userEntity != null) {
+        userEntities.add(userEntity);
+      }
+    }
+    return userEntities;
+  }
+
+  @Override
+  public void updateUserEntity(final UserEntity updatedUserEntity) {
+    Lock lock = store.lockFor(updatedUserEntity.getUuid());
+    lock.lock();
+    try {
+      if (!store.users.containsKey(updatedUserEntity.getId())) {
+        return;
+      }
+      store.users.put(updatedUserEntity.getId(), updatedUserEntity);
+      store.usersByUuid.put(updatedUserEntity.getUuid(), updatedUserEntity);
+      store.usersByUserName.put(updatedUserEntity.getUserName(), updatedUserEntity);
+      store.usersByEmail.put(updatedUserEntity.getEmail(), updatedUserEntity);
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  @Override
+  public void deleteUserEntity(final UserEntity userEntity) {
+    store.removeUser(userEntity);
+  }
+}
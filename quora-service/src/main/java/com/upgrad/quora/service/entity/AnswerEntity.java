@@ -15,8 +15,18 @@ import java.time.ZonedDateTime;
 @Entity
 @Table(name = "answer")
 @NamedQueries({
-        @NamedQuery(name = "getAnswerById", query = "select a from AnswerEntity a where a.uuid=:uuid"),
-        @NamedQuery(name = "getAllAnswersToQuestion", query = "select a from AnswerEntity a where a.questionEntity.uuid = :uuid")
+        @NamedQuery(name = "getAnswerById", query = "select a from AnswerEntity a where a.uuid=:uuid and a.deletedAt is null and a.questionEntity.deletedAt is null"),
+        @NamedQuery(name = "getAllAnswersToQuestion", query = "select a from AnswerEntity a where a.questionEntity.uuid = :uuid and a.deletedAt is null and a.questionEntity.deletedAt is null"),
+        @NamedQuery(name = "answersWithAuthorsByQuestion", query = "select a from AnswerEntity a join fetch a.userEntity where a.questionEntity = :question and a.deletedAt is null order by a.date, a.id")
+})
+//Conditional mutations: the ownership/admin check is part of the predicate, so each one is a single statement returning the affected row.
+//Deleting only writes a tombstone (deleted_at), answers of deleted questions are hidden as well; both are purged later by the TombstoneCompactor.
+@NamedNativeQueries({
+        @NamedNativeQuery(name = "deleteAnswerByOwnerOrAdmin", query = "update answer set deleted_at = now(), version = version + 1 where uuid = :uuid and deleted_at is null and question_id in (select id from question where deleted_at is null) and (user_id = :userId or :isAdmin) returning id, uuid, ans, date, version, (select q.uuid from question q where q.id = question_id) as question_uuid"),
+        @NamedNativeQuery(name = "editAnswerByOwner", query = "update answer set ans = :answer, version = version + 1 where uuid = :uuid and deleted_at is null and question_id in (select id from question where deleted_at is null) and user_id = :userId returning id, uuid, ans, date, version, (select q.uuid from question q where q.id = question_id) as question_uuid"),
+        @NamedNativeQuery(name = "editAnswerByOwnerAndVersion", query = "update answer set ans = :answer, version = version + 1 where uuid = :uuid and deleted_at is null and question_id in (select id from question where deleted_at is null) and user_id = :userId and version = :version returning id, uuid, ans, date, version, (select q.uuid from question q where q.id = question_id) as question_uuid"),
+        @NamedNativeQuery(name = "purgeDeletedAnswers", query = "delete from answer where id in (select id from answer where deleted_at < now() - :retentionMinutes * interval '1 minute' limit :batchSize)"),
+        @NamedNativeQuery(name = "purgeAnswersOfDeletedQuestions", query = "delete from answer where id in (select a.id from answer a join question q on q.id = a.question_id where q.deleted_at < now() - :retentionMinutes * interval '1 minute' limit :batchSize)")
 })
 
 /*
@@ -53,6 +63,15 @@ public class AnswerEntity {
     @JoinColumn(name = "question_id")
     private QuestionEntity questionEntity;
 
+    // Tombstone, set when the answer is deleted; deleted answers are hidden from every query until purged
+    @Column(name = "deleted_at")
+    private ZonedDateTime deletedAt;
+
+    // Incremented by the conditional edit and delete statements (version = version + 1), compared with the If-Match of an edit
+    @Version
+    @Column(name = "version")
+    private Long version;
+
     public Integer getId() {
         return id;
     }
@@ -101,6 +120,22 @@ public class AnswerEntity {
         this.questionEntity = questionEntity;
     }
 
+    public ZonedDateTime getDeletedAt() {
+        return deletedAt;
+    }
+
+    public void setDeletedAt(ZonedDateTime deletedAt) {
+        this.deletedAt = deletedAt;
+    }
+
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+
     @Override
     public boolean equals(Object obj) {
         return new EqualsBuilder().append(this, obj).isEquals();
@@ -0,0 +1,141 @@
+package com.upgrad.quora.service.entity;
+
+import org.apache.commons.lang3.builder.EqualsBuilder;
+import org.apache.commons.lang3.builder.HashCodeBuilder;
+import org.apache.commons.lang3.builder.ToStringBuilder;
+import org.apache.commons.lang3.builder.ToStringStyle;
+
+import javax.persistence.*;
+import javax.validation.constraints.NotNull;
+import javax.validation.constraints.Size;
+import java.time.ZonedDateTime;
+
+@Entity
+@Table(name = "outbox_event")
+@NamedQueries({
+        @NamedQuery(name = "pendingOutboxEvents", query = "select e from OutboxEventEntity e where e.failedDeliveries < :maxDeliveries and (e.nextDeliveryAt is null or e.nextDeliveryAt <= :now) order by e.id"),
+        @NamedQuery(name = "deleteOutboxEventsByIds", query = "delete from OutboxEventEntity e where e.id in :ids"),
+        @NamedQuery(name = "failedOutboxEventDelivery", query = "update OutboxEventEntity e set e.failedDeliveries = e.failedDeliveries + 1, e.nextDeliveryAt = :nextDeliveryAt where e.id = :id"),
+        @NamedQuery(name = "countOutboxEvents", query = "select count(e) from OutboxEventEntity e where e.failedDeliveries < :maxDeliveries"),
+        @NamedQuery(name = "countDeadOutboxEvents", query = "select count(e) from OutboxEventEntity e where e.failedDeliveries >= :maxDeliveries")
+})
+
+/*
+This model class maps to the outbox_event table in DB
+ */
+public class OutboxEventEntity {
+
+    @Id
+    @Column(name = "id")
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "event_type")
+    @NotNull
+    @Size(max = 50)
+    private String eventType;
+
+    @Column(name = "aggregate_uuid")
+    @NotNull
+    @Size(max = 200)
+    private String aggregateUuid;
+
+    @Column(name = "parent_uuid")
+    @Size(max = 200)
+    private String parentUuid;
+
+    @Column(name = "user_uuid")
+    @Size(max = 200)
+    private String userUuid;
+
+    @Column(name = "created_at")
+    @NotNull
+    private ZonedDateTime createdAt;
+
+    // Deliveries a consumer gave up on; the event is retried after nextDeliveryAt until the relay's max-deliveries
+    @Column(name = "failed_deliveries")
+    @NotNull
+    private Integer failedDeliveries = 0;
+
+    @Column(name = "next_delivery_at")
+    private ZonedDateTime nextDeliveryAt;
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getEventType() {
+        return eventType;
+    }
+
+    public void setEventType(String eventType) {
+        this.eventType = eventType;
+    }
+
+    public String getAggregateUuid() {
+        return aggregateUuid;
+    }
+
+    public void setAggregateUuid(String aggregateUuid) {
+        this.aggregateUuid = aggregateUuid;
+    }
+
+    public String getParentUuid() {
+        return parentUuid;
+    }
+
+    public void setParentUuid(String parentUuid) {
+        this.parentUuid = parentUuid;
+    }
+
+    public String getUserUuid() {
+        return userUuid;
+    }
+
+    public void setUserUuid(String userUuid) {
+        this.userUuid = userUuid;
+    }
+
+    public ZonedDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(ZonedDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+
+    public Integer getFailedDeliveries() {
+        return failedDeliveries;
+    }
+
+    public void setFailedDeliveries(Integer failedDeliveries) {
+        this.failedDeliveries = failedDeliveries;
+    }
+
+    public ZonedDateTime getNextDeliveryAt() {
+        return nextDeliveryAt;
+    }
+
+    public void setNextDeliveryAt(ZonedDateTime nextDeliveryAt) {
+        this.nextDeliveryAt = nextDeliveryAt;
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        return new EqualsBuilder().append(this, obj).isEquals();
+    }
+
+    @Override
+    public int hashCode() {
+        return new HashCodeBuilder().append(this).hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return ToStringBuilder.reflectionToString(this, ToStringStyle.MULTI_LINE_STYLE);
+    }
+}
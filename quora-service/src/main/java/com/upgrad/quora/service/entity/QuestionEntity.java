@@ -15,10 +15,19 @@ import org.hibernate.annotations.OnDeleteAction;
 @Entity
 @Table(name = "question")
 @NamedQueries({
-    @NamedQuery(name = "questionsByUserId", query = "select q from QuestionEntity q where q.userEntity.uuid = :userUuid"),
-    @NamedQuery(name = "questions", query = "select q from QuestionEntity q"),
-    @NamedQuery(name = "questionById", query = "select q from QuestionEntity q where q.uuid = :uuid"),
-    @NamedQuery(name = "deleteQuestionById", query = "delete from QuestionEntity q where q.uuid = :uuid")
+    @NamedQuery(name = "questionsByUserId", query = "select q from QuestionEntity q where q.userEntity.uuid = :userUuid and q.deletedAt is null"),
+    @NamedQuery(name = "questions", query = "select q from QuestionEntity q where q.deletedAt is null"),
+    @NamedQuery(name = "questionById", query = "select q from QuestionEntity q where q.uuid = :uuid and q.deletedAt is null"),
+    @NamedQuery(name = "questionsByIds", query = "select q from QuestionEntity q where q.uuid in :uuids and q.deletedAt is null"),
+    @NamedQuery(name = "questionWithAuthorById", query = "select q from QuestionEntity q join fetch q.userEntity where q.uuid = :uuid and q.deletedAt is null")
+})
+//Conditional mutations: the ownership/admin check is part of the predicate, so each one is a single statement returning the affected row.
+//Deleting only writes a tombstone (deleted_at), the row and its answers are purged later by the TombstoneCompactor.
+@NamedNativeQueries({
+    @NamedNativeQuery(name = "deleteQuestionByOwnerOrAdmin", query = "update question set deleted_at = now(), version = version + 1 where uuid = :uuid and deleted_at is null and (user_id = :userId or :isAdmin) returning id, uuid, content, date, version"),
+    @NamedNativeQuery(name = "editQuestionByOwner", query = "update question set content = :content, version = version + 1 where uuid = :uuid and deleted_at is null and user_id = :userId returning id, uuid, content, date, version"),
+    @NamedNativeQuery(name = "editQuestionByOwnerAndVersion", query = "update question set content = :content, version = version + 1 where uuid = :uuid and deleted_at is null and user_id = :userId and version = :version returning id, uuid, content, date, version"),
+    @NamedNativeQuery(name = "purgeDeletedQuestions", query = "delete from question where id in (select q.id from question q where q.deleted_at < now() - :retentionMinutes * interval '1 minute' and not exists (select 1 from answer a where a.question_id = q.id) limit :batchSize)")
 })
 
 /*
@@ -50,6 +59,15 @@ public class QuestionEntity  implements Serializable {
   @JoinColumn(name = "user_id")
   private UserEntity userEntity;
 
+  // Tombstone, set when the question is deleted; deleted questions are hidden from every query until purged
+  @Column(name = "deleted_at")
+  private ZonedDateTime deletedAt;
+
+  // Incremented by the conditional edit and delete statements (version = version + 1), compared with the If-Match of an edit
+  @Version
+  @Column(name = "version")
+  private Long version;
+
   public Integer getId() {
     return id;
   }
@@ -70,6 +88,14 @@ public class QuestionEntity  implements Serializable {
     return userEntity;
   }
 
+  public ZonedDateTime getDeletedAt() {
+    return deletedAt;
+  }
+
+  public Long getVersion() {
+    return version;
+  }
+
   public void setId(Integer id) {
     this.id = id;
   }
@@ -90,6 +116,14 @@ public class QuestionEntity  implements Serializable {
     this.userEntity = userEntity;
   }
 
+  public void setDeletedAt(ZonedDateTime deletedAt) {
+    this.deletedAt = deletedAt;
+  }
+
+  public void setVersion(Long version) {
+    this.version = version;
+  }
+
   @Override
   public boolean equals(Object obj) {
     return new EqualsBuilder().append(this, obj).isEquals();
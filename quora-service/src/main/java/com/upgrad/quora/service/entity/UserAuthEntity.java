@@ -15,7 +15,7 @@ import java.time.ZonedDateTime;
 @Entity
 @Table(name = "user_auth")
 @NamedQueries({
-        @NamedQuery(name = "userAccessByToken", query = "select u from UserAuthEntity u where u.accessToken=:accessToken")
+        @NamedQuery(name = "userAccessByToken", query = "select u from UserAuthEntity u join fetch u.userEntity where u.accessToken=:accessToken")
 })
 
 /*
@@ -0,0 +1,69 @@
+package com.upgrad.quora.service.event;
+
+import com.upgrad.quora.service.entity.OutboxEventEntity;
+
+import java.time.ZonedDateTime;
+
+/**
+ * Immutable copy of an outbox row as handed to the event consumers.
+ * An event may be delivered more than once, consumers can use the id to discard duplicates.
+ */
+public final class DomainEvent {
+
+    private final long id;
+
+    private final EventType type;
+
+    private final String aggregateUuid;
+
+    private final String parentUuid;
+
+    private final String userUuid;
+
+    private final ZonedDateTime createdAt;
+
+    public DomainEvent(final long id, final EventType type, final String aggregateUuid, final String parentUuid,
+                       final String userUuid, final ZonedDateTime createdAt) {
+        this.id = id;
+        this.type = type;
+        this.aggregateUuid = aggregateUuid;
+        this.parentUuid = parentUuid;
+        this.userUuid = userUuid;
+        this.createdAt = createdAt;
+    }
+
+    static DomainEvent of(final OutboxEventEntity outboxEventEntity) {
+        return new DomainEvent(outboxEventEntity.getId(), EventType.valueOf(outboxEventEntity.getEventType()),
+                outboxEventEntity.getAggregateUuid(), outboxEventEntity.getParentUuid(),
+                outboxEventEntity.getUserUuid(), outboxEventEntity.getCreatedAt());
+    }
+
+    public long getId() {
+        return id;
+    }
+
+    public EventType getType() {
+        return type;
+    }
+
+    public String getAggregateUuid() {
+        return aggregateUuid;
+    }
+
+    public String getParentUuid() {
+        return parentUuid;
+    }
+
+    public String getUserUuid() {
+        return userUuid;
+    }
+
+    public ZonedDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    @Override
+    public String toString() {
+        return type + "[" + id + ", " + aggregateUuid + "]";
+    }
+}
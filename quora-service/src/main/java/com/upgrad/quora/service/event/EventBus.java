@@ -0,0 +1,221 @@
+package com.upgrad.quora.service.event;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+/**
+ * In-process event bus between the OutboxRelay and the EventConsumer beans.
+ * Each consumer has its own fixed size ring buffer (an ArrayBlockingQueue) drained by a dedicated worker thread, and
+ * an event is only reported as processed once every consumer has processed it. When a buffer is full the bus refuses
+ * the event instead of blocking, and the relay leaves it in the outbox until there is room again.
+ */
+@Component
+public class EventBus {
+
+    private static final Logger LOG = LoggerFactory.getLogger(EventBus.class);
+
+    @Autowired(required = false)
+    private List<EventConsumer> consumers = Collections.emptyList();
+
+    @Autowired
+    private ObjectProvider<MeterRegistry> meterRegistry;
+
+    @Value("${quora.events.buffer-size:1024}")
+    private int bufferSize;
+
+    @Value("${quora.events.max-attempts:3}")
+    private int maxAttempts;
+
+    @Value("${quora.events.retry-backoff-ms:100}")
+    private long retryBackoffMs;
+
+    private final List<Subscription> subscriptions = new ArrayList<>();
+
+    @PostConstruct
+    public void init() {
+        MeterRegistry registry = meterRegistry.getIfAvailable();
+        for (EventConsumer consumer : consumers) {
+            Subscription subscription = new Subscription(consumer);
+            subscriptions.add(subscription);
+            if (registry != null) {
+                subscription.bindTo(registry);
+            }
+            subscription.worker.start();
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        for (Subscription subscription : subscriptions) {
+            subscription.worker.interrupt();
+        }
+    }
+
+    /**
+     * @return whether any EventConsumer is registered; without one, events are neither recorded nor relayed
+     */
+    boolean hasConsumers() {
+        return !subscriptions.isEmpty();
+    }
+
+    /**
+     * Hands the event to every consumer, or to none of them when any buffer is full.
+     * Must only be called from the relay thread: with a single producer the capacity checked up front cannot shrink
+     * before the event is added.
+     * @param event       event to publish
+     * @param onCompleted called once all consumers are done with the event, with false if any of them gave up on it
+     * @return false if the event was not published because a buffer is full
+     */
+    boolean tryPublish(final DomainEvent event, final Consumer<Boolean> onCompleted) {
+        if (subscriptions.isEmpty()) {
+            onCompleted.accept(true);
+            return true;
+        }
+        for (Subscription subscription : subscriptions) {
+            if (subscription.buffer.remainingCapacity() == 0) {
+                return false;
+            }
+        }
+        Delivery delivery = new Delivery(event, subscriptions.size(), onCompleted);
+        for (Subscription subscription : subscriptions) {
+            subscription.buffer.add(delivery);
+        }
+        return true;
+    }
+
+    /**
+     * An event on its way to all consumers, completed by the last one to finish.
+     */
+    private static final class Delivery {
+
+        private final DomainEvent event;
+
+        private final AtomicInteger remaining;
+
+        private final AtomicBoolean succeeded = new AtomicBoolean(true);
+
+        private final Consumer<Boolean> onCompleted;
+
+        private Delivery(final DomainEvent event, final int consumers, final Consumer<Boolean> onCompleted) {
+            this.event = event;
+            this.remaining = new AtomicInteger(consumers);
+            this.onCompleted = onCompleted;
+        }
+
+        private void done(final boolean success) {
+            if (!success) {
+                succeeded.set(false);
+            }
+            if (remaining.decrementAndGet() == 0) {
+                onCompleted.accept(succeeded.get());
+            }
+        }
+    }
+
+    /**
+     * Ring buffer and worker thread of one consumer.
+     */
+    private final class Subscription implements Runnable {
+
+        private final EventConsumer consumer;
+
+        private final BlockingQueue<Delivery> buffer;
+
+        private final Thread worker;
+
+        private final AtomicLong processed = new AtomicLong();
+
+        private final AtomicLong failed = new AtomicLong();
+
+        private Subscription(final EventConsumer consumer) {
+            this.consumer = consumer;
+            this.buffer = new ArrayBlockingQueue<>(bufferSize);
+            this.worker = new Thread(this, "quora-events-" + consumer.getName());
+            this.worker.setDaemon(true);
+        }
+
+        private void bindTo(final MeterRegistry registry) {
+            Gauge.builder("quora.events.buffered", buffer, BlockingQueue::size)
+                    .tag("consumer", consumer.getName())
+                    .description("Events waiting in the consumer's buffer")
+                    .register(registry);
+            Gauge.builder("quora.events.lag.seconds", this, Subscription::lagSeconds)
+                    .tag("consumer", consumer.getName())
+                    .description("Age of the oldest event waiting in the consumer's buffer")
+                    .register(registry);
+            FunctionCounter.builder("quora.events.processed", processed, AtomicLong::get)
+                    .tag("consumer", consumer.getName())
+                    .register(registry);
+            FunctionCounter.builder("quora.events.failed", failed, AtomicLong::get)
+                    .tag("consumer", consumer.getName())
+                    .description("Events the consumer gave up on after all attempts")
+                    .register(registry);
+        }
+
+        private double lagSeconds() {
+            Delivery head = buffer.peek();
+            if (head == null) {
+                return 0;
+            }
+            return Math.max(0, System.currentTimeMillis() - head.event.getCreatedAt().toInstant().toEpochMilli()) / 1000.0;
+        }
+
+        @Override
+        public void run() {
+            while (!Thread.currentThread().isInterrupted()) {
+                Delivery delivery;
+                try {
+                    delivery = buffer.take();
+                } catch (InterruptedException e) {
+                    return;
+                }
+                delivery.done(process(delivery.event));
+            }
+        }
+
+        /**
+         * @return false if the event could not be processed within the configured number of attempts
+         */
+        private boolean process(final DomainEvent event) {
+            for (int attempt = 1; ; attempt++) {
+                try {
+                    consumer.accept(event);
+                    processed.incrementAndGet();
+                    return true;
+                } catch (Exception e) {
+                    if (attempt >= maxAttempts) {
+                        failed.incrementAndGet();
+                        LOG.error("Consumer {} failed to process {} after {} attempts", consumer.getName(), event, attempt, e);
+                        return false;
+                    }
+                    LOG.warn("Consumer {} failed to process {}, retrying", consumer.getName(), event, e);
+                    try {
+                        Thread.sleep(retryBackoffMs * attempt);
+                    } catch (InterruptedException interrupted) {
+                        Thread.currentThread().interrupt();
+                        return false;
+                    }
+                }
+            }
+        }
+    }
+}
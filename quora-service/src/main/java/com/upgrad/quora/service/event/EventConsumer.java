@@ -0,0 +1,21 @@
+package com.upgrad.quora.service.event;
+
+/**
+ * Post-commit side effect of question, answer and user changes (search indexing, counters, notifications, cache invalidation).
+ * Every EventConsumer bean gets its own bounded queue and worker thread on the EventBus, so a slow consumer only
+ * delays itself. Delivery is at-least-once: a failed event is retried and events which were not processed before a
+ * restart are delivered again, so accept must be idempotent.
+ */
+public interface EventConsumer {
+
+    /**
+     * @return name of the consumer, used for the worker thread and the metric tags
+     */
+    String getName();
+
+    /**
+     * @param event event to process
+     * @throws Exception to have the event retried
+     */
+    void accept(DomainEvent event) throws Exception;
+}
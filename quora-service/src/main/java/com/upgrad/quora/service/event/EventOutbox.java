@@ -0,0 +1,68 @@
+package com.upgrad.quora.service.event;
+
+import com.upgrad.quora.service.dao.OutboxDao;
+import com.upgrad.quora.service.entity.OutboxEventEntity;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.ZonedDateTime;
+import java.util.List;
+
+/**
+ * Records events in the outbox table. The event is inserted in the caller's transaction, so it is published if and
+ * only if the change it describes is committed; the consumers run later, outside of that transaction.
+ * While no EventConsumer is registered nothing is recorded, the rows would only be written to be deleted unread.
+ */
+@Component
+public class EventOutbox {
+
+    @Autowired
+    private OutboxDao outboxDao;
+
+    @Autowired
+    private EventBus eventBus;
+
+    /**
+     * @param type          type of the event
+     * @param aggregateUuid uuid of the question, answer or user which changed
+     * @param parentUuid    uuid of the question of an answer, null otherwise
+     * @param userUuid      uuid of the user who made the change
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void record(final EventType type, final String aggregateUuid, final String parentUuid, final String userUuid) {
+        if (!eventBus.hasConsumers()) {
+            return;
+        }
+        outboxDao.createEvent(newEvent(type, aggregateUuid, parentUuid, userUuid));
+    }
+
+    /**
+     * Records the events of a batch of changes with batched inserts.
+     * @param events events created with newEvent
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordAll(final List<OutboxEventEntity> events) {
+        if (!events.isEmpty() && eventBus.hasConsumers()) {
+            outboxDao.createEvents(events);
+        }
+    }
+
+    /**
+     * @param type          type of the event
+     * @param aggregateUuid uuid of the question, answer or user which changed
+     * @param parentUuid    uuid of the question of an answer, null otherwise
+     * @param userUuid      uuid of the user who made the change
+     * @return the event, not recorded yet
+     */
+    public OutboxEventEntity newEvent(final EventType type, final String aggregateUuid, final String parentUuid, final String userUuid) {
+        OutboxEventEntity outboxEventEntity = new OutboxEventEntity();
+        outboxEventEntity.setEventType(type.name());
+        outboxEventEntity.setAggregateUuid(aggregateUuid);
+        outboxEventEntity.setParentUuid(parentUuid);
+        outboxEventEntity.setUserUuid(userUuid);
+        outboxEventEntity.setCreatedAt(ZonedDateTime.now());
+        return outboxEventEntity;
+    }
+}
@@ -0,0 +1,16 @@
+package com.upgrad.quora.service.event;
+
+/**
+ * Types of the events written to the outbox.
+ * The aggregate of a QUESTION_* event is the question, the aggregate of an ANSWER_* event is the answer and the
+ * aggregate of USER_DELETED is the deleted user; the parent question is set on every ANSWER_* event.
+ */
+public enum EventType {
+    QUESTION_CREATED,
+    QUESTION_EDITED,
+    QUESTION_DELETED,
+    ANSWER_CREATED,
+    ANSWER_EDITED,
+    ANSWER_DELETED,
+    USER_DELETED
+}
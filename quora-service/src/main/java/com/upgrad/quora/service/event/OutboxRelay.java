@@ -0,0 +1,213 @@
+package com.upgrad.quora.service.event;
+
+import com.upgrad.quora.service.dao.OutboxDao;
+import com.upgrad.quora.service.entity.OutboxEventEntity;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.annotation.PostConstruct;
+import java.time.ZonedDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Background job which moves committed events from the outbox table onto the EventBus.
+ * On every run it first deletes, in one statement, the events all consumers have processed since the last run, then
+ * records the deliveries a consumer gave up on, and then dispatches the next batch of due events which are not
+ * already in flight. Events are only deleted after they have been processed, so anything in flight when the
+ * application stops is delivered again on the next start.
+ * A failed delivery is counted in the event's row and the event is delivered again after a backoff which doubles with
+ * every failure; after max-deliveries failures it stays in the outbox as a dead letter, which is no longer read.
+ * Nothing is polled while no EventConsumer is registered, EventOutbox then records no events either.
+ * The consumers run in-process, so when several instances share the database the relay should be enabled on one.
+ */
+@Component
+@Lazy(false)
+@ConditionalOnProperty(prefix = "quora.outbox.relay", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class OutboxRelay {
+
+    private static final Logger LOG = LoggerFactory.getLogger(OutboxRelay.class);
+
+    private static final long MAX_RETRY_BACKOFF_MS = TimeUnit.MINUTES.toMillis(10);
+
+    @Autowired
+    private OutboxDao outboxDao;
+
+    @Autowired
+    private EventBus eventBus;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private ObjectProvider<MeterRegistry> meterRegistry;
+
+    @Value("${quora.outbox.relay.batch-size:200}")
+    private int batchSize;
+
+    @Value("${quora.outbox.relay.max-deliveries:5}")
+    private int maxDeliveries;
+
+    @Value("${quora.outbox.relay.retry-backoff-ms:1000}")
+    private long retryBackoffMs;
+
+    private TransactionTemplate transactionTemplate;
+
+    private final Set<Long> inFlight = ConcurrentHashMap.newKeySet();
+
+    private final Queue<Long> processed = new ConcurrentLinkedQueue<>();
+
+    private final Queue<FailedDelivery> failed = new ConcurrentLinkedQueue<>();
+
+    private final AtomicLong relayed = new AtomicLong();
+
+    private volatile long backlog;
+
+    private volatile long deadLetters = -1;
+
+    private volatile long oldestPendingMillis;
+
+    @PostConstruct
+    public void init() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        MeterRegistry registry = meterRegistry.getIfAvailable();
+        if (registry != null) {
+            Gauge.builder("quora.outbox.backlog", this, relay -> relay.backlog)
+                    .description("Events in the outbox which have not been processed by all consumers yet")
+                    .register(registry);
+            Gauge.builder("quora.outbox.dead.letters", this, relay -> Math.max(0, relay.deadLetters))
+                    .description("Events in the outbox whose delivery failed max-deliveries times")
+                    .register(registry);
+            Gauge.builder("quora.outbox.lag.seconds", this, OutboxRelay::lagSeconds)
+                    .description("Age of the oldest event in the outbox")
+                    .register(registry);
+            Gauge.builder("quora.outbox.in.flight", inFlight, Set::size)
+                    .description("Events handed to the consumers and not yet processed")
+                    .register(registry);
+            FunctionCounter.builder("quora.outbox.relayed", relayed, AtomicLong::get)
+                    .register(registry);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${quora.outbox.relay.fixed-delay-ms:200}")
+    public void relay() {
+        if (!eventBus.hasConsumers()) {
+            return;
+        }
+        transactionTemplate.execute(status -> {
+            deleteProcessed();
+            recordFailed();
+            dispatch();
+            return null;
+        });
+    }
+
+    private void deleteProcessed() {
+        List<Long> ids = new ArrayList<>();
+        Long id;
+        while ((id = processed.poll()) != null) {
+            ids.add(id);
+        }
+        if (!ids.isEmpty()) {
+            outboxDao.deleteEvents(ids);
+            inFlight.removeAll(ids);
+        }
+    }
+
+    /**
+     * The event leaves the in-flight set only once its next delivery time is recorded, so the dispatch which follows
+     * in the same transaction does not pick it up again right away.
+     */
+    private void recordFailed() {
+        if (deadLetters < 0) {
+            deadLetters = outboxDao.countDeadLetters(maxDeliveries);
+        }
+        FailedDelivery failedDelivery;
+        while ((failedDelivery = failed.poll()) != null) {
+            int failures = failedDelivery.failedDeliveries + 1;
+            if (failures >= maxDeliveries) {
+                LOG.error("Outbox event {} failed {} deliveries, it is kept in the outbox as a dead letter", failedDelivery.id, failures);
+                deadLetters++;
+            }
+            long backoffMs = Math.min(MAX_RETRY_BACKOFF_MS, retryBackoffMs << Math.min(failures - 1, 20));
+            outboxDao.recordFailedDelivery(failedDelivery.id, ZonedDateTime.now().plus(backoffMs, ChronoUnit.MILLIS));
+            inFlight.remove(failedDelivery.id);
+        }
+    }
+
+    /**
+     * Events are read in id order without a high-water mark: an id can become visible after larger ones when
+     * transactions commit out of order, so everything due in the outbox is read again and in-flight events skipped.
+     */
+    private void dispatch() {
+        int limit = batchSize + inFlight.size();
+        List<OutboxEventEntity> pending = outboxDao.getPendingEvents(limit, maxDeliveries, ZonedDateTime.now());
+        backlog = pending.size() < limit ? pending.size() : outboxDao.countEvents(maxDeliveries);
+        oldestPendingMillis = pending.isEmpty() ? 0 : pending.get(0).getCreatedAt().toInstant().toEpochMilli();
+
+        int dispatched = 0;
+        for (OutboxEventEntity outboxEventEntity : pending) {
+            if (dispatched == batchSize) {
+                break;
+            }
+            final long id = outboxEventEntity.getId();
+            final int failedDeliveries = outboxEventEntity.getFailedDeliveries();
+            if (!inFlight.add(id)) {
+                continue;
+            }
+            if (!eventBus.tryPublish(DomainEvent.of(outboxEventEntity), success -> completed(id, failedDeliveries, success))) {
+                inFlight.remove(id);
+                break;
+            }
+            dispatched++;
+        }
+        relayed.addAndGet(dispatched);
+    }
+
+    private void completed(final long id, final int failedDeliveries, final boolean success) {
+        if (success) {
+            processed.add(id);
+        } else {
+            failed.add(new FailedDelivery(id, failedDeliveries));
+        }
+    }
+
+    private double lagSeconds() {
+        long oldest = oldestPendingMillis;
+        return oldest == 0 ? 0 : Math.max(0, System.currentTimeMillis() - oldest) / 1000.0;
+    }
+
+    private static final class FailedDelivery {
+
+        private final long id;
+
+        /**
+         * Failed deliveries of the event before this one
+         */
+        private final int failedDeliveries;
+
+        private FailedDelivery(final long id, final int failedDeliveries) {
+            this.id = id;
+            this.failedDeliveries = failedDeliveries;
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package com.upgrad.quora.service.exception;
+
+import java.io.PrintStream;
+import java.io.PrintWriter;
+
+/**
+ * BatchLimitExceededException is thrown when a batch request contains more items than the endpoint accepts.
+ */
+public class BatchLimitExceededException extends Exception {
+    private final String code;
+    private final String errorMessage;
+
+    public BatchLimitExceededException(final String code, final String errorMessage) {
+        super(null, null, true, StackTraces.captured());
+        this.code = code;
+        this.errorMessage = errorMessage;
+    }
+
+    @Override
+    public void printStackTrace() {
+        super.printStackTrace();
+    }
+
+    @Override
+    public void printStackTrace(PrintStream s) {
+        super.printStackTrace(s);
+    }
+
+    @Override
+    public void printStackTrace(PrintWriter s) {
+        super.printStackTrace(s);
+    }
+
+    public String getCode() {
+        return code;
+    }
+
+    public String getErrorMessage() {
+        return errorMessage;
+    }
+
+}
+
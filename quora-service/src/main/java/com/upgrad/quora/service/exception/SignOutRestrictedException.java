@@ -11,6 +11,7 @@ public class SignOutRestrictedException extends Exception {
     private final String errorMessage;
 
     public SignOutRestrictedException(final String code, final String errorMessage) {
+        super(null, null, true, StackTraces.captured());
         this.code = code;
         this.errorMessage = errorMessage;
     }
@@ -0,0 +1,31 @@
+package com.upgrad.quora.service.exception;
+
+/**
+ * Whether the exceptions of the service capture a stack trace. They are expected outcomes of a request, such as a
+ * signed out user or a missing question, which the RestExceptionHandler turns into an error response by their code
+ * alone, so by default they skip the walk of the stack, the most expensive part of creating an exception.
+ * Capturing is switched on for debugging with quora.exceptions.stack-traces, or the system property of that name.
+ */
+public final class StackTraces {
+
+    public static final String PROPERTY = "quora.exceptions.stack-traces";
+
+    private static volatile boolean captured = Boolean.getBoolean(PROPERTY);
+
+    private StackTraces() {
+    }
+
+    /**
+     * @return true if exceptions created from now on capture a stack trace
+     */
+    public static boolean captured() {
+        return captured;
+    }
+
+    /**
+     * @param captured true to capture the stack trace of exceptions created from now on
+     */
+    public static void setCaptured(final boolean captured) {
+        StackTraces.captured = captured;
+    }
+}
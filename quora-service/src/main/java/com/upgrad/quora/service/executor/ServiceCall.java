@@ -0,0 +1,11 @@
+package com.upgrad.quora.service.executor;
+
+/**
+ * A call into the service layer, which may throw the checked exceptions of the service.
+ * @param <T> result of the call
+ */
+@FunctionalInterface
+public interface ServiceCall<T> {
+
+    T call() throws Exception;
+}
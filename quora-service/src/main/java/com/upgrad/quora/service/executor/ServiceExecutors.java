@@ -0,0 +1,324 @@
+package com.upgrad.quora.service.executor;
+
+import com.upgrad.quora.service.exception.ServiceUnavailableException;
+import com.upgrad.quora.service.metrics.StatementStatistics;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Runs service calls off the servlet container threads, so that a controller can return a CompletableFuture and free
+ * its thread while the call waits on the database or hashes a password.
+ * There are two separately sized pools: "db" for calls which mostly wait on JDBC, and "cpu" for CPU bound calls such
+ * as the PBKDF2 hashing of sign up and sign in, sized to the number of cores so that hashing cannot starve the rest.
+ * Both have bounded queues: a call that does not fit, or that waited in the queue longer than the queue timeout
+ * (its client has most likely given up by then), fails fast with SRV-001 instead of piling up.
+ * With quora.executors.db.virtual-threads set (Java 21 or later) "db" calls run on virtual threads instead: each call
+ * gets its own thread, a call waiting on JDBC no longer holds a platform thread, and only the number of calls running
+ * at once is limited to the configured threads, the rest wait for a permit under the same capacity and timeout rules.
+ * This only changes the "db" executor. The servlet container keeps its pool of platform threads, running requests on
+ * virtual threads needs Spring Boot 3.2 or later, and as the number of concurrent calls stays bounded by the permits
+ * and the connection pool, the mode is not expected to raise throughput on its own.
+ * Calls record their SQL statements into the StatementStatistics of the thread submitting them.
+ */
+@Component
+public class ServiceExecutors {
+
+    @Autowired
+    private ObjectProvider<MeterRegistry> meterRegistry;
+
+    @Value("${quora.executors.db.virtual-threads:false}")
+    private boolean dbVirtualThreads;
+
+    @Value("${quora.executors.db.threads:20}")
+    private int dbThreads;
+
+    @Value("${quora.executors.db.queue-capacity:200}")
+    private int dbQueueCapacity;
+
+    @Value("${quora.executors.db.queue-timeout-ms:5000}")
+    private long dbQueueTimeoutMs;
+
+    @Value("${quora.executors.cpu.threads:0}")
+    private int cpuThreads;
+
+    @Value("${quora.executors.cpu.queue-capacity:100}")
+    private int cpuQueueCapacity;
+
+    @Value("${quora.executors.cpu.queue-timeout-ms:5000}")
+    private long cpuQueueTimeoutMs;
+
+    private Pool db;
+
+    private Pool cpu;
+
+    @PostConstruct
+    public void init() {
+        db = dbVirtualThreads
+                ? new VirtualPool("db", dbThreads, dbQueueCapacity, dbQueueTimeoutMs)
+                : new PlatformPool("db", dbThreads, dbQueueCapacity, dbQueueTimeoutMs);
+        cpu = new PlatformPool("cpu", cpuThreads > 0 ? cpuThreads : Runtime.getRuntime().availableProcessors(), cpuQueueCapacity, cpuQueueTimeoutMs);
+        MeterRegistry registry = meterRegistry.getIfAvailable();
+        if (registry != null) {
+            db.bindTo(registry);
+            cpu.bindTo(registry);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        db.shutdown();
+        cpu.shutdown();
+    }
+
+    /**
+     * @param call service call which mostly waits on the database
+     * @return future completed with the result of the call, or with the exception it threw
+     */
+    public <T> CompletableFuture<T> onDb(final ServiceCall<T> call) {
+        return db.submit(StatementStatistics.propagate(call));
+    }
+
+    /**
+     * @param call CPU bound service call
+     * @return future completed with the result of the call, or with the exception it threw
+     */
+    public <T> CompletableFuture<T> onCpu(final ServiceCall<T> call) {
+        return cpu.submit(StatementStatistics.propagate(call));
+    }
+
+    /**
+     * Bounded executor of service calls and its counters.
+     */
+    private abstract static class Pool {
+
+        final String name;
+
+        final long queueTimeoutNanos;
+
+        final AtomicLong rejected = new AtomicLong();
+
+        final AtomicLong expired = new AtomicLong();
+
+        Pool(final String name, final long queueTimeoutMs) {
+            this.name = name;
+            this.queueTimeoutNanos = TimeUnit.MILLISECONDS.toNanos(queueTimeoutMs);
+        }
+
+        abstract <T> CompletableFuture<T> submit(ServiceCall<T> call);
+
+        abstract void shutdown();
+
+        abstract void bindTo(MeterRegistry registry);
+
+        static <T> void run(final ServiceCall<T> call, final CompletableFuture<T> future) {
+            try {
+                future.complete(call.call());
+            } catch (Throwable t) {
+                future.completeExceptionally(t);
+            }
+        }
+
+        static ServiceUnavailableException busy() {
+            return new ServiceUnavailableException("SRV-001", "The service is busy, try again later");
+        }
+
+        void bindCounters(final MeterRegistry registry) {
+            FunctionCounter.builder("quora.executor.rejected", rejected, AtomicLong::get)
+                    .tag("executor", name)
+                    .description("Service calls refused because the queue was full")
+                    .register(registry);
+            FunctionCounter.builder("quora.executor.expired", expired, AtomicLong::get)
+                    .tag("executor", name)
+                    .description("Service calls dropped after waiting longer than the queue timeout")
+                    .register(registry);
+        }
+    }
+
+    /**
+     * Fixed size thread pool with a bounded queue.
+     */
+    private static final class PlatformPool extends Pool {
+
+        private final ThreadPoolExecutor executor;
+
+        private PlatformPool(final String name, final int threads, final int queueCapacity, final long queueTimeoutMs) {
+            super(name, queueTimeoutMs);
+            AtomicInteger threadNumber = new AtomicInteger();
+            ThreadFactory threadFactory = runnable -> {
+                Thread thread = new Thread(runnable, "quora-" + name + "-" + threadNumber.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            };
+            this.executor = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS,
+                    new ArrayBlockingQueue<>(queueCapacity), threadFactory, new ThreadPoolExecutor.AbortPolicy());
+        }
+
+        @Override
+        <T> CompletableFuture<T> submit(final ServiceCall<T> call) {
+            CompletableFuture<T> future = new CompletableFuture<>();
+            long submittedAt = System.nanoTime();
+            try {
+                executor.execute(() -> {
+                    if (System.nanoTime() - submittedAt > queueTimeoutNanos) {
+                        expired.incrementAndGet();
+                        future.completeExceptionally(busy());
+                        return;
+                    }
+                    run(call, future);
+                });
+            } catch (RejectedExecutionException e) {
+                rejected.incrementAndGet();
+                future.completeExceptionally(busy());
+            }
+            return future;
+        }
+
+        @Override
+        void shutdown() {
+            executor.shutdown();
+        }
+
+        @Override
+        void bindTo(final MeterRegistry registry) {
+            Gauge.builder("quora.executor.active", executor, ThreadPoolExecutor::getActiveCount)
+                    .tag("executor", name)
+                    .description("Threads running a service call")
+                    .register(registry);
+            Gauge.builder("quora.executor.threads", executor, ThreadPoolExecutor::getMaximumPoolSize)
+                    .tag("executor", name)
+                    .register(registry);
+            Gauge.builder("quora.executor.queued", executor, e -> e.getQueue().size())
+                    .tag("executor", name)
+                    .description("Service calls waiting for a thread")
+                    .register(registry);
+            Gauge.builder("quora.executor.saturation", executor, PlatformPool::saturation)
+                    .tag("executor", name)
+                    .description("Share of threads and queue slots in use, calls are rejected at 1")
+                    .register(registry);
+            FunctionCounter.builder("quora.executor.completed", executor, ThreadPoolExecutor::getCompletedTaskCount)
+                    .tag("executor", name)
+                    .register(registry);
+            bindCounters(registry);
+        }
+
+        private static double saturation(final ThreadPoolExecutor executor) {
+            int capacity = executor.getMaximumPoolSize() + executor.getQueue().size() + executor.getQueue().remainingCapacity();
+            return (double) (executor.getActiveCount() + executor.getQueue().size()) / capacity;
+        }
+    }
+
+    /**
+     * A virtual thread per call, with a semaphore instead of the fixed pool limiting how many calls run at once.
+     * Calls beyond the limit park on the semaphore, which costs no platform thread, for at most the queue timeout.
+     */
+    private static final class VirtualPool extends Pool {
+
+        private final ExecutorService executor;
+
+        private final int threads;
+
+        private final int capacity;
+
+        private final Semaphore permits;
+
+        private final AtomicInteger inFlight = new AtomicInteger();
+
+        private final AtomicLong completed = new AtomicLong();
+
+        private VirtualPool(final String name, final int threads, final int queueCapacity, final long queueTimeoutMs) {
+            super(name, queueTimeoutMs);
+            this.executor = VirtualThreads.newThreadPerTaskExecutor("quora-" + name + "-virtual-");
+            this.threads = threads;
+            this.capacity = threads + queueCapacity;
+            this.permits = new Semaphore(threads);
+        }
+
+        @Override
+        <T> CompletableFuture<T> submit(final ServiceCall<T> call) {
+            CompletableFuture<T> future = new CompletableFuture<>();
+            if (inFlight.incrementAndGet() > capacity) {
+                inFlight.decrementAndGet();
+                rejected.incrementAndGet();
+                future.completeExceptionally(busy());
+                return future;
+            }
+            try {
+                executor.execute(() -> {
+                    try {
+                        if (!permits.tryAcquire(queueTimeoutNanos, TimeUnit.NANOSECONDS)) {
+                            expired.incrementAndGet();
+                            future.completeExceptionally(busy());
+                            return;
+                        }
+                        try {
+                            run(call, future);
+                        } finally {
+                            permits.release();
+                            completed.incrementAndGet();
+                        }
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        future.completeExceptionally(busy());
+                    } finally {
+                        inFlight.decrementAndGet();
+                    }
+                });
+            } catch (RejectedExecutionException e) {
+                inFlight.decrementAndGet();
+                rejected.incrementAndGet();
+                future.completeExceptionally(busy());
+            }
+            return future;
+        }
+
+        @Override
+        void shutdown() {
+            executor.shutdown();
+        }
+
+        @Override
+        void bindTo(final MeterRegistry registry) {
+            Gauge.builder("quora.executor.active", this, VirtualPool::active)
+                    .tag("executor", name)
+                    .description("Threads running a service call")
+                    .register(registry);
+            Gauge.builder("quora.executor.threads", this, p -> p.threads)
+                    .tag("executor", name)
+                    .register(registry);
+            Gauge.builder("quora.executor.queued", this, p -> Math.max(0, p.inFlight.get() - p.active()))
+                    .tag("executor", name)
+                    .description("Service calls waiting for a thread")
+                    .register(registry);
+            Gauge.builder("quora.executor.saturation", this, p -> (double) p.inFlight.get() / p.capacity)
+                    .tag("executor", name)
+                    .description("Share of threads and queue slots in use, calls are rejected at 1")
+                    .register(registry);
+            FunctionCounter.builder("quora.executor.completed", completed, AtomicLong::get)
+                    .tag("executor", name)
+                    .register(registry);
+            bindCounters(registry);
+        }
+
+        private int active() {
+            return threads - permits.availablePermits();
+        }
+    }
+}
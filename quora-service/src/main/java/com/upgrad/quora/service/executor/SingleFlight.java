@@ -0,0 +1,158 @@
+package com.upgrad.quora.service.executor;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Coalesces identical concurrent reads: the first caller of a key runs the read, callers arriving with the same key
+ * while it is in flight wait for it and share its result, or its exception. Optionally the result is kept for a short
+ * time to live and handed to later callers of the key without a read. Keys must identify the data completely,
+ * including the version it has to be at least as new as, since every caller of a key gets the same result.
+ * Only the read is shared, checks that depend on the caller, such as authorization, must run before. A caller waits
+ * for a flight at most a maximum time, then runs the read itself, so a stuck read does not hold every caller of its key.
+ * Each flight records how many callers it served in the quora.singleflight.callers summary, tagged with the name of
+ * the read; keys are not tags, they are unbounded, flights absorbing other callers are logged with their key at debug.
+ */
+public final class SingleFlight<K, V> {
+
+    private static final Logger LOG = LoggerFactory.getLogger(SingleFlight.class);
+
+    private static final long MAXIMUM_RESULTS = 10_000;
+
+    private final String name;
+
+    private final ConcurrentMap<K, Flight<V>> flights = new ConcurrentHashMap<>();
+
+    private final Cache<K, V> results;
+
+    private final long maxWaitMs;
+
+    private DistributionSummary callers;
+
+    private Counter resultHits;
+
+    private Counter waitTimeouts;
+
+    /**
+     * @param name      name of the read, used in the metrics and the log
+     * @param ttlMs     time to live of the results in milliseconds, 0 to only share reads in flight
+     * @param maxWaitMs time in milliseconds a caller waits for a read in flight before running the read itself
+     */
+    public SingleFlight(final String name, final long ttlMs, final long maxWaitMs) {
+        this.name = name;
+        this.maxWaitMs = maxWaitMs;
+        this.results = ttlMs > 0
+                ? Caffeine.newBuilder().maximumSize(MAXIMUM_RESULTS).expireAfterWrite(ttlMs, TimeUnit.MILLISECONDS).build()
+                : null;
+    }
+
+    /**
+     * @param registry registry of the callers per flight and the result hits
+     */
+    public void bindTo(final MeterRegistry registry) {
+        callers = DistributionSummary.builder("quora.singleflight.callers")
+                .tag("name", name)
+                .description("Callers served by one read, the reader included")
+                .publishPercentiles(0.5, 0.99)
+                .register(registry);
+        resultHits = Counter.builder("quora.singleflight.result.hits")
+                .tag("name", name)
+                .description("Callers served from a result kept for its time to live")
+                .register(registry);
+        waitTimeouts = Counter.builder("quora.singleflight.wait.timeouts")
+                .tag("name", name)
+                .description("Callers which gave up waiting for a read in flight and ran the read themselves")
+                .register(registry);
+    }
+
+    /**
+     * @param key  identifies the read and its result
+     * @param read the read, run by the first caller of the key
+     * @return result of the read, possibly shared with other callers so it must not be modified
+     */
+    public V execute(final K key, final Supplier<V> read) {
+        if (results != null) {
+            V result = results.getIfPresent(key);
+            if (result != null) {
+                if (resultHits != null) {
+                    resultHits.increment();
+                }
+                return result;
+            }
+        }
+        Flight<V> flight = new Flight<>();
+        Flight<V> inFlight = flights.putIfAbsent(key, flight);
+        if (inFlight != null) {
+            inFlight.callers.incrementAndGet();
+            try {
+                return inFlight.await(maxWaitMs);
+            } catch (TimeoutException e) {
+                inFlight.callers.decrementAndGet();
+                if (waitTimeouts != null) {
+                    waitTimeouts.increment();
+                }
+                LOG.debug("{} read of {} still in flight after {} ms, reading it again", name, key, maxWaitMs);
+                return read.get();
+            }
+        }
+        try {
+            V result = read.get();
+            if (results != null && result != null) {
+                results.put(key, result);
+            }
+            flight.result.complete(result);
+            return result;
+        } catch (RuntimeException | Error e) {
+            flight.result.completeExceptionally(e);
+            throw e;
+        } finally {
+            flights.remove(key, flight);
+            int served = flight.callers.get();
+            if (callers != null) {
+                callers.record(served);
+            }
+            if (served > 1 && LOG.isDebugEnabled()) {
+                LOG.debug("{} read of {} served {} callers", name, key, served);
+            }
+        }
+    }
+
+    private static final class Flight<V> {
+
+        private final CompletableFuture<V> result = new CompletableFuture<>();
+
+        /**
+         * Callers joining after the flight left the map still get its result, they are counted only if they joined before the count was recorded.
+         */
+        private final AtomicInteger callers = new AtomicInteger(1);
+
+        V await(final long maxWaitMs) throws TimeoutException {
+            try {
+                return result.get(maxWaitMs, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted while waiting for a shared read", e);
+            } catch (ExecutionException e) {
+                Throwable cause = e.getCause();
+                if (cause instanceof Error) {
+                    throw (Error) cause;
+                }
+                throw (RuntimeException) cause;
+            }
+        }
+    }
+}
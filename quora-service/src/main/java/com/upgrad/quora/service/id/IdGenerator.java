@@ -0,0 +1,13 @@
+package com.upgrad.quora.service.id;
+
+/**
+ * Generates the uuid of new users, sessions, questions and answers. The scheme is chosen with quora.ids.scheme (see
+ * IdGeneratorConfiguration).
+ */
+public interface IdGenerator {
+
+    /**
+     * @return a new, unique uuid in its 36 character string form
+     */
+    String generate();
+}
@@ -0,0 +1,28 @@
+package com.upgrad.quora.service.id;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Selects the IdGenerator with quora.ids.scheme: "time-ordered" (the default) for version 7 uuids, or "random" for the
+ * version 4 uuids of UUID.randomUUID(). Both are 36 character strings, uuids of either scheme live side by side in the
+ * same columns, so the scheme can be switched at any time.
+ */
+@Configuration
+public class IdGeneratorConfiguration {
+
+    public static final String SCHEME_PROPERTY = "quora.ids.scheme";
+
+    @Bean
+    public IdGenerator idGenerator(@Value("${" + SCHEME_PROPERTY + ":time-ordered}") final String scheme) {
+        switch (scheme) {
+            case "time-ordered":
+                return new TimeOrderedIdGenerator();
+            case "random":
+                return new RandomIdGenerator();
+            default:
+                throw new IllegalArgumentException("Unknown " + SCHEME_PROPERTY + " " + scheme + ", expected time-ordered or random");
+        }
+    }
+}
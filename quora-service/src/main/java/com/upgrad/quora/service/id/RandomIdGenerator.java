@@ -0,0 +1,15 @@
+package com.upgrad.quora.service.id;
+
+import java.util.UUID;
+
+/**
+ * Version 4 uuids from UUID.randomUUID(): 122 random bits drawn from the shared SecureRandom. New uuids land anywhere
+ * in the uuid indexes, so every insert dirties a random leaf page, and pages are left half full by the splits.
+ */
+public class RandomIdGenerator implements IdGenerator {
+
+    @Override
+    public String generate() {
+        return UUID.randomUUID().toString();
+    }
+}
@@ -0,0 +1,69 @@
+package com.upgrad.quora.service.id;
+
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.LongSupplier;
+
+/**
+ * Version 7 uuids (RFC 9562): the Unix time in milliseconds in the first 48 bits, a 12 bit counter, then 62 random
+ * bits from the ThreadLocalRandom of the calling thread. They sort in the order they were generated, also as strings,
+ * so new uuids are appended at the right edge of the uuid indexes, which stays in the cache and whose pages fill up
+ * before they split. The counter keeps the uuids of a thread increasing within a millisecond: it starts at a random
+ * value in the lower half at every new millisecond, and once exhausted the thread borrows the next millisecond, as
+ * it does when the clock goes back. The random bits keep the uuids of different threads unique; they make uuids hard
+ * to guess, but they are no secret, the uuids are not access tokens.
+ */
+public class TimeOrderedIdGenerator implements IdGenerator {
+
+    private static final long VERSION = 0x7000L;
+
+    private static final long VARIANT = 0x8000_0000_0000_0000L;
+
+    private static final int COUNTER_BITS = 12;
+
+    private final ThreadLocal<State> states = ThreadLocal.withInitial(State::new);
+
+    private final LongSupplier clock;
+
+    public TimeOrderedIdGenerator() {
+        this(System::currentTimeMillis);
+    }
+
+    /**
+     * @param clock current Unix time in milliseconds
+     */
+    TimeOrderedIdGenerator(final LongSupplier clock) {
+        this.clock = clock;
+    }
+
+    @Override
+    public String generate() {
+        return nextUuid().toString();
+    }
+
+    /**
+     * @return a version 7 uuid of the current time, greater than the previous ones of the calling thread
+     */
+    public UUID nextUuid() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        State state = states.get();
+        long timeMillis = clock.getAsLong();
+        if (timeMillis > state.timeMillis) {
+            state.timeMillis = timeMillis;
+            state.counter = random.nextInt(1 << (COUNTER_BITS - 1));
+        } else if (++state.counter == 1 << COUNTER_BITS) {
+            state.timeMillis++;
+            state.counter = 0;
+        }
+        long mostSigBits = state.timeMillis << 16 | VERSION | state.counter;
+        long leastSigBits = random.nextLong() >>> 2 | VARIANT;
+        return new UUID(mostSigBits, leastSigBits);
+    }
+
+    private static final class State {
+
+        private long timeMillis;
+
+        private int counter;
+    }
+}
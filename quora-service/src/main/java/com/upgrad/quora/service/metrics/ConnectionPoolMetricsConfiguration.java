@@ -0,0 +1,68 @@
+package com.upgrad.quora.service.metrics;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.IMetricsTracker;
+import com.zaxxer.hikari.metrics.MetricsTrackerFactory;
+import com.zaxxer.hikari.metrics.PoolStats;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.BeansException;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Publishes the hikaricp.* gauges of the connection pool. The Micrometer tracker of HikariCP 2.7 registers its gauges
+ * on the pool statistics without keeping a reference to them, and Micrometer only holds gauged objects weakly, so the
+ * gauges read NaN after the first garbage collection. The tracker factory set here keeps the statistics reachable
+ * for as long as the pool; Spring Boot then leaves the data source alone since it already has a tracker factory.
+ */
+@Configuration
+public class ConnectionPoolMetricsConfiguration {
+
+    /**
+     * Static so that it does not force the early creation of this configuration, the registry is only looked up when
+     * the pool starts.
+     */
+    @Bean
+    public static BeanPostProcessor connectionPoolMetricsPostProcessor(final ObjectProvider<MeterRegistry> meterRegistry) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessBeforeInitialization(final Object bean, final String beanName) throws BeansException {
+                if (bean instanceof HikariDataSource) {
+                    HikariDataSource dataSource = (HikariDataSource) bean;
+                    if (dataSource.getMetricRegistry() == null && dataSource.getMetricsTrackerFactory() == null) {
+                        dataSource.setMetricsTrackerFactory(new ReachablePoolStatsTrackerFactory(meterRegistry));
+                    }
+                }
+                return bean;
+            }
+        };
+    }
+
+    static class ReachablePoolStatsTrackerFactory implements MetricsTrackerFactory {
+
+        private final ObjectProvider<MeterRegistry> meterRegistry;
+
+        private final List<PoolStats> poolStats = new CopyOnWriteArrayList<>();
+
+        ReachablePoolStatsTrackerFactory(final ObjectProvider<MeterRegistry> meterRegistry) {
+            this.meterRegistry = meterRegistry;
+        }
+
+        @Override
+        public IMetricsTracker create(final String poolName, final PoolStats poolStats) {
+            MeterRegistry registry = meterRegistry.getIfAvailable();
+            if (registry == null) {
+                return new IMetricsTracker() {
+                };
+            }
+            this.poolStats.add(poolStats);
+            return new MicrometerMetricsTrackerFactory(registry).create(poolName, poolStats);
+        }
+    }
+}
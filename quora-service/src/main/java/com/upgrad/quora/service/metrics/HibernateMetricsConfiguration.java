@@ -0,0 +1,81 @@
+package com.upgrad.quora.service.metrics;
+
+import com.upgrad.quora.service.dao.DaoProfiles;
+import io.micrometer.core.instrument.FunctionTimer;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.jpa.HibernateMetrics;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.QueryStatistics;
+import org.hibernate.stat.Statistics;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.context.annotation.Profile;
+
+import javax.annotation.PostConstruct;
+import javax.persistence.EntityManagerFactory;
+import javax.persistence.NamedQueries;
+import javax.persistence.NamedQuery;
+import javax.persistence.metamodel.EntityType;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Publishes the statistics of the Hibernate session factory (hibernate.* meters) and a quora.named.queries timer per
+ * named query of the entities, tagged with the name of the query. Nothing is published unless
+ * hibernate.generate_statistics is set, the meters would only ever read zero. Hibernate keeps the statistics per query string, so queries binding a collection to an in
+ * clause are only counted when they are run with a single element.
+ */
+@Configuration
+@Lazy(false)
+@Profile("!" + DaoProfiles.IN_MEMORY)
+public class HibernateMetricsConfiguration {
+
+    @Autowired
+    private ObjectProvider<MeterRegistry> meterRegistry;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @PostConstruct
+    public void init() {
+        MeterRegistry registry = meterRegistry.getIfAvailable();
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        if (registry == null || !statistics.isStatisticsEnabled()) {
+            return;
+        }
+        HibernateMetrics.monitor(registry, entityManagerFactory, "entityManagerFactory");
+        for (EntityType<?> entity : entityManagerFactory.getMetamodel().getEntities()) {
+            for (NamedQuery namedQuery : namedQueries(entity.getJavaType())) {
+                FunctionTimer.builder("quora.named.queries", statistics,
+                        s -> queryStatistics(s, namedQuery).getExecutionCount(),
+                        s -> queryStatistics(s, namedQuery).getExecutionTotalTime(), TimeUnit.MILLISECONDS)
+                        .tag("entity", entity.getName())
+                        .tag("query", namedQuery.name())
+                        .description("Executions of the named query, from the Hibernate statistics")
+                        .register(registry);
+            }
+        }
+    }
+
+    private static QueryStatistics queryStatistics(final Statistics statistics, final NamedQuery namedQuery) {
+        return statistics.getQueryStatistics(namedQuery.query());
+    }
+
+    private static List<NamedQuery> namedQueries(final Class<?> entityClass) {
+        List<NamedQuery> namedQueries = new ArrayList<>();
+        NamedQueries container = entityClass.getAnnotation(NamedQueries.class);
+        if (container != null) {
+            for (NamedQuery namedQuery : container.value()) {
+                namedQueries.add(namedQuery);
+            }
+        }
+        NamedQuery single = entityClass.getAnnotation(NamedQuery.class);
+        if (single != null) {
+            namedQueries.add(single);
+        }
+        return namedQueries;
+    }
+}
@@ -0,0 +1,84 @@
+package com.upgrad.quora.service.metrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import java.lang.reflect.Method;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Times every public method of the repositories (quora.dao.calls, tagged with the dao and method) and every
+ * transactional method of the business services (quora.transactions, tagged with the service and method), with the
+ * simple name of the exception thrown, if any. Runs outside the transaction advice, so a transaction is timed
+ * including its commit. The percentile histograms are switched on with management.metrics.distribution.
+ */
+@Aspect
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class ServiceMetricsAspect {
+
+    private static final String NO_EXCEPTION = "None";
+
+    @Autowired
+    private ObjectProvider<MeterRegistry> meterRegistry;
+
+    private MeterRegistry registry;
+
+    private final ConcurrentMap<Method, Timer> timers = new ConcurrentHashMap<>();
+
+    @PostConstruct
+    public void init() {
+        registry = meterRegistry.getIfAvailable();
+    }
+
+    @Around("@within(org.springframework.stereotype.Repository) && execution(public * *(..))")
+    public Object timeDaoCall(final ProceedingJoinPoint joinPoint) throws Throwable {
+        return time("quora.dao.calls", "dao", joinPoint);
+    }
+
+    @Around("within(com.upgrad.quora.service.business..*) && @annotation(org.springframework.transaction.annotation.Transactional)")
+    public Object timeTransaction(final ProceedingJoinPoint joinPoint) throws Throwable {
+        return time("quora.transactions", "service", joinPoint);
+    }
+
+    private Object time(final String name, final String typeTag, final ProceedingJoinPoint joinPoint) throws Throwable {
+        if (registry == null) {
+            return joinPoint.proceed();
+        }
+        Method method = ((MethodSignature) joinPoint.getSignature()).getMethod();
+        long start = registry.config().clock().monotonicTime();
+        String exception = NO_EXCEPTION;
+        try {
+            return joinPoint.proceed();
+        } catch (Throwable t) {
+            exception = t.getClass().getSimpleName();
+            throw t;
+        } finally {
+            long elapsed = registry.config().clock().monotonicTime() - start;
+            Timer timer = NO_EXCEPTION.equals(exception)
+                    ? timers.computeIfAbsent(method, m -> timer(name, typeTag, joinPoint, NO_EXCEPTION))
+                    : timer(name, typeTag, joinPoint, exception);
+            timer.record(elapsed, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private Timer timer(final String name, final String typeTag, final ProceedingJoinPoint joinPoint, final String exception) {
+        return Timer.builder(name)
+                .tag(typeTag, joinPoint.getSignature().getDeclaringType().getSimpleName())
+                .tag("method", joinPoint.getSignature().getName())
+                .tag("exception", exception)
+                .register(registry);
+    }
+}
@@ -0,0 +1,41 @@
+package com.upgrad.quora.service.metrics;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.util.DriverDataSource;
+import org.springframework.beans.BeansException;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+/**
+ * Counts the statements of the connection pool with a StatementCountingDataSource (quora.statements.enabled).
+ * The counting data source goes under the pool, between it and the driver, rather than around it: the pool stays
+ * the DataSource bean and keeps its metrics and health check, and pooled connections are proxied once, when the pool
+ * opens them, not on every checkout.
+ */
+@Configuration
+public class StatementCountingConfiguration {
+
+    /**
+     * Static so that it does not force the early creation of this configuration. Runs after the pool properties are
+     * bound and before the pool is started by its first connection request.
+     */
+    @Bean
+    public static BeanPostProcessor statementCountingPostProcessor(final Environment environment) {
+        boolean enabled = environment.getProperty("quora.statements.enabled", Boolean.class, false);
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(final Object bean, final String beanName) throws BeansException {
+                if (enabled && bean instanceof HikariDataSource) {
+                    HikariDataSource pool = (HikariDataSource) bean;
+                    if (pool.getDataSource() == null && pool.getJdbcUrl() != null) {
+                        pool.setDataSource(new StatementCountingDataSource(new DriverDataSource(pool.getJdbcUrl(),
+                                pool.getDriverClassName(), pool.getDataSourceProperties(), pool.getUsername(), pool.getPassword())));
+                    }
+                }
+                return bean;
+            }
+        };
+    }
+}
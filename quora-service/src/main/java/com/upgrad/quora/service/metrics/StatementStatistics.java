@@ -0,0 +1,138 @@
+package com.upgrad.quora.service.metrics;
+
+import com.upgrad.quora.service.executor.ServiceCall;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.regex.Pattern;
+
+/**
+ * The SQL statements run on behalf of one unit of work, usually an HTTP request: how many, how many rows they returned
+ * or updated, how long they took and how often each statement shape ran. The shape of a statement is its SQL with the
+ * whitespace collapsed and in-lists of any length reduced to one placeholder, so the same lookup with different
+ * parameters has one shape and an N+1 fan-out shows as one shape run N times.
+ * Statistics are bound to the current thread with open() and carried to the service executors by propagate(); the
+ * StatementCountingDataSource records into the statistics bound to the thread running the statement, if any.
+ */
+public final class StatementStatistics {
+
+    /**
+     * Name of the request attribute holding the statistics of an HTTP request.
+     */
+    public static final String ATTRIBUTE = StatementStatistics.class.getName();
+
+    private static final ThreadLocal<StatementStatistics> CURRENT = new ThreadLocal<>();
+
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
+    private static final Pattern IN_LIST = Pattern.compile("\\(\\s*\\?(\\s*,\\s*\\?)+\\s*\\)");
+
+    private final LongAdder statements = new LongAdder();
+
+    private final LongAdder rows = new LongAdder();
+
+    private final LongAdder nanos = new LongAdder();
+
+    private final ConcurrentMap<String, AtomicInteger> shapes = new ConcurrentHashMap<>();
+
+    /**
+     * @return statistics bound to the current thread, or null if statements of this thread are not counted
+     */
+    public static StatementStatistics current() {
+        return CURRENT.get();
+    }
+
+    /**
+     * Binds the statistics to the current thread until the returned scope is closed, restoring the previous binding.
+     * @param statistics statistics to record the statements of the current thread into, null to stop counting
+     * @return scope of the binding
+     */
+    public static Scope open(final StatementStatistics statistics) {
+        StatementStatistics previous = CURRENT.get();
+        bind(statistics);
+        return () -> bind(previous);
+    }
+
+    /**
+     * @param call service call to run on another thread
+     * @return the call, recording its statements into the statistics bound to the current thread
+     */
+    public static <T> ServiceCall<T> propagate(final ServiceCall<T> call) {
+        StatementStatistics statistics = CURRENT.get();
+        if (statistics == null) {
+            return call;
+        }
+        return () -> {
+            try (Scope ignored = open(statistics)) {
+                return call.call();
+            }
+        };
+    }
+
+    private static void bind(final StatementStatistics statistics) {
+        if (statistics == null) {
+            CURRENT.remove();
+        } else {
+            CURRENT.set(statistics);
+        }
+    }
+
+    /**
+     * @param sql     SQL of the statement, null if not known
+     * @param rows    rows returned or updated by the statement
+     * @param elapsed time the statement took to execute, in nanoseconds
+     */
+    void record(final String sql, final long rows, final long elapsed) {
+        statements.increment();
+        this.rows.add(rows);
+        nanos.add(elapsed);
+        if (sql != null) {
+            shapes.computeIfAbsent(shapeOf(sql), shape -> new AtomicInteger()).incrementAndGet();
+        }
+    }
+
+    /**
+     * @param rows rows read from the result of a statement after it was executed
+     */
+    void recordRows(final long rows) {
+        this.rows.add(rows);
+    }
+
+    public long getStatements() {
+        return statements.sum();
+    }
+
+    public long getRows() {
+        return rows.sum();
+    }
+
+    public double getMillis() {
+        return nanos.sum() / 1_000_000.0;
+    }
+
+    /**
+     * @return how many times each statement shape ran
+     */
+    public Map<String, Integer> getShapes() {
+        Map<String, Integer> counts = new ConcurrentHashMap<>();
+        shapes.forEach((shape, count) -> counts.put(shape, count.get()));
+        return Collections.unmodifiableMap(counts);
+    }
+
+    static String shapeOf(final String sql) {
+        return IN_LIST.matcher(WHITESPACE.matcher(sql.trim()).replaceAll(" ")).replaceAll("(?)");
+    }
+
+    /**
+     * Binding of statistics to a thread, closing it restores the previous binding.
+     */
+    public interface Scope extends AutoCloseable {
+
+        @Override
+        void close();
+    }
+}
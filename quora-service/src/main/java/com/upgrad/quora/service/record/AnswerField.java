@@ -0,0 +1,22 @@
+package com.upgrad.quora.service.record;
+
+/**
+ * Selectable properties of an answer in the answer list.
+ */
+public enum AnswerField implements Field {
+
+    ID("id"),
+    QUESTION_CONTENT("questionContent"),
+    ANSWER_CONTENT("answerContent");
+
+    private final String name;
+
+    AnswerField(final String name) {
+        this.name = name;
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+}
@@ -0,0 +1,62 @@
+package com.upgrad.quora.service.record;
+
+import java.time.ZonedDateTime;
+
+/**
+ * Read-only copy of an answer row together with the content of its question.
+ */
+public final class AnswerRecord {
+
+    private final Integer id;
+
+    private final String uuid;
+
+    private final String answer;
+
+    private final ZonedDateTime date;
+
+    private final Long version;
+
+    private final Integer userId;
+
+    private final String questionContent;
+
+    public AnswerRecord(final Integer id, final String uuid, final String answer, final ZonedDateTime date,
+                        final Long version, final Integer userId, final String questionContent) {
+        this.id = id;
+        this.uuid = uuid;
+        this.answer = answer;
+        this.date = date;
+        this.version = version;
+        this.userId = userId;
+        this.questionContent = questionContent;
+    }
+
+    public Integer getId() {
+        return id;
+    }
+
+    public String getUuid() {
+        return uuid;
+    }
+
+    public String getAnswer() {
+        return answer;
+    }
+
+    public ZonedDateTime getDate() {
+        return date;
+    }
+
+    public Long getVersion() {
+        return version;
+    }
+
+    public Integer getUserId() {
+        return userId;
+    }
+
+    public String getQuestionContent() {
+        return questionContent;
+    }
+}
@@ -0,0 +1,13 @@
+package com.upgrad.quora.service.record;
+
+/**
+ * A property of a response which a client can select with the fields parameter of a read endpoint. The read
+ * repository only selects, and joins for, the columns backing the selected fields.
+ */
+public interface Field {
+
+    /**
+     * @return name of the property in the response
+     */
+    String getName();
+}
@@ -0,0 +1,53 @@
+package com.upgrad.quora.service.record;
+
+import com.upgrad.quora.service.exception.InvalidFieldException;
+
+import java.util.EnumSet;
+import java.util.Set;
+import java.util.StringJoiner;
+
+/**
+ * Parses the fields parameter of the read endpoints.
+ */
+public final class Fields {
+
+    private Fields() {
+    }
+
+    /**
+     * @param type  fields of the response
+     * @param names comma separated property names, null or blank for all of them
+     * @return the selected fields, never empty
+     * @throws InvalidFieldException if a name is not a property of the response, or no name is given at all (e.g. ",")
+     */
+    public static <E extends Enum<E> & Field> Set<E> parse(final Class<E> type, final String names) throws InvalidFieldException {
+        if (names == null || names.trim().isEmpty()) {
+            return EnumSet.allOf(type);
+        }
+        Set<E> fields = EnumSet.noneOf(type);
+        for (String name : names.split(",")) {
+            fields.add(byName(type, name.trim()));
+        }
+        if (fields.isEmpty()) {
+            throw new InvalidFieldException("FLD-001", "No field selected, expected one or more of " + allNames(type));
+        }
+        return fields;
+    }
+
+    private static <E extends Enum<E> & Field> E byName(final Class<E> type, final String name) throws InvalidFieldException {
+        for (E field : type.getEnumConstants()) {
+            if (field.getName().equals(name)) {
+                return field;
+            }
+        }
+        throw new InvalidFieldException("FLD-001", "Unknown field '" + name + "', expected one of " + allNames(type));
+    }
+
+    private static <E extends Enum<E> & Field> String allNames(final Class<E> type) {
+        StringJoiner names = new StringJoiner(", ");
+        for (E field : type.getEnumConstants()) {
+            names.add(field.getName());
+        }
+        return names.toString();
+    }
+}
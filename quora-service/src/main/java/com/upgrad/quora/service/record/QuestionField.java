@@ -0,0 +1,21 @@
+package com.upgrad.quora.service.record;
+
+/**
+ * Selectable properties of a question in the question lists.
+ */
+public enum QuestionField implements Field {
+
+    ID("id"),
+    CONTENT("content");
+
+    private final String name;
+
+    QuestionField(final String name) {
+        this.name = name;
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+}
@@ -0,0 +1,55 @@
+package com.upgrad.quora.service.record;
+
+import java.time.ZonedDateTime;
+
+/**
+ * Read-only copy of a question row.
+ */
+public final class QuestionRecord {
+
+    private final Integer id;
+
+    private final String uuid;
+
+    private final String content;
+
+    private final ZonedDateTime date;
+
+    private final Long version;
+
+    private final Integer userId;
+
+    public QuestionRecord(final Integer id, final String uuid, final String content, final ZonedDateTime date,
+                          final Long version, final Integer userId) {
+        this.id = id;
+        this.uuid = uuid;
+        this.content = content;
+        this.date = date;
+        this.version = version;
+        this.userId = userId;
+    }
+
+    public Integer getId() {
+        return id;
+    }
+
+    public String getUuid() {
+        return uuid;
+    }
+
+    public String getContent() {
+        return content;
+    }
+
+    public ZonedDateTime getDate() {
+        return date;
+    }
+
+    public Long getVersion() {
+        return version;
+    }
+
+    public Integer getUserId() {
+        return userId;
+    }
+}
@@ -0,0 +1,55 @@
+package com.upgrad.quora.service.record;
+
+import java.time.ZonedDateTime;
+
+/**
+ * Read-only copy of an access token with the id, uuid and role of its user, as needed to authorize a request.
+ */
+public final class UserAuthRecord {
+
+    private final String accessToken;
+
+    private final ZonedDateTime expiresAt;
+
+    private final ZonedDateTime logoutAt;
+
+    private final Integer userId;
+
+    private final String userUuid;
+
+    private final String role;
+
+    public UserAuthRecord(final String accessToken, final ZonedDateTime expiresAt, final ZonedDateTime logoutAt,
+                          final Integer userId, final String userUuid, final String role) {
+        this.accessToken = accessToken;
+        this.expiresAt = expiresAt;
+        this.logoutAt = logoutAt;
+        this.userId = userId;
+        this.userUuid = userUuid;
+        this.role = role;
+    }
+
+    public String getAccessToken() {
+        return accessToken;
+    }
+
+    public ZonedDateTime getExpiresAt() {
+        return expiresAt;
+    }
+
+    public ZonedDateTime getLogoutAt() {
+        return logoutAt;
+    }
+
+    public Integer getUserId() {
+        return userId;
+    }
+
+    public String getUserUuid() {
+        return userUuid;
+    }
+
+    public String getRole() {
+        return role;
+    }
+}
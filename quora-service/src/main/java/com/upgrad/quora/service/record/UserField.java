@@ -0,0 +1,27 @@
+package com.upgrad.quora.service.record;
+
+/**
+ * Selectable properties of a user profile.
+ */
+public enum UserField implements Field {
+
+    FIRST_NAME("first_name"),
+    LAST_NAME("last_name"),
+    USER_NAME("user_name"),
+    EMAIL_ADDRESS("email_address"),
+    COUNTRY("country"),
+    ABOUT_ME("aboutMe"),
+    DOB("dob"),
+    CONTACT_NUMBER("contact_number");
+
+    private final String name;
+
+    UserField(final String name) {
+        this.name = name;
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+}
@@ -0,0 +1,114 @@
+package com.upgrad.quora.service.business;
+
+import com.upgrad.quora.service.dao.memory.InMemoryCollectionVersionDao;
+import com.upgrad.quora.service.dao.memory.InMemoryConfiguration;
+import com.upgrad.quora.service.dao.memory.InMemoryStore;
+import org.junit.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+
+/**
+ * Runs two instances of CollectionVersions on one in-memory store, standing for two application instances sharing
+ * the collection_version table.
+ */
+public class CollectionVersionsTest {
+
+    private final InMemoryCollectionVersionDao collectionVersionDao = new InMemoryCollectionVersionDao();
+
+    private final CollectionVersions first = collectionVersions();
+
+    private final CollectionVersions second = collectionVersions();
+
+    private final TransactionTemplate transaction = new TransactionTemplate(new InMemoryConfiguration().transactionManager());
+
+    public CollectionVersionsTest() {
+        ReflectionTestUtils.setField(collectionVersionDao, "store", new InMemoryStore());
+    }
+
+    //This test case passes when a change made through one instance changes the version every instance hands out.
+    @Test
+    public void changeIsSeenByEveryInstance() {
+        String questions = second.questionsVersion();
+        String answers = second.answersVersion("question_uuid");
+        assertEquals(questions, first.questionsVersion());
+
+        first.questionsChanged();
+        first.answersChanged("question_uuid");
+
+        assertNotEquals(questions, second.questionsVersion());
+        assertNotEquals(answers, second.answersVersion("question_uuid"));
+        assertEquals(first.questionsVersion(), second.questionsVersion());
+    }
+
+    //This test case passes when the writes to the question list, spread over its counters, each change its version, which counts them all.
+    @Test
+    public void questionsVersionCountsEveryShard() {
+        String version = first.questionsVersion();
+        for (int i = 1; i <= 100; i++) {
+            first.questionsChanged();
+            String changed = second.questionsVersion();
+            assertNotEquals(version, changed);
+            assertEquals(i, Long.parseLong(changed.substring(changed.lastIndexOf('-') + 1)));
+            version = changed;
+        }
+    }
+
+    //This test case passes when a counter is only bumped once the transaction commits, and not at all when it rolls back.
+    @Test
+    public void bumpWithTransaction() {
+        String version = first.questionsVersion();
+
+        transaction.execute(status -> {
+            first.questionsChanged();
+            first.questionsChanged();
+            assertEquals(version, second.questionsVersion());
+            status.setRollbackOnly();
+            return null;
+        });
+        assertEquals(version, second.questionsVersion());
+
+        transaction.execute(status -> {
+            first.questionsChanged();
+            first.answersChanged("question_uuid");
+            assertEquals(version, second.questionsVersion());
+            return null;
+        });
+        assertNotEquals(version, second.questionsVersion());
+    }
+
+    //This test case passes when deleting a user changes the profile version of that user only, and the version of every collection.
+    @Test
+    public void userDeletedChangesOnlyTheirProfile() {
+        String deletedProfile = first.userVersion("deleted_uuid");
+        String otherProfile = first.userVersion("other_uuid");
+        String questions = first.questionsVersion();
+        String answers = first.answersVersion("question_uuid");
+
+        second.userDeleted("deleted_uuid");
+
+        assertNotEquals(deletedProfile, first.userVersion("deleted_uuid"));
+        assertEquals(otherProfile, first.userVersion("other_uuid"));
+        assertNotEquals(questions, first.questionsVersion());
+        assertNotEquals(answers, first.answersVersion("question_uuid"));
+    }
+
+    //This test case passes when versions handed out by a store which was recreated never match again.
+    @Test
+    public void versionsOfRecreatedStoreDiffer() throws Exception {
+        String version = first.questionsVersion();
+        Thread.sleep(2);
+
+        ReflectionTestUtils.setField(collectionVersionDao, "store", new InMemoryStore());
+
+        assertNotEquals(version, first.questionsVersion());
+    }
+
+    private CollectionVersions collectionVersions() {
+        CollectionVersions collectionVersions = new CollectionVersions();
+        ReflectionTestUtils.setField(collectionVersions, "collectionVersionDao", collectionVersionDao);
+        return collectionVersions;
+    }
+}
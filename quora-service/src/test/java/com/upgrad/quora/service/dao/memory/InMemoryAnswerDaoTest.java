@@ -0,0 +1,147 @@
+package com.upgrad.quora.service.dao.memory;
+
+import com.upgrad.quora.service.entity.AnswerEntity;
+import com.upgrad.quora.service.entity.QuestionEntity;
+import com.upgrad.quora.service.entity.UserEntity;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Future;
+import java.util.stream.Collectors;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class InMemoryAnswerDaoTest {
+
+    private final InMemoryStore store = new InMemoryStore();
+
+    private final InMemoryUserDao userDao = new InMemoryUserDao();
+
+    private final InMemoryQuestionDao questionDao = new InMemoryQuestionDao();
+
+    private final InMemoryAnswerDao answerDao = new InMemoryAnswerDao();
+
+    private UserEntity owner;
+
+    private UserEntity other;
+
+    private QuestionEntity questionEntity;
+
+    @Before
+    public void setUp() {
+        ReflectionTestUtils.setField(userDao, "store", store);
+        ReflectionTestUtils.setField(questionDao, "store", store);
+        ReflectionTestUtils.setField(answerDao, "store", store);
+        owner = userDao.createUser(InMemoryQuestionDaoTest.user("owner", "nonadmin"));
+        other = userDao.createUser(InMemoryQuestionDaoTest.user("other", "nonadmin"));
+        questionEntity = questionDao.createQuestion(InMemoryQuestionDaoTest.question("question_uuid", other));
+    }
+
+    //This test case passes when the answers of a question are paged in posting order, skipping deleted ones.
+    @Test
+    public void pageAnswersInPostingOrder() {
+        ZonedDateTime now = ZonedDateTime.now();
+        answerDao.createAnswer(answer("third_uuid", questionEntity, owner, now.plusSeconds(2)));
+        answerDao.createAnswer(answer("first_uuid", questionEntity, owner, now));
+        answerDao.createAnswer(answer("deleted_uuid", questionEntity, owner, now.plusSeconds(1)));
+        answerDao.createAnswer(answer("second_uuid", questionEntity, owner, now.plusSeconds(1)));
+        answerDao.deleteAnswerIfOwnerOrAdmin("deleted_uuid", owner);
+
+        assertEquals(Arrays.asList("first_uuid", "second_uuid"), uuids(answerDao.getAnswersWithAuthors(questionEntity, 0, 2)));
+        assertEquals(Arrays.asList("third_uuid"), uuids(answerDao.getAnswersWithAuthors(questionEntity, 1, 2)));
+        assertEquals(Arrays.asList("first_uuid", "second_uuid", "third_uuid"), uuids(answerDao.getAllAnswersToQuestion("question_uuid")));
+    }
+
+    //This test case passes when an edit replaces the answer in every index, leaving the row read before unchanged.
+    @Test
+    public void editAnswerReplacesRowInEveryIndex() {
+        AnswerEntity answerEntity = answerDao.createAnswer(answer("answer_uuid", questionEntity, owner, ZonedDateTime.now()));
+
+        assertNull(answerDao.editAnswerIfOwner("answer_uuid", other, "edited", null));
+        assertNull(answerDao.editAnswerIfOwner("answer_uuid", owner, "edited", 1L));
+        AnswerEntity edited = answerDao.editAnswerIfOwner("answer_uuid", owner, "edited", 0L);
+
+        assertEquals(Long.valueOf(1), edited.getVersion());
+        assertEquals("answer", answerEntity.getAnswer());
+        assertEquals("edited", answerDao.getAnswerById("answer_uuid").getAnswer());
+        assertEquals("edited", answerDao.getAllAnswersToQuestion("question_uuid").get(0).getAnswer());
+        assertEquals("edited", answerDao.getAnswersWithAuthors(questionEntity, 0, 10).get(0).getAnswer());
+        assertEquals(1, store.answersOf(questionEntity.getId()).size());
+    }
+
+    //This test case passes when an answer deleted by its owner is hidden and only purged once past the retention.
+    @Test
+    public void purgeDeletedAnswerAfterRetention() {
+        answerDao.createAnswer(answer("answer_uuid", questionEntity, owner, ZonedDateTime.now()));
+        answerDao.createAnswer(answer("live_uuid", questionEntity, owner, ZonedDateTime.now()));
+
+        assertNull(answerDao.deleteAnswerIfOwnerOrAdmin("answer_uuid", other));
+        assertNotNull(answerDao.deleteAnswerIfOwnerOrAdmin("answer_uuid", owner));
+        assertNull(answerDao.getAnswerById("answer_uuid"));
+
+        assertEquals(0, answerDao.purgeDeletedAnswers(60, 10));
+        assertEquals(0, answerDao.purgeAnswersOfDeletedQuestions(-1, 10));
+        assertEquals(1, answerDao.purgeDeletedAnswers(-1, 10));
+
+        assertFalse(store.answersByUuid.containsKey("answer_uuid"));
+        assertEquals(1, store.answersOf(questionEntity.getId()).size());
+        assertTrue(store.answersByUser.get(owner.getId()).contains(answerDao.getAnswerById("live_uuid").getId()));
+    }
+
+    //This test case passes when a purge running alongside edits of the same answers neither loses an edit nor leaves an answer half removed.
+    @Test
+    public void purgeAlongsideEdits() throws Exception {
+        for (int i = 0; i < 200; i++) {
+            answerDao.createAnswer(answer("answer_uuid_" + i, questionEntity, owner, ZonedDateTime.now()));
+        }
+        for (int i = 0; i < 200; i += 2) {
+            answerDao.deleteAnswerIfOwnerOrAdmin("answer_uuid_" + i, owner);
+        }
+        List<Callable<Integer>> tasks = new ArrayList<>();
+        tasks.add(() -> answerDao.purgeDeletedAnswers(-1, 1000));
+        tasks.add(() -> {
+            int edits = 0;
+            for (int i = 1; i < 200; i += 2) {
+                if (answerDao.editAnswerIfOwner("answer_uuid_" + i, owner, "edited", null) != null) {
+                    edits++;
+                }
+            }
+            return edits;
+        });
+
+        List<Future<Integer>> results = InMemoryQuestionDaoTest.runTogether(tasks);
+
+        assertEquals(Integer.valueOf(100), results.get(0).get());
+        assertEquals(Integer.valueOf(100), results.get(1).get());
+        assertEquals(100, store.answers.size());
+        assertEquals(100, store.answersByUuid.size());
+        assertEquals(100, store.answersOf(questionEntity.getId()).size());
+        for (AnswerEntity answerEntity : store.answersOf(questionEntity.getId()).values()) {
+            assertEquals("edited", answerEntity.getAnswer());
+        }
+    }
+
+    static AnswerEntity answer(final String uuid, final QuestionEntity questionEntity, final UserEntity userEntity, final ZonedDateTime date) {
+        AnswerEntity answerEntity = new AnswerEntity();
+        answerEntity.setUuid(uuid);
+        answerEntity.setAnswer("answer");
+        answerEntity.setDate(date);
+        answerEntity.setQuestionEntity(questionEntity);
+        answerEntity.setUserEntity(userEntity);
+        return answerEntity;
+    }
+
+    private static List<String> uuids(final List<AnswerEntity> answerEntities) {
+        return answerEntities.stream().map(AnswerEntity::getUuid).collect(Collectors.toList());
+    }
+}
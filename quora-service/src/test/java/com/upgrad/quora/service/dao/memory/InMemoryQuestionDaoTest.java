@@ -0,0 +1,224 @@
+package com.upgrad.quora.service.dao.memory;
+
+import com.upgrad.quora.service.entity.QuestionEntity;
+import com.upgrad.quora.service.entity.UserAuthEntity;
+import com.upgrad.quora.service.entity.UserEntity;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.util.ReflectionUtils;
+
+import java.lang.reflect.Field;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class InMemoryQuestionDaoTest {
+
+    private final InMemoryStore store = new InMemoryStore();
+
+    private final InMemoryUserDao userDao = new InMemoryUserDao();
+
+    private final InMemoryUserAuthDao userAuthDao = new InMemoryUserAuthDao();
+
+    private final InMemoryQuestionDao questionDao = new InMemoryQuestionDao();
+
+    private final InMemoryAnswerDao answerDao = new InMemoryAnswerDao();
+
+    private UserEntity owner;
+
+    private UserEntity other;
+
+    @Before
+    public void setUp() {
+        ReflectionTestUtils.setField(userDao, "store", store);
+        ReflectionTestUtils.setField(userAuthDao, "store", store);
+        ReflectionTestUtils.setField(questionDao, "store", store);
+        ReflectionTestUtils.setField(answerDao, "store", store);
+        owner = userDao.createUser(user("owner", "nonadmin"));
+        other = userDao.createUser(user("other", "nonadmin"));
+    }
+
+    //This test case passes when an edit of the owner replaces the row with a copy, leaving the row read before unchanged.
+    @Test
+    public void editQuestionReplacesRow() {
+        QuestionEntity questionEntity = questionDao.createQuestion(question("question_uuid", owner));
+
+        QuestionEntity edited = questionDao.editQuestionIfOwner("question_uuid", owner, "edited", 0L);
+
+        assertEquals("edited", edited.getContent());
+        assertEquals(Long.valueOf(1), edited.getVersion());
+        assertEquals("content", questionEntity.getContent());
+        assertEquals(Long.valueOf(0), questionEntity.getVersion());
+        assertEquals("edited", questionDao.getQuestionById("question_uuid").getContent());
+        assertEquals("edited", questionDao.getQuestionsByUserId(owner.getUuid()).get(0).getContent());
+    }
+
+    //This test case passes when an edit by another user or with a stale version is refused.
+    @Test
+    public void refuseEditOfOtherUserOrStaleVersion() {
+        questionDao.createQuestion(question("question_uuid", owner));
+
+        assertNull(questionDao.editQuestionIfOwner("question_uuid", other, "edited", null));
+        assertNull(questionDao.editQuestionIfOwner("question_uuid", owner, "edited", 1L));
+        assertNull(questionDao.editQuestionIfOwner("missing_uuid", owner, "edited", null));
+        assertEquals("content", questionDao.getQuestionById("question_uuid").getContent());
+    }
+
+    //This test case passes when a question deleted by an admin is hidden together with its answers.
+    @Test
+    public void deleteQuestionHidesItAndItsAnswers() {
+        UserEntity admin = userDao.createUser(user("admin", "admin"));
+        QuestionEntity questionEntity = questionDao.createQuestion(question("question_uuid", owner));
+        answerDao.createAnswer(InMemoryAnswerDaoTest.answer("answer_uuid", questionEntity, other, ZonedDateTime.now()));
+
+        assertNull(questionDao.deleteQuestionIfOwnerOrAdmin("question_uuid", other));
+        QuestionEntity deleted = questionDao.deleteQuestionIfOwnerOrAdmin("question_uuid", admin);
+
+        assertNotNull(deleted.getDeletedAt());
+        assertNull(questionDao.getQuestionById("question_uuid"));
+        assertTrue(questionDao.getAllQuestions().isEmpty());
+        assertNull(answerDao.getAnswerById("answer_uuid"));
+        assertTrue(answerDao.getAllAnswersToQuestion("question_uuid").isEmpty());
+        assertNull(questionDao.deleteQuestionIfOwnerOrAdmin("question_uuid", admin));
+    }
+
+    //This test case passes when a deleted question is only purged once its answers are, and a live question is kept.
+    @Test
+    public void purgeDeletedQuestionAfterItsAnswers() {
+        QuestionEntity deleted = questionDao.createQuestion(question("deleted_uuid", owner));
+        questionDao.createQuestion(question("live_uuid", owner));
+        answerDao.createAnswer(InMemoryAnswerDaoTest.answer("answer_uuid", deleted, other, ZonedDateTime.now()));
+        questionDao.deleteQuestionIfOwnerOrAdmin("deleted_uuid", owner);
+
+        assertEquals(0, questionDao.purgeDeletedQuestions(-1, 10));
+        assertEquals(1, answerDao.purgeAnswersOfDeletedQuestions(-1, 10));
+        assertEquals(1, questionDao.purgeDeletedQuestions(-1, 10));
+
+        assertFalse(store.questionsByUuid.containsKey("deleted_uuid"));
+        assertFalse(store.answersByUuid.containsKey("answer_uuid"));
+        assertNotNull(questionDao.getQuestionById("live_uuid"));
+    }
+
+    //This test case passes when deleting a user removes the user's tokens, questions and answers, and the answers to the user's questions.
+    @Test
+    public void deleteUserCascades() {
+        QuestionEntity questionOfOwner = questionDao.createQuestion(question("owner_question_uuid", owner));
+        QuestionEntity questionOfOther = questionDao.createQuestion(question("other_question_uuid", other));
+        answerDao.createAnswer(InMemoryAnswerDaoTest.answer("answer_to_owner_uuid", questionOfOwner, other, ZonedDateTime.now()));
+        answerDao.createAnswer(InMemoryAnswerDaoTest.answer("answer_of_owner_uuid", questionOfOther, owner, ZonedDateTime.now()));
+        UserAuthEntity userAuthEntity = new UserAuthEntity();
+        userAuthEntity.setAccessToken("owner_token");
+        userAuthEntity.setUserEntity(owner);
+        userAuthDao.createAuthToken(userAuthEntity);
+
+        userDao.deleteUserEntity(owner);
+
+        assertNull(userDao.getUser(owner.getUuid()));
+        assertNull(userAuthDao.getUserAuthByToken("owner_token"));
+        assertNull(questionDao.getQuestionById("owner_question_uuid"));
+        assertNull(answerDao.getAnswerById("answer_to_owner_uuid"));
+        assertNull(answerDao.getAnswerById("answer_of_owner_uuid"));
+        assertNotNull(questionDao.getQuestionById("other_question_uuid"));
+        assertTrue(store.answersByQuestion.get(questionOfOther.getId()).isEmpty());
+    }
+
+    //This test case passes when of the concurrent edits carrying the same version exactly one succeeds.
+    @Test
+    public void concurrentConditionalEditsApplyOnce() throws Exception {
+        questionDao.createQuestion(question("question_uuid", owner));
+        List<Callable<QuestionEntity>> edits = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            String content = "edit " + i;
+            edits.add(() -> questionDao.editQuestionIfOwner("question_uuid", owner, content, 0L));
+        }
+
+        int applied = 0;
+        for (Future<QuestionEntity> edit : runTogether(edits)) {
+            if (edit.get() != null) {
+                applied++;
+            }
+        }
+
+        assertEquals(1, applied);
+        assertEquals(Long.valueOf(1), questionDao.getQuestionById("question_uuid").getVersion());
+    }
+
+    //This test case passes when no concurrent unconditional edit is lost.
+    @Test
+    public void concurrentEditsAreNotLost() throws Exception {
+        questionDao.createQuestion(question("question_uuid", owner));
+        List<Callable<QuestionEntity>> edits = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            edits.add(() -> {
+                QuestionEntity edited = null;
+                for (int j = 0; j < 500; j++) {
+                    edited = questionDao.editQuestionIfOwner("question_uuid", owner, "edited", null);
+                }
+                return edited;
+            });
+        }
+
+        for (Future<QuestionEntity> edit : runTogether(edits)) {
+            assertNotNull(edit.get());
+        }
+
+        assertEquals(Long.valueOf(8 * 500), questionDao.getQuestionById("question_uuid").getVersion());
+    }
+
+    static <T> List<Future<T>> runTogether(final List<Callable<T>> tasks) throws InterruptedException {
+        ExecutorService executor = Executors.newFixedThreadPool(tasks.size());
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            List<Future<T>> futures = new ArrayList<>();
+            for (Callable<T> task : tasks) {
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    return task.call();
+                }));
+            }
+            start.countDown();
+            executor.shutdown();
+            assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+            return futures;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * The role has no setter taking a value; it is set without ReflectionTestUtils, whose debug logging of the target
+     * calls the entity's toString.
+     */
+    static UserEntity user(final String name, final String role) {
+        UserEntity userEntity = new UserEntity();
+        userEntity.setUuid(name + "_uuid");
+        userEntity.setUserName(name);
+        userEntity.setEmail(name + "@quora.com");
+        Field roleField = ReflectionUtils.findField(UserEntity.class, "role");
+        ReflectionUtils.makeAccessible(roleField);
+        ReflectionUtils.setField(roleField, userEntity, role);
+        return userEntity;
+    }
+
+    static QuestionEntity question(final String uuid, final UserEntity userEntity) {
+        QuestionEntity questionEntity = new QuestionEntity();
+        questionEntity.setUuid(uuid);
+        questionEntity.setContent("content");
+        questionEntity.setDate(ZonedDateTime.now());
+        questionEntity.setUserEntity(userEntity);
+        return questionEntity;
+    }
+}
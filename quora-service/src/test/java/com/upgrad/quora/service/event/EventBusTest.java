@@ -0,0 +1,158 @@
+package com.upgrad.quora.service.event;
+
+import org.junit.After;
+import org.junit.Test;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.ZonedDateTime;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+
+public class EventBusTest {
+
+    private EventBus eventBus;
+
+    @After
+    public void shutdown() {
+        if (eventBus != null) {
+            eventBus.shutdown();
+        }
+    }
+
+    //This test case passes when an event is handed to every consumer and reported as processed once all of them are done.
+    @Test
+    public void publishToEveryConsumer() throws Exception {
+        RecordingConsumer first = new RecordingConsumer("first", 0);
+        RecordingConsumer second = new RecordingConsumer("second", 0);
+        eventBus = eventBus(16, first, second);
+        CompletableFuture<Boolean> completed = new CompletableFuture<>();
+
+        assertTrue(eventBus.tryPublish(event(1), completed::complete));
+
+        assertTrue(completed.get(5, TimeUnit.SECONDS));
+        assertEquals(Arrays.asList(1L), first.received);
+        assertEquals(Arrays.asList(1L), second.received);
+    }
+
+    //This test case passes when a consumer which fails once gets the event again and the event is reported as processed.
+    @Test
+    public void retryFailedConsumer() throws Exception {
+        RecordingConsumer flaky = new RecordingConsumer("flaky", 1);
+        eventBus = eventBus(16, flaky);
+        CompletableFuture<Boolean> completed = new CompletableFuture<>();
+
+        eventBus.tryPublish(event(1), completed::complete);
+
+        assertTrue(completed.get(5, TimeUnit.SECONDS));
+        assertEquals(Arrays.asList(1L, 1L), flaky.received);
+    }
+
+    //This test case passes when a consumer fails on every attempt and the event is reported as not processed, even though the other consumer processed it.
+    @Test
+    public void giveUpAfterMaxAttempts() throws Exception {
+        RecordingConsumer failing = new RecordingConsumer("failing", Integer.MAX_VALUE);
+        RecordingConsumer healthy = new RecordingConsumer("healthy", 0);
+        eventBus = eventBus(16, failing, healthy);
+        CompletableFuture<Boolean> completed = new CompletableFuture<>();
+
+        eventBus.tryPublish(event(1), completed::complete);
+
+        assertFalse(completed.get(5, TimeUnit.SECONDS));
+        assertEquals(3, failing.received.size());
+        assertEquals(Arrays.asList(1L), healthy.received);
+    }
+
+    //This test case passes when the bus refuses an event instead of blocking while the buffer of a consumer is full.
+    @Test
+    public void refuseWhenBufferIsFull() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        EventConsumer blocked = new EventConsumer() {
+            @Override
+            public String getName() {
+                return "blocked";
+            }
+
+            @Override
+            public void accept(final DomainEvent event) throws Exception {
+                started.countDown();
+                release.await();
+            }
+        };
+        eventBus = eventBus(1, blocked);
+
+        assertTrue(eventBus.tryPublish(event(1), success -> { }));
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        assertTrue(eventBus.tryPublish(event(2), success -> { }));
+        assertFalse(eventBus.tryPublish(event(3), success -> { }));
+        release.countDown();
+    }
+
+    //This test case passes when an event published without any consumer is reported as processed right away.
+    @Test
+    public void publishWithoutConsumers() {
+        eventBus = eventBus(16);
+        AtomicInteger completed = new AtomicInteger();
+
+        assertFalse(eventBus.hasConsumers());
+        assertTrue(eventBus.tryPublish(event(1), success -> completed.incrementAndGet()));
+        assertEquals(1, completed.get());
+    }
+
+    @SuppressWarnings("unchecked")
+    static EventBus eventBus(final int bufferSize, final EventConsumer... consumers) {
+        EventBus eventBus = new EventBus();
+        ReflectionTestUtils.setField(eventBus, "consumers", Arrays.asList(consumers));
+        ReflectionTestUtils.setField(eventBus, "meterRegistry", mock(ObjectProvider.class));
+        ReflectionTestUtils.setField(eventBus, "bufferSize", bufferSize);
+        ReflectionTestUtils.setField(eventBus, "maxAttempts", 3);
+        ReflectionTestUtils.setField(eventBus, "retryBackoffMs", 1L);
+        eventBus.init();
+        return eventBus;
+    }
+
+    static DomainEvent event(final long id) {
+        return new DomainEvent(id, EventType.QUESTION_CREATED, "question_uuid" + id, null, "user_uuid", ZonedDateTime.now());
+    }
+
+    /**
+     * Records the ids of the events it gets, failing the first failures attempts.
+     */
+    static final class RecordingConsumer implements EventConsumer {
+
+        final List<Long> received = new CopyOnWriteArrayList<>();
+
+        private final String name;
+
+        private final AtomicInteger failures;
+
+        RecordingConsumer(final String name, final int failures) {
+            this.name = name;
+            this.failures = new AtomicInteger(failures);
+        }
+
+        @Override
+        public String getName() {
+            return name;
+        }
+
+        @Override
+        public void accept(final DomainEvent event) {
+            received.add(event.getId());
+            if (failures.getAndDecrement() > 0) {
+                throw new IllegalStateException("Failed to process " + event);
+            }
+        }
+    }
+}
@@ -0,0 +1,194 @@
+package com.upgrad.quora.service.event;
+
+import com.upgrad.quora.service.dao.memory.InMemoryOutboxDao;
+import com.upgrad.quora.service.dao.memory.InMemoryStore;
+import com.upgrad.quora.service.entity.OutboxEventEntity;
+import org.junit.After;
+import org.junit.Test;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.ZonedDateTime;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import static org.mockito.Mockito.mock;
+
+/**
+ * Runs the relay against the in-memory outbox, calling relay() directly instead of on its schedule.
+ */
+public class OutboxRelayTest {
+
+    private final InMemoryStore store = new InMemoryStore();
+
+    private final InMemoryOutboxDao outboxDao = new InMemoryOutboxDao();
+
+    private EventBus eventBus;
+
+    @After
+    public void shutdown() {
+        if (eventBus != null) {
+            eventBus.shutdown();
+        }
+    }
+
+    //This test case passes when the events in the outbox are delivered and then deleted once processed.
+    @Test
+    public void deliverAndDeleteProcessedEvents() {
+        EventBusTest.RecordingConsumer consumer = new EventBusTest.RecordingConsumer("consumer", 0);
+        OutboxRelay relay = relay(consumer, 2, 1000);
+        record(3);
+
+        relay.relay();
+        awaitUntil(() -> consumer.received.size() == 3);
+        relay.relay();
+
+        assertEquals(Arrays.asList(1L, 2L, 3L), consumer.received);
+        assertEquals(0, outboxDao.countEvents(2));
+    }
+
+    //This test case passes when an event a consumer gave up on is delivered again after the backoff, and deleted once processed.
+    @Test
+    public void redeliverFailedEventAfterBackoff() throws Exception {
+        EventBusTest.RecordingConsumer consumer = new EventBusTest.RecordingConsumer("consumer", 3);
+        OutboxRelay relay = relay(consumer, 5, 200);
+        record(1);
+
+        relay.relay();
+        awaitUntil(() -> consumer.received.size() == 3);
+        awaitUntil(() -> {
+            relay.relay();
+            return event(1).getFailedDeliveries() == 1;
+        });
+        assertTrue(event(1).getNextDeliveryAt().isAfter(ZonedDateTime.now()));
+        relay.relay();
+        assertEquals(3, consumer.received.size());
+
+        Thread.sleep(250);
+        relay.relay();
+        awaitUntil(() -> consumer.received.size() == 4);
+        awaitUntil(() -> {
+            relay.relay();
+            return outboxDao.countEvents(5) == 0;
+        });
+    }
+
+    //This test case passes when an event which failed max-deliveries times is kept as a dead letter and no longer delivered.
+    @Test
+    public void keepDeadLetterAfterMaxDeliveries() throws Exception {
+        EventBusTest.RecordingConsumer consumer = new EventBusTest.RecordingConsumer("consumer", Integer.MAX_VALUE);
+        OutboxRelay relay = relay(consumer, 2, 1);
+        record(1);
+
+        awaitUntil(() -> {
+            relay.relay();
+            return event(1).getFailedDeliveries() == 2;
+        });
+        Thread.sleep(20);
+        relay.relay();
+        relay.relay();
+
+        assertEquals(6, consumer.received.size());
+        assertEquals(0, outboxDao.countEvents(2));
+        assertEquals(1, outboxDao.countDeadLetters(2));
+        assertEquals(Collections.emptySet(), ReflectionTestUtils.getField(relay, "inFlight"));
+    }
+
+    //This test case passes when an event committed after one with a larger id is still delivered, and the event in flight is not delivered twice.
+    @Test
+    public void deliverEventsCommittedOutOfOrder() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        EventBusTest.RecordingConsumer recording = new EventBusTest.RecordingConsumer("recording", 0);
+        EventConsumer consumer = new EventConsumer() {
+            @Override
+            public String getName() {
+                return "blocking";
+            }
+
+            @Override
+            public void accept(final DomainEvent event) throws Exception {
+                recording.accept(event);
+                release.await();
+            }
+        };
+        OutboxRelay relay = relay(consumer, 2, 1000);
+        outbox().put(2L, newEvent(2));
+
+        relay.relay();
+        awaitUntil(() -> recording.received.size() == 1);
+        outbox().put(1L, newEvent(1));
+        relay.relay();
+        relay.relay();
+        release.countDown();
+        awaitUntil(() -> recording.received.size() == 2);
+        awaitUntil(() -> {
+            relay.relay();
+            return outboxDao.countEvents(2) == 0;
+        });
+
+        assertEquals(Arrays.asList(2L, 1L), recording.received);
+    }
+
+    @SuppressWarnings("unchecked")
+    private OutboxRelay relay(final EventConsumer consumer, final int maxDeliveries, final long retryBackoffMs) {
+        ReflectionTestUtils.setField(outboxDao, "store", store);
+        eventBus = EventBusTest.eventBus(16, consumer);
+        OutboxRelay relay = new OutboxRelay();
+        ReflectionTestUtils.setField(relay, "outboxDao", outboxDao);
+        ReflectionTestUtils.setField(relay, "eventBus", eventBus);
+        ReflectionTestUtils.setField(relay, "transactionManager", mock(PlatformTransactionManager.class));
+        ReflectionTestUtils.setField(relay, "meterRegistry", mock(ObjectProvider.class));
+        ReflectionTestUtils.setField(relay, "batchSize", 10);
+        ReflectionTestUtils.setField(relay, "maxDeliveries", maxDeliveries);
+        ReflectionTestUtils.setField(relay, "retryBackoffMs", retryBackoffMs);
+        relay.init();
+        return relay;
+    }
+
+    private void record(final int events) {
+        for (int i = 0; i < events; i++) {
+            outboxDao.createEvent(newEvent(0));
+        }
+    }
+
+    private static OutboxEventEntity newEvent(final long id) {
+        OutboxEventEntity outboxEventEntity = new OutboxEventEntity();
+        outboxEventEntity.setId(id);
+        outboxEventEntity.setEventType(EventType.QUESTION_CREATED.name());
+        outboxEventEntity.setAggregateUuid("question_uuid");
+        outboxEventEntity.setCreatedAt(ZonedDateTime.now());
+        return outboxEventEntity;
+    }
+
+    @SuppressWarnings("unchecked")
+    private Map<Long, OutboxEventEntity> outbox() {
+        return (Map<Long, OutboxEventEntity>) ReflectionTestUtils.getField(store, "outbox");
+    }
+
+    private OutboxEventEntity event(final long id) {
+        return outbox().get(id);
+    }
+
+    private static void awaitUntil(final BooleanSupplier condition) {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!condition.getAsBoolean()) {
+            if (System.nanoTime() > deadline) {
+                fail("Condition not met within 5 seconds");
+            }
+            try {
+                Thread.sleep(5);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                fail("Interrupted");
+            }
+        }
+    }
+}
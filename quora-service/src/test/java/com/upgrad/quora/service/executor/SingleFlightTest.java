@@ -0,0 +1,177 @@
+package com.upgrad.quora.service.executor;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.After;
+import org.junit.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class SingleFlightTest {
+
+    private static final int WAITERS = 4;
+
+    private final ExecutorService executor = Executors.newCachedThreadPool();
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+    private final AtomicInteger reads = new AtomicInteger();
+
+    private final CountDownLatch readStarted = new CountDownLatch(1);
+
+    private final CountDownLatch releaseRead = new CountDownLatch(1);
+
+    @After
+    public void shutdown() {
+        releaseRead.countDown();
+        executor.shutdownNow();
+    }
+
+    //This test case passes when callers of a key arriving while its read is in flight share that read and its result.
+    @Test
+    public void concurrentCallersShareOneRead() throws Exception {
+        SingleFlight<String, String> singleFlight = singleFlight(5_000);
+        Future<String> leader = executor.submit(() -> singleFlight.execute("key", blockingRead(() -> "result")));
+        assertTrue(readStarted.await(5, TimeUnit.SECONDS));
+        List<Future<String>> waiters = joinFlight(singleFlight, () -> "other result");
+
+        releaseRead.countDown();
+
+        String result = leader.get(5, TimeUnit.SECONDS);
+        assertEquals("result", result);
+        for (Future<String> waiter : waiters) {
+            assertSame(result, waiter.get(5, TimeUnit.SECONDS));
+        }
+        assertEquals(1, reads.get());
+        assertEquals(WAITERS + 1, registry.get("quora.singleflight.callers").summary().max(), 0);
+    }
+
+    //This test case passes when the exception of a shared read is thrown to every caller which waited for it.
+    @Test
+    public void leaderFailureReachesEveryWaiter() throws Exception {
+        IllegalStateException failure = new IllegalStateException("read failed");
+        SingleFlight<String, String> singleFlight = singleFlight(5_000);
+        Future<String> leader = executor.submit(() -> singleFlight.execute("key", blockingRead(() -> {
+            throw failure;
+        })));
+        assertTrue(readStarted.await(5, TimeUnit.SECONDS));
+        List<Future<String>> waiters = joinFlight(singleFlight, () -> "other result");
+
+        releaseRead.countDown();
+
+        assertSame(failure, failureOf(leader));
+        for (Future<String> waiter : waiters) {
+            assertSame(failure, failureOf(waiter));
+        }
+        assertEquals(1, reads.get());
+    }
+
+    //This test case passes when a key is released once its read completed or failed, so the next caller runs the read again.
+    @Test
+    public void keyIsReleasedAfterCompletion() {
+        SingleFlight<String, String> singleFlight = singleFlight(5_000);
+
+        assertEquals("first", singleFlight.execute("key", countingRead(() -> "first")));
+        assertTrue(flights(singleFlight).isEmpty());
+        try {
+            singleFlight.execute("key", countingRead(() -> {
+                throw new IllegalStateException("read failed");
+            }));
+            fail("The read should have failed");
+        } catch (IllegalStateException e) {
+            assertTrue(flights(singleFlight).isEmpty());
+        }
+        assertEquals("third", singleFlight.execute("key", countingRead(() -> "third")));
+
+        assertEquals(3, reads.get());
+        assertTrue(flights(singleFlight).isEmpty());
+    }
+
+    //This test case passes when a caller which waited the maximum time for a read in flight runs the read itself.
+    @Test
+    public void waiterReadsItselfAfterMaximumWait() throws Exception {
+        SingleFlight<String, String> singleFlight = singleFlight(50);
+        Future<String> leader = executor.submit(() -> singleFlight.execute("key", blockingRead(() -> "stuck result")));
+        assertTrue(readStarted.await(5, TimeUnit.SECONDS));
+
+        assertEquals("own result", singleFlight.execute("key", countingRead(() -> "own result")));
+        assertEquals(1, registry.get("quora.singleflight.wait.timeouts").counter().count(), 0);
+
+        releaseRead.countDown();
+        assertEquals("stuck result", leader.get(5, TimeUnit.SECONDS));
+        assertEquals(2, reads.get());
+    }
+
+    private SingleFlight<String, String> singleFlight(final long maxWaitMs) {
+        SingleFlight<String, String> singleFlight = new SingleFlight<>("test", 0, maxWaitMs);
+        singleFlight.bindTo(registry);
+        return singleFlight;
+    }
+
+    private Supplier<String> countingRead(final Supplier<String> read) {
+        return () -> {
+            reads.incrementAndGet();
+            return read.get();
+        };
+    }
+
+    private Supplier<String> blockingRead(final Supplier<String> read) {
+        return countingRead(() -> {
+            readStarted.countDown();
+            try {
+                releaseRead.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return read.get();
+        });
+    }
+
+    /**
+     * Starts the waiters and returns once each of them joined the flight of the key, i.e. is counted as its caller.
+     */
+    private List<Future<String>> joinFlight(final SingleFlight<String, String> singleFlight, final Supplier<String> read) throws InterruptedException {
+        List<Future<String>> waiters = new ArrayList<>();
+        for (int i = 0; i < WAITERS; i++) {
+            waiters.add(executor.submit(() -> singleFlight.execute("key", countingRead(read))));
+        }
+        Object flight = flights(singleFlight).get("key");
+        AtomicInteger callers = (AtomicInteger) ReflectionTestUtils.getField(flight, "callers");
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (callers.get() < WAITERS + 1) {
+            assertTrue("Waiters did not join the flight", System.nanoTime() < deadline);
+            Thread.sleep(1);
+        }
+        return waiters;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Map<String, ?> flights(final SingleFlight<String, String> singleFlight) {
+        return (Map<String, ?>) ReflectionTestUtils.getField(singleFlight, "flights");
+    }
+
+    private static Throwable failureOf(final Future<String> caller) throws Exception {
+        try {
+            caller.get(5, TimeUnit.SECONDS);
+        } catch (ExecutionException e) {
+            return e.getCause();
+        }
+        fail("The caller should have failed");
+        return null;
+    }
+}
@@ -0,0 +1,127 @@
+package com.upgrad.quora.service.id;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class TimeOrderedIdGeneratorTest {
+
+    private static final long NOW = 1_700_000_000_000L;
+
+    private final AtomicLong clock = new AtomicLong(NOW);
+
+    private final TimeOrderedIdGenerator generator = new TimeOrderedIdGenerator(clock::get);
+
+    //This test case passes when every uuid is a version 7, RFC variant uuid carrying the Unix time in milliseconds in its first 48 bits.
+    @Test
+    public void versionVariantAndTime() {
+        for (int i = 0; i < 100; i++) {
+            clock.addAndGet(i % 3);
+            UUID uuid = generator.nextUuid();
+            assertEquals(7, uuid.version());
+            assertEquals(2, uuid.variant());
+            assertEquals(clock.get(), timeMillis(uuid));
+        }
+        UUID uuid = UUID.fromString(new TimeOrderedIdGenerator().generate());
+        assertEquals(7, uuid.version());
+        assertEquals(2, uuid.variant());
+    }
+
+    //This test case passes when the uuids generated within one millisecond keep its time and increase, also as strings.
+    @Test
+    public void increasingWithinMillisecond() {
+        UUID previous = generator.nextUuid();
+        // the counter starts below 2048, so 2047 more uuids fit in the millisecond
+        for (int i = 0; i < 2047; i++) {
+            UUID uuid = generator.nextUuid();
+            assertEquals(NOW, timeMillis(uuid));
+            assertEquals(counter(previous) + 1, counter(uuid));
+            assertTrue(uuid.toString().compareTo(previous.toString()) > 0);
+            previous = uuid;
+        }
+    }
+
+    //This test case passes when the counter running out within a millisecond moves the uuids to the next millisecond, still increasing.
+    @Test
+    public void counterOverflowBorrowsNextMillisecond() {
+        UUID previous = generator.nextUuid();
+        int remaining = (1 << 12) - 1 - counter(previous);
+        for (int i = 0; i < remaining; i++) {
+            previous = generator.nextUuid();
+        }
+        assertEquals(NOW, timeMillis(previous));
+        assertEquals((1 << 12) - 1, counter(previous));
+
+        UUID next = generator.nextUuid();
+
+        assertEquals(NOW + 1, timeMillis(next));
+        assertEquals(0, counter(next));
+        assertTrue(next.toString().compareTo(previous.toString()) > 0);
+    }
+
+    //This test case passes when the uuids keep increasing after the clock went back, on the time of the last uuid.
+    @Test
+    public void clockGoingBackwards() {
+        UUID previous = generator.nextUuid();
+        clock.set(NOW - 1_000);
+
+        for (int i = 0; i < 10; i++) {
+            UUID uuid = generator.nextUuid();
+            assertEquals(NOW, timeMillis(uuid));
+            assertTrue(uuid.toString().compareTo(previous.toString()) > 0);
+            previous = uuid;
+        }
+
+        clock.set(NOW + 1);
+        UUID caughtUp = generator.nextUuid();
+        assertEquals(NOW + 1, timeMillis(caughtUp));
+        assertTrue(caughtUp.toString().compareTo(previous.toString()) > 0);
+    }
+
+    //This test case passes when threads generating uuids in the same milliseconds never generate the same uuid.
+    @Test
+    public void uniqueAcrossThreads() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<List<String>>> threads = new ArrayList<>();
+            for (int i = 0; i < 4; i++) {
+                Callable<List<String>> generate = () -> {
+                    List<String> uuids = new ArrayList<>();
+                    for (int j = 0; j < 10_000; j++) {
+                        uuids.add(generator.generate());
+                    }
+                    return uuids;
+                };
+                threads.add(executor.submit(generate));
+            }
+            Set<String> uuids = new HashSet<>();
+            for (Future<List<String>> thread : threads) {
+                uuids.addAll(thread.get(30, TimeUnit.SECONDS));
+            }
+            assertEquals(40_000, uuids.size());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static long timeMillis(final UUID uuid) {
+        return uuid.getMostSignificantBits() >>> 16;
+    }
+
+    private static int counter(final UUID uuid) {
+        return (int) (uuid.getMostSignificantBits() & 0xFFF);
+    }
+}